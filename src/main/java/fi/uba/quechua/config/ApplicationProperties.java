@@ -11,4 +11,553 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final Inscripcion inscripcion = new Inscripcion();
+
+    private final SalaEspera salaEspera = new SalaEspera();
+
+    private final Idempotencia idempotencia = new Idempotencia();
+
+    private final Jwt jwt = new Jwt();
+
+    private final Firebase firebase = new Firebase();
+
+    private final Outbox outbox = new Outbox();
+
+    private final Archivo archivo = new Archivo();
+
+    public Inscripcion getInscripcion() {
+        return inscripcion;
+    }
+
+    public SalaEspera getSalaEspera() {
+        return salaEspera;
+    }
+
+    public Idempotencia getIdempotencia() {
+        return idempotencia;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public Firebase getFirebase() {
+        return firebase;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Archivo getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Archivo de los periodos cerrados: sus inscripciones, cursadas y coloquios se mueven a tablas de archivo
+     * para que las tablas que usa el periodo actual no crezcan sin limite.
+     */
+    public static class Archivo {
+
+        private boolean enabled = false;
+
+        private int periodosRetenidos = 2;
+
+        private int diasRetencionEliminadas = 180;
+
+        private int lote = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return cuantos periodos, contando el actual, quedan en las tablas principales
+         */
+        public int getPeriodosRetenidos() {
+            return periodosRetenidos;
+        }
+
+        public void setPeriodosRetenidos(int periodosRetenidos) {
+            this.periodosRetenidos = periodosRetenidos;
+        }
+
+        /**
+         * @return la antiguedad a partir de la cual se archivan los coloquios eliminados y las inscripciones
+         * a coloquios eliminadas, aunque su periodo siga retenido
+         */
+        public int getDiasRetencionEliminadas() {
+            return diasRetencionEliminadas;
+        }
+
+        public void setDiasRetencionEliminadas(int diasRetencionEliminadas) {
+            this.diasRetencionEliminadas = diasRetencionEliminadas;
+        }
+
+        /**
+         * @return la cantidad maxima de filas que se mueven en cada transaccion
+         */
+        public int getLote() {
+            return lote;
+        }
+
+        public void setLote(int lote) {
+            this.lote = lote;
+        }
+    }
+
+    /**
+     * Respuestas guardadas por Idempotency-Key, para devolverlas ante un reintento.
+     */
+    public static class Idempotencia {
+
+        private int maxEntries = 10000;
+
+        private long timeToLiveSeconds = 86400;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    /**
+     * Autenticaciones armadas a partir de JWT ya verificados, para no volver a verificar el mismo token en cada
+     * request.
+     */
+    public static class Jwt {
+
+        private int maxEntries = 10000;
+
+        private long timeToLiveSeconds = 600;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    /**
+     * Envio de notificaciones push por Firebase Cloud Messaging, ver FirebaseDispatcher.
+     */
+    public static class Firebase {
+
+        private boolean enabled = false;
+
+        private String projectId = "quechuaapp-ac3ed";
+
+        private String url = "https://fcm.googleapis.com";
+
+        private String credentials = "./src/main/resources/config/firebase.json";
+
+        private int maxConnections = 10;
+
+        private int connectTimeoutMillis = 5000;
+
+        private int readTimeoutMillis = 10000;
+
+        private long tokenRefreshMarginSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getProjectId() {
+            return projectId;
+        }
+
+        public void setProjectId(String projectId) {
+            this.projectId = projectId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        /**
+         * @return la ruta del archivo con la cuenta de servicio de Firebase
+         */
+        public String getCredentials() {
+            return credentials;
+        }
+
+        public void setCredentials(String credentials) {
+            this.credentials = credentials;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public int getReadTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        public void setReadTimeoutMillis(int readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        /**
+         * @return con cuanta anticipacion al vencimiento se renueva el access token
+         */
+        public long getTokenRefreshMarginSeconds() {
+            return tokenRefreshMarginSeconds;
+        }
+
+        public void setTokenRefreshMarginSeconds(long tokenRefreshMarginSeconds) {
+            this.tokenRefreshMarginSeconds = tokenRefreshMarginSeconds;
+        }
+    }
+
+    /**
+     * Entrega de las notificaciones guardadas en el outbox, ver OutboxRelay.
+     */
+    public static class Outbox {
+
+        private boolean enabled = false;
+
+        private int batchSize = 50;
+
+        private int maxAttempts = 10;
+
+        private long initialBackoffMillis = 1000;
+
+        private long maxBackoffMillis = 600000;
+
+        private long leaseSeconds = 300;
+
+        private int retentionDays = 7;
+
+        private int pushConcurrency = 4;
+
+        private int mailConcurrency = 2;
+
+        private int circuitBreakerThreshold = 5;
+
+        private long circuitBreakerOpenMillis = 30000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * @return cuantas veces se intenta entregar un mensaje antes de descartarlo
+         */
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMillis() {
+            return initialBackoffMillis;
+        }
+
+        public void setInitialBackoffMillis(long initialBackoffMillis) {
+            this.initialBackoffMillis = initialBackoffMillis;
+        }
+
+        public long getMaxBackoffMillis() {
+            return maxBackoffMillis;
+        }
+
+        public void setMaxBackoffMillis(long maxBackoffMillis) {
+            this.maxBackoffMillis = maxBackoffMillis;
+        }
+
+        /**
+         * @return cuanto tiempo queda reservado un lote; si el relay se cae, pasado ese tiempo otro lo vuelve a tomar
+         */
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+
+        /**
+         * @return cuantos dias se guardan los mensajes ya procesados, y con ellos sus claves
+         */
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public int getPushConcurrency() {
+            return pushConcurrency;
+        }
+
+        public void setPushConcurrency(int pushConcurrency) {
+            this.pushConcurrency = pushConcurrency;
+        }
+
+        public int getMailConcurrency() {
+            return mailConcurrency;
+        }
+
+        public void setMailConcurrency(int mailConcurrency) {
+            this.mailConcurrency = mailConcurrency;
+        }
+
+        /**
+         * @return cuantos envios fallidos seguidos a un destino abren su circuito
+         */
+        public int getCircuitBreakerThreshold() {
+            return circuitBreakerThreshold;
+        }
+
+        public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+            this.circuitBreakerThreshold = circuitBreakerThreshold;
+        }
+
+        /**
+         * @return cuanto tiempo no se entregan mensajes al destino con el circuito abierto
+         */
+        public long getCircuitBreakerOpenMillis() {
+            return circuitBreakerOpenMillis;
+        }
+
+        public void setCircuitBreakerOpenMillis(long circuitBreakerOpenMillis) {
+            this.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
+        }
+    }
+
+    /**
+     * Sala de espera delante de las inscripciones: los clientes reciben un turno firmado y se los admite
+     * de a poco, segun la capacidad configurada.
+     */
+    public static class SalaEspera {
+
+        private boolean enabled = false;
+
+        private double admisionesPorSegundo = 50;
+
+        private int capacidad = 40;
+
+        private long turnoTimeToLiveSeconds = 1800;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getAdmisionesPorSegundo() {
+            return admisionesPorSegundo;
+        }
+
+        public void setAdmisionesPorSegundo(double admisionesPorSegundo) {
+            this.admisionesPorSegundo = admisionesPorSegundo;
+        }
+
+        /**
+         * @return la cantidad maxima de requests admitidos en curso; 0 para no limitarla
+         */
+        public int getCapacidad() {
+            return capacidad;
+        }
+
+        public void setCapacidad(int capacidad) {
+            this.capacidad = capacidad;
+        }
+
+        public long getTurnoTimeToLiveSeconds() {
+            return turnoTimeToLiveSeconds;
+        }
+
+        public void setTurnoTimeToLiveSeconds(long turnoTimeToLiveSeconds) {
+            this.turnoTimeToLiveSeconds = turnoTimeToLiveSeconds;
+        }
+    }
+
+    public static class Inscripcion {
+
+        private final Cola cola = new Cola();
+
+        private final Asignacion asignacion = new Asignacion();
+
+        private final Superposicion superposicion = new Superposicion();
+
+        public Cola getCola() {
+            return cola;
+        }
+
+        public Asignacion getAsignacion() {
+            return asignacion;
+        }
+
+        public Superposicion getSuperposicion() {
+            return superposicion;
+        }
+
+        /**
+         * Que hacer cuando un alumno se inscribe a un curso cuyos horarios se superponen con los de otro
+         * curso en el que ya esta inscripto.
+         */
+        public static class Superposicion {
+
+            public enum Politica {
+                IGNORAR, ADVERTIR, RECHAZAR
+            }
+
+            private Politica politica = Politica.ADVERTIR;
+
+            public Politica getPolitica() {
+                return politica;
+            }
+
+            public void setPolitica(Politica politica) {
+                this.politica = politica;
+            }
+        }
+
+        /**
+         * Asignacion de vacantes por prioridad: durante la ventana de inscripcion solo se registran
+         * intenciones, y al cerrarse se asignan todas las vacantes del periodo en una sola pasada.
+         */
+        public static class Asignacion {
+
+            private boolean enabled = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        /**
+         * Inscripcion asincronica a cursos: cada curso tiene un unico worker que procesa sus solicitudes en orden.
+         */
+        public static class Cola {
+
+            private boolean enabled = false;
+
+            private int workers = 4;
+
+            private int capacity = 10000;
+
+            private int batchSize = 50;
+
+            private long maxWaitMillis = 5000;
+
+            private long ticketTimeToLiveSeconds = 600;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getWorkers() {
+                return workers;
+            }
+
+            public void setWorkers(int workers) {
+                this.workers = workers;
+            }
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public long getMaxWaitMillis() {
+                return maxWaitMillis;
+            }
+
+            public void setMaxWaitMillis(long maxWaitMillis) {
+                this.maxWaitMillis = maxWaitMillis;
+            }
+
+            public long getTicketTimeToLiveSeconds() {
+                return ticketTimeToLiveSeconds;
+            }
+
+            public void setTicketTimeToLiveSeconds(long ticketTimeToLiveSeconds) {
+                this.ticketTimeToLiveSeconds = ticketTimeToLiveSeconds;
+            }
+        }
+    }
 }
@@ -18,7 +18,11 @@ public class CacheConfiguration {
 
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    private final javax.cache.configuration.Configuration<Object, Object> idempotenciaConfiguration;
+
+    private final javax.cache.configuration.Configuration<Object, Object> jwtConfiguration;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         BeanClassLoaderAwareJCacheRegionFactory.setBeanClassLoader(this.getClass().getClassLoader());
         JHipsterProperties.Cache.Ehcache ehcache =
             jHipsterProperties.getCache().getEhcache();
@@ -28,6 +32,20 @@ public class CacheConfiguration {
                 ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
                 .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
                 .build());
+
+        ApplicationProperties.Idempotencia idempotencia = applicationProperties.getIdempotencia();
+        idempotenciaConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(idempotencia.getMaxEntries()))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(idempotencia.getTimeToLiveSeconds())))
+                .build());
+
+        ApplicationProperties.Jwt jwt = applicationProperties.getJwt();
+        jwtConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(jwt.getMaxEntries()))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(jwt.getTimeToLiveSeconds())))
+                .build());
     }
 
     @Bean
@@ -58,6 +76,10 @@ public class CacheConfiguration {
             cm.createCache(fi.uba.quechua.domain.Cursada.class.getName(), jcacheConfiguration);
             cm.createCache(fi.uba.quechua.domain.Prioridad.class.getName(), jcacheConfiguration);
             cm.createCache(fi.uba.quechua.domain.AdministradorDepartamento.class.getName(), jcacheConfiguration);
+            cm.createCache(fi.uba.quechua.service.IdempotenciaService.RESPUESTAS_CACHE, idempotenciaConfiguration);
+            cm.createCache(fi.uba.quechua.service.OcupacionSemanalService.OCUPACION_ALUMNO_CACHE, jcacheConfiguration);
+            cm.createCache(fi.uba.quechua.service.OcupacionSemanalService.OCUPACION_CURSO_CACHE, jcacheConfiguration);
+            cm.createCache(fi.uba.quechua.security.jwt.TokenProvider.AUTENTICACIONES_CACHE, jwtConfiguration);
             // jhipster-needle-ehcache-add-entry
         };
     }
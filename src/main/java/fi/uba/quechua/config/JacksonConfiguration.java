@@ -13,10 +13,12 @@ public class JacksonConfiguration {
 
     /*
      * Support for Hibernate types in Jackson.
+     * Las relaciones LAZY que no se cargaron se serializan como {"id": ...} en lugar de null.
      */
     @Bean
     public Hibernate5Module hibernate5Module() {
-        return new Hibernate5Module();
+        return new Hibernate5Module()
+            .enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
     }
 
     /*
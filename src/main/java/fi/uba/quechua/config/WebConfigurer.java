@@ -5,19 +5,26 @@ import io.github.jhipster.config.JHipsterProperties;
 import io.github.jhipster.web.filter.CachingHttpHeadersFilter;
 
 import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.codahale.metrics.servlet.InstrumentedFilter;
 import com.codahale.metrics.servlets.MetricsServlet;
 
+import fi.uba.quechua.security.jwt.TokenProvider;
+import fi.uba.quechua.service.SalaEsperaService;
+import fi.uba.quechua.web.filter.SalaEsperaFilter;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import io.undertow.UndertowOptions;
 import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
 import org.springframework.web.cors.CorsConfiguration;
@@ -188,6 +195,20 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    /**
+     * Registers the sala de espera in front of the inscription endpoints, before Spring Security.
+     */
+    @Bean
+    public FilterRegistrationBean<SalaEsperaFilter> salaEsperaFilter(SalaEsperaService salaEsperaService,
+                                                                     ObjectMapper objectMapper, TokenProvider tokenProvider) {
+        FilterRegistrationBean<SalaEsperaFilter> registration =
+            new FilterRegistrationBean<>(new SalaEsperaFilter(salaEsperaService, objectMapper, tokenProvider));
+        registration.addUrlPatterns("/api/inscripcion-cursos/*", "/public/cursos");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+
     @Autowired(required = false)
     public void setMetricRegistry(MetricRegistry metricRegistry) {
         this.metricRegistry = metricRegistry;
@@ -43,6 +43,11 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
             .setAllowedOrigins(allowedOrigins)
             .withSockJS()
             .setInterceptors(httpSessionHandshakeInterceptor());
+        // Publico: solo permite suscribirse a /topic/vacantes/*
+        registry.addEndpoint("/websocket/vacantes")
+            .setHandshakeHandler(defaultHandshakeHandler())
+            .setAllowedOrigins(allowedOrigins)
+            .withSockJS();
     }
 
     @Bean
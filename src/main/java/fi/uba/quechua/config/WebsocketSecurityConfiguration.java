@@ -1,6 +1,7 @@
 package fi.uba.quechua.config;
 
 import fi.uba.quechua.security.AuthoritiesConstants;
+import fi.uba.quechua.web.websocket.VacantesService;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.security.config.annotation.web.messaging.MessageSecurityMetadataSourceRegistry;
@@ -12,6 +13,10 @@ public class WebsocketSecurityConfiguration extends AbstractSecurityWebSocketMes
     @Override
     protected void configureInbound(MessageSecurityMetadataSourceRegistry messages) {
         messages
+            // the vacantes are public, anonymous clients can connect and subscribe to them
+            .simpTypeMatchers(SimpMessageType.CONNECT, SimpMessageType.HEARTBEAT, SimpMessageType.UNSUBSCRIBE,
+                SimpMessageType.DISCONNECT).permitAll()
+            .simpSubscribeDestMatchers(VacantesService.TOPIC + "*").permitAll()
             .nullDestMatcher().authenticated()
             .simpDestMatchers("/topic/tracker").hasAuthority(AuthoritiesConstants.ADMIN)
             // matches any destination that starts with /topic/
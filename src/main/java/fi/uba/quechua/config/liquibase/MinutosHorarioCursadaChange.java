@@ -0,0 +1,100 @@
+package fi.uba.quechua.config.liquibase;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Completa minuto_inicio y minuto_fin de los horarios de cursada con la misma interpretacion que
+ * HorarioCursada usa al guardarlos.
+ * <p>
+ * La interpretacion esta copiada y no se llama a la entidad, para que el changeSet no cambie si la entidad
+ * cambia despues. Los textos que no son una hora quedan en null, igual que al guardarlos.
+ */
+public class MinutosHorarioCursadaChange implements CustomTaskChange {
+
+    private static final Pattern HORA = Pattern.compile("^(\\d{1,2})(?:[:.](\\d{2}))?(?::\\d{2})?\\s*(?:hs?)?$");
+
+    private int actualizados;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, hora_inicio, hora_fin FROM horario_cursada WHERE minuto_inicio IS NULL OR minuto_fin IS NULL");
+             PreparedStatement update = connection.prepareStatement(
+                 "UPDATE horario_cursada SET minuto_inicio = ?, minuto_fin = ? WHERE id = ?");
+             ResultSet horarios = select.executeQuery()) {
+            while (horarios.next()) {
+                Integer inicio = minutoDelDia(horarios.getString("hora_inicio"));
+                Integer fin = minutoDelDia(horarios.getString("hora_fin"));
+                if (inicio == null && fin == null) {
+                    continue;
+                }
+                setMinuto(update, 1, inicio);
+                setMinuto(update, 2, fin);
+                update.setLong(3, horarios.getLong("id"));
+                update.addBatch();
+                actualizados++;
+            }
+            if (actualizados > 0) {
+                update.executeBatch();
+            }
+        } catch (DatabaseException | SQLException e) {
+            throw new CustomChangeException("No se pudieron calcular los minutos de los horarios de cursada", e);
+        }
+    }
+
+    static Integer minutoDelDia(String hora) {
+        if (hora == null) {
+            return null;
+        }
+        Matcher matcher = HORA.matcher(hora.trim().toLowerCase());
+        if (!matcher.matches()) {
+            return null;
+        }
+        int horas = Integer.parseInt(matcher.group(1));
+        int minutos = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+        if (minutos >= 60 || horas > 24 || (horas == 24 && minutos > 0)) {
+            return null;
+        }
+        return horas * 60 + minutos;
+    }
+
+    private static void setMinuto(PreparedStatement update, int parametro, Integer minuto) throws SQLException {
+        if (minuto == null) {
+            update.setNull(parametro, Types.INTEGER);
+        } else {
+            update.setInt(parametro, minuto);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Minutos calculados para " + actualizados + " horarios de cursada";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
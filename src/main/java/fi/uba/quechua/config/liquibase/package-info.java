@@ -0,0 +1,4 @@
+/**
+ * Liquibase custom changes.
+ */
+package fi.uba.quechua.config.liquibase;
@@ -20,7 +20,7 @@ public class Alumno implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooledLo")
     private Long id;
 
     @NotNull
@@ -32,7 +32,7 @@ public class Alumno implements Serializable {
     private String apellido;
 
     @NotNull
-    @Column(name = "padron", nullable = false)
+    @Column(name = "padron", nullable = false, unique = true)
     private String padron;
 
     @NotNull
@@ -61,11 +61,11 @@ public class Coloquio implements Serializable {
     @Column(name = "estado", nullable = false)
     private ColoquioEstado estado;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Curso curso;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties("")
     private Periodo periodo;
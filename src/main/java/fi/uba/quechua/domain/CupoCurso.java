@@ -0,0 +1,100 @@
+package fi.uba.quechua.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A CupoCurso.
+ *
+ * Contador persistido de vacantes ocupadas por un Curso. Se reserva con un UPDATE
+ * condicional (ver CupoCursoRepository#reservar), por lo que no se cachea.
+ */
+@Entity
+@Table(name = "cupo_curso")
+public class CupoCurso implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "curso_id")
+    private Long cursoId;
+
+    @NotNull
+    @Column(name = "vacantes", nullable = false)
+    private Integer vacantes;
+
+    @NotNull
+    @Column(name = "ocupadas", nullable = false)
+    private Integer ocupadas;
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public CupoCurso cursoId(Long cursoId) {
+        this.cursoId = cursoId;
+        return this;
+    }
+
+    public void setCursoId(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+
+    public Integer getVacantes() {
+        return vacantes;
+    }
+
+    public CupoCurso vacantes(Integer vacantes) {
+        this.vacantes = vacantes;
+        return this;
+    }
+
+    public void setVacantes(Integer vacantes) {
+        this.vacantes = vacantes;
+    }
+
+    public Integer getOcupadas() {
+        return ocupadas;
+    }
+
+    public CupoCurso ocupadas(Integer ocupadas) {
+        this.ocupadas = ocupadas;
+        return this;
+    }
+
+    public void setOcupadas(Integer ocupadas) {
+        this.ocupadas = ocupadas;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CupoCurso cupoCurso = (CupoCurso) o;
+        if (cupoCurso.getCursoId() == null || getCursoId() == null) {
+            return false;
+        }
+        return Objects.equals(getCursoId(), cupoCurso.getCursoId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getCursoId());
+    }
+
+    @Override
+    public String toString() {
+        return "CupoCurso{" +
+            "cursoId=" + getCursoId() +
+            ", vacantes=" + getVacantes() +
+            ", ocupadas=" + getOcupadas() +
+            "}";
+    }
+}
@@ -22,7 +22,7 @@ public class Cursada implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooledLo")
     private Long id;
 
     @Column(name = "nota_cursada")
@@ -41,15 +41,15 @@ public class Cursada implements Serializable {
     @Column(name = "nota_final")
     private Float notaFinal;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Curso curso;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Alumno alumno;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties("")
     private Periodo periodo;
@@ -17,14 +17,28 @@ import fi.uba.quechua.domain.enumeration.CursoEstado;
 
 /**
  * A Curso.
+ * <p>
+ * El grafo "Curso.horarios" trae en la misma consulta los horarios y las relaciones que se serializan con el
+ * curso, para el detalle del curso y las listas de cursos con horarios.
  */
 @Entity
 @Table(name = "curso")
+@NamedEntityGraph(name = Curso.GRAFO_HORARIOS, attributeNodes = {
+    @NamedAttributeNode("horarios"),
+    @NamedAttributeNode("profesor"),
+    @NamedAttributeNode("periodo"),
+    @NamedAttributeNode(value = "materia", subgraph = "materia")
+}, subgraphs = @NamedSubgraph(name = "materia", attributeNodes = {
+    @NamedAttributeNode("departamento"),
+    @NamedAttributeNode("carrera")
+}))
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Curso implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String GRAFO_HORARIOS = "Curso.horarios";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -45,15 +59,15 @@ public class Curso implements Serializable {
     @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<HorarioCursada> horarios = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Profesor profesor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Periodo periodo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("cursos")
     private Materia materia;
 
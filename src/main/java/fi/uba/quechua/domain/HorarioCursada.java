@@ -9,6 +9,8 @@ import javax.validation.constraints.*;
 
 import java.io.Serializable;
 import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import fi.uba.quechua.domain.enumeration.Dia;
 
@@ -24,8 +26,10 @@ public class HorarioCursada implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final Pattern HORA = Pattern.compile("^(\\d{1,2})(?:[:.](\\d{2}))?(?::\\d{2})?\\s*(?:hs?)?$");
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooledLo")
     private Long id;
 
     @NotNull
@@ -50,7 +54,19 @@ public class HorarioCursada implements Serializable {
     @Column(name = "hora_fin", nullable = false)
     private String horaFin;
 
-    @ManyToOne
+    /**
+     * horaInicio expresada en minutos desde las 00:00, null si no se pudo interpretar.
+     */
+    @Column(name = "minuto_inicio")
+    private Integer minutoInicio;
+
+    /**
+     * horaFin expresada en minutos desde las 00:00, null si no se pudo interpretar.
+     */
+    @Column(name = "minuto_fin")
+    private Integer minutoFin;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("horarios")
     private Curso curso;
 
@@ -128,6 +144,14 @@ public class HorarioCursada implements Serializable {
         this.horaFin = horaFin;
     }
 
+    public Integer getMinutoInicio() {
+        return minutoInicio;
+    }
+
+    public Integer getMinutoFin() {
+        return minutoFin;
+    }
+
     public Curso getCurso() {
         return curso;
     }
@@ -142,6 +166,34 @@ public class HorarioCursada implements Serializable {
     }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here, do not remove
 
+    @PrePersist
+    @PreUpdate
+    private void calcularMinutos() {
+        minutoInicio = minutoDelDia(horaInicio);
+        minutoFin = minutoDelDia(horaFin);
+    }
+
+    /**
+     * Interpreta horas como "9", "9:30", "09:30", "09.30", "09:30:00" o "18hs".
+     *
+     * @return los minutos desde las 00:00, o null si el texto no es una hora valida
+     */
+    public static Integer minutoDelDia(String hora) {
+        if (hora == null) {
+            return null;
+        }
+        Matcher matcher = HORA.matcher(hora.trim().toLowerCase());
+        if (!matcher.matches()) {
+            return null;
+        }
+        int horas = Integer.parseInt(matcher.group(1));
+        int minutos = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+        if (minutos >= 60 || horas > 24 || (horas == 24 && minutos > 0)) {
+            return null;
+        }
+        return horas * 60 + minutos;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
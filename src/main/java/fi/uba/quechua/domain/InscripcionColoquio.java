@@ -1,5 +1,6 @@
 package fi.uba.quechua.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -23,26 +24,34 @@ public class InscripcionColoquio implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooledLo")
     private Long id;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "estado")
     private InscripcionColoquioEstado estado;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Coloquio coloquio;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Alumno alumno;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties("")
     private Cursada cursada;
 
+    /**
+     * true mientras la inscripcion esta activa, null en otro caso: junto con la restriccion unica sobre
+     * (alumno, coloquio, activa) impide dos inscripciones vigentes del mismo alumno.
+     */
+    @JsonIgnore
+    @Column(name = "activa")
+    private Boolean activa;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
         return id;
@@ -103,6 +112,15 @@ public class InscripcionColoquio implements Serializable {
     public void setCursada(Cursada cursada) {
         this.cursada = cursada;
     }
+    public Boolean getActiva() {
+        return activa;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void actualizarActiva() {
+        activa = estado == InscripcionColoquioEstado.ACTIVA ? Boolean.TRUE : null;
+    }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here, do not remove
 
     @Override
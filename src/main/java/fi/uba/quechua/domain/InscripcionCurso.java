@@ -1,5 +1,6 @@
 package fi.uba.quechua.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -15,16 +16,35 @@ import fi.uba.quechua.domain.enumeration.CursadaEstado;
 
 /**
  * A InscripcionCurso.
+ * <p>
+ * El grafo "InscripcionCurso.alumno" trae en la misma consulta el alumno y el curso, para el listado de
+ * inscriptos de un curso y las respuestas que serializan la inscripcion completa.
  */
 @Entity
 @Table(name = "inscripcion_curso")
+@NamedEntityGraph(name = InscripcionCurso.GRAFO_ALUMNO, attributeNodes = {
+    @NamedAttributeNode("alumno"),
+    @NamedAttributeNode(value = "curso", subgraph = "curso")
+}, subgraphs = {
+    @NamedSubgraph(name = "curso", attributeNodes = {
+        @NamedAttributeNode("profesor"),
+        @NamedAttributeNode("periodo"),
+        @NamedAttributeNode(value = "materia", subgraph = "materia")
+    }),
+    @NamedSubgraph(name = "materia", attributeNodes = {
+        @NamedAttributeNode("departamento"),
+        @NamedAttributeNode("carrera")
+    })
+})
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class InscripcionCurso implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String GRAFO_ALUMNO = "InscripcionCurso.alumno";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooledLo")
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -35,14 +55,22 @@ public class InscripcionCurso implements Serializable {
     @Column(name = "cursada_estado")
     private CursadaEstado cursadaEstado;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Alumno alumno;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("")
     private Curso curso;
 
+    /**
+     * true mientras la inscripcion esta no eliminada, null en otro caso: junto con la restriccion unica sobre
+     * (alumno, curso, activa) impide dos inscripciones vigentes del mismo alumno.
+     */
+    @JsonIgnore
+    @Column(name = "activa")
+    private Boolean activa;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
         return id;
@@ -103,6 +131,15 @@ public class InscripcionCurso implements Serializable {
     public void setCurso(Curso curso) {
         this.curso = curso;
     }
+    public Boolean getActiva() {
+        return activa;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void actualizarActiva() {
+        activa = estado != null && estado != InscripcionCursoEstado.ELIMINADA ? Boolean.TRUE : null;
+    }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here, do not remove
 
     @Override
@@ -0,0 +1,116 @@
+package fi.uba.quechua.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A IntencionInscripcion.
+ *
+ * Solicitud de inscripcion a un curso registrada durante la ventana de inscripcion, a la que se le
+ * asigna una vacante al cerrarse la ventana (ver AsignacionVacantesService).
+ */
+@Entity
+@Table(name = "intencion_inscripcion")
+public class IntencionInscripcion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooledLo")
+    private Long id;
+
+    @NotNull
+    @Column(name = "fecha", nullable = false)
+    private Instant fecha;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @NotNull
+    @JsonIgnoreProperties("")
+    private Alumno alumno;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @NotNull
+    @JsonIgnoreProperties("")
+    private Curso curso;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getFecha() {
+        return fecha;
+    }
+
+    public IntencionInscripcion fecha(Instant fecha) {
+        this.fecha = fecha;
+        return this;
+    }
+
+    public void setFecha(Instant fecha) {
+        this.fecha = fecha;
+    }
+
+    public Alumno getAlumno() {
+        return alumno;
+    }
+
+    public IntencionInscripcion alumno(Alumno alumno) {
+        this.alumno = alumno;
+        return this;
+    }
+
+    public void setAlumno(Alumno alumno) {
+        this.alumno = alumno;
+    }
+
+    public Curso getCurso() {
+        return curso;
+    }
+
+    public IntencionInscripcion curso(Curso curso) {
+        this.curso = curso;
+        return this;
+    }
+
+    public void setCurso(Curso curso) {
+        this.curso = curso;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IntencionInscripcion intencionInscripcion = (IntencionInscripcion) o;
+        if (intencionInscripcion.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), intencionInscripcion.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "IntencionInscripcion{" +
+            "id=" + getId() +
+            ", fecha='" + getFecha() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,213 @@
+package fi.uba.quechua.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+import fi.uba.quechua.domain.enumeration.MensajeOutboxDestino;
+
+import fi.uba.quechua.domain.enumeration.MensajeOutboxEstado;
+
+/**
+ * A MensajeOutbox.
+ *
+ * Notificacion (push o email) que se guarda en la misma transaccion que el cambio que la origina, y que despues
+ * entrega el OutboxRelay. La clave evita guardar dos veces la misma notificacion.
+ */
+@Entity
+@Table(name = "mensaje_outbox")
+public class MensajeOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooledLo")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "destino", nullable = false)
+    private MensajeOutboxDestino destino;
+
+    @NotNull
+    @Size(max = 191)
+    @Column(name = "clave", length = 191, nullable = false, unique = true)
+    private String clave;
+
+    @NotNull
+    @Size(max = 4000)
+    @Column(name = "contenido", length = 4000, nullable = false)
+    private String contenido;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private MensajeOutboxEstado estado;
+
+    @NotNull
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos;
+
+    @NotNull
+    @Column(name = "creado", nullable = false)
+    private Instant creado;
+
+    @NotNull
+    @Column(name = "proximo_intento", nullable = false)
+    private Instant proximoIntento;
+
+    @Column(name = "procesado")
+    private Instant procesado;
+
+    @Column(name = "reserva", length = 36)
+    private String reserva;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public MensajeOutboxDestino getDestino() {
+        return destino;
+    }
+
+    public MensajeOutbox destino(MensajeOutboxDestino destino) {
+        this.destino = destino;
+        return this;
+    }
+
+    public void setDestino(MensajeOutboxDestino destino) {
+        this.destino = destino;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public MensajeOutbox clave(String clave) {
+        this.clave = clave;
+        return this;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public String getContenido() {
+        return contenido;
+    }
+
+    public MensajeOutbox contenido(String contenido) {
+        this.contenido = contenido;
+        return this;
+    }
+
+    public void setContenido(String contenido) {
+        this.contenido = contenido;
+    }
+
+    public MensajeOutboxEstado getEstado() {
+        return estado;
+    }
+
+    public MensajeOutbox estado(MensajeOutboxEstado estado) {
+        this.estado = estado;
+        return this;
+    }
+
+    public void setEstado(MensajeOutboxEstado estado) {
+        this.estado = estado;
+    }
+
+    public Integer getIntentos() {
+        return intentos;
+    }
+
+    public MensajeOutbox intentos(Integer intentos) {
+        this.intentos = intentos;
+        return this;
+    }
+
+    public void setIntentos(Integer intentos) {
+        this.intentos = intentos;
+    }
+
+    public Instant getCreado() {
+        return creado;
+    }
+
+    public MensajeOutbox creado(Instant creado) {
+        this.creado = creado;
+        return this;
+    }
+
+    public void setCreado(Instant creado) {
+        this.creado = creado;
+    }
+
+    public Instant getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public MensajeOutbox proximoIntento(Instant proximoIntento) {
+        this.proximoIntento = proximoIntento;
+        return this;
+    }
+
+    public void setProximoIntento(Instant proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public Instant getProcesado() {
+        return procesado;
+    }
+
+    public void setProcesado(Instant procesado) {
+        this.procesado = procesado;
+    }
+
+    public String getReserva() {
+        return reserva;
+    }
+
+    public void setReserva(String reserva) {
+        this.reserva = reserva;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MensajeOutbox mensajeOutbox = (MensajeOutbox) o;
+        if (mensajeOutbox.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), mensajeOutbox.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "MensajeOutbox{" +
+            "id=" + getId() +
+            ", destino='" + getDestino() + "'" +
+            ", clave='" + getClave() + "'" +
+            ", estado='" + getEstado() + "'" +
+            ", intentos=" + getIntentos() +
+            "}";
+    }
+}
@@ -30,7 +30,7 @@ public class Prioridad implements Serializable {
     @Column(name = "fecha_habilitacion", nullable = false)
     private ZonedDateTime fecha_habilitacion;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties("")
     private Periodo periodo;
@@ -0,0 +1,8 @@
+package fi.uba.quechua.domain.enumeration;
+
+/**
+ * The MensajeOutboxDestino enumeration.
+ */
+public enum MensajeOutboxDestino {
+    PUSH, MAIL
+}
@@ -0,0 +1,8 @@
+package fi.uba.quechua.domain.enumeration;
+
+/**
+ * The MensajeOutboxEstado enumeration.
+ */
+public enum MensajeOutboxEstado {
+    PENDIENTE, ENVIADO, RECHAZADO, DESCARTADO
+}
@@ -1,4 +1,21 @@
 /**
  * JPA domain objects.
+ * <p>
+ * Las entidades que se insertan de a muchas (inscripciones, cursadas, horarios, alumnos de la carga masiva...)
+ * toman el id del generador "pooledLo": una tabla "id_generador" con una fila por tabla de entidad,
+ * de la que Hibernate reserva bloques de 50 ids. Asi los INSERT no necesitan leer el id generado por la base
+ * y se pueden agrupar en batches JDBC, cosa que GenerationType.IDENTITY impide.
  */
+@GenericGenerator(name = "pooledLo", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+    @Parameter(name = TableGenerator.TABLE_PARAM, value = "id_generador"),
+    @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = "segmento"),
+    @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = "proximo_id"),
+    @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+    @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50"),
+    @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled-lo")
+})
 package fi.uba.quechua.domain;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
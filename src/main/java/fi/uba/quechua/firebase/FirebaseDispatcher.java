@@ -0,0 +1,255 @@
+package fi.uba.quechua.firebase;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.gson.JsonObject;
+import fi.uba.quechua.config.ApplicationProperties;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Envio de notificaciones push por Firebase Cloud Messaging.
+ * <p>
+ * Las conexiones a FCM se reusan desde un pool, y el access token de OAuth se guarda y se renueva antes de que venza.
+ * Cada envio se hace una sola vez: la entrega (reintentos, concurrencia y corte ante fallas seguidas) es del
+ * OutboxRelay, que decide segun el {@link Resultado} si reintentar mas tarde.
+ */
+@Service
+public class FirebaseDispatcher {
+
+    private static final String MESSAGING_SCOPE = "https://www.googleapis.com/auth/firebase.messaging";
+
+    private final Logger log = LoggerFactory.getLogger(FirebaseDispatcher.class);
+
+    private final ApplicationProperties.Firebase config;
+
+    private final Callable<AccessToken> renovador;
+
+    private final Timer latencia;
+
+    private volatile AccessToken accessToken;
+
+    private CloseableHttpClient httpClient;
+
+    @Autowired
+    public FirebaseDispatcher(ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this(applicationProperties.getFirebase(), metricRegistry, cuentaDeServicio(applicationProperties.getFirebase()));
+    }
+
+    FirebaseDispatcher(ApplicationProperties.Firebase config, MetricRegistry metricRegistry, Callable<AccessToken> renovador) {
+        this.config = config;
+        this.renovador = renovador;
+        this.latencia = metricRegistry.timer(MetricRegistry.name(FirebaseDispatcher.class, "latencia"));
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        log.info("Iniciando el envio de notificaciones a Firebase con {} conexiones", config.getMaxConnections());
+        PoolingHttpClientConnectionManager conexiones = new PoolingHttpClientConnectionManager();
+        conexiones.setMaxTotal(config.getMaxConnections());
+        conexiones.setDefaultMaxPerRoute(config.getMaxConnections());
+        httpClient = HttpClients.custom()
+            .setConnectionManager(conexiones)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout(config.getConnectTimeoutMillis())
+                .setConnectionRequestTimeout(config.getConnectTimeoutMillis())
+                .setSocketTimeout(config.getReadTimeoutMillis())
+                .build())
+            .evictIdleConnections(60, TimeUnit.SECONDS)
+            .build();
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (httpClient == null) {
+            return;
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.debug("No se pudo cerrar el cliente HTTP de Firebase: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Envia una notificacion al dispositivo con el token dado, en este hilo.
+     *
+     * @param titulo el titulo de la notificacion
+     * @param cuerpo el texto de la notificacion
+     * @param token el token de Firebase del dispositivo
+     * @return ENVIADO; RECHAZADO si no tiene sentido reintentar (el envio esta deshabilitado o FCM rechaza el
+     * mensaje); FALLIDO si fallo por un error transitorio (red, 401, 429, 5xx)
+     */
+    public Resultado enviar(String titulo, String cuerpo, String token) {
+        if (!config.isEnabled() || token == null || token.isEmpty()) {
+            return Resultado.RECHAZADO;
+        }
+        return despachar(construirMensaje(titulo, cuerpo, token));
+    }
+
+    /**
+     * Renueva el access token si vence pronto, para que los envios no tengan que esperar la renovacion.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void renovarAccessToken() {
+        AccessToken actual = accessToken;
+        if (!config.isEnabled() || actual == null || !vencePronto(actual)) {
+            return;
+        }
+        try {
+            renovar(actual);
+        } catch (IOException e) {
+            log.warn("No se pudo renovar el access token de Firebase: {}", e.getMessage());
+        }
+    }
+
+    /*
+    {
+      "message":{
+          "token" : "bk3RNwTe3H0:CI2k_HHwgIpoDKCIZvvDMExUdFQ3P1...",
+          "notification" : {
+              "body" : "This is an FCM notification message!",
+              "title" : "FCM Message"
+            }
+        }
+    }
+    */
+    static String construirMensaje(String titulo, String cuerpo, String token) {
+        JsonObject notification = new JsonObject();
+        notification.addProperty("title", titulo);
+        notification.addProperty("body", cuerpo);
+
+        JsonObject message = new JsonObject();
+        message.addProperty("token", token);
+        message.add("notification", notification);
+
+        JsonObject mensaje = new JsonObject();
+        mensaje.add("message", message);
+        return mensaje.toString();
+    }
+
+    private Resultado despachar(String mensaje) {
+        int status;
+        try (Timer.Context ignored = latencia.time()) {
+            status = post(mensaje);
+        } catch (IOException e) {
+            log.warn("No se pudo enviar la notificacion a Firebase: {}", e.getMessage());
+            status = -1;
+        }
+        if (status >= 200 && status < 300) {
+            return Resultado.ENVIADO;
+        }
+        if (status == 401) {
+            accessToken = null;
+        }
+        if (status != -1 && status != 401 && status != 429 && status < 500) {
+            // FCM respondio, pero rechaza el mensaje (por ejemplo, un token que ya no esta registrado)
+            return Resultado.RECHAZADO;
+        }
+        return Resultado.FALLIDO;
+    }
+
+    private int post(String mensaje) throws IOException {
+        HttpPost post = new HttpPost(config.getUrl() + "/v1/projects/" + config.getProjectId() + "/messages:send");
+        post.setHeader("Authorization", "Bearer " + getAccessToken());
+        post.setEntity(new StringEntity(mensaje, ContentType.APPLICATION_JSON));
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            int status = response.getStatusLine().getStatusCode();
+            String cuerpo = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (status >= 200 && status < 300) {
+                log.debug("Message sent to Firebase for delivery, response: {}", cuerpo);
+            } else {
+                log.warn("Unable to send message to Firebase ({}): {}", status, cuerpo);
+            }
+            return status;
+        }
+    }
+
+    private String getAccessToken() throws IOException {
+        AccessToken actual = accessToken;
+        if (actual == null || vencido(actual)) {
+            actual = renovar(actual);
+        }
+        return actual.getTokenValue();
+    }
+
+    private synchronized AccessToken renovar(AccessToken anterior) throws IOException {
+        if (accessToken != anterior && accessToken != null) {
+            return accessToken;
+        }
+        try {
+            accessToken = renovador.call();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        log.debug("Access token de Firebase renovado, vence {}", accessToken.getExpirationTime());
+        return accessToken;
+    }
+
+    private boolean vencePronto(AccessToken token) {
+        return token.getExpirationTime() != null
+            && token.getExpirationTime().getTime() - System.currentTimeMillis() < config.getTokenRefreshMarginSeconds() * 1000;
+    }
+
+    private boolean vencido(AccessToken token) {
+        return token.getExpirationTime() != null && token.getExpirationTime().getTime() <= System.currentTimeMillis();
+    }
+
+    /**
+     * Lee la cuenta de servicio la primera vez que hace falta un access token.
+     */
+    private static Callable<AccessToken> cuentaDeServicio(ApplicationProperties.Firebase config) {
+        AtomicReference<GoogleCredentials> credenciales = new AtomicReference<>();
+        return () -> {
+            if (credenciales.get() == null) {
+                try (InputStream archivo = new FileInputStream(config.getCredentials())) {
+                    credenciales.set(GoogleCredentials.fromStream(archivo).createScoped(Collections.singletonList(MESSAGING_SCOPE)));
+                }
+            }
+            return credenciales.get().refreshAccessToken();
+        };
+    }
+
+    /**
+     * El resultado de un envio.
+     */
+    public enum Resultado {
+        ENVIADO, RECHAZADO, FALLIDO
+    }
+}
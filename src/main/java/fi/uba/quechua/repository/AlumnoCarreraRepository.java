@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -17,6 +18,14 @@ import java.util.List;
 @Repository
 public interface AlumnoCarreraRepository extends JpaRepository<AlumnoCarrera, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"alumno", "carrera"})
+    List<AlumnoCarrera> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"alumno", "carrera"})
+    Optional<AlumnoCarrera> findById(Long id);
+
     @Query("SELECT ac.carrera FROM AlumnoCarrera ac WHERE ac.alumno = :alumno")
     List<Carrera> findCarrerasByAlumno(@Param("alumno")Alumno alumno);
 }
@@ -0,0 +1,224 @@
+package fi.uba.quechua.repository;
+
+import fi.uba.quechua.domain.*;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Mueve filas de las tablas principales a sus tablas de archivo (mismo nombre con el sufijo "_archivo") y las
+ * lee de ambas a la vez.
+ * <p>
+ * Cada llamada a archivar mueve un lote: copia las filas con INSERT ... SELECT y las borra en la misma
+ * transaccion, de modo que una fila esta siempre en una sola de las dos tablas.
+ */
+@Repository
+public class ArchivoRepository {
+
+    /**
+     * Tablas que se archivan, en el orden en que hay que archivarlas para no dejar claves foraneas colgadas:
+     * las inscripciones a coloquios antes que sus coloquios y sus cursadas.
+     */
+    public enum Tabla {
+
+        /**
+         * Las inscripciones de una cursada que sigue abierta quedan en la tabla principal, igual que la cursada:
+         * las desaprobadas cuentan para el limite de coloquios (ver CursadaService).
+         */
+        INSCRIPCION_COLOQUIO("inscripcion_coloquio", InscripcionColoquio.class,
+            "id, estado, coloquio_id, alumno_id, cursada_id",
+            "EXISTS (SELECT 1 FROM coloquio c WHERE c.id = t.coloquio_id AND c.periodo_id = :periodo) " +
+                "AND " + Tabla.SIN_CURSADA_ABIERTA,
+            "EXISTS (SELECT 1 FROM coloquio c WHERE c.id = t.coloquio_id AND c.fecha < :limite " +
+                "AND (t.estado = 'ELIMINADA' OR c.estado = 'ELIMINADO')) AND " + Tabla.SIN_CURSADA_ABIERTA),
+
+        COLOQUIO("coloquio", Coloquio.class,
+            "id, aula, hora_inicio, hora_fin, sede, fecha, libro, folio, estado, curso_id, periodo_id",
+            "t.periodo_id = :periodo AND NOT EXISTS (SELECT 1 FROM inscripcion_coloquio i WHERE i.coloquio_id = t.id)",
+            "t.estado = 'ELIMINADO' AND t.fecha < :limite " +
+                "AND NOT EXISTS (SELECT 1 FROM inscripcion_coloquio i WHERE i.coloquio_id = t.id)"),
+
+        /**
+         * Las cursadas que siguen abiertas (ACTIVA o FINAL_PENDIENTE) o que tienen una inscripcion a un coloquio
+         * de otro periodo quedan en la tabla principal aunque su periodo este cerrado.
+         */
+        CURSADA("cursada", Cursada.class,
+            "id, nota_cursada, libro, folio, estado, nota_final, curso_id, alumno_id, periodo_id",
+            "t.periodo_id = :periodo AND t.estado NOT IN ('ACTIVA', 'FINAL_PENDIENTE') " +
+                "AND NOT EXISTS (SELECT 1 FROM inscripcion_coloquio i WHERE i.cursada_id = t.id)",
+            null),
+
+        /**
+         * Las inscripciones eliminadas no tienen fecha: se archivan las de los periodos anteriores al actual.
+         */
+        INSCRIPCION_CURSO("inscripcion_curso", InscripcionCurso.class,
+            "id, estado, cursada_estado, alumno_id, curso_id",
+            "EXISTS (SELECT 1 FROM curso c WHERE c.id = t.curso_id AND c.periodo_id = :periodo)",
+            "t.estado = 'ELIMINADA' AND EXISTS (SELECT 1 FROM curso c WHERE c.id = t.curso_id AND c.periodo_id IN (:periodos))");
+
+        private static final String SIN_CURSADA_ABIERTA = "NOT EXISTS (SELECT 1 FROM cursada cs WHERE cs.id = t.cursada_id " +
+            "AND cs.estado IN ('ACTIVA', 'FINAL_PENDIENTE'))";
+
+        private final String nombre;
+
+        private final Class<?> entidad;
+
+        private final String columnas;
+
+        private final String delPeriodo;
+
+        private final String eliminadas;
+
+        Tabla(String nombre, Class<?> entidad, String columnas, String delPeriodo, String eliminadas) {
+            this.nombre = nombre;
+            this.entidad = entidad;
+            this.columnas = columnas;
+            this.delPeriodo = delPeriodo;
+            this.eliminadas = eliminadas;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+    }
+
+    private final EntityManager em;
+
+    public ArchivoRepository(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Archiva un lote de filas del periodo.
+     *
+     * @return la cantidad de filas archivadas; si es menor que el lote, no quedan mas
+     */
+    @Transactional
+    public int archivarDelPeriodo(Tabla tabla, Long periodoId, int lote, Instant archivada) {
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("periodo", periodoId);
+        return archivar(tabla, tabla.delPeriodo, parametros, lote, archivada);
+    }
+
+    /**
+     * Archiva un lote de filas eliminadas antes de la fecha limite o, para las inscripciones a cursos, de los
+     * periodos dados.
+     *
+     * @return la cantidad de filas archivadas; si es menor que el lote, no quedan mas
+     */
+    @Transactional
+    public int archivarEliminadas(Tabla tabla, LocalDate limite, Collection<Long> periodoIds, int lote, Instant archivada) {
+        if (tabla.eliminadas == null || (tabla.eliminadas.contains(":periodos") && periodoIds.isEmpty())) {
+            return 0;
+        }
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("limite", Date.valueOf(limite));
+        parametros.put("periodos", periodoIds);
+        return archivar(tabla, tabla.eliminadas, parametros, lote, archivada);
+    }
+
+    private int archivar(Tabla tabla, String condicion, Map<String, Object> parametros, int lote, Instant archivada) {
+        Query seleccion = em.createNativeQuery("SELECT t.id FROM " + tabla.nombre + " t WHERE " + condicion + " ORDER BY t.id");
+        for (Map.Entry<String, Object> parametro : parametros.entrySet()) {
+            if (condicion.contains(":" + parametro.getKey())) {
+                seleccion.setParameter(parametro.getKey(), parametro.getValue());
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Object id : seleccion.setMaxResults(lote).getResultList()) {
+            ids.add(((Number) id).longValue());
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        em.createNativeQuery("INSERT INTO " + tabla.nombre + "_archivo (" + tabla.columnas + ", archivada) " +
+                "SELECT " + tabla.columnas + ", :archivada FROM " + tabla.nombre + " WHERE id IN (:ids)")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(tabla.nombre + "_archivo")
+            .setParameter("archivada", Timestamp.from(archivada))
+            .setParameterList("ids", ids)
+            .executeUpdate();
+        return em.createNativeQuery("DELETE FROM " + tabla.nombre + " WHERE id IN (:ids)")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(tabla.entidad)
+            .setParameterList("ids", ids)
+            .executeUpdate();
+    }
+
+    /**
+     * Cursadas del alumno, vigentes y archivadas, con su curso, materia y periodo.
+     *
+     * @return filas de id, estado, nota_cursada, nota_final, libro, folio, archivada (0 o 1), curso id y numero,
+     * materia id, codigo, nombre y creditos, y periodo id, cuatrimestre y anio
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findCursadasByAlumno(Long alumnoId) {
+        String columnas = "id, estado, nota_cursada, nota_final, libro, folio, curso_id, periodo_id";
+        return em.createNativeQuery("SELECT h.id, h.estado, h.nota_cursada, h.nota_final, h.libro, h.folio, h.archivada, " +
+                "cu.id AS curso_id, cu.numero, m.id AS materia_id, m.codigo, m.nombre, m.creditos, " +
+                "p.id AS periodo_id, p.cuatrimestre, p.anio " +
+                "FROM (SELECT " + columnas + ", 0 AS archivada FROM cursada WHERE alumno_id = :alumno " +
+                "UNION ALL SELECT " + columnas + ", 1 AS archivada FROM cursada_archivo WHERE alumno_id = :alumno) h " +
+                "JOIN periodo p ON p.id = h.periodo_id " +
+                "LEFT JOIN curso cu ON cu.id = h.curso_id " +
+                "LEFT JOIN materia m ON m.id = cu.materia_id " +
+                "ORDER BY p.anio, p.id, h.id")
+            .setParameter("alumno", alumnoId)
+            .getResultList();
+    }
+
+    /**
+     * Inscripciones archivadas del alumno que no estaban eliminadas.
+     *
+     * @return filas de id, estado, cursada_estado y curso_id
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findInscripcionesArchivadasByAlumno(Long alumnoId) {
+        return em.createNativeQuery("SELECT id, estado, cursada_estado, curso_id FROM inscripcion_curso_archivo " +
+                "WHERE alumno_id = :alumno AND estado <> 'ELIMINADA' ORDER BY id")
+            .setParameter("alumno", alumnoId)
+            .getResultList();
+    }
+
+    /**
+     * Inscripciones archivadas al curso que no estaban eliminadas.
+     *
+     * @return filas de id, estado, cursada_estado y alumno_id
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findInscripcionesArchivadasByCurso(Long cursoId) {
+        return em.createNativeQuery("SELECT id, estado, cursada_estado, alumno_id FROM inscripcion_curso_archivo " +
+                "WHERE curso_id = :curso AND estado <> 'ELIMINADA' ORDER BY id")
+            .setParameter("curso", cursoId)
+            .getResultList();
+    }
+
+    /**
+     * Inscripciones al curso, vigentes y archivadas, con los datos del alumno.
+     *
+     * @return filas de id, estado, cursada_estado, archivada (0 o 1), y alumno id, padron, nombre y apellido
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findInscripcionesByCurso(Long cursoId) {
+        String columnas = "id, estado, cursada_estado, alumno_id";
+        return em.createNativeQuery("SELECT h.id, h.estado, h.cursada_estado, h.archivada, a.id AS alumno_id, a.padron, a.nombre, a.apellido " +
+                "FROM (SELECT " + columnas + ", 0 AS archivada FROM inscripcion_curso WHERE curso_id = :curso " +
+                "UNION ALL SELECT " + columnas + ", 1 AS archivada FROM inscripcion_curso_archivo WHERE curso_id = :curso) h " +
+                "LEFT JOIN alumno a ON a.id = h.alumno_id " +
+                "ORDER BY a.apellido, a.nombre, h.id")
+            .setParameter("curso", cursoId)
+            .getResultList();
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -18,9 +19,20 @@ import java.util.List;
 @Repository
 public interface ColoquioRepository extends JpaRepository<Coloquio, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
+    Optional<Coloquio> findById(Long id);
+
+    @EntityGraph(attributePaths = {"periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
     List<Coloquio> findAllByCursoAndFechaGreaterThanEqualAndEstadoOrderByFechaDesc(Curso curso, LocalDate fecha, ColoquioEstado estado);
 
+    @EntityGraph(attributePaths = {"periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
     List<Coloquio> findAllByCursoAndEstadoOrderByFechaDesc(Curso curso, ColoquioEstado estado);
 
+    @Override
+    @EntityGraph(attributePaths = {"periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
     List<Coloquio> findAll();
+
+    @EntityGraph(attributePaths = {"periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
+    List<Coloquio> findAllByEstadoAndFechaGreaterThanEqual(ColoquioEstado estado, LocalDate fecha);
 }
@@ -0,0 +1,69 @@
+package fi.uba.quechua.repository;
+
+import fi.uba.quechua.domain.CupoCurso;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+
+/**
+ * Spring Data  repository for the CupoCurso entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface CupoCursoRepository extends JpaRepository<CupoCurso, Long> {
+
+    /**
+     * Lee el contador bloqueandolo, de modo que ve lo que otra transaccion ya confirmo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CupoCurso c WHERE c.cursoId = :cursoId")
+    Optional<CupoCurso> findBloqueado(@Param("cursoId") Long cursoId);
+
+    /**
+     * Ocupa una vacante solo si todavia quedan libres.
+     *
+     * @return 1 si se reservo la vacante, 0 si el curso esta completo o no tiene contador
+     */
+    @Modifying
+    @Query("UPDATE CupoCurso c SET c.ocupadas = c.ocupadas + 1 " +
+        "WHERE c.cursoId = :cursoId AND c.ocupadas < c.vacantes")
+    int reservar(@Param("cursoId") Long cursoId);
+
+    /**
+     * Ocupa una vacante sin controlar el limite (por ejemplo, al regularizar un condicional).
+     */
+    @Modifying
+    @Query("UPDATE CupoCurso c SET c.ocupadas = c.ocupadas + 1 WHERE c.cursoId = :cursoId")
+    int ocupar(@Param("cursoId") Long cursoId);
+
+    @Modifying
+    @Query("UPDATE CupoCurso c SET c.ocupadas = c.ocupadas - 1 " +
+        "WHERE c.cursoId = :cursoId AND c.ocupadas > 0")
+    int liberar(@Param("cursoId") Long cursoId);
+
+    @Modifying
+    @Query("UPDATE CupoCurso c SET c.ocupadas = c.ocupadas + :cantidad WHERE c.cursoId = :cursoId")
+    int sumarOcupadas(@Param("cursoId") Long cursoId, @Param("cantidad") Integer cantidad);
+
+    @Modifying
+    @Query("UPDATE CupoCurso c SET c.vacantes = :vacantes WHERE c.cursoId = :cursoId")
+    int actualizarVacantes(@Param("cursoId") Long cursoId, @Param("vacantes") Integer vacantes);
+
+    @Modifying
+    @Query(value = "INSERT INTO cupo_curso (curso_id, vacantes, ocupadas) " +
+        "SELECT c.id, c.vacantes, " +
+        "(SELECT COUNT(*) FROM inscripcion_curso i WHERE i.curso_id = c.id AND i.estado = :regular) FROM curso c " +
+        "WHERE NOT EXISTS (SELECT 1 FROM cupo_curso cc WHERE cc.curso_id = c.id)", nativeQuery = true)
+    int crearFaltantes(@Param("regular") String regular);
+
+    @Modifying
+    @Query(value = "UPDATE cupo_curso SET " +
+        "vacantes = (SELECT c.vacantes FROM curso c WHERE c.id = cupo_curso.curso_id), " +
+        "ocupadas = (SELECT COUNT(*) FROM inscripcion_curso i " +
+        "WHERE i.curso_id = cupo_curso.curso_id AND i.estado = :regular)", nativeQuery = true)
+    int reconciliar(@Param("regular") String regular);
+}
@@ -4,9 +4,13 @@ import fi.uba.quechua.domain.Alumno;
 import fi.uba.quechua.domain.Cursada;
 import fi.uba.quechua.domain.Curso;
 import fi.uba.quechua.domain.enumeration.CursadaEstado;
+import fi.uba.quechua.service.dto.CursadaResumenDTO;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,10 +22,25 @@ import java.util.Optional;
 @Repository
 public interface CursadaRepository extends JpaRepository<Cursada, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"alumno", "periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
+    List<Cursada> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"alumno", "periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
+    Optional<Cursada> findById(Long id);
+
+    @EntityGraph(attributePaths = {"alumno", "periodo", "curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
     List<Cursada> findAllByAlumnoAndEstado(Alumno alumno, CursadaEstado estado);
 
     List<Cursada> findAllByAlumnoAndEstadoIn(Alumno alumno, List<CursadaEstado> estado);
 
+    @Query("SELECT new fi.uba.quechua.service.dto.CursadaResumenDTO(cs.id, cs.notaCursada, cs.libro, cs.folio, cs.estado, " +
+        "cs.notaFinal, cp.id, cp.cuatrimestre, cp.anio, " + CursoResumenDTO.COLUMNAS + ") " +
+        "FROM Cursada cs LEFT JOIN cs.periodo cp LEFT JOIN cs.curso c " + CursoResumenDTO.JOINS + " " +
+        "WHERE cs.alumno = :alumno AND cs.estado IN :estados ORDER BY cs.id")
+    List<CursadaResumenDTO> findResumenesByAlumnoAndEstadoIn(@Param("alumno") Alumno alumno, @Param("estados") Collection<CursadaEstado> estados);
+
     Optional<Cursada> findCursadaByAlumnoAndCursoAndEstado(Alumno alumno, Curso curso, CursadaEstado estado);
 
 }
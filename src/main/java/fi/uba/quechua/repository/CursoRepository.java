@@ -2,11 +2,16 @@ package fi.uba.quechua.repository;
 
 import fi.uba.quechua.domain.*;
 import fi.uba.quechua.domain.enumeration.CursoEstado;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -16,12 +21,44 @@ import java.util.List;
 @Repository
 public interface CursoRepository extends JpaRepository<Curso, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"profesor", "periodo", "materia.departamento", "materia.carrera"})
+    List<Curso> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"profesor", "periodo", "materia.departamento", "materia.carrera"})
+    Optional<Curso> findById(Long id);
+
     List<Curso> findAllByEstado(CursoEstado estado);
 
-    List<Curso> findAllByMateriaAndPeriodoAndEstado(Materia materia, Periodo periodo, CursoEstado estado);
+    @Query("SELECT c.materia.id FROM Curso c WHERE c.id = :id")
+    Optional<Long> findMateriaIdById(@Param("id") Long id);
+
+    @EntityGraph(Curso.GRAFO_HORARIOS)
+    Optional<Curso> findOneWithHorariosById(Long id);
 
-    List<Curso> findAllByProfesorAndEstadoOrderById(Profesor profesor, CursoEstado estado);
+    // Con los horarios, el curso se repite por cada horario: DISTINCT los descarta en memoria, sin pasarlo al SQL
+    @EntityGraph(Curso.GRAFO_HORARIOS)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Curso> findDistinctWithHorariosByEstado(CursoEstado estado);
 
+    @EntityGraph(Curso.GRAFO_HORARIOS)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Curso> findDistinctWithHorariosByMateriaAndPeriodoAndEstado(Materia materia, Periodo periodo, CursoEstado estado);
+
+    @EntityGraph(attributePaths = {"profesor", "periodo", "materia.departamento", "materia.carrera"})
     @Query("SELECT c FROM Curso c LEFT JOIN c.materia m LEFT JOIN m.departamento d WHERE d = :departamento")
     List<Curso> findAllByDepartamento(@Param("departamento")Departamento departamento);
+
+    @Query("SELECT new fi.uba.quechua.service.dto.CursoResumenDTO(" + CursoResumenDTO.COLUMNAS + ") " +
+        "FROM Curso c " + CursoResumenDTO.JOINS + " WHERE c.estado = :estado")
+    List<CursoResumenDTO> findResumenesByEstado(@Param("estado") CursoEstado estado);
+
+    @Query("SELECT new fi.uba.quechua.service.dto.CursoResumenDTO(" + CursoResumenDTO.COLUMNAS + ") " +
+        "FROM Curso c " + CursoResumenDTO.JOINS + " WHERE c.id IN :ids")
+    List<CursoResumenDTO> findResumenesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new fi.uba.quechua.service.dto.CursoResumenDTO(" + CursoResumenDTO.COLUMNAS + ") " +
+        "FROM Curso c " + CursoResumenDTO.JOINS + " WHERE c.profesor = :profesor AND c.estado = :estado ORDER BY c.id")
+    List<CursoResumenDTO> findResumenesByProfesorAndEstado(@Param("profesor") Profesor profesor, @Param("estado") CursoEstado estado);
 }
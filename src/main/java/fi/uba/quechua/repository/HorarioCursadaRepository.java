@@ -1,9 +1,16 @@
 package fi.uba.quechua.repository;
 
 import fi.uba.quechua.domain.HorarioCursada;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.service.dto.HorarioResumenDTO;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 /**
  * Spring Data  repository for the HorarioCursada entity.
@@ -12,4 +19,31 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface HorarioCursadaRepository extends JpaRepository<HorarioCursada, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
+    List<HorarioCursada> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"curso.profesor", "curso.periodo", "curso.materia.departamento", "curso.materia.carrera"})
+    Optional<HorarioCursada> findById(Long id);
+
+    List<HorarioCursada> findAllByCursoId(Long cursoId);
+
+    @Query("SELECT h.curso.id FROM HorarioCursada h WHERE h.id = :id")
+    Optional<Long> findCursoIdById(@Param("id") Long id);
+
+    @Query("SELECT h FROM HorarioCursada h, InscripcionCurso i " +
+        "WHERE h.curso = i.curso AND i.alumno.id = :alumnoId AND i.estado <> :estado")
+    List<HorarioCursada> findAllByInscripcionDelAlumnoAndEstadoNot(@Param("alumnoId") Long alumnoId,
+                                                                   @Param("estado") InscripcionCursoEstado estado);
+
+    @Query("SELECT h FROM HorarioCursada h, InscripcionCurso i " +
+        "WHERE h.curso = i.curso AND i.alumno.id = :alumnoId AND i.estado <> :estado AND i.curso.id <> :cursoId")
+    List<HorarioCursada> findAllByInscripcionDelAlumnoAndEstadoNotAndCursoIdNot(@Param("alumnoId") Long alumnoId,
+                                                                                @Param("estado") InscripcionCursoEstado estado,
+                                                                                @Param("cursoId") Long cursoId);
+
+    @Query("SELECT new fi.uba.quechua.service.dto.HorarioResumenDTO(h.curso.id, h.id, h.dia, h.sede, h.aula, h.horaInicio, h.horaFin) " +
+        "FROM HorarioCursada h WHERE h.curso.id IN :cursoIds ORDER BY h.id")
+    List<HorarioResumenDTO> findResumenesByCursoIdIn(@Param("cursoIds") Collection<Long> cursoIds);
 }
@@ -6,8 +6,10 @@ import fi.uba.quechua.domain.Cursada;
 import fi.uba.quechua.domain.InscripcionColoquio;
 import fi.uba.quechua.domain.enumeration.InscripcionColoquioEstado;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,11 +21,42 @@ import java.util.Optional;
 @Repository
 public interface InscripcionColoquioRepository extends JpaRepository<InscripcionColoquio, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"alumno", "coloquio.periodo", "coloquio.curso.profesor", "coloquio.curso.periodo",
+        "coloquio.curso.materia.departamento", "coloquio.curso.materia.carrera", "cursada.periodo", "cursada.curso"})
+    List<InscripcionColoquio> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"alumno", "coloquio.periodo", "coloquio.curso.profesor", "coloquio.curso.periodo",
+        "coloquio.curso.materia.departamento", "coloquio.curso.materia.carrera", "cursada.periodo", "cursada.curso"})
+    Optional<InscripcionColoquio> findById(Long id);
+
+    @EntityGraph(attributePaths = {"alumno", "coloquio.periodo", "coloquio.curso.profesor", "coloquio.curso.periodo",
+        "coloquio.curso.materia.departamento", "coloquio.curso.materia.carrera", "cursada.periodo", "cursada.curso"})
     Optional<InscripcionColoquio> findByColoquioAndAlumnoAndEstado(Coloquio coloquio, Alumno alumno, InscripcionColoquioEstado estado);
 
+    @EntityGraph(attributePaths = {"alumno", "coloquio.periodo", "coloquio.curso.profesor", "coloquio.curso.periodo",
+        "coloquio.curso.materia.departamento", "coloquio.curso.materia.carrera", "cursada.periodo", "cursada.curso"})
     List<InscripcionColoquio> findAllByAlumnoAndEstado(Alumno alumno, InscripcionColoquioEstado estado);
 
+    @EntityGraph(attributePaths = {"alumno", "coloquio.periodo", "coloquio.curso.profesor", "coloquio.curso.periodo",
+        "coloquio.curso.materia.departamento", "coloquio.curso.materia.carrera", "cursada.periodo", "cursada.curso"})
     List<InscripcionColoquio> findAllByCursadaAndEstado(Cursada cursada, InscripcionColoquioEstado estado);
 
+    // Solo para notificar a los alumnos: no se serializan
+    @EntityGraph(attributePaths = "alumno")
     List<InscripcionColoquio> findAllByColoquioAndEstado(Coloquio coloquio, InscripcionColoquioEstado estado);
+
+    boolean existsByColoquioAndAlumnoAndEstado(Coloquio coloquio, Alumno alumno, InscripcionColoquioEstado estado);
+
+    long countByCursadaAndEstado(Cursada cursada, InscripcionColoquioEstado estado);
+
+    /**
+     * Cantidad de inscripciones de cada coloquio, en una sola consulta. Los coloquios sin inscripciones no aparecen.
+     *
+     * @return pares [coloquio id, cantidad]
+     */
+    @Query("SELECT i.coloquio.id, COUNT(i) FROM InscripcionColoquio i " +
+        "WHERE i.coloquio IN :coloquios AND i.estado = :estado GROUP BY i.coloquio.id")
+    List<Object[]> countByColoquioInAndEstado(@Param("coloquios") Collection<Coloquio> coloquios, @Param("estado") InscripcionColoquioEstado estado);
 }
@@ -0,0 +1,89 @@
+package fi.uba.quechua.repository;
+
+import fi.uba.quechua.domain.InscripcionCurso;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.List;
+
+/**
+ * Inserta inscripciones a cursos de a muchas, con un INSERT de varias filas por lote (ver AsignacionVacantesService).
+ * <p>
+ * Los ids se reservan de una sola vez del segmento "inscripcion_curso" del generador "pooledLo", como hace
+ * Hibernate con cada bloque de 50, asi que nunca chocan con los que asigna Hibernate.
+ */
+@Repository
+public class InscripcionCursoLoteRepository {
+
+    private static final String SEGMENTO = "inscripcion_curso";
+
+    static final int FILAS_POR_INSERT = 500;
+
+    private final EntityManager em;
+
+    public InscripcionCursoLoteRepository(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Reserva ids consecutivos en una transaccion propia, para no retener la fila del generador mientras dura
+     * la transaccion que inserta.
+     *
+     * @param cantidad la cantidad de ids
+     * @return el primero de los ids reservados
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reservarIds(int cantidad) {
+        List<?> actual = em.createNativeQuery("SELECT proximo_id FROM id_generador WHERE segmento = :segmento FOR UPDATE")
+            .setParameter("segmento", SEGMENTO)
+            .getResultList();
+        if (actual.isEmpty()) {
+            em.createNativeQuery("INSERT INTO id_generador (segmento, proximo_id) VALUES (:segmento, :proximo)")
+                .setParameter("segmento", SEGMENTO)
+                .setParameter("proximo", 1L + cantidad)
+                .executeUpdate();
+            return 1L;
+        }
+        long primero = ((Number) actual.get(0)).longValue();
+        em.createNativeQuery("UPDATE id_generador SET proximo_id = :proximo WHERE segmento = :segmento")
+            .setParameter("segmento", SEGMENTO)
+            .setParameter("proximo", primero + cantidad)
+            .executeUpdate();
+        return primero;
+    }
+
+    /**
+     * Inserta las inscripciones, que toman los ids consecutivos a partir del dado.
+     *
+     * @param inscripciones inscripciones sin persistir, con alumno, curso y estado
+     * @param primerId el primer id reservado con reservarIds
+     */
+    @Transactional
+    public void insertar(List<InscripcionCurso> inscripciones, long primerId) {
+        long id = primerId;
+        for (int desde = 0; desde < inscripciones.size(); desde += FILAS_POR_INSERT) {
+            List<InscripcionCurso> lote = inscripciones.subList(desde, Math.min(desde + FILAS_POR_INSERT, inscripciones.size()));
+            StringBuilder sql = new StringBuilder("INSERT INTO inscripcion_curso (id, estado, alumno_id, curso_id, activa) VALUES ");
+            for (int i = 0; i < lote.size(); i++) {
+                int p = 4 * i;
+                sql.append(i == 0 ? "" : ", ").append("(?").append(p + 1).append(", ?").append(p + 2)
+                    .append(", ?").append(p + 3).append(", ?").append(p + 4).append(", TRUE)");
+            }
+            Query insert = em.createNativeQuery(sql.toString());
+            for (int i = 0; i < lote.size(); i++) {
+                InscripcionCurso inscripcion = lote.get(i);
+                inscripcion.setId(id++);
+                insert.setParameter(4 * i + 1, inscripcion.getId());
+                insert.setParameter(4 * i + 2, inscripcion.getEstado().name());
+                insert.setParameter(4 * i + 3, inscripcion.getAlumno().getId());
+                insert.setParameter(4 * i + 4, inscripcion.getCurso().getId());
+            }
+            insert.unwrap(NativeQuery.class).addSynchronizedEntityClass(InscripcionCurso.class);
+            insert.executeUpdate();
+        }
+    }
+}
@@ -3,11 +3,16 @@ package fi.uba.quechua.repository;
 import fi.uba.quechua.domain.Alumno;
 import fi.uba.quechua.domain.Curso;
 import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.domain.Periodo;
 import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
+import fi.uba.quechua.service.dto.InscripcionCursoResumenDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,12 +24,36 @@ import java.util.Optional;
 @Repository
 public interface InscripcionCursoRepository extends JpaRepository<InscripcionCurso, Long> {
 
+    @Override
+    @EntityGraph(InscripcionCurso.GRAFO_ALUMNO)
+    List<InscripcionCurso> findAll();
+
+    @Override
+    @EntityGraph(InscripcionCurso.GRAFO_ALUMNO)
+    Optional<InscripcionCurso> findById(Long id);
+
+    @EntityGraph(InscripcionCurso.GRAFO_ALUMNO)
     Optional<InscripcionCurso> findByCursoAndAlumnoAndEstadoNot(Curso curso, Alumno alumno, InscripcionCursoEstado estado);
 
     List<InscripcionCurso> findAllByCursoAndEstadoNot(Curso curso, InscripcionCursoEstado estado);
 
+    @EntityGraph(InscripcionCurso.GRAFO_ALUMNO)
     List<InscripcionCurso> findAllByCursoAndEstado(Curso curso, InscripcionCursoEstado estado);
 
+    long countByCursoAndEstado(Curso curso, InscripcionCursoEstado estado);
+
+    boolean existsByCursoAndAlumnoAndEstadoNot(Curso curso, Alumno alumno, InscripcionCursoEstado estado);
+
+    /**
+     * Cantidad de inscripciones de cada curso, en una sola consulta. Los cursos sin inscripciones no aparecen.
+     *
+     * @return pares [curso id, cantidad]
+     */
+    @Query("SELECT i.curso.id, COUNT(i) FROM InscripcionCurso i " +
+        "WHERE i.curso.id IN :cursoIds AND i.estado <> :eliminada GROUP BY i.curso.id")
+    List<Object[]> countByCursoIdInAndEstadoNot(@Param("cursoIds") Collection<Long> cursoIds, @Param("eliminada") InscripcionCursoEstado eliminada);
+
+    @EntityGraph(InscripcionCurso.GRAFO_ALUMNO)
     @Query("SELECT i FROM InscripcionCurso i " +
         "LEFT JOIN i.alumno a "+
         "WHERE i.curso = :curso and i.estado <> :eliminada "+
@@ -33,7 +62,37 @@ public interface InscripcionCursoRepository extends JpaRepository<InscripcionCur
 
     List<InscripcionCurso> findByEstadoNot(InscripcionCursoEstado estado);
 
-    @Query("SELECT i FROM InscripcionCurso i " +
-    	"WHERE i.estado <> :eliminada AND i.alumno = :alumno ")
-    List<InscripcionCurso> findAllByAlumnoAndEstadoNot(@Param("alumno") Alumno alumno, @Param("eliminada") InscripcionCursoEstado eliminada);
+    /**
+     * Inscripciones del curso en el orden en que se promueven: por prioridad del alumno, con los alumnos sin
+     * prioridad (0) al final, y a igual prioridad la mas antigua.
+     */
+    @Query("SELECT i FROM InscripcionCurso i JOIN i.alumno a " +
+        "WHERE i.curso.id = :cursoId AND i.estado = :estado " +
+        "ORDER BY CASE WHEN a.prioridad IS NULL OR a.prioridad <= 0 THEN 1 ELSE 0 END, a.prioridad, i.id")
+    List<InscripcionCurso> findAllByCursoIdAndEstadoEnOrdenDePromocion(@Param("cursoId") Long cursoId,
+                                                                      @Param("estado") InscripcionCursoEstado estado, Pageable pageable);
+
+    /**
+     * Cambia el estado de la inscripcion solo si todavia tiene el estado esperado.
+     *
+     * @return 1 si se cambio el estado, 0 si otro proceso ya lo habia cambiado
+     */
+    @Modifying
+    @Query("UPDATE InscripcionCurso i SET i.estado = :nuevo WHERE i.id = :id AND i.estado = :actual")
+    int cambiarEstado(@Param("id") Long id, @Param("actual") InscripcionCursoEstado actual, @Param("nuevo") InscripcionCursoEstado nuevo);
+
+    @Query("SELECT i.curso.id FROM InscripcionCurso i " +
+        "WHERE i.alumno = :alumno AND i.curso.id IN :cursoIds AND i.estado <> :eliminada")
+    List<Long> findCursoIdsByAlumnoAndCursoIdInAndEstadoNot(@Param("alumno") Alumno alumno, @Param("cursoIds") Collection<Long> cursoIds,
+                                                            @Param("eliminada") InscripcionCursoEstado eliminada);
+
+    @Query("SELECT i.alumno.id, i.curso.id FROM InscripcionCurso i " +
+        "WHERE i.curso.periodo = :periodo AND i.estado <> :eliminada")
+    List<Object[]> findAlumnoAndCursoIdsByPeriodoAndEstadoNot(@Param("periodo") Periodo periodo, @Param("eliminada") InscripcionCursoEstado eliminada);
+
+    @Query("SELECT new fi.uba.quechua.service.dto.InscripcionCursoResumenDTO(i.id, i.estado, i.cursadaEstado, " +
+        CursoResumenDTO.COLUMNAS + ") FROM InscripcionCurso i LEFT JOIN i.curso c " + CursoResumenDTO.JOINS + " " +
+        "WHERE i.alumno = :alumno AND i.estado <> :eliminada ORDER BY i.id")
+    List<InscripcionCursoResumenDTO> findResumenesByAlumnoAndEstadoNot(@Param("alumno") Alumno alumno,
+                                                                       @Param("eliminada") InscripcionCursoEstado eliminada);
 }
@@ -0,0 +1,33 @@
+package fi.uba.quechua.repository;
+
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.IntencionInscripcion;
+import fi.uba.quechua.domain.Periodo;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Spring Data  repository for the IntencionInscripcion entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface IntencionInscripcionRepository extends JpaRepository<IntencionInscripcion, Long> {
+
+    Optional<IntencionInscripcion> findByCursoAndAlumno(Curso curso, Alumno alumno);
+
+    @Query("SELECT i FROM IntencionInscripcion i JOIN FETCH i.alumno JOIN FETCH i.curso c WHERE c.periodo = :periodo")
+    List<IntencionInscripcion> findAllByPeriodo(@Param("periodo") Periodo periodo);
+
+    @Query("SELECT COUNT(i) FROM IntencionInscripcion i WHERE i.curso.periodo = :periodo")
+    long countByPeriodo(@Param("periodo") Periodo periodo);
+
+    @Modifying
+    @Query("DELETE FROM IntencionInscripcion i WHERE i.curso IN (SELECT c FROM Curso c WHERE c.periodo = :periodo)")
+    int deleteAllByPeriodo(@Param("periodo") Periodo periodo);
+}
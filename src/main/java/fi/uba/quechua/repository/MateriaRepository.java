@@ -3,6 +3,7 @@ package fi.uba.quechua.repository;
 import fi.uba.quechua.domain.Carrera;
 import fi.uba.quechua.domain.Departamento;
 import fi.uba.quechua.domain.Materia;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,10 +19,25 @@ import java.util.Optional;
 @Repository
 public interface MateriaRepository extends JpaRepository<Materia, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"departamento", "carrera"})
+    List<Materia> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"departamento", "carrera"})
+    List<Materia> findAll(Sort sort);
+
+    @Override
+    @EntityGraph(attributePaths = {"departamento", "carrera"})
+    Optional<Materia> findById(Long id);
+
+    @EntityGraph(attributePaths = {"departamento", "carrera"})
     @Query("SELECT m FROM Materia m WHERE m.carrera = :carrera AND m.nombre LIKE %:query%")
     List<Materia> fidByFilter(@Param("carrera")Carrera carrera, @Param("query")Optional<String> query);
 
+    @EntityGraph(attributePaths = {"departamento", "carrera"})
     List<Materia> findAllByCarreraAndNombreStartingWith(Carrera carrera, String query);
 
+    @EntityGraph(attributePaths = {"departamento", "carrera"})
     List<Materia> findAllByDepartamentoOrderByCodigoAsc(Departamento departamento);
 }
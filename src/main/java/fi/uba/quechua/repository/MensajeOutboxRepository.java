@@ -0,0 +1,54 @@
+package fi.uba.quechua.repository;
+
+import fi.uba.quechua.domain.MensajeOutbox;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxDestino;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxEstado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+
+/**
+ * Spring Data  repository for the MensajeOutbox entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface MensajeOutboxRepository extends JpaRepository<MensajeOutbox, Long> {
+
+    boolean existsByClave(String clave);
+
+    @Query("SELECT m.id FROM MensajeOutbox m " +
+        "WHERE m.destino = :destino AND m.estado = :pendiente AND m.proximoIntento <= :ahora ORDER BY m.id")
+    List<Long> findIdsPendientes(@Param("destino") MensajeOutboxDestino destino, @Param("pendiente") MensajeOutboxEstado pendiente,
+                                 @Param("ahora") Instant ahora, Pageable pageable);
+
+    /**
+     * Reserva los mensajes que siguen pendientes hasta el instante dado, contando un nuevo intento. Si otro relay
+     * ya los reservo, su proximo intento es posterior a ahora y no se vuelven a reservar.
+     *
+     * @return la cantidad de mensajes reservados
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MensajeOutbox m SET m.reserva = :reserva, m.proximoIntento = :hasta, m.intentos = m.intentos + 1 " +
+        "WHERE m.id IN :ids AND m.estado = :pendiente AND m.proximoIntento <= :ahora")
+    int reservar(@Param("ids") List<Long> ids, @Param("reserva") String reserva, @Param("pendiente") MensajeOutboxEstado pendiente,
+                 @Param("ahora") Instant ahora, @Param("hasta") Instant hasta);
+
+    List<MensajeOutbox> findAllByReservaOrderById(String reserva);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MensajeOutbox m SET m.estado = :estado, m.procesado = :procesado, m.reserva = NULL WHERE m.id IN :ids")
+    int finalizar(@Param("ids") List<Long> ids, @Param("estado") MensajeOutboxEstado estado, @Param("procesado") Instant procesado);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MensajeOutbox m SET m.proximoIntento = :proximoIntento, m.reserva = NULL WHERE m.id = :id")
+    int reprogramar(@Param("id") Long id, @Param("proximoIntento") Instant proximoIntento);
+
+    @Modifying
+    @Query("DELETE FROM MensajeOutbox m WHERE m.procesado < :limite")
+    int deleteAllProcesadosAntesDe(@Param("limite") Instant limite);
+}
@@ -4,8 +4,6 @@ import fi.uba.quechua.domain.Periodo;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 
 /**
  * Spring Data  repository for the Periodo entity.
@@ -14,6 +12,4 @@ import java.util.Optional;
 @Repository
 public interface PeriodoRepository extends JpaRepository<Periodo, Long> {
 
-    @Query(value = "SELECT * FROM Periodo p WHERE p.anio = YEAR(CURRENT_DATE) AND p.cuatrimestre = IF (MONTH(CURRENT_DATE) BETWEEN 6 AND 8, 'PRIMERO', 'SEGUNDO');", nativeQuery = true)
-    Optional<Periodo> findPeriodoActual();
 }
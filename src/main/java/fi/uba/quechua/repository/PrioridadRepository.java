@@ -1,9 +1,15 @@
 package fi.uba.quechua.repository;
 
 import fi.uba.quechua.domain.Prioridad;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 
 /**
  * Spring Data  repository for the Prioridad entity.
@@ -12,4 +18,18 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PrioridadRepository extends JpaRepository<Prioridad, Long>, JpaSpecificationExecutor<Prioridad> {
 
+    @Override
+    @EntityGraph(attributePaths = "periodo")
+    Optional<Prioridad> findById(Long id);
+
+    @EntityGraph(attributePaths = "periodo")
+    List<Prioridad> findAllByPeriodoId(Long periodoId);
+
+    @Override
+    @EntityGraph(attributePaths = "periodo")
+    List<Prioridad> findAll(Specification<Prioridad> spec);
+
+    @Override
+    @EntityGraph(attributePaths = "periodo")
+    Page<Prioridad> findAll(Specification<Prioridad> spec, Pageable pageable);
 }
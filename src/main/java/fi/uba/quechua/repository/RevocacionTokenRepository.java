@@ -0,0 +1,155 @@
+package fi.uba.quechua.repository;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee y escribe las tablas revocacion_token, con el instante antes del cual los JWT de cada usuario dejan de valer,
+ * y token_revocado, con los JWT revocados de a uno (por digest) hasta que vencen.
+ * <p>
+ * Las dos se escriben con una sola sentencia que inserta la fila o, si ya existe, conserva el instante mayor, para
+ * que dos revocaciones simultaneas del mismo usuario o token no choquen por la clave primaria.
+ */
+@Repository
+public class RevocacionTokenRepository {
+
+    private final EntityManager em;
+
+    private final boolean mysql;
+
+    private final String revocarSql;
+
+    private final String revocarTokenSql;
+
+    public RevocacionTokenRepository(EntityManager em) {
+        this.em = em;
+        this.mysql = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect() instanceof MySQLDialect;
+        this.revocarSql = upsert(mysql, "revocacion_token", "user_id", "BIGINT", "revocado");
+        this.revocarTokenSql = upsert(mysql, "token_revocado", "digest", "VARCHAR", "expira");
+    }
+
+    /**
+     * @return INSERT ... ON DUPLICATE KEY UPDATE en MySQL, con los parametros clave e instante, y MERGE ... KEY en
+     * la base embebida de los tests, con los parametros clave, instante, instante y clave
+     */
+    private static String upsert(boolean mysql, String tabla, String clave, String tipoClave, String instante) {
+        if (mysql) {
+            return "INSERT INTO " + tabla + " (" + clave + ", " + instante + ") VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE " + instante + " = GREATEST(" + instante + ", VALUES(" + instante + "))";
+        }
+        return "MERGE INTO " + tabla + " (" + clave + ", " + instante + ") KEY (" + clave + ") " +
+            "SELECT CAST(? AS " + tipoClave + "), GREATEST(CAST(? AS TIMESTAMP), COALESCE(MAX(" + instante + "), CAST(? AS TIMESTAMP))) " +
+            "FROM " + tabla + " WHERE " + clave + " = ?";
+    }
+
+    private void upsert(Connection conexion, String sql, Object clave, Instant instante) throws SQLException {
+        try (PreparedStatement upsert = conexion.prepareStatement(sql)) {
+            upsert.setObject(1, clave);
+            upsert.setTimestamp(2, Timestamp.from(instante));
+            if (!mysql) {
+                upsert.setTimestamp(3, Timestamp.from(instante));
+                upsert.setObject(4, clave);
+            }
+            upsert.executeUpdate();
+        }
+    }
+
+    /**
+     * Registra la revocacion de los tokens del usuario emitidos antes del instante dado.
+     */
+    @Transactional
+    public void revocar(Long userId, Instant revocado) {
+        em.unwrap(Session.class).doWork(conexion -> revocar(conexion, userId, revocado));
+    }
+
+    /**
+     * Registra la revocacion sobre la conexion dada, para los listeners de Hibernate que corren durante el flush.
+     */
+    public void revocar(Connection conexion, Long userId, Instant revocado) throws SQLException {
+        upsert(conexion, revocarSql, userId, revocado);
+    }
+
+    /**
+     * @return las revocaciones posteriores al instante dado, por id de usuario
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Map<Long, Instant> findRevocadosDesde(Instant desde) {
+        List<Object[]> filas = em.createNativeQuery("SELECT user_id, revocado FROM revocacion_token WHERE revocado >= :desde")
+            .setParameter("desde", Timestamp.from(desde))
+            .getResultList();
+        Map<Long, Instant> revocados = new HashMap<>();
+        for (Object[] fila : filas) {
+            revocados.put(((Number) fila[0]).longValue(), ((Timestamp) fila[1]).toInstant());
+        }
+        return revocados;
+    }
+
+    /**
+     * Borra las revocaciones anteriores al instante dado: ya no queda ningun token vigente emitido antes.
+     *
+     * @return the cantidad de filas borradas
+     */
+    @Transactional
+    public int borrarAnteriores(Instant limite) {
+        return em.createNativeQuery("DELETE FROM revocacion_token WHERE revocado < :limite")
+            .setParameter("limite", Timestamp.from(limite))
+            .executeUpdate();
+    }
+
+    /**
+     * Registra la revocacion de un token, hasta que vence.
+     */
+    @Transactional
+    public void revocarToken(String digest, Instant expira) {
+        em.unwrap(Session.class).doWork(conexion -> upsert(conexion, revocarTokenSql, digest, expira));
+    }
+
+    /**
+     * @return true si el token con ese digest fue revocado
+     */
+    @Transactional(readOnly = true)
+    public boolean existeTokenRevocado(String digest) {
+        Number cantidad = (Number) em.createNativeQuery("SELECT COUNT(*) FROM token_revocado WHERE digest = :digest")
+            .setParameter("digest", digest)
+            .getSingleResult();
+        return cantidad.longValue() > 0;
+    }
+
+    /**
+     * @return los digests de los tokens revocados que vencen despues del instante dado
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<String> findTokensRevocadosDesde(Instant desde) {
+        return em.createNativeQuery("SELECT digest FROM token_revocado WHERE expira >= :desde")
+            .setParameter("desde", Timestamp.from(desde))
+            .getResultList();
+    }
+
+    /**
+     * Borra los tokens revocados que vencieron antes del instante dado.
+     *
+     * @return the cantidad de filas borradas
+     */
+    @Transactional
+    public int borrarTokensVencidos(Instant limite) {
+        return em.createNativeQuery("DELETE FROM token_revocado WHERE expira < :limite")
+            .setParameter("limite", Timestamp.from(limite))
+            .executeUpdate();
+    }
+}
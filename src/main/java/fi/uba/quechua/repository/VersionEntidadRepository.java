@@ -0,0 +1,43 @@
+package fi.uba.quechua.repository;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee la tabla version_entidad, con la version de cada entidad que se sirve con respuestas condicionales.
+ * <p>
+ * Las versiones se incrementan en la misma transaccion que escribe la entidad (ver VersionesService).
+ */
+@Repository
+public class VersionEntidadRepository {
+
+    public static final String INCREMENTAR = "UPDATE version_entidad SET version = version + 1 WHERE entidad = ?";
+
+    private final EntityManager em;
+
+    public VersionEntidadRepository(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * @return las versiones de las entidades dadas, por nombre de entidad
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> findVersiones(Collection<String> entidades) {
+        List<Object[]> filas = em.createNativeQuery("SELECT entidad, version FROM version_entidad WHERE entidad IN (:entidades)")
+            .setParameter("entidades", entidades)
+            .getResultList();
+        Map<String, Long> versiones = new HashMap<>();
+        for (Object[] fila : filas) {
+            versiones.put((String) fila[0], ((Number) fila[1]).longValue());
+        }
+        return versiones;
+    }
+}
@@ -0,0 +1,64 @@
+package fi.uba.quechua.security;
+
+import java.io.Serializable;
+
+/**
+ * Identidad del usuario autenticado dentro del dominio: su usuario y, si los tiene, el Alumno, el Profesor y el
+ * Departamento que administra.
+ * <p>
+ * Viaja como claims en el JWT, de modo que los endpoints no necesitan buscar al usuario y sus vinculos en cada
+ * pedido. Cuando un vinculo cambia, los tokens emitidos antes se revocan (ver RevocacionTokenService).
+ */
+public final class CurrentActor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String login;
+
+    private final Long userId;
+
+    private final Long alumnoId;
+
+    private final Long profesorId;
+
+    private final Long departamentoId;
+
+    public CurrentActor(String login, Long userId, Long alumnoId, Long profesorId, Long departamentoId) {
+        this.login = login;
+        this.userId = userId;
+        this.alumnoId = alumnoId;
+        this.profesorId = profesorId;
+        this.departamentoId = departamentoId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getAlumnoId() {
+        return alumnoId;
+    }
+
+    public Long getProfesorId() {
+        return profesorId;
+    }
+
+    public Long getDepartamentoId() {
+        return departamentoId;
+    }
+
+    @Override
+    public String toString() {
+        return "CurrentActor{" +
+            "login='" + login + "'" +
+            ", userId=" + userId +
+            ", alumnoId=" + alumnoId +
+            ", profesorId=" + profesorId +
+            ", departamentoId=" + departamentoId +
+            "}";
+    }
+}
@@ -45,6 +45,18 @@ public final class SecurityUtils {
             .map(authentication -> (String) authentication.getCredentials());
     }
 
+    /**
+     * Get the actor of the current user, as it was read from the JWT claims.
+     *
+     * @return the actor, or empty if the authentication did not come from a token with those claims
+     */
+    public static Optional<CurrentActor> getCurrentActor() {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return Optional.ofNullable(securityContext.getAuthentication())
+            .filter(authentication -> authentication.getDetails() instanceof CurrentActor)
+            .map(authentication -> (CurrentActor) authentication.getDetails());
+    }
+
     /**
      * Check if a user is authenticated.
      *
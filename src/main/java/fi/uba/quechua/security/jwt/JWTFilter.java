@@ -15,6 +15,9 @@ import java.io.IOException;
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
  * found.
+ * <p>
+ * When the token carries the identity claims, the authentication details hold its CurrentActor (see
+ * SecurityUtils.getCurrentActor).
  */
 public class JWTFilter extends GenericFilterBean {
 
@@ -29,9 +32,11 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            Authentication authentication = this.tokenProvider.resolveAuthentication(jwt);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
@@ -1,14 +1,21 @@
 package fi.uba.quechua.security.jwt;
 
+import fi.uba.quechua.security.CurrentActor;
+import fi.uba.quechua.service.RevocacionTokenService;
 import io.github.jhipster.config.JHipsterProperties;
 
+import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,13 +25,30 @@ import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.*;
 
+/**
+ * Creates and verifies the JWTs.
+ * <p>
+ * Verificar un token (HMAC, base64 y JSON) cuesta bastante mas que el resto del filtro, y el cliente manda el mismo
+ * token en cada request: la Authentication armada con un token verificado se guarda en un cache acotado, por digest
+ * del token, hasta que el token vence. Las revocaciones se consultan igual en cada request.
+ */
 @Component
 public class TokenProvider {
 
+    public static final String AUTENTICACIONES_CACHE = "autenticacionesJwt";
+
     private final Logger log = LoggerFactory.getLogger(TokenProvider.class);
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final String USER_ID_KEY = "uid";
+
+    private static final String ALUMNO_ID_KEY = "alumno";
+
+    private static final String PROFESOR_ID_KEY = "profesor";
+
+    private static final String DEPARTAMENTO_ID_KEY = "departamento";
+
     private final Base64.Encoder encoder = Base64.getEncoder();
 
     private String secretKey;
@@ -35,8 +59,15 @@ public class TokenProvider {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final RevocacionTokenService revocacionTokenService;
+
+    private final CacheManager cacheManager;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, RevocacionTokenService revocacionTokenService,
+                         CacheManager cacheManager) {
         this.jHipsterProperties = jHipsterProperties;
+        this.revocacionTokenService = revocacionTokenService;
+        this.cacheManager = cacheManager;
     }
 
     @PostConstruct
@@ -52,6 +83,15 @@ public class TokenProvider {
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
+        return createToken(authentication, rememberMe, null);
+    }
+
+    /**
+     * Crea el token con los ids del actor como claims, para que los endpoints no tengan que buscarlos en cada pedido.
+     *
+     * @param actor the actor del usuario autenticado, o null para emitir el token sin esos claims
+     */
+    public String createToken(Authentication authentication, boolean rememberMe, CurrentActor actor) {
         String authorities = authentication.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
             .collect(Collectors.joining(","));
@@ -64,12 +104,62 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
             .signWith(SignatureAlgorithm.HS512, secretKey)
-            .setExpiration(validity)
-            .compact();
+            .setIssuedAt(new Date(now))
+            .setExpiration(validity);
+        if (actor != null) {
+            builder.claim(USER_ID_KEY, actor.getUserId())
+                .claim(ALUMNO_ID_KEY, actor.getAlumnoId())
+                .claim(PROFESOR_ID_KEY, actor.getProfesorId())
+                .claim(DEPARTAMENTO_ID_KEY, actor.getDepartamentoId());
+        }
+        return builder.compact();
+    }
+
+    /**
+     * Get the authentication for a token, verifying it only the first time it is seen.
+     *
+     * @param token the JWT
+     * @return the authentication, or null if the token is invalid, expired or revoked
+     */
+    public Authentication resolveAuthentication(String token) {
+        String digest = digest(token);
+        Cache cache = cacheManager.getCache(AUTENTICACIONES_CACHE);
+        AutenticacionVerificada verificada = cache.get(digest, AutenticacionVerificada.class);
+        if (verificada == null || verificada.getExpira() <= System.currentTimeMillis()) {
+            Claims claims = parse(token);
+            if (claims == null) {
+                cache.evict(digest);
+                return null;
+            }
+            verificada = new AutenticacionVerificada(toAuthentication(token, claims), getId(claims, USER_ID_KEY),
+                claims.getIssuedAt(), claims.getExpiration());
+            cache.put(digest, verificada);
+        }
+        if (isRevoked(digest, verificada.getUserId(), verificada.getEmitido())) {
+            return null;
+        }
+        return verificada.getAuthentication();
+    }
+
+    /**
+     * Revoca el token hasta que vence, por ejemplo al hacer logout.
+     *
+     * @param token the JWT
+     */
+    public void revoke(String token) {
+        Claims claims = parse(token);
+        if (claims == null) {
+            return;
+        }
+        String digest = digest(token);
+        Date expira = claims.getExpiration() != null ? claims.getExpiration()
+            : new Date(System.currentTimeMillis() + tokenValidityInMillisecondsForRememberMe);
+        revocacionTokenService.revocarToken(digest, expira.toInstant());
+        cacheManager.getCache(AUTENTICACIONES_CACHE).evict(digest);
     }
 
     public Authentication getAuthentication(String token) {
@@ -77,7 +167,15 @@ public class TokenProvider {
             .setSigningKey(secretKey)
             .parseClaimsJws(token)
             .getBody();
+        return toAuthentication(token, claims);
+    }
+
+    public boolean validateToken(String authToken) {
+        Claims claims = parse(authToken);
+        return claims != null && !isRevoked(digest(authToken), getId(claims, USER_ID_KEY), claims.getIssuedAt());
+    }
 
+    private Authentication toAuthentication(String token, Claims claims) {
         Collection<? extends GrantedAuthority> authorities =
             Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
                 .map(SimpleGrantedAuthority::new)
@@ -85,13 +183,25 @@ public class TokenProvider {
 
         User principal = new User(claims.getSubject(), "", authorities);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        if (claims.containsKey(USER_ID_KEY)) {
+            authentication.setDetails(new CurrentActor(claims.getSubject(), getId(claims, USER_ID_KEY),
+                getId(claims, ALUMNO_ID_KEY), getId(claims, PROFESOR_ID_KEY), getId(claims, DEPARTAMENTO_ID_KEY)));
+        }
+        return authentication;
     }
 
-    public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken);
+    private boolean isRevoked(String digest, Long userId, Date issuedAt) {
+        if (revocacionTokenService.estaRevocado(userId, issuedAt) || revocacionTokenService.estaRevocado(digest)) {
+            log.info("Revoked JWT token.");
             return true;
+        }
+        return false;
+    }
+
+    private Claims parse(String authToken) {
+        try {
+            return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             log.info("Invalid JWT signature.");
             log.trace("Invalid JWT signature trace: {}", e);
@@ -108,6 +218,59 @@ public class TokenProvider {
             log.info("JWT token compact of handler are invalid.");
             log.trace("JWT token compact of handler are invalid trace: {}", e);
         }
-        return false;
+        return null;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Long getId(Claims claims, String key) {
+        Object id = claims.get(key);
+        return id instanceof Number ? ((Number) id).longValue() : null;
+    }
+
+    /**
+     * Authentication de un token ya verificado, con lo necesario para volver a chequear su vencimiento y revocacion.
+     */
+    private static final class AutenticacionVerificada implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Authentication authentication;
+
+        private final Long userId;
+
+        private final Date emitido;
+
+        private final long expira;
+
+        AutenticacionVerificada(Authentication authentication, Long userId, Date emitido, Date expira) {
+            this.authentication = authentication;
+            this.userId = userId;
+            this.emitido = emitido;
+            this.expira = expira != null ? expira.getTime() : Long.MAX_VALUE;
+        }
+
+        Authentication getAuthentication() {
+            return authentication;
+        }
+
+        Long getUserId() {
+            return userId;
+        }
+
+        Date getEmitido() {
+            return emitido;
+        }
+
+        long getExpira() {
+            return expira;
+        }
     }
 }
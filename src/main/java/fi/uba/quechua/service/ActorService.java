@@ -0,0 +1,124 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.AdministradorDepartamento;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Profesor;
+import fi.uba.quechua.domain.User;
+import fi.uba.quechua.repository.AdministradorDepartamentoRepository;
+import fi.uba.quechua.repository.AlumnoRepository;
+import fi.uba.quechua.repository.ProfesorRepository;
+import fi.uba.quechua.repository.UserRepository;
+import fi.uba.quechua.security.CurrentActor;
+import fi.uba.quechua.security.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Service Implementation for the actor del usuario autenticado.
+ * <p>
+ * Usa los ids que vienen en el JWT (ver CurrentActor); si la autenticacion no los trae, los busca a partir del
+ * login.
+ */
+@Service
+@Transactional
+public class ActorService {
+
+    private final Logger log = LoggerFactory.getLogger(ActorService.class);
+
+    private final UserRepository userRepository;
+
+    private final AlumnoRepository alumnoRepository;
+
+    private final ProfesorRepository profesorRepository;
+
+    private final AdministradorDepartamentoRepository administradorDepartamentoRepository;
+
+    public ActorService(UserRepository userRepository, AlumnoRepository alumnoRepository, ProfesorRepository profesorRepository,
+                        AdministradorDepartamentoRepository administradorDepartamentoRepository) {
+        this.userRepository = userRepository;
+        this.alumnoRepository = alumnoRepository;
+        this.profesorRepository = profesorRepository;
+        this.administradorDepartamentoRepository = administradorDepartamentoRepository;
+    }
+
+    /**
+     * Busca el usuario y sus vinculos, para emitir el token.
+     *
+     * @param login the login of the user
+     * @return the actor; sin usuario, solo con el login
+     */
+    @Transactional(readOnly = true)
+    public CurrentActor resolver(String login) {
+        log.debug("Request to resolve CurrentActor : {}", login);
+        Optional<Long> userId = userRepository.findOneByLogin(login).map(User::getId);
+        if (!userId.isPresent()) {
+            return new CurrentActor(login, null, null, null, null);
+        }
+        return new CurrentActor(login, userId.get(),
+            alumnoRepository.findByUserId(userId.get()).map(Alumno::getId).orElse(null),
+            profesorRepository.findByUserId(userId.get()).map(Profesor::getId).orElse(null),
+            administradorDepartamentoRepository.findByUserId(userId.get()).map(AdministradorDepartamento::getDepartamentoId).orElse(null));
+    }
+
+    /**
+     * Get the id of the current user.
+     *
+     * @return the id, or empty if there is no authenticated user
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getUserIdActual() {
+        Optional<CurrentActor> actor = SecurityUtils.getCurrentActor();
+        if (actor.isPresent()) {
+            return Optional.ofNullable(actor.get().getUserId());
+        }
+        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneByLogin).map(User::getId);
+    }
+
+    /**
+     * Get the alumno of the current user.
+     *
+     * @return the entity, or empty if the user is not an alumno
+     */
+    @Transactional(readOnly = true)
+    public Optional<Alumno> getAlumnoActual() {
+        Optional<CurrentActor> actor = SecurityUtils.getCurrentActor();
+        if (actor.isPresent()) {
+            return Optional.ofNullable(actor.get().getAlumnoId()).flatMap(alumnoRepository::findById);
+        }
+        return getUserIdActual().flatMap(alumnoRepository::findByUserId);
+    }
+
+    /**
+     * Get the profesor of the current user.
+     *
+     * @return the entity, or empty if the user is not a profesor
+     */
+    @Transactional(readOnly = true)
+    public Optional<Profesor> getProfesorActual() {
+        Optional<CurrentActor> actor = SecurityUtils.getCurrentActor();
+        if (actor.isPresent()) {
+            return Optional.ofNullable(actor.get().getProfesorId()).flatMap(profesorRepository::findById);
+        }
+        return getUserIdActual().flatMap(profesorRepository::findByUserId);
+    }
+
+    /**
+     * Get the id of the departamento administrado por the current user.
+     *
+     * @return the id, or empty if the user does not administer a departamento
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getDepartamentoIdActual() {
+        Optional<CurrentActor> actor = SecurityUtils.getCurrentActor();
+        if (actor.isPresent()) {
+            return Optional.ofNullable(actor.get().getDepartamentoId());
+        }
+        return getUserIdActual().flatMap(administradorDepartamentoRepository::findByUserId)
+            .map(AdministradorDepartamento::getDepartamentoId);
+    }
+}
@@ -0,0 +1,223 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.ArchivoRepository;
+import fi.uba.quechua.repository.ArchivoRepository.Tabla;
+import fi.uba.quechua.service.dto.ArchivoResultadoDTO;
+import fi.uba.quechua.service.dto.CursadaHistoricaDTO;
+import fi.uba.quechua.service.dto.InscripcionHistoricaDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Service Implementation for the archivo de periodos cerrados.
+ * <p>
+ * Las inscripciones, cursadas y coloquios de los periodos cerrados (todos menos los ultimos
+ * periodosRetenidos, contando el actual) se mueven a tablas de archivo, al igual que las filas eliminadas
+ * que ya no se consultan. Se mueven en lotes, cada uno en su propia transaccion, para no bloquear las
+ * tablas principales. Las consultas historicas leen las dos tablas a la vez.
+ */
+@Service
+@Transactional
+public class ArchivoService {
+
+    private final Logger log = LoggerFactory.getLogger(ArchivoService.class);
+
+    /**
+     * Orden cronologico de los periodos: el curso de verano es al principio del anio.
+     */
+    private static final Comparator<Periodo> CRONOLOGICO = Comparator
+        .comparing(Periodo::getAnio)
+        .thenComparing(p -> p.getCuatrimestre() == Cuatrimestre.VERANO ? -1 : p.getCuatrimestre().ordinal())
+        .thenComparing(Periodo::getId);
+
+    private final ApplicationProperties.Archivo config;
+
+    private final ArchivoRepository archivoRepository;
+
+    private final PeriodoService periodoService;
+
+    public ArchivoService(ApplicationProperties applicationProperties, ArchivoRepository archivoRepository,
+                          PeriodoService periodoService) {
+        this.config = applicationProperties.getArchivo();
+        this.archivoRepository = archivoRepository;
+        this.periodoService = periodoService;
+    }
+
+    /**
+     * Archiva los periodos cerrados y las filas eliminadas.
+     * <p>
+     * This is scheduled to get fired everyday, at 04:00 (am).
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void archivarAutomaticamente() {
+        if (config.isEnabled()) {
+            archivar();
+        }
+    }
+
+    /**
+     * Archiva los periodos cerrados y las filas eliminadas.
+     *
+     * @return the periodos archivados y las filas movidas de cada tabla
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ArchivoResultadoDTO archivar() {
+        ArchivoResultadoDTO resultado = new ArchivoResultadoDTO();
+        Instant ahora = Instant.now();
+        for (Periodo periodo : findPeriodosCerrados()) {
+            archivar(periodo, ahora, resultado);
+        }
+        List<Long> anteriores = new ArrayList<>();
+        for (Periodo periodo : findPeriodosAnteriores()) {
+            anteriores.add(periodo.getId());
+        }
+        LocalDate limite = LocalDate.now().minusDays(config.getDiasRetencionEliminadas());
+        for (Tabla tabla : Tabla.values()) {
+            int movidas;
+            do {
+                movidas = archivoRepository.archivarEliminadas(tabla, limite, anteriores, config.getLote(), ahora);
+                resultado.sumar(tabla.getNombre(), movidas);
+            } while (movidas == config.getLote());
+        }
+        log.info("Archivo terminado: {}", resultado);
+        return resultado;
+    }
+
+    /**
+     * Archiva un periodo cerrado.
+     *
+     * @param periodo the periodo, que debe estar entre los cerrados
+     * @return the filas movidas de cada tabla
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ArchivoResultadoDTO archivar(Periodo periodo) {
+        ArchivoResultadoDTO resultado = new ArchivoResultadoDTO();
+        archivar(periodo, Instant.now(), resultado);
+        log.info("Archivo del periodo {} terminado: {}", periodo.getId(), resultado);
+        return resultado;
+    }
+
+    private void archivar(Periodo periodo, Instant ahora, ArchivoResultadoDTO resultado) {
+        log.debug("Archivando el periodo {}", periodo);
+        for (Tabla tabla : Tabla.values()) {
+            int movidas;
+            do {
+                movidas = archivoRepository.archivarDelPeriodo(tabla, periodo.getId(), config.getLote(), ahora);
+                resultado.sumar(tabla.getNombre(), movidas);
+            } while (movidas == config.getLote());
+        }
+        resultado.getPeriodos().add(periodo.getId());
+    }
+
+    /**
+     * Get the periodos cerrados: los anteriores a los ultimos periodosRetenidos, contando el actual. Sin un
+     * periodo actual no hay ninguno cerrado.
+     *
+     * @return the periodos, en orden cronologico
+     */
+    @Transactional(readOnly = true)
+    public List<Periodo> findPeriodosCerrados() {
+        List<Periodo> periodos = findHastaElActual();
+        int retenidos = Math.max(1, config.getPeriodosRetenidos());
+        return new ArrayList<>(periodos.subList(0, Math.max(0, periodos.size() - retenidos)));
+    }
+
+    /**
+     * Periodos anteriores al actual que todavia no estan cerrados.
+     */
+    private List<Periodo> findPeriodosAnteriores() {
+        List<Periodo> periodos = findHastaElActual();
+        int retenidos = Math.max(1, config.getPeriodosRetenidos());
+        return periodos.subList(Math.max(0, periodos.size() - retenidos), Math.max(0, periodos.size() - 1));
+    }
+
+    /**
+     * @return los periodos hasta el actual inclusive, en orden cronologico; vacio si no hay periodo actual
+     */
+    private List<Periodo> findHastaElActual() {
+        Optional<Periodo> actual = periodoService.findPeriodoActual();
+        if (!actual.isPresent()) {
+            return Collections.emptyList();
+        }
+        List<Periodo> periodos = new ArrayList<>();
+        for (Periodo periodo : periodoService.findAll()) {
+            if (CRONOLOGICO.compare(periodo, actual.get()) <= 0) {
+                periodos.add(periodo);
+            }
+        }
+        periodos.sort(CRONOLOGICO);
+        return periodos;
+    }
+
+    /**
+     * Get the historia academica del alumno: sus cursadas vigentes y archivadas.
+     *
+     * @param alumnoId the id of the alumno
+     * @return the cursadas, en orden cronologico
+     */
+    @Transactional(readOnly = true)
+    public List<CursadaHistoricaDTO> findHistoriaAcademica(Long alumnoId) {
+        log.debug("Request to get historia academica del Alumno : {}", alumnoId);
+        List<CursadaHistoricaDTO> cursadas = new ArrayList<>();
+        for (Object[] fila : archivoRepository.findCursadasByAlumno(alumnoId)) {
+            cursadas.add(new CursadaHistoricaDTO(toLong(fila[0]), toEnum(CursadaEstado.class, fila[1]),
+                toFloat(fila[2]), toFloat(fila[3]), (String) fila[4], (String) fila[5], toBoolean(fila[6]),
+                toLong(fila[7]), toInteger(fila[8]), toLong(fila[9]), (String) fila[10], (String) fila[11], toInteger(fila[12]),
+                toLong(fila[13]), toEnum(Cuatrimestre.class, fila[14]), (String) fila[15]));
+        }
+        return cursadas;
+    }
+
+    /**
+     * Get all the inscripciones del curso, vigentes y archivadas.
+     *
+     * @param cursoId the id of the curso
+     * @return the inscripciones, ordenadas por alumno
+     */
+    @Transactional(readOnly = true)
+    public List<InscripcionHistoricaDTO> findInscripcionesHistoricas(Long cursoId) {
+        log.debug("Request to get inscripciones historicas del Curso : {}", cursoId);
+        List<InscripcionHistoricaDTO> inscripciones = new ArrayList<>();
+        for (Object[] fila : archivoRepository.findInscripcionesByCurso(cursoId)) {
+            inscripciones.add(new InscripcionHistoricaDTO(toLong(fila[0]), toEnum(InscripcionCursoEstado.class, fila[1]),
+                toEnum(CursadaEstado.class, fila[2]), toBoolean(fila[3]),
+                toLong(fila[4]), (String) fila[5], (String) fila[6], (String) fila[7]));
+        }
+        return inscripciones;
+    }
+
+    private static Long toLong(Object valor) {
+        return valor == null ? null : ((Number) valor).longValue();
+    }
+
+    private static Integer toInteger(Object valor) {
+        return valor == null ? null : ((Number) valor).intValue();
+    }
+
+    private static Float toFloat(Object valor) {
+        return valor == null ? null : ((Number) valor).floatValue();
+    }
+
+    private static boolean toBoolean(Object valor) {
+        return valor != null && ((Number) valor).intValue() == 1;
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> tipo, Object valor) {
+        return valor == null ? null : Enum.valueOf(tipo, (String) valor);
+    }
+}
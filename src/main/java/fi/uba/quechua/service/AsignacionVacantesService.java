@@ -0,0 +1,218 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.domain.enumeration.PeriodoActividad;
+import fi.uba.quechua.repository.CupoCursoRepository;
+import fi.uba.quechua.repository.InscripcionCursoLoteRepository;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.repository.IntencionInscripcionRepository;
+import fi.uba.quechua.service.dto.AsignacionCursoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Service Implementation for the asignacion de vacantes por prioridad.
+ * <p>
+ * Mientras la ventana de inscripcion esta abierta solo se registran intenciones de inscripcion. Al
+ * cerrarse, una unica pasada por periodo ordena las intenciones por la prioridad del alumno (con un
+ * desempate por sorteo determinista, de modo que la simulacion coincide con la asignacion real),
+ * completa las vacantes de cada curso y deja al resto como CONDICIONAL. Los alumnos sin prioridad (0)
+ * van despues de todos los demas. Las inscripciones se insertan con INSERT de varias filas.
+ */
+@Service
+@Transactional
+public class AsignacionVacantesService {
+
+    private final Logger log = LoggerFactory.getLogger(AsignacionVacantesService.class);
+
+    private final ApplicationProperties.Inscripcion.Asignacion config;
+
+    private final IntencionInscripcionRepository intencionInscripcionRepository;
+
+    private final InscripcionCursoRepository inscripcionCursoRepository;
+
+    private final InscripcionCursoLoteRepository inscripcionCursoLoteRepository;
+
+    private final CupoCursoRepository cupoCursoRepository;
+
+    private final PeriodoService periodoService;
+
+    private final PeriodoAdministrativoService periodoAdministrativoService;
+
+    private final OcupacionSemanalService ocupacionSemanalService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public AsignacionVacantesService(ApplicationProperties applicationProperties,
+                                     IntencionInscripcionRepository intencionInscripcionRepository,
+                                     InscripcionCursoRepository inscripcionCursoRepository,
+                                     InscripcionCursoLoteRepository inscripcionCursoLoteRepository,
+                                     CupoCursoRepository cupoCursoRepository, PeriodoService periodoService,
+                                     PeriodoAdministrativoService periodoAdministrativoService,
+                                     OcupacionSemanalService ocupacionSemanalService,
+                                     ApplicationEventPublisher applicationEventPublisher) {
+        this.config = applicationProperties.getInscripcion().getAsignacion();
+        this.intencionInscripcionRepository = intencionInscripcionRepository;
+        this.inscripcionCursoRepository = inscripcionCursoRepository;
+        this.inscripcionCursoLoteRepository = inscripcionCursoLoteRepository;
+        this.cupoCursoRepository = cupoCursoRepository;
+        this.periodoService = periodoService;
+        this.periodoAdministrativoService = periodoAdministrativoService;
+        this.ocupacionSemanalService = ocupacionSemanalService;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Registra la intencion del alumno de inscribirse al curso. Si ya estaba registrada, la devuelve.
+     *
+     * @param curso el curso
+     * @param alumno el alumno
+     * @return the persisted entity
+     */
+    public IntencionInscripcion registrarIntencion(Curso curso, Alumno alumno) {
+        log.debug("Request to registrar intencion del Alumno {} en el Curso {}", alumno.getId(), curso.getId());
+        return intencionInscripcionRepository.findByCursoAndAlumno(curso, alumno)
+            .orElseGet(() -> intencionInscripcionRepository.save(
+                new IntencionInscripcion().curso(curso).alumno(alumno).fecha(Instant.now())));
+    }
+
+    /**
+     * Calcula la asignacion de vacantes del periodo sin modificar nada.
+     *
+     * @param periodo el periodo
+     * @return la asignacion proyectada por curso
+     */
+    @Transactional(readOnly = true)
+    public Collection<AsignacionCursoDTO> simular(Periodo periodo) {
+        log.debug("Request to simular la asignacion de vacantes del Periodo {}", periodo.getId());
+        return calcular(periodo, intencionInscripcionRepository.findAllByPeriodo(periodo), null).values();
+    }
+
+    /**
+     * Asigna las vacantes del periodo a partir de las intenciones registradas y las elimina.
+     *
+     * @param periodo el periodo
+     * @return la asignacion realizada por curso
+     */
+    public Collection<AsignacionCursoDTO> asignar(Periodo periodo) {
+        log.debug("Request to asignar las vacantes del Periodo {}", periodo.getId());
+        cupoCursoRepository.crearFaltantes(InscripcionCursoEstado.REGULAR.name());
+        List<InscripcionCurso> inscripciones = new ArrayList<>();
+        Map<Long, AsignacionCursoDTO> asignaciones = calcular(periodo, intencionInscripcionRepository.findAllByPeriodo(periodo), inscripciones);
+        if (!inscripciones.isEmpty()) {
+            inscripcionCursoLoteRepository.insertar(inscripciones, inscripcionCursoLoteRepository.reservarIds(inscripciones.size()));
+        }
+        ocupacionSemanalService.invalidarAlumnos();
+        applicationEventPublisher.publishEvent(new CursoModificadoEvent(null));
+        for (AsignacionCursoDTO asignacion : asignaciones.values()) {
+            if (!asignacion.getRegulares().isEmpty()) {
+                cupoCursoRepository.sumarOcupadas(asignacion.getCursoId(), asignacion.getRegulares().size());
+            }
+        }
+        int eliminadas = intencionInscripcionRepository.deleteAllByPeriodo(periodo);
+        log.info("Asignacion del periodo {}: {} inscripciones creadas a partir de {} intenciones",
+            periodo.getId(), inscripciones.size(), eliminadas);
+        return asignaciones.values();
+    }
+
+    /**
+     * Asigna las vacantes del periodo actual una vez cerrada la ventana de inscripcion a cursadas.
+     * <p>
+     * This is scheduled to get fired everyday, at 00:05 (am).
+     */
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void asignarAlCierre() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (periodoAdministrativoService.getActividadesDisponibles().contains(PeriodoActividad.INSCRIPCION_CURSADA)) {
+            return;
+        }
+        Optional<Periodo> periodo = periodoService.findPeriodoActual();
+        if (periodo.isPresent() && intencionInscripcionRepository.countByPeriodo(periodo.get()) > 0) {
+            asignar(periodo.get());
+        }
+    }
+
+    /**
+     * Ordena las intenciones y reparte las vacantes libres de cada curso.
+     *
+     * @param inscripciones si no es null, se agregan las inscripciones a crear
+     */
+    private Map<Long, AsignacionCursoDTO> calcular(Periodo periodo, List<IntencionInscripcion> intenciones,
+                                                   List<InscripcionCurso> inscripciones) {
+        Set<String> inscriptos = new HashSet<>();
+        for (Object[] fila : inscripcionCursoRepository.findAlumnoAndCursoIdsByPeriodoAndEstadoNot(periodo, InscripcionCursoEstado.ELIMINADA)) {
+            inscriptos.add(fila[0] + "-" + fila[1]);
+        }
+        Set<Long> cursoIds = new HashSet<>();
+        for (IntencionInscripcion intencion : intenciones) {
+            cursoIds.add(intencion.getCurso().getId());
+        }
+        Map<Long, Integer> libres = new HashMap<>();
+        for (CupoCurso cupo : cupoCursoRepository.findAllById(cursoIds)) {
+            libres.put(cupo.getCursoId(), Math.max(0, cupo.getVacantes() - cupo.getOcupadas()));
+        }
+
+        intenciones.sort(Comparator
+            .comparingInt((IntencionInscripcion i) -> orden(i.getAlumno().getPrioridad()))
+            .thenComparingLong(i -> sorteo(periodo.getId(), i.getAlumno().getId()))
+            .thenComparing(i -> i.getAlumno().getId()));
+
+        Map<Long, AsignacionCursoDTO> asignaciones = new LinkedHashMap<>();
+        for (IntencionInscripcion intencion : intenciones) {
+            Curso curso = intencion.getCurso();
+            Alumno alumno = intencion.getAlumno();
+            if (!inscriptos.add(alumno.getId() + "-" + curso.getId())) {
+                continue;
+            }
+            int disponibles = libres.computeIfAbsent(curso.getId(), id -> curso.getVacantes());
+            AsignacionCursoDTO asignacion = asignaciones.computeIfAbsent(curso.getId(),
+                id -> new AsignacionCursoDTO(id, disponibles));
+            InscripcionCursoEstado estado;
+            if (disponibles > 0) {
+                libres.put(curso.getId(), disponibles - 1);
+                asignacion.getRegulares().add(alumno.getId());
+                estado = InscripcionCursoEstado.REGULAR;
+            } else {
+                asignacion.getCondicionales().add(alumno.getId());
+                estado = InscripcionCursoEstado.CONDICIONAL;
+            }
+            if (inscripciones != null) {
+                inscripciones.add(new InscripcionCurso().curso(curso).alumno(alumno).estado(estado));
+            }
+        }
+        return asignaciones;
+    }
+
+    /**
+     * Orden de atencion de una prioridad: 1 es la mejor, y sin prioridad (0 o null) va al final.
+     */
+    static int orden(Integer prioridad) {
+        return prioridad == null || prioridad <= 0 ? Integer.MAX_VALUE : prioridad;
+    }
+
+    /**
+     * Numero pseudoaleatorio pero reproducible para desempatar alumnos con la misma prioridad.
+     */
+    static long sorteo(Long periodoId, Long alumnoId) {
+        long z = periodoId * 0x9E3779B97F4A7C15L + alumnoId;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,155 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.PeriodoAdministrativo;
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import fi.uba.quechua.domain.enumeration.PeriodoActividad;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Foto inmutable de los Periodos y PeriodoAdministrativos, indexada por fecha.
+ * <p>
+ * Los periodos administrativos se parten en tramos: entre dos fechas consecutivas en las que alguno empieza o
+ * termina, los vigentes son siempre los mismos. Buscar los vigentes en una fecha es buscar su tramo, en
+ * tiempo logaritmico. El periodo actual sale de la regla del cuatrimestre en curso: PRIMERO de junio a agosto y
+ * SEGUNDO el resto del anio.
+ */
+public final class CalendarioAcademico {
+
+    public static final CalendarioAcademico VACIO = new CalendarioAcademico(Collections.emptyList(), Collections.emptyList());
+
+    private final Map<String, Periodo> periodos;
+
+    private final NavigableMap<LocalDate, List<PeriodoAdministrativo>> tramos;
+
+    public CalendarioAcademico(Collection<Periodo> periodos, Collection<PeriodoAdministrativo> periodosAdministrativos) {
+        Map<String, Periodo> porCuatrimestre = new HashMap<>();
+        for (Periodo periodo : periodos) {
+            // Con periodos repetidos gana el de menor id, para que la respuesta no dependa del orden de lectura
+            porCuatrimestre.merge(clave(periodo.getAnio(), periodo.getCuatrimestre()), periodo,
+                (uno, otro) -> uno.getId() <= otro.getId() ? uno : otro);
+        }
+        this.periodos = Collections.unmodifiableMap(porCuatrimestre);
+
+        List<PeriodoAdministrativo> ordenados = new ArrayList<>();
+        TreeSet<LocalDate> cambios = new TreeSet<>();
+        for (PeriodoAdministrativo periodo : periodosAdministrativos) {
+            if (periodo.getFechaInicio() == null || periodo.getFechaFin() == null
+                || periodo.getFechaFin().isBefore(periodo.getFechaInicio())) {
+                continue;
+            }
+            ordenados.add(periodo);
+            cambios.add(periodo.getFechaInicio());
+            cambios.add(periodo.getFechaFin().plusDays(1));
+        }
+        ordenados.sort(Comparator.comparing(PeriodoAdministrativo::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        NavigableMap<LocalDate, List<PeriodoAdministrativo>> porTramo = new TreeMap<>();
+        for (LocalDate inicio : cambios) {
+            List<PeriodoAdministrativo> vigentes = new ArrayList<>();
+            for (PeriodoAdministrativo periodo : ordenados) {
+                if (!inicio.isBefore(periodo.getFechaInicio()) && !inicio.isAfter(periodo.getFechaFin())) {
+                    vigentes.add(periodo);
+                }
+            }
+            porTramo.put(inicio, Collections.unmodifiableList(vigentes));
+        }
+        this.tramos = Collections.unmodifiableNavigableMap(porTramo);
+    }
+
+    /**
+     * Lo vigente en la fecha y hasta cuando sigue vigente.
+     */
+    public Vigencia getVigencia(LocalDate fecha) {
+        Periodo actual = periodos.get(clave(String.valueOf(fecha.getYear()), cuatrimestreEn(fecha)));
+        Map.Entry<LocalDate, List<PeriodoAdministrativo>> tramo = tramos.floorEntry(fecha);
+        List<PeriodoAdministrativo> vigentes = tramo == null ? Collections.emptyList() : tramo.getValue();
+        LocalDate desde = inicioDelCuatrimestre(fecha);
+        if (tramo != null && tramo.getKey().isAfter(desde)) {
+            desde = tramo.getKey();
+        }
+        LocalDate hasta = finDelCuatrimestre(fecha);
+        LocalDate proximoTramo = tramos.higherKey(fecha);
+        if (proximoTramo != null && proximoTramo.isBefore(hasta)) {
+            hasta = proximoTramo;
+        }
+        return new Vigencia(actual, vigentes, desde, hasta);
+    }
+
+    static Cuatrimestre cuatrimestreEn(LocalDate fecha) {
+        int mes = fecha.getMonthValue();
+        return mes >= 6 && mes <= 8 ? Cuatrimestre.PRIMERO : Cuatrimestre.SEGUNDO;
+    }
+
+    private static LocalDate inicioDelCuatrimestre(LocalDate fecha) {
+        int mes = fecha.getMonthValue();
+        if (mes < 6) {
+            return LocalDate.of(fecha.getYear(), 1, 1);
+        }
+        return LocalDate.of(fecha.getYear(), mes <= 8 ? 6 : 9, 1);
+    }
+
+    private static LocalDate finDelCuatrimestre(LocalDate fecha) {
+        int mes = fecha.getMonthValue();
+        if (mes < 6) {
+            return LocalDate.of(fecha.getYear(), 6, 1);
+        }
+        if (mes <= 8) {
+            return LocalDate.of(fecha.getYear(), 9, 1);
+        }
+        return LocalDate.of(fecha.getYear() + 1, 1, 1);
+    }
+
+    private static String clave(String anio, Cuatrimestre cuatrimestre) {
+        return anio + "-" + cuatrimestre;
+    }
+
+    /**
+     * El periodo actual y los periodos administrativos vigentes entre desde (inclusive) y hasta (exclusive).
+     */
+    public static final class Vigencia {
+
+        private final Periodo periodoActual;
+
+        private final List<PeriodoAdministrativo> periodosAdministrativos;
+
+        private final List<PeriodoActividad> actividades;
+
+        private final LocalDate desde;
+
+        private final LocalDate hasta;
+
+        private Vigencia(Periodo periodoActual, List<PeriodoAdministrativo> periodosAdministrativos, LocalDate desde, LocalDate hasta) {
+            this.periodoActual = periodoActual;
+            this.periodosAdministrativos = periodosAdministrativos;
+            List<PeriodoActividad> actividades = new ArrayList<>(periodosAdministrativos.size());
+            for (PeriodoAdministrativo periodo : periodosAdministrativos) {
+                actividades.add(periodo.getActividad());
+            }
+            this.actividades = Collections.unmodifiableList(actividades);
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        public Optional<Periodo> getPeriodoActual() {
+            return Optional.ofNullable(periodoActual);
+        }
+
+        public List<PeriodoAdministrativo> getPeriodosAdministrativos() {
+            return periodosAdministrativos;
+        }
+
+        public List<PeriodoActividad> getActividades() {
+            return actividades;
+        }
+
+        public boolean incluye(LocalDate fecha) {
+            return !fecha.isBefore(desde) && fecha.isBefore(hasta);
+        }
+
+        public LocalDate getHasta() {
+            return hasta;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package fi.uba.quechua.service;
+
+/**
+ * Se publica al guardar o borrar un Periodo o un PeriodoAdministrativo, para recargar el calendario una vez
+ * confirmada la transaccion.
+ */
+public class CalendarioModificadoEvent {
+}
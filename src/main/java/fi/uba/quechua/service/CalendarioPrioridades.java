@@ -0,0 +1,84 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Prioridad;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Foto inmutable de las fechas de habilitacion de cada Prioridad del periodo actual.
+ * <p>
+ * Se reemplaza completa cada vez que cambian las prioridades, de modo que las consultas no necesitan
+ * sincronizacion ni acceso a la base. Un alumno cuya prioridad no es del periodo (o no tiene prioridad) se
+ * habilita junto con la ultima prioridad.
+ */
+public final class CalendarioPrioridades {
+
+    public static final CalendarioPrioridades VACIO = new CalendarioPrioridades(Collections.emptyList());
+
+    private final Map<Long, Prioridad> prioridades;
+
+    private final Map<Long, Instant> habilitaciones;
+
+    private final Instant primeraHabilitacion;
+
+    private final Instant ultimaHabilitacion;
+
+    public CalendarioPrioridades(Collection<Prioridad> prioridades) {
+        Map<Long, Prioridad> porId = new HashMap<>();
+        Map<Long, Instant> fechas = new HashMap<>();
+        Instant primera = null;
+        Instant ultima = null;
+        for (Prioridad prioridad : prioridades) {
+            Instant fecha = prioridad.getFecha_habilitacion().toInstant();
+            porId.put(prioridad.getId(), prioridad);
+            fechas.put(prioridad.getId(), fecha);
+            if (primera == null || fecha.isBefore(primera)) {
+                primera = fecha;
+            }
+            if (ultima == null || fecha.isAfter(ultima)) {
+                ultima = fecha;
+            }
+        }
+        this.prioridades = Collections.unmodifiableMap(porId);
+        this.habilitaciones = Collections.unmodifiableMap(fechas);
+        this.primeraHabilitacion = primera;
+        this.ultimaHabilitacion = ultima;
+    }
+
+    public Optional<Prioridad> getPrioridad(Integer prioridad) {
+        if (prioridad == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(prioridades.get(prioridad.longValue()));
+    }
+
+    /**
+     * Segundos que faltan para que abra la inscripcion de cualquier prioridad.
+     *
+     * @return 0 si alguna prioridad ya esta habilitada o no hay prioridades cargadas
+     */
+    public long segundosHastaApertura(Instant ahora) {
+        return segundosHasta(primeraHabilitacion, ahora);
+    }
+
+    /**
+     * Segundos que faltan para que se habilite la prioridad. Sin prioridad del periodo, la espera es hasta
+     * la ultima habilitacion.
+     *
+     * @return 0 si la prioridad ya esta habilitada o no hay prioridades cargadas
+     */
+    public long segundosHastaHabilitacion(Integer prioridad, Instant ahora) {
+        Instant habilitacion = prioridad == null ? null : habilitaciones.get(prioridad.longValue());
+        return segundosHasta(habilitacion == null ? ultimaHabilitacion : habilitacion, ahora);
+    }
+
+    private static long segundosHasta(Instant fecha, Instant ahora) {
+        if (fecha == null || !ahora.isBefore(fecha)) {
+            return 0;
+        }
+        Duration espera = Duration.between(ahora, fecha);
+        return espera.getSeconds() + (espera.getNano() > 0 ? 1 : 0);
+    }
+}
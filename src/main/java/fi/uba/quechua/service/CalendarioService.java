@@ -0,0 +1,124 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.PeriodoAdministrativo;
+import fi.uba.quechua.domain.enumeration.PeriodoActividad;
+import fi.uba.quechua.repository.PeriodoAdministrativoRepository;
+import fi.uba.quechua.repository.PeriodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service Implementation for the calendario academico: el periodo actual y las actividades habilitadas hoy.
+ * <p>
+ * Responde desde una foto en memoria de los Periodos y PeriodoAdministrativos, que se recarga cuando cambian.
+ * Lo vigente se calcula una vez y se reusa hasta la proxima fecha en la que empieza o termina algo.
+ */
+@Service
+@Transactional
+public class CalendarioService {
+
+    private final Logger log = LoggerFactory.getLogger(CalendarioService.class);
+
+    private final PeriodoRepository periodoRepository;
+
+    private final PeriodoAdministrativoRepository periodoAdministrativoRepository;
+
+    private volatile CalendarioAcademico calendario;
+
+    private volatile CalendarioAcademico.Vigencia vigencia;
+
+    public CalendarioService(PeriodoRepository periodoRepository, PeriodoAdministrativoRepository periodoAdministrativoRepository) {
+        this.periodoRepository = periodoRepository;
+        this.periodoAdministrativoRepository = periodoAdministrativoRepository;
+    }
+
+    /**
+     * Get the periodo actual.
+     *
+     * @return the entity
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Periodo> findPeriodoActual() {
+        return getVigencia().getPeriodoActual();
+    }
+
+    /**
+     * Get the actividades habilitadas en la fecha actual.
+     *
+     * @return the list of actividades
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<PeriodoActividad> getActividadesDisponibles() {
+        return getVigencia().getActividades();
+    }
+
+    /**
+     * Get the periodos administrativos vigentes en la fecha actual.
+     *
+     * @return the list of entities
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<PeriodoAdministrativo> getPeriodosAdministrativosDisponibles() {
+        return getVigencia().getPeriodosAdministrativos();
+    }
+
+    private CalendarioAcademico.Vigencia getVigencia() {
+        LocalDate hoy = LocalDate.now();
+        CalendarioAcademico.Vigencia actual = vigencia;
+        if (actual == null || !actual.incluye(hoy)) {
+            CalendarioAcademico foto = calendario;
+            if (foto == null) {
+                foto = recargarCalendario();
+            }
+            actual = foto.getVigencia(hoy);
+            vigencia = actual;
+            log.debug("Calendario vigente desde {} hasta {}", hoy, actual.getHasta());
+        }
+        return actual;
+    }
+
+    /**
+     * Vuelve a leer los periodos, para tomar los cambios hechos desde otras instancias.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60000)
+    @Transactional(readOnly = true)
+    public void refrescarCalendario() {
+        recargarCalendario();
+    }
+
+    /**
+     * Recarga el calendario cuando se confirma el cambio de un Periodo o un PeriodoAdministrativo: antes la
+     * lectura no lo veria y, si se deshace, el calendario quedaria con datos que nunca existieron.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCalendarioModificado(CalendarioModificadoEvent event) {
+        recargarCalendario();
+    }
+
+    /**
+     * Recarga la foto del calendario.
+     *
+     * @return the calendario
+     */
+    public CalendarioAcademico recargarCalendario() {
+        CalendarioAcademico nuevo = new CalendarioAcademico(periodoRepository.findAll(), periodoAdministrativoRepository.findAll());
+        calendario = nuevo;
+        vigencia = null;
+        return nuevo;
+    }
+}
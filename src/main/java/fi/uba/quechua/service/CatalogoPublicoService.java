@@ -0,0 +1,308 @@
+package fi.uba.quechua.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.enumeration.CursoEstado;
+import fi.uba.quechua.repository.CursoRepository;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service Implementation for the catalogo publico de cursos.
+ * <p>
+ * Mantiene el catalogo ya serializado a JSON (y comprimido con gzip), completo y por materia del periodo
+ * actual, para que /public/cursos y /public/materias/:id/cursos no consulten la base. Cada curso se
+ * serializa por separado: cuando se confirma un cambio en un curso, sus horarios o sus inscripciones, solo
+ * se vuelve a serializar ese curso y se rearman las respuestas que lo incluyen. Ademas, el catalogo se
+ * reconstruye completo periodicamente, para reflejar cambios de periodo o de materias.
+ * <p>
+ * Los cursos se leen como {@link CursoResumenDTO}, sin cargar entidades: una consulta para los cursos, otra
+ * para sus horarios y otra para contar sus inscriptos.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CatalogoPublicoService {
+
+    private static final long RECONSTRUCCION_MILLIS = 5 * 60 * 1000;
+
+    private final Logger log = LoggerFactory.getLogger(CatalogoPublicoService.class);
+
+    private final CursoRepository cursoRepository;
+
+    private final InscripcionCursoService inscripcionCursoService;
+
+    private final HorarioCursadaService horarioCursadaService;
+
+    private final PeriodoService periodoService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean reconstruir = true;
+
+    private volatile Catalogo catalogo;
+
+    public CatalogoPublicoService(CursoRepository cursoRepository, InscripcionCursoService inscripcionCursoService,
+                                  HorarioCursadaService horarioCursadaService, PeriodoService periodoService,
+                                  ObjectMapper objectMapper) {
+        this.cursoRepository = cursoRepository;
+        this.inscripcionCursoService = inscripcionCursoService;
+        this.horarioCursadaService = horarioCursadaService;
+        this.periodoService = periodoService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * JSON de todos los cursos activos.
+     */
+    public Json getCursos() {
+        return getCatalogo().cursos;
+    }
+
+    /**
+     * JSON de los cursos activos de la materia en el periodo actual.
+     *
+     * @return vacio si la materia no tiene cursos activos en el periodo actual
+     */
+    public Optional<Json> getCursosDeMateria(Long materiaId) {
+        return Optional.ofNullable(getCatalogo().porMateria.get(materiaId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCursoModificado(CursoModificadoEvent event) {
+        if (event.getCursoId() == null) {
+            reconstruir = true;
+        } else {
+            pendientes.add(event.getCursoId());
+        }
+    }
+
+    /**
+     * Aplica al catalogo los cambios confirmados desde la ultima actualizacion.
+     * <p>
+     * This is scheduled to get fired every second.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void actualizar() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            return;
+        }
+        try {
+            if (reconstruir || System.currentTimeMillis() - actual.construido > RECONSTRUCCION_MILLIS) {
+                reconstruirCompleto();
+            } else if (!pendientes.isEmpty()) {
+                List<Long> cursoIds = new ArrayList<>(pendientes);
+                pendientes.removeAll(cursoIds);
+                catalogo = actualizarCursos(actual, cursoIds);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo actualizar el catalogo publico: {}", e.getMessage());
+            reconstruir = true;
+        }
+    }
+
+    private Catalogo getCatalogo() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            synchronized (this) {
+                actual = catalogo;
+                if (actual == null) {
+                    actual = reconstruirCompleto();
+                }
+            }
+        }
+        return actual;
+    }
+
+    private synchronized Catalogo reconstruirCompleto() {
+        reconstruir = false;
+        pendientes.clear();
+        List<CursoResumenDTO> cursos = cursoRepository.findResumenesByEstado(CursoEstado.ACTIVO);
+        Long periodoActualId = periodoService.findPeriodoActual().map(Periodo::getId).orElse(null);
+        SortedMap<Long, Fragmento> fragmentos = new TreeMap<>(serializar(cursos));
+        Catalogo nuevo = new Catalogo(periodoActualId, fragmentos, Collections.emptyMap(), null);
+        catalogo = nuevo;
+        log.debug("Catalogo publico reconstruido con {} cursos", fragmentos.size());
+        return nuevo;
+    }
+
+    private synchronized Catalogo actualizarCursos(Catalogo actual, Collection<Long> cursoIds) {
+        SortedMap<Long, Fragmento> fragmentos = new TreeMap<>(actual.fragmentos);
+        Set<Long> materias = new HashSet<>();
+        for (Long cursoId : cursoIds) {
+            Fragmento anterior = fragmentos.remove(cursoId);
+            if (anterior != null) {
+                materias.add(anterior.materiaId);
+            }
+        }
+        List<CursoResumenDTO> cursos = new ArrayList<>();
+        for (CursoResumenDTO curso : cursoRepository.findResumenesByIdIn(cursoIds)) {
+            if (curso.getEstado() == CursoEstado.ACTIVO) {
+                cursos.add(curso);
+            }
+        }
+        Map<Long, Fragmento> actualizados = serializar(cursos);
+        for (Fragmento fragmento : actualizados.values()) {
+            materias.add(fragmento.materiaId);
+        }
+        fragmentos.putAll(actualizados);
+        log.debug("Catalogo publico actualizado para los cursos {}", cursoIds);
+        return new Catalogo(actual.periodoActualId, fragmentos, actual.porMateria, materias);
+    }
+
+    private Map<Long, Fragmento> serializar(List<CursoResumenDTO> cursos) {
+        horarioCursadaService.completarHorarios(cursos);
+        List<Long> cursoIds = new ArrayList<>(cursos.size());
+        for (CursoResumenDTO curso : cursos) {
+            cursoIds.add(curso.getId());
+        }
+        Map<Long, Long> inscriptos = inscripcionCursoService.contarInscriptosPorId(cursoIds);
+        Map<Long, Fragmento> fragmentos = new HashMap<>();
+        for (CursoResumenDTO curso : cursos) {
+            long cantidad = inscriptos.getOrDefault(curso.getId(), 0L);
+            curso.setVacantesDisponibles((int) Math.max(0, curso.getVacantes() - cantidad));
+            try {
+                fragmentos.put(curso.getId(), new Fragmento(
+                    curso.getMateria() == null ? null : curso.getMateria().getId(),
+                    curso.getPeriodo() == null ? null : curso.getPeriodo().getId(),
+                    objectMapper.writeValueAsBytes(curso)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("No se pudo serializar el curso " + curso.getId(), e);
+            }
+        }
+        return fragmentos;
+    }
+
+    /**
+     * Respuesta ya serializada, en texto plano y comprimida con gzip, con su ETag.
+     */
+    public static final class Json {
+
+        private final byte[] contenido;
+
+        private final byte[] gzip;
+
+        private final String etag;
+
+        private final String etagGzip;
+
+        Json(List<byte[]> elementos) {
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            salida.write('[');
+            for (int i = 0; i < elementos.size(); i++) {
+                if (i > 0) {
+                    salida.write(',');
+                }
+                byte[] elemento = elementos.get(i);
+                salida.write(elemento, 0, elemento.length);
+            }
+            salida.write(']');
+            this.contenido = salida.toByteArray();
+            this.gzip = comprimir(contenido);
+            String hash = DigestUtils.md5DigestAsHex(contenido);
+            this.etag = "\"" + hash + "\"";
+            this.etagGzip = "\"" + hash + "-gzip\"";
+        }
+
+        public byte[] getContenido() {
+            return contenido;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * ETag de la version comprimida: es otra representacion, asi que un ETag fuerte no puede repetirse.
+         */
+        public String getEtagGzip() {
+            return etagGzip;
+        }
+
+        private static byte[] comprimir(byte[] contenido) {
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(contenido.length / 4 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+                gzip.write(contenido);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return salida.toByteArray();
+        }
+    }
+
+    private static final class Fragmento {
+
+        private final Long materiaId;
+
+        private final Long periodoId;
+
+        private final byte[] json;
+
+        Fragmento(Long materiaId, Long periodoId, byte[] json) {
+            this.materiaId = materiaId;
+            this.periodoId = periodoId;
+            this.json = json;
+        }
+    }
+
+    private static final class Catalogo {
+
+        private final long construido;
+
+        private final Long periodoActualId;
+
+        private final SortedMap<Long, Fragmento> fragmentos;
+
+        private final Json cursos;
+
+        private final Map<Long, Json> porMateria;
+
+        /**
+         * @param anterior las respuestas por materia del catalogo anterior
+         * @param materias las materias cuyas respuestas hay que rearmar, o null para rearmarlas todas
+         */
+        Catalogo(Long periodoActualId, SortedMap<Long, Fragmento> fragmentos, Map<Long, Json> anterior, Set<Long> materias) {
+            this.construido = System.currentTimeMillis();
+            this.periodoActualId = periodoActualId;
+            this.fragmentos = fragmentos;
+            List<byte[]> todos = new ArrayList<>(fragmentos.size());
+            Map<Long, List<byte[]>> delPeriodo = new HashMap<>();
+            for (Fragmento fragmento : fragmentos.values()) {
+                todos.add(fragmento.json);
+                boolean rearmar = materias == null || materias.contains(fragmento.materiaId);
+                if (rearmar && fragmento.materiaId != null && periodoActualId != null && periodoActualId.equals(fragmento.periodoId)) {
+                    delPeriodo.computeIfAbsent(fragmento.materiaId, id -> new ArrayList<>()).add(fragmento.json);
+                }
+            }
+            this.cursos = new Json(todos);
+            Map<Long, Json> porMateria = new HashMap<>(anterior);
+            if (materias == null) {
+                porMateria.clear();
+            } else {
+                porMateria.keySet().removeAll(materias);
+            }
+            delPeriodo.forEach((materiaId, elementos) -> porMateria.put(materiaId, new Json(elementos)));
+            this.porMateria = Collections.unmodifiableMap(porMateria);
+        }
+    }
+}
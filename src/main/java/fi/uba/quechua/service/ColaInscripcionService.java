@@ -0,0 +1,223 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.service.dto.TicketInscripcionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inscripcion asincronica a cursos.
+ * <p>
+ * Las solicitudes se reparten por curso entre un numero fijo de colas. Cada cola tiene un unico
+ * worker que las procesa en orden de llegada y en lotes, por lo que las inscripciones a un mismo
+ * curso nunca compiten entre si por las mismas filas. El cliente recibe un ticket que puede
+ * consultar (o esperar con un limite de tiempo) hasta conocer el resultado final.
+ */
+@Service
+public class ColaInscripcionService {
+
+    private final Logger log = LoggerFactory.getLogger(ColaInscripcionService.class);
+
+    private final ApplicationProperties.Inscripcion.Cola config;
+
+    private final InscripcionCursoService inscripcionCursoService;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private final List<BlockingQueue<Ticket>> colas = new ArrayList<>();
+
+    private ExecutorService workers;
+
+    public ColaInscripcionService(ApplicationProperties applicationProperties, InscripcionCursoService inscripcionCursoService) {
+        this.config = applicationProperties.getInscripcion().getCola();
+        this.inscripcionCursoService = inscripcionCursoService;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        log.info("Iniciando la cola de inscripciones con {} workers", config.getWorkers());
+        AtomicInteger numero = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(config.getWorkers(),
+            runnable -> new Thread(runnable, "quechua-Inscripcion-" + numero.incrementAndGet()));
+        for (int i = 0; i < config.getWorkers(); i++) {
+            BlockingQueue<Ticket> cola = new ArrayBlockingQueue<>(config.getCapacity());
+            colas.add(cola);
+            workers.execute(() -> procesar(cola));
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Encola una solicitud de inscripcion.
+     *
+     * @param curso el curso
+     * @param alumno el alumno
+     * @param login el usuario que realiza la solicitud, unico autorizado a consultar el ticket
+     * @return el ticket, o vacio si la cola del curso esta llena
+     */
+    public Optional<TicketInscripcionDTO> encolar(Curso curso, Alumno alumno, String login) {
+        Ticket ticket = new Ticket(curso, alumno, login);
+        tickets.put(ticket.id, ticket);
+        BlockingQueue<Ticket> cola = colas.get((int) Math.floorMod(curso.getId(), (long) colas.size()));
+        if (!cola.offer(ticket)) {
+            tickets.remove(ticket.id);
+            log.warn("La cola de inscripciones del curso {} esta llena", curso.getId());
+            return Optional.empty();
+        }
+        log.debug("Encolada la inscripcion {}", ticket.pendiente);
+        return Optional.of(ticket.pendiente);
+    }
+
+    /**
+     * Consulta el estado de un ticket, esperando a lo sumo el tiempo indicado si todavia esta pendiente.
+     *
+     * @param id el id del ticket
+     * @param login el usuario que consulta
+     * @param esperaMillis tiempo maximo de espera, acotado por la configuracion
+     * @return el estado del ticket, o vacio si no existe o pertenece a otro usuario
+     */
+    public Optional<TicketInscripcionDTO> consultar(String id, String login, long esperaMillis) {
+        Ticket ticket = tickets.get(id);
+        if (ticket == null || !ticket.login.equals(login)) {
+            return Optional.empty();
+        }
+        long espera = Math.min(Math.max(esperaMillis, 0), config.getMaxWaitMillis());
+        if (espera > 0) {
+            try {
+                return Optional.of(ticket.resultado.get(espera, TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                return Optional.of(ticket.pendiente);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.error("Error inesperado en el ticket {}", id, e);
+            }
+        }
+        return Optional.of(ticket.resultado.getNow(ticket.pendiente));
+    }
+
+    /**
+     * Elimina los tickets ya resueltos que superaron su tiempo de vida.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgarTickets() {
+        Instant limite = Instant.now().minusSeconds(config.getTicketTimeToLiveSeconds());
+        tickets.values().removeIf(ticket -> ticket.resuelto != null && ticket.resuelto.isBefore(limite));
+    }
+
+    private void procesar(BlockingQueue<Ticket> cola) {
+        List<Ticket> lote = new ArrayList<>(config.getBatchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            cola.drainTo(lote, config.getBatchSize() - 1);
+            procesarLote(lote);
+            lote.clear();
+        }
+    }
+
+    private void procesarLote(List<Ticket> lote) {
+        List<InscripcionCurso> solicitudes = new ArrayList<>(lote.size());
+        for (Ticket ticket : lote) {
+            solicitudes.add(new InscripcionCurso().curso(ticket.curso).alumno(ticket.alumno));
+        }
+        try {
+            List<InscripcionCurso> inscripciones = inscripcionCursoService.inscribirLote(solicitudes);
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).resolver(inscripciones.get(i));
+            }
+        } catch (Exception e) {
+            if (lote.size() > 1) {
+                log.warn("Fallo el lote de {} inscripciones, se reintentan de a una: {}", lote.size(), e.getMessage());
+                for (Ticket ticket : lote) {
+                    procesarLote(Collections.singletonList(ticket));
+                }
+            } else {
+                log.error("No se pudo procesar la inscripcion {}", lote.get(0).id, e);
+                lote.get(0).rechazar("No se pudo procesar la inscripcion");
+            }
+        }
+    }
+
+    private static final class Ticket {
+
+        private final String id = UUID.randomUUID().toString();
+
+        private final Curso curso;
+
+        private final Alumno alumno;
+
+        private final String login;
+
+        private final TicketInscripcionDTO pendiente;
+
+        private final CompletableFuture<TicketInscripcionDTO> resultado = new CompletableFuture<>();
+
+        private volatile Instant resuelto;
+
+        private Ticket(Curso curso, Alumno alumno, String login) {
+            this.curso = curso;
+            this.alumno = alumno;
+            this.login = login;
+            this.pendiente = new TicketInscripcionDTO(id, curso.getId());
+        }
+
+        private void resolver(InscripcionCurso inscripcion) {
+            if (inscripcion == null) {
+                rechazar("El alumno ya se encuentra inscripto al curso");
+                return;
+            }
+            TicketInscripcionDTO dto = new TicketInscripcionDTO(id, curso.getId());
+            dto.setEstado(TicketInscripcionDTO.estadoDe(inscripcion.getEstado()));
+            dto.setInscripcionCursoId(inscripcion.getId());
+            completar(dto);
+        }
+
+        private void rechazar(String mensaje) {
+            TicketInscripcionDTO dto = new TicketInscripcionDTO(id, curso.getId());
+            dto.setEstado(TicketInscripcionDTO.Estado.RECHAZADA);
+            dto.setMensaje(mensaje);
+            completar(dto);
+        }
+
+        private void completar(TicketInscripcionDTO dto) {
+            resuelto = Instant.now();
+            resultado.complete(dto);
+        }
+    }
+}
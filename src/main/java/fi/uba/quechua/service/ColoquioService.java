@@ -9,9 +9,7 @@ import fi.uba.quechua.domain.enumeration.ColoquioEstado;
 import fi.uba.quechua.domain.enumeration.InscripcionColoquioEstado;
 import fi.uba.quechua.repository.ColoquioRepository;
 import fi.uba.quechua.repository.InscripcionColoquioRepository;
-import fi.uba.quechua.repository.PeriodoRepository;
 import fi.uba.quechua.service.dto.ColoquioDTO;
-import fi.uba.quechua.firebase.FirebaseConnectionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,10 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Date;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 /**
  * Service Implementation for managing Coloquio.
  */
@@ -36,15 +31,18 @@ public class ColoquioService {
 
     private final ColoquioRepository coloquioRepository;
 
-    private final PeriodoRepository periodoRepository;
+    private final PeriodoService periodoService;
 
     private final InscripcionColoquioRepository inscripcionColoquioRepository;
 
-    public ColoquioService(ColoquioRepository coloquioRepository, PeriodoRepository periodoRepository,
-                           InscripcionColoquioRepository inscripcionColoquioRepository) {
+    private final OutboxService outboxService;
+
+    public ColoquioService(ColoquioRepository coloquioRepository, PeriodoService periodoService,
+                           InscripcionColoquioRepository inscripcionColoquioRepository, OutboxService outboxService) {
         this.coloquioRepository = coloquioRepository;
-        this.periodoRepository = periodoRepository;
+        this.periodoService = periodoService;
         this.inscripcionColoquioRepository = inscripcionColoquioRepository;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -103,28 +101,33 @@ public class ColoquioService {
         log.debug("Request to get Coloquios by curso {}", curso.getId());
 
         List<Coloquio> coloquios = coloquioRepository.findAllByCursoAndEstadoOrderByFechaDesc(curso, ColoquioEstado.ACTIVO);
-        List<ColoquioDTO> coloquiosDTO = new LinkedList<>();
-        for (Coloquio coloquio: coloquios) {
-            Integer inscripciones = inscripcionColoquioRepository.findAllByColoquioAndEstado(coloquio, InscripcionColoquioEstado.ACTIVA).size();
-            coloquiosDTO.add(new ColoquioDTO(coloquio, inscripciones));
-        }
-        return coloquiosDTO;
+        return toColoquiosDTO(coloquios);
     }
 
     public List<ColoquioDTO> findAllColoquiosDTO() {
         log.debug("Request to get Coloquios  {}");
-        Optional<Periodo> periodo = periodoRepository.findPeriodoActual();
+        Optional<Periodo> periodo = periodoService.findPeriodoActual();
         if (!periodo.isPresent()) {
             return new LinkedList<>();
         }
-        LocalDate ayer = LocalDate.now().minusDays(1);
-        List<Coloquio> coloquios = coloquioRepository.findAll();
+        List<Coloquio> coloquios = coloquioRepository.findAllByEstadoAndFechaGreaterThanEqual(ColoquioEstado.ACTIVO, LocalDate.now());
+        return toColoquiosDTO(coloquios);
+    }
+
+    /**
+     * Arma los DTOs contando las inscripciones activas de todos los coloquios en una sola consulta.
+     */
+    private List<ColoquioDTO> toColoquiosDTO(List<Coloquio> coloquios) {
         List<ColoquioDTO> coloquiosDTO = new LinkedList<>();
+        if (coloquios.isEmpty()) {
+            return coloquiosDTO;
+        }
+        Map<Long, Integer> inscripciones = new HashMap<>();
+        for (Object[] fila : inscripcionColoquioRepository.countByColoquioInAndEstado(coloquios, InscripcionColoquioEstado.ACTIVA)) {
+            inscripciones.put((Long) fila[0], ((Long) fila[1]).intValue());
+        }
         for (Coloquio coloquio: coloquios) {
-            Integer inscripciones = inscripcionColoquioRepository.findAllByColoquioAndEstado(coloquio, InscripcionColoquioEstado.ACTIVA).size();
-            if((coloquio.getEstado() ==  ColoquioEstado.ACTIVO) && (coloquio.getFecha().isAfter(ayer) )) {
-                coloquiosDTO.add(new ColoquioDTO(coloquio, inscripciones));
-            }
+            coloquiosDTO.add(new ColoquioDTO(coloquio, inscripciones.getOrDefault(coloquio.getId(), 0)));
         }
         return coloquiosDTO;
     }
@@ -133,23 +136,17 @@ public class ColoquioService {
         coloquio.setEstado(ColoquioEstado.ELIMINADO);
         coloquioRepository.save(coloquio);
 
-        // Notificar a los alumnos inscriptos
+        // Notificar a los alumnos inscriptos, al confirmarse la transaccion
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
         Materia materia = coloquio.getCurso().getMateria();
         String message = "La fecha de final " + coloquio.getFecha().format(formatter) + " de la materia "
                         + materia.getCodigo() + " - " + materia.getNombre()
                         + " ha sido eliminada por el docente";
 
-        FirebaseConnectionService fcmService = new FirebaseConnectionService();
         List<InscripcionColoquio> inscripciones = inscripcionColoquioRepository.findAllByColoquioAndEstado(coloquio, InscripcionColoquioEstado.ACTIVA);
         for (InscripcionColoquio inscripcion: inscripciones) {
-            String token = inscripcion.getAlumno().getFirebaseToken();
-            String notification = fcmService.buildNotificationMessage("Final Eliminado", message, token);
-            try {
-                fcmService.sendMessage(notification);
-            } catch (Exception e) {
-                log.error("FirebaseConnectionService: " + e);
-            }
+            outboxService.agregarPush("coloquio-eliminado-" + inscripcion.getId(), "Final Eliminado", message,
+                inscripcion.getAlumno().getFirebaseToken());
 
             inscripcion.setEstado(InscripcionColoquioEstado.ELIMINADA);
             inscripcionColoquioRepository.save(inscripcion);
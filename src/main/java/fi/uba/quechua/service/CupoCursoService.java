@@ -0,0 +1,189 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.CupoCurso;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.CupoCursoRepository;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service Implementation for managing the vacantes ocupadas de cada Curso.
+ * <p>
+ * Las vacantes se reservan con un unico UPDATE condicional, de modo que dos
+ * inscripciones concurrentes nunca pueden ocupar la misma vacante. Los metodos que
+ * cambian el estado de una inscripcion deben llamarse antes de persistir el nuevo estado.
+ * Al liberar vacantes se publica un {@link VacanteLiberadaEvent}, ver PromocionCondicionalesService.
+ * <p>
+ * Si un curso todavia no tiene contador, se crea en una transaccion propia antes de tocarlo: si dos
+ * inscripciones lo crean a la vez, la que pierde recibe un error de clave duplicada y usa el de la otra.
+ */
+@Service
+@Transactional
+public class CupoCursoService {
+
+    private final Logger log = LoggerFactory.getLogger(CupoCursoService.class);
+
+    private final CupoCursoRepository cupoCursoRepository;
+
+    private final InscripcionCursoRepository inscripcionCursoRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TransactionTemplate nuevaTransaccion;
+
+    /**
+     * Cursos cuyo contador ya se sabe confirmado, para no consultarlo en cada reserva.
+     */
+    private final Set<Long> contadores = ConcurrentHashMap.newKeySet();
+
+    public CupoCursoService(CupoCursoRepository cupoCursoRepository, InscripcionCursoRepository inscripcionCursoRepository,
+                            ApplicationEventPublisher applicationEventPublisher, PlatformTransactionManager transactionManager) {
+        this.cupoCursoRepository = cupoCursoRepository;
+        this.inscripcionCursoRepository = inscripcionCursoRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Intenta reservar una vacante en el curso.
+     *
+     * @param curso el curso
+     * @return true si se reservo una vacante, false si el curso no tiene vacantes libres
+     */
+    public boolean reservar(Curso curso) {
+        log.debug("Request to reservar vacante en Curso : {}", curso.getId());
+        asegurarContador(curso);
+        return cupoCursoRepository.reservar(curso.getId()) == 1;
+    }
+
+    /**
+     * Ocupa una vacante aunque el curso este completo (al regularizar una inscripcion condicional).
+     *
+     * @param curso el curso
+     */
+    public void ocupar(Curso curso) {
+        log.debug("Request to ocupar vacante en Curso : {}", curso.getId());
+        asegurarContador(curso);
+        cupoCursoRepository.ocupar(curso.getId());
+    }
+
+    /**
+     * Libera una vacante del curso.
+     *
+     * @param curso el curso
+     */
+    public void liberar(Curso curso) {
+        log.debug("Request to liberar vacante en Curso : {}", curso.getId());
+        asegurarContador(curso);
+        cupoCursoRepository.liberar(curso.getId());
+        applicationEventPublisher.publishEvent(new VacanteLiberadaEvent(curso.getId()));
+    }
+
+    /**
+     * Actualiza la cantidad de vacantes del contador, creandolo si todavia no existe.
+     *
+     * @param curso el curso ya persistido
+     */
+    public void actualizarVacantes(Curso curso) {
+        log.debug("Request to actualizar vacantes del Curso : {}", curso.getId());
+        if (cupoCursoRepository.actualizarVacantes(curso.getId(), curso.getVacantes()) == 0
+            && !cupoCursoRepository.existsById(curso.getId())) {
+            // Un curso nuevo: nadie mas lo ve hasta que se confirme esta transaccion
+            inicializar(curso);
+        }
+        applicationEventPublisher.publishEvent(new VacanteLiberadaEvent(curso.getId()));
+    }
+
+    /**
+     * Elimina el contador del curso.
+     *
+     * @param cursoId the id of the curso
+     */
+    public void eliminar(Long cursoId) {
+        log.debug("Request to delete CupoCurso : {}", cursoId);
+        contadores.remove(cursoId);
+        if (cupoCursoRepository.existsById(cursoId)) {
+            cupoCursoRepository.deleteById(cursoId);
+        }
+    }
+
+    /**
+     * Reconstruye los contadores a partir de las inscripciones regulares.
+     * <p>
+     * This is scheduled to get fired everyday, at 03:30 (am).
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void reconciliar() {
+        int creados = cupoCursoRepository.crearFaltantes(InscripcionCursoEstado.REGULAR.name());
+        int actualizados = cupoCursoRepository.reconciliar(InscripcionCursoEstado.REGULAR.name());
+        log.info("Contadores de vacantes reconciliados: {} creados, {} actualizados", creados, actualizados);
+    }
+
+    /**
+     * Mueve los contadores cuando una inscripcion cambia de estado o de curso fuera de las operaciones de
+     * inscripcion (por ejemplo, al editarla desde el ABM).
+     *
+     * @param cursoAnterior el curso de la inscripcion antes del cambio, o null si es nueva
+     * @param eraRegular si la inscripcion estaba REGULAR antes del cambio
+     * @param cursoNuevo el curso de la inscripcion despues del cambio
+     * @param esRegular si la inscripcion queda REGULAR
+     */
+    public void ajustar(Curso cursoAnterior, boolean eraRegular, Curso cursoNuevo, boolean esRegular) {
+        boolean mismoCurso = cursoAnterior != null && cursoNuevo != null && cursoAnterior.getId().equals(cursoNuevo.getId());
+        if (eraRegular && cursoAnterior != null && !(esRegular && mismoCurso)) {
+            liberar(cursoAnterior);
+        }
+        if (esRegular && cursoNuevo != null && !(eraRegular && mismoCurso)) {
+            ocupar(cursoNuevo);
+        }
+    }
+
+    /**
+     * Crea el contador del curso si todavia no existe. Se crea en una transaccion propia, antes de que esta
+     * transaccion toque la fila: asi un error de clave duplicada no la invalida, y un UPDATE sobre la fila
+     * inexistente no deja un bloqueo de rango que frene al INSERT.
+     */
+    private void asegurarContador(Curso curso) {
+        Long cursoId = curso.getId();
+        if (contadores.contains(cursoId) || cupoCursoRepository.existsById(cursoId)) {
+            contadores.add(cursoId);
+            return;
+        }
+        try {
+            nuevaTransaccion.execute(status -> inicializar(curso));
+            contadores.add(cursoId);
+        } catch (DataIntegrityViolationException e) {
+            if (cupoCursoRepository.findBloqueado(cursoId).isPresent()) {
+                log.debug("Otra transaccion creo el CupoCurso {} al mismo tiempo", cursoId);
+                contadores.add(cursoId);
+            } else {
+                // El curso todavia no esta confirmado, asi que solo esta transaccion puede crear su contador
+                inicializar(curso);
+            }
+        }
+    }
+
+    private CupoCurso inicializar(Curso curso) {
+        long ocupadas = inscripcionCursoRepository.countByCursoAndEstado(curso, InscripcionCursoEstado.REGULAR);
+        CupoCurso cupo = new CupoCurso()
+            .cursoId(curso.getId())
+            .vacantes(curso.getVacantes())
+            .ocupadas((int) ocupadas);
+        return cupoCursoRepository.saveAndFlush(cupo);
+    }
+}
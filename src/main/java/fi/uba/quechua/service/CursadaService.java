@@ -5,6 +5,8 @@ import fi.uba.quechua.domain.enumeration.CursadaEstado;
 import fi.uba.quechua.domain.enumeration.InscripcionColoquioEstado;
 import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
 import fi.uba.quechua.repository.*;
+import fi.uba.quechua.service.dto.CursadaResumenDTO;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,16 +31,20 @@ public class CursadaService {
 
     private final InscripcionCursoRepository inscripcionCursoRepository;
 
-    private final PeriodoRepository periodoRepository;
+    private final PeriodoService periodoService;
 
     private final InscripcionColoquioRepository inscripcionColoquioRepository;
 
+    private final HorarioCursadaService horarioCursadaService;
+
     public CursadaService(CursadaRepository cursadaRepository, InscripcionCursoRepository inscripcionCursoRepository,
-                          PeriodoRepository periodoRepository, InscripcionColoquioRepository inscripcionColoquioRepository) {
+                          PeriodoService periodoService, InscripcionColoquioRepository inscripcionColoquioRepository,
+                          HorarioCursadaService horarioCursadaService) {
         this.cursadaRepository = cursadaRepository;
         this.inscripcionCursoRepository = inscripcionCursoRepository;
-        this.periodoRepository = periodoRepository;
+        this.periodoService = periodoService;
         this.inscripcionColoquioRepository = inscripcionColoquioRepository;
+        this.horarioCursadaService = horarioCursadaService;
     }
 
     /**
@@ -85,28 +92,41 @@ public class CursadaService {
         cursadaRepository.deleteById(id);
     }
 
-    public List<Cursada> findCursadasActivasByAlumno(Alumno alumno) {
+    /**
+     * Get the cursadas activas del alumno, resumidas y con los horarios de cada curso.
+     *
+     * @param alumno the alumno
+     * @return the list of cursadas
+     */
+    @Transactional(readOnly = true)
+    public List<CursadaResumenDTO> findCursadasActivasByAlumno(Alumno alumno) {
         List<CursadaEstado> estadoCursadas = Arrays.asList(CursadaEstado.ACTIVA, CursadaEstado.FINAL_PENDIENTE);
-        List<Cursada> cursadas = cursadaRepository.findAllByAlumnoAndEstadoIn(alumno, estadoCursadas);
-        for (Cursada cursada: cursadas) {
-            cursada.getCurso().getHorarios().size();
+        List<CursadaResumenDTO> cursadas = cursadaRepository.findResumenesByAlumnoAndEstadoIn(alumno, estadoCursadas);
+        List<CursoResumenDTO> cursos = new ArrayList<>(cursadas.size());
+        for (CursadaResumenDTO cursada : cursadas) {
+            if (cursada.getCurso() != null) {
+                cursos.add(cursada.getCurso());
+            }
         }
+        horarioCursadaService.completarHorarios(cursos);
         return cursadas;
     }
 
     public void iniciarCursadas() {
         List<InscripcionCurso> inscripcionesCursos = inscripcionCursoRepository.findByEstadoNot(InscripcionCursoEstado.ELIMINADA);
-        Optional<Periodo> periodo = periodoRepository.findPeriodoActual();
+        Optional<Periodo> periodo = periodoService.findPeriodoActual();
         if (!periodo.isPresent())
             return;
+        List<Cursada> cursadas = new ArrayList<>(inscripcionesCursos.size());
         for (InscripcionCurso inscripcionCurso: inscripcionesCursos) {
             Cursada cursada = new Cursada();
             cursada.setAlumno(inscripcionCurso.getAlumno());
             cursada.setCurso(inscripcionCurso.getCurso());
             cursada.setEstado(CursadaEstado.ACTIVA);
             cursada.setPeriodo(periodo.get());
-            cursadaRepository.save(cursada);
+            cursadas.add(cursada);
         }
+        cursadaRepository.saveAll(cursadas);
     }
 
     public Optional<Cursada> findCursadaByAlumnoAndCursoColoquioPendiente(Alumno alumno, Curso curso) {
@@ -119,9 +139,9 @@ public class CursadaService {
             log.debug("Se encontro la cursada {}", cursada.get().getId());
         }
         //Busco los coloquios que ya rindió el alumno con esa cursada
-        List<InscripcionColoquio> incripcionesColoquio = inscripcionColoquioRepository.findAllByCursadaAndEstado(cursada.get(), InscripcionColoquioEstado.DESAPROBADA);
-        log.debug("Se encontraron {} inscripciones a coloquios", incripcionesColoquio.size());
-        if (incripcionesColoquio.size() >= 3) {
+        long desaprobados = inscripcionColoquioRepository.countByCursadaAndEstado(cursada.get(), InscripcionColoquioEstado.DESAPROBADA);
+        log.debug("Se encontraron {} coloquios desaprobados", desaprobados);
+        if (desaprobados >= 3) {
             return Optional.empty();
         }
         return cursada;
@@ -0,0 +1,42 @@
+package fi.uba.quechua.service;
+
+/**
+ * Se publica cuando cambia algo de un curso que se muestra en el catalogo publico: sus datos, sus horarios
+ * o la cantidad de inscriptos. Un cursoId null indica que pueden haber cambiado varios cursos.
+ * <p>
+ * Cuando el curso se elimina, el evento lleva tambien su materia, que ya no se puede consultar al recibirlo.
+ */
+public class CursoModificadoEvent {
+
+    private final Long cursoId;
+
+    private final Long materiaEliminadoId;
+
+    public CursoModificadoEvent(Long cursoId) {
+        this(cursoId, null);
+    }
+
+    private CursoModificadoEvent(Long cursoId, Long materiaEliminadoId) {
+        this.cursoId = cursoId;
+        this.materiaEliminadoId = materiaEliminadoId;
+    }
+
+    /**
+     * @param cursoId the id of the curso eliminado
+     * @param materiaId the id of the materia del curso, o null si no tenia
+     */
+    public static CursoModificadoEvent eliminado(Long cursoId, Long materiaId) {
+        return new CursoModificadoEvent(cursoId, materiaId);
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    /**
+     * @return the id of the materia del curso si el curso fue eliminado, o null
+     */
+    public Long getMateriaEliminadoId() {
+        return materiaEliminadoId;
+    }
+}
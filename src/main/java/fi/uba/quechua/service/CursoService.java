@@ -6,15 +6,18 @@ import fi.uba.quechua.repository.*;
 import fi.uba.quechua.security.AuthoritiesConstants;
 import fi.uba.quechua.security.SecurityUtils;
 import fi.uba.quechua.service.dto.CursoDTO;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
 import fi.uba.quechua.web.rest.AdministradorDepartamentoResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
 import javax.validation.constraints.Null;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -31,21 +34,31 @@ public class CursoService {
 
     private final HorarioCursadaRepository horarioCursadaRepository;
 
-    private final UserService userService;
-
-    private final AdministradorDepartamentoRepository administradorDepartamentoRepository;
+    private final ActorService actorService;
 
     private final DepartamentoRepository departamentoRepository;
 
+    private final CupoCursoService cupoCursoService;
+
+    private final OcupacionSemanalService ocupacionSemanalService;
+
+    private final HorarioCursadaService horarioCursadaService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
 
     public CursoService(CursoRepository cursoRepository, HorarioCursadaRepository horarioCursadaRepository,
-                        UserService userService, AdministradorDepartamentoRepository administradorDepartamentoRepository,
-                        DepartamentoRepository departamentoRepository) {
+                        ActorService actorService, DepartamentoRepository departamentoRepository, CupoCursoService cupoCursoService,
+                        OcupacionSemanalService ocupacionSemanalService, HorarioCursadaService horarioCursadaService,
+                        ApplicationEventPublisher applicationEventPublisher) {
         this.cursoRepository = cursoRepository;
         this.horarioCursadaRepository = horarioCursadaRepository;
-        this.userService = userService;
-        this.administradorDepartamentoRepository = administradorDepartamentoRepository;
+        this.actorService = actorService;
         this.departamentoRepository = departamentoRepository;
+        this.cupoCursoService = cupoCursoService;
+        this.ocupacionSemanalService = ocupacionSemanalService;
+        this.horarioCursadaService = horarioCursadaService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -56,7 +69,10 @@ public class CursoService {
      */
     public Curso save(Curso curso) {
         log.debug("Request to save Curso : {}", curso);
-        return cursoRepository.save(curso);
+        Curso result = cursoRepository.save(curso);
+        cupoCursoService.actualizarVacantes(result);
+        applicationEventPublisher.publishEvent(new CursoModificadoEvent(result.getId()));
+        return result;
     }
 
     /**
@@ -67,11 +83,11 @@ public class CursoService {
     @Transactional(readOnly = true)
     public List<Curso> findAll() {
         log.debug("Request to get all Cursos");
-        Optional<User> user = userService.getUserWithAuthorities();
-        if (user.isPresent() && SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADM_DPTO)) {
-            Optional<AdministradorDepartamento> administradorDepartamento = administradorDepartamentoRepository.findByUserId(user.get().getId());
-            Optional<Departamento> departamento = departamentoRepository.findById(administradorDepartamento.get().getDepartamentoId());
-            return cursoRepository.findAllByDepartamento(departamento.get());
+        if (SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADM_DPTO)) {
+            return actorService.getDepartamentoIdActual()
+                .flatMap(departamentoRepository::findById)
+                .map(cursoRepository::findAllByDepartamento)
+                .orElseGet(ArrayList::new);
         }
         return cursoRepository.findAll();
     }
@@ -84,11 +100,7 @@ public class CursoService {
     @Transactional(readOnly = true)
     public List<Curso> findAllWithHorarios() {
         log.debug("Request to get all Cursos");
-        List<Curso> cursos = cursoRepository.findAllByEstado(CursoEstado.ACTIVO);
-        for (Curso curso: cursos) {
-            curso.getHorarios().size();
-        }
-        return cursos;
+        return cursoRepository.findDistinctWithHorariosByEstado(CursoEstado.ACTIVO);
     }
 
     /**
@@ -99,11 +111,7 @@ public class CursoService {
     @Transactional(readOnly = true)
     public List<Curso> findByMateriaWithHorariosEnPeriodo(Materia materia, Periodo periodo) {
         log.debug("Request to get all Cursos");
-        List<Curso> cursos = cursoRepository.findAllByMateriaAndPeriodoAndEstado(materia, periodo, CursoEstado.ACTIVO);
-        for (Curso curso: cursos) {
-            curso.getHorarios().size();
-        }
-        return cursos;
+        return cursoRepository.findDistinctWithHorariosByMateriaAndPeriodoAndEstado(materia, periodo, CursoEstado.ACTIVO);
     }
 
     /**
@@ -115,11 +123,7 @@ public class CursoService {
     @Transactional(readOnly = true)
     public Optional<Curso> findOne(Long id) {
         log.debug("Request to get Curso : {}", id);
-        Optional<Curso> curso = cursoRepository.findById(id);
-        if (curso.isPresent()) {
-            curso.get().getHorarios().size();
-        }
-        return  curso;
+        return cursoRepository.findOneWithHorariosById(id);
     }
 
     /**
@@ -131,11 +135,7 @@ public class CursoService {
     @Transactional(readOnly = true)
     public Optional<Curso> findOneWithHorarios(Long id) {
         log.debug("Request to get Curso : {}", id);
-        Optional<Curso> curso = cursoRepository.findById(id);
-        if (curso.isPresent()) {
-            curso.get().getHorarios().size();
-        }
-        return  curso;
+        return cursoRepository.findOneWithHorariosById(id);
     }
 
     /**
@@ -145,21 +145,21 @@ public class CursoService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Curso : {}", id);
+        cupoCursoService.eliminar(id);
+        applicationEventPublisher.publishEvent(CursoModificadoEvent.eliminado(id, cursoRepository.findMateriaIdById(id).orElse(null)));
         cursoRepository.deleteById(id);
     }
 
     /**
-     * Get all the cursos by Profesor.
+     * Get all the cursos by Profesor, resumidos y con sus horarios.
      *
-     * @return the list of entities
+     * @return the list of cursos
      */
     @Transactional(readOnly = true)
-    public List<Curso> findByProfesor(Profesor profesor) {
+    public List<CursoResumenDTO> findByProfesor(Profesor profesor) {
         log.debug("Request to get all Cursos by profesor {}", profesor.getId());
-        List<Curso> cursos = cursoRepository.findAllByProfesorAndEstadoOrderById(profesor, CursoEstado.ACTIVO);
-        for (Curso curso: cursos) {
-            curso.getHorarios().size();
-        }
+        List<CursoResumenDTO> cursos = cursoRepository.findResumenesByProfesorAndEstado(profesor, CursoEstado.ACTIVO);
+        horarioCursadaService.completarHorarios(cursos);
         return cursos;
     }
 
@@ -171,14 +171,14 @@ public class CursoService {
      */
     public Curso update(CursoDTO cursoDTO) {
         log.debug("Request to save Curso : {}", cursoDTO);
-        Curso curso = cursoRepository.findById(cursoDTO.getId()).get();
+        Curso curso = cursoRepository.findOneWithHorariosById(cursoDTO.getId()).get();
         curso.setEstado(cursoDTO.getEstado());
         curso.setNumero(cursoDTO.getNumero());
         curso.setVacantes(cursoDTO.getVacantes());
-        curso.getHorarios().size();
         curso.setMateria(cursoDTO.getMateria());
         curso.setPeriodo(cursoDTO.getPeriodo());
         curso.setProfesor(cursoDTO.getProfesor());
+        ocupacionSemanalService.invalidarHorarios();
 
 
         for (HorarioCursada horario: cursoDTO.getHorarios()) {
@@ -204,6 +204,8 @@ public class CursoService {
             }
         }
         Curso cursoSaved =  cursoRepository.saveAndFlush(curso);
+        cupoCursoService.actualizarVacantes(cursoSaved);
+        applicationEventPublisher.publishEvent(new CursoModificadoEvent(cursoSaved.getId()));
         return cursoSaved;
     }
 
@@ -219,16 +221,18 @@ public class CursoService {
         curso.setEstado(cursoDTO.getEstado());
         curso.setNumero(cursoDTO.getNumero());
         curso.setVacantes(cursoDTO.getVacantes());
-        curso.getHorarios().size();
         curso.setMateria(cursoDTO.getMateria());
         curso.setPeriodo(cursoDTO.getPeriodo());
         curso.setProfesor(cursoDTO.getProfesor());
         Curso cursoSaved =  cursoRepository.saveAndFlush(curso);
+        cupoCursoService.actualizarVacantes(cursoSaved);
+        ocupacionSemanalService.invalidarCurso(cursoSaved.getId());
+        applicationEventPublisher.publishEvent(new CursoModificadoEvent(cursoSaved.getId()));
 
         for (HorarioCursada horario: cursoDTO.getHorarios()) {
-                horario.setCurso(curso);
-                horarioCursadaRepository.save(horario);
+            horario.setCurso(curso);
         }
+        horarioCursadaRepository.saveAll(cursoDTO.getHorarios());
         return cursoSaved;
     }
 }
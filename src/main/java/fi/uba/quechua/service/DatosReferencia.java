@@ -0,0 +1,230 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Carrera;
+import fi.uba.quechua.domain.Departamento;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.domain.Periodo;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Foto inmutable de los datos de referencia: Carreras, Departamentos, Materias y Periodos.
+ * <p>
+ * Guarda copias sueltas de las entidades, sin sesion ni colecciones perezosas, que se pueden compartir entre
+ * hilos. Las busquedas por id o codigo y las materias de cada departamento o carrera salen de indices armados
+ * al crear la foto. Cada foto lleva la version de los datos con la que se armo.
+ */
+public final class DatosReferencia {
+
+    public static final DatosReferencia VACIO = new DatosReferencia(-1, Collections.emptyList(), Collections.emptyList(),
+        Collections.emptyList(), Collections.emptyList());
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Materia> POR_CODIGO = Comparator.comparing(Materia::getCodigo,
+        Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final long version;
+
+    private final Map<Long, Carrera> carreras;
+
+    private final Map<Long, Departamento> departamentos;
+
+    private final Map<Integer, Departamento> departamentosPorCodigo;
+
+    private final Map<Long, Materia> materias;
+
+    private final Map<String, Materia> materiasPorCodigo;
+
+    private final List<Materia> materiasOrdenadas;
+
+    private final Map<Long, List<Materia>> materiasPorDepartamento;
+
+    private final Map<Long, List<Materia>> materiasPorCarrera;
+
+    private final Map<Long, String> nombresNormalizados;
+
+    private final Map<Long, Periodo> periodos;
+
+    public DatosReferencia(long version, Collection<Carrera> carreras, Collection<Departamento> departamentos,
+                           Collection<Materia> materias, Collection<Periodo> periodos) {
+        this.version = version;
+        this.carreras = indexar(carreras, DatosReferencia::copiar, Carrera::getId);
+        this.departamentos = indexar(departamentos, DatosReferencia::copiar, Departamento::getId);
+        Map<Integer, Departamento> porCodigo = new HashMap<>();
+        for (Departamento departamento : this.departamentos.values()) {
+            if (departamento.getCodigo() != null) {
+                porCodigo.putIfAbsent(departamento.getCodigo(), departamento);
+            }
+        }
+        this.departamentosPorCodigo = Collections.unmodifiableMap(porCodigo);
+
+        Map<Long, Materia> materiasPorId = new LinkedHashMap<>();
+        for (Materia materia : materias) {
+            Materia copia = new Materia().nombre(materia.getNombre()).codigo(materia.getCodigo()).creditos(materia.getCreditos())
+                .departamento(materia.getDepartamento() == null ? null : this.departamentos.get(materia.getDepartamento().getId()))
+                .carrera(materia.getCarrera() == null ? null : this.carreras.get(materia.getCarrera().getId()));
+            copia.setId(materia.getId());
+            copia.setCursos(null);
+            materiasPorId.put(copia.getId(), copia);
+        }
+        this.materias = Collections.unmodifiableMap(materiasPorId);
+
+        List<Materia> ordenadas = new ArrayList<>(materiasPorId.values());
+        ordenadas.sort(POR_CODIGO);
+        Map<String, Materia> materiasCodigo = new HashMap<>();
+        Map<Long, List<Materia>> porDepartamento = new HashMap<>();
+        Map<Long, List<Materia>> porCarrera = new HashMap<>();
+        Map<Long, String> nombres = new HashMap<>();
+        for (Materia materia : ordenadas) {
+            if (materia.getNombre() != null) {
+                nombres.put(materia.getId(), normalizar(materia.getNombre()));
+            }
+            if (materia.getCodigo() != null) {
+                materiasCodigo.putIfAbsent(materia.getCodigo(), materia);
+            }
+            if (materia.getDepartamento() != null) {
+                porDepartamento.computeIfAbsent(materia.getDepartamento().getId(), id -> new ArrayList<>()).add(materia);
+            }
+            if (materia.getCarrera() != null) {
+                porCarrera.computeIfAbsent(materia.getCarrera().getId(), id -> new ArrayList<>()).add(materia);
+            }
+        }
+        porDepartamento.replaceAll((id, lista) -> Collections.unmodifiableList(lista));
+        porCarrera.replaceAll((id, lista) -> Collections.unmodifiableList(lista));
+        this.materiasOrdenadas = Collections.unmodifiableList(ordenadas);
+        this.materiasPorCodigo = Collections.unmodifiableMap(materiasCodigo);
+        this.materiasPorDepartamento = Collections.unmodifiableMap(porDepartamento);
+        this.materiasPorCarrera = Collections.unmodifiableMap(porCarrera);
+        this.nombresNormalizados = Collections.unmodifiableMap(nombres);
+
+        this.periodos = indexar(periodos, DatosReferencia::copiar, Periodo::getId);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return todas las carreras, en orden de id
+     */
+    public List<Carrera> getCarreras() {
+        return new ArrayList<>(carreras.values());
+    }
+
+    public Optional<Carrera> getCarrera(Long id) {
+        return Optional.ofNullable(id == null ? null : carreras.get(id));
+    }
+
+    /**
+     * @return todos los departamentos, en orden de id
+     */
+    public List<Departamento> getDepartamentos() {
+        return new ArrayList<>(departamentos.values());
+    }
+
+    public Optional<Departamento> getDepartamento(Long id) {
+        return Optional.ofNullable(id == null ? null : departamentos.get(id));
+    }
+
+    public Optional<Departamento> getDepartamentoByCodigo(Integer codigo) {
+        return Optional.ofNullable(codigo == null ? null : departamentosPorCodigo.get(codigo));
+    }
+
+    /**
+     * @return todas las materias, ordenadas por codigo
+     */
+    public List<Materia> getMaterias() {
+        return materiasOrdenadas;
+    }
+
+    public Optional<Materia> getMateria(Long id) {
+        return Optional.ofNullable(id == null ? null : materias.get(id));
+    }
+
+    public Optional<Materia> getMateriaByCodigo(String codigo) {
+        return Optional.ofNullable(codigo == null ? null : materiasPorCodigo.get(codigo));
+    }
+
+    /**
+     * @return las materias del departamento, ordenadas por codigo
+     */
+    public List<Materia> getMateriasByDepartamento(Long departamentoId) {
+        return materiasPorDepartamento.getOrDefault(departamentoId, Collections.emptyList());
+    }
+
+    /**
+     * @return las materias de la carrera, ordenadas por codigo
+     */
+    public List<Materia> getMateriasByCarrera(Long carreraId) {
+        return materiasPorCarrera.getOrDefault(carreraId, Collections.emptyList());
+    }
+
+    /**
+     * @return las materias de la carrera cuyo nombre empieza con comienzo, sin distinguir mayusculas ni acentos,
+     * ordenadas por codigo
+     */
+    public List<Materia> getMateriasByCarreraAndNombre(Long carreraId, String comienzo) {
+        String buscado = normalizar(comienzo);
+        List<Materia> encontradas = new ArrayList<>();
+        for (Materia materia : getMateriasByCarrera(carreraId)) {
+            String nombre = nombresNormalizados.get(materia.getId());
+            if (nombre != null && nombre.startsWith(buscado)) {
+                encontradas.add(materia);
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * @return todos los periodos, en orden de id
+     */
+    public List<Periodo> getPeriodos() {
+        return new ArrayList<>(periodos.values());
+    }
+
+    public Optional<Periodo> getPeriodo(Long id) {
+        return Optional.ofNullable(id == null ? null : periodos.get(id));
+    }
+
+    /**
+     * @return el texto en minusculas y sin acentos ni otras marcas diacriticas: "Álgebra" queda "algebra"
+     */
+    static String normalizar(String texto) {
+        return MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return las copias de las entidades por id, en orden de id
+     */
+    private static <T> Map<Long, T> indexar(Collection<T> entidades, Function<T, T> copiar, Function<T, Long> id) {
+        Map<Long, T> porId = new TreeMap<>();
+        for (T entidad : entidades) {
+            porId.put(id.apply(entidad), copiar.apply(entidad));
+        }
+        return Collections.unmodifiableMap(porId);
+    }
+
+    private static Carrera copiar(Carrera carrera) {
+        Carrera copia = new Carrera().nombre(carrera.getNombre());
+        copia.setId(carrera.getId());
+        copia.setMaterias(null);
+        return copia;
+    }
+
+    private static Departamento copiar(Departamento departamento) {
+        Departamento copia = new Departamento().nombre(departamento.getNombre()).codigo(departamento.getCodigo());
+        copia.setId(departamento.getId());
+        copia.setMaterias(null);
+        return copia;
+    }
+
+    private static Periodo copiar(Periodo periodo) {
+        Periodo copia = new Periodo().anio(periodo.getAnio()).cuatrimestre(periodo.getCuatrimestre());
+        copia.setId(periodo.getId());
+        return copia;
+    }
+}
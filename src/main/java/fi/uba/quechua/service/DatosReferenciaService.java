@@ -0,0 +1,182 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Carrera;
+import fi.uba.quechua.domain.Departamento;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.repository.CarreraRepository;
+import fi.uba.quechua.repository.DepartamentoRepository;
+import fi.uba.quechua.repository.MateriaRepository;
+import fi.uba.quechua.repository.PeriodoRepository;
+import fi.uba.quechua.repository.VersionEntidadRepository;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service Implementation for the datos de referencia: Carreras, Departamentos, Materias y Periodos.
+ * <p>
+ * Cambian unas pocas veces por cuatrimestre y se leen en casi todos los pedidos, asi que se sirven desde una
+ * foto en memoria (DatosReferencia) que se reemplaza completa cuando cambia la version.
+ * <p>
+ * La version se incrementa con cada alta, modificacion o baja de esas entidades hecha a traves de Hibernate:
+ * al hacer el flush, para que la transaccion que escribe lea sus propios cambios, y otra vez al confirmarse o
+ * deshacerse la transaccion, para que nadie se quede con una foto armada antes del commit. Una foto se arma
+ * con la version leida antes de consultar la base, de modo que un cambio que llega mientras se arma obliga a
+ * armarla de nuevo en la siguiente lectura.
+ * <p>
+ * Los cambios hechos desde otras instancias se detectan comparando cada minuto las versiones de la tabla
+ * version_entidad (ver VersionesService).
+ */
+@Service
+@Transactional
+public class DatosReferenciaService implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+    PostCommitDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Set<Class<?>> ENTIDADES = new HashSet<>(Arrays.asList(
+        Carrera.class, Departamento.class, Materia.class, Periodo.class));
+
+    private static final Set<String> NOMBRES = new HashSet<>(Arrays.asList(
+        Carrera.class.getSimpleName(), Departamento.class.getSimpleName(), Materia.class.getSimpleName(), Periodo.class.getSimpleName()));
+
+    private final Logger log = LoggerFactory.getLogger(DatosReferenciaService.class);
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient CarreraRepository carreraRepository;
+
+    private final transient DepartamentoRepository departamentoRepository;
+
+    private final transient MateriaRepository materiaRepository;
+
+    private final transient PeriodoRepository periodoRepository;
+
+    private final transient VersionEntidadRepository versionEntidadRepository;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private transient volatile Map<String, Long> versionesEnLaBase;
+
+    private volatile DatosReferencia datos = DatosReferencia.VACIO;
+
+    public DatosReferenciaService(EntityManagerFactory entityManagerFactory, CarreraRepository carreraRepository,
+                                  DepartamentoRepository departamentoRepository, MateriaRepository materiaRepository,
+                                  PeriodoRepository periodoRepository, VersionEntidadRepository versionEntidadRepository) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.carreraRepository = carreraRepository;
+        this.departamentoRepository = departamentoRepository;
+        this.materiaRepository = materiaRepository;
+        this.periodoRepository = periodoRepository;
+        this.versionEntidadRepository = versionEntidadRepository;
+    }
+
+    @PostConstruct
+    public void registrarListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Get the foto de los datos de referencia, armandola de nuevo si cambio la version.
+     *
+     * @return the datos
+     */
+    @Transactional(readOnly = true)
+    public DatosReferencia getDatos() {
+        DatosReferencia actual = datos;
+        long vigente = version.get();
+        if (actual.getVersion() != vigente) {
+            actual = new DatosReferencia(vigente, carreraRepository.findAll(), departamentoRepository.findAll(),
+                materiaRepository.findAll(), periodoRepository.findAll());
+            datos = actual;
+            log.debug("Datos de referencia recargados en la version {}", vigente);
+        }
+        return actual;
+    }
+
+    /**
+     * Descarta la foto si otra instancia cambio los datos de referencia desde la ultima comparacion.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60000)
+    @Transactional(readOnly = true)
+    public void refrescarVersion() {
+        Map<String, Long> leidas = versionEntidadRepository.findVersiones(NOMBRES);
+        if (versionesEnLaBase != null && !versionesEnLaBase.equals(leidas)) {
+            log.debug("Datos de referencia modificados en la base: {}", leidas);
+            version.incrementAndGet();
+        }
+        versionesEnLaBase = leidas;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        modificada(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        modificada(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        modificada(event.getPersister());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        modificada(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        modificada(event.getPersister());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        modificada(event.getPersister());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return ENTIDADES.contains(persister.getMappedClass());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private void modificada(EntityPersister persister) {
+        if (ENTIDADES.contains(persister.getMappedClass())) {
+            log.trace("Datos de referencia modificados: {}", persister.getMappedClass().getSimpleName());
+            version.incrementAndGet();
+        }
+    }
+}
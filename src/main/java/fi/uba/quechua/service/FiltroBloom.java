@@ -0,0 +1,75 @@
+package fi.uba.quechua.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de Strings: responde "quizas esta" o "seguro no esta" usando unos pocos bits por elemento.
+ * <p>
+ * Los agregados y las consultas pueden hacerse desde varios hilos sin sincronizar. El tamanio se fija al crearlo;
+ * si se agregan mas elementos que los esperados aumenta la probabilidad de falsos positivos, nunca hay falsos
+ * negativos.
+ */
+public final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+
+    private final int cantidadBits;
+
+    private final int cantidadHashes;
+
+    /**
+     * @param elementosEsperados la cantidad de elementos para la que se dimensiona el filtro
+     * @param probabilidadFalsoPositivo la probabilidad de falso positivo buscada con esa cantidad de elementos
+     */
+    public FiltroBloom(int elementosEsperados, double probabilidadFalsoPositivo) {
+        int elementos = Math.max(elementosEsperados, 1);
+        long cantidadBits = (long) Math.ceil(-elementos * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.cantidadBits = (int) Math.min(Math.max(cantidadBits, 64), Integer.MAX_VALUE - 63);
+        this.cantidadHashes = Math.max(1, (int) Math.round((double) this.cantidadBits / elementos * Math.log(2)));
+        this.bits = new AtomicLongArray((this.cantidadBits + 63) / 64);
+    }
+
+    public void agregar(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < cantidadHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % cantidadBits;
+            long mascara = 1L << bit;
+            bits.getAndAccumulate(bit >>> 6, mascara, (actual, m) -> actual | m);
+        }
+    }
+
+    /**
+     * @return false si el valor seguro no fue agregado, true si quizas lo fue
+     */
+    public boolean quizasContiene(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < cantidadHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % cantidadBits;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a de 64 bits con la mezcla final de MurmurHash3; sus dos mitades dan las k posiciones (h1 + i * h2).
+     */
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -2,15 +2,17 @@ package fi.uba.quechua.service;
 
 import fi.uba.quechua.domain.HorarioCursada;
 import fi.uba.quechua.repository.HorarioCursadaRepository;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
+import fi.uba.quechua.service.dto.HorarioResumenDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 /**
  * Service Implementation for managing HorarioCursada.
  */
@@ -22,8 +24,15 @@ public class HorarioCursadaService {
 
     private final HorarioCursadaRepository horarioCursadaRepository;
 
-    public HorarioCursadaService(HorarioCursadaRepository horarioCursadaRepository) {
+    private final OcupacionSemanalService ocupacionSemanalService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public HorarioCursadaService(HorarioCursadaRepository horarioCursadaRepository, OcupacionSemanalService ocupacionSemanalService,
+                                 ApplicationEventPublisher applicationEventPublisher) {
         this.horarioCursadaRepository = horarioCursadaRepository;
+        this.ocupacionSemanalService = ocupacionSemanalService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -33,7 +42,17 @@ public class HorarioCursadaService {
      * @return the persisted entity
      */
     public HorarioCursada save(HorarioCursada horarioCursada) {
-        log.debug("Request to save HorarioCursada : {}", horarioCursada);        return horarioCursadaRepository.save(horarioCursada);
+        log.debug("Request to save HorarioCursada : {}", horarioCursada);
+        ocupacionSemanalService.invalidarHorarios();
+        Long cursoId = horarioCursada.getCurso() == null ? null : horarioCursada.getCurso().getId();
+        if (horarioCursada.getId() != null) {
+            // Si el horario cambia de curso, el anterior tambien se modifica
+            horarioCursadaRepository.findCursoIdById(horarioCursada.getId())
+                .filter(anterior -> !anterior.equals(cursoId))
+                .ifPresent(anterior -> applicationEventPublisher.publishEvent(new CursoModificadoEvent(anterior)));
+        }
+        applicationEventPublisher.publishEvent(new CursoModificadoEvent(cursoId));
+        return horarioCursadaRepository.save(horarioCursada);
     }
 
     /**
@@ -60,6 +79,27 @@ public class HorarioCursadaService {
         return horarioCursadaRepository.findById(id);
     }
 
+    /**
+     * Agrega a cada curso resumido sus horarios, con una sola consulta por los ids de todos los cursos.
+     *
+     * @param cursos los cursos, sin horarios
+     */
+    @Transactional(readOnly = true)
+    public void completarHorarios(Collection<CursoResumenDTO> cursos) {
+        if (cursos.isEmpty()) {
+            return;
+        }
+        Map<Long, List<CursoResumenDTO>> porId = new HashMap<>();
+        for (CursoResumenDTO curso : cursos) {
+            porId.computeIfAbsent(curso.getId(), id -> new ArrayList<>()).add(curso);
+        }
+        for (HorarioResumenDTO horario : horarioCursadaRepository.findResumenesByCursoIdIn(porId.keySet())) {
+            for (CursoResumenDTO curso : porId.get(horario.getCursoId())) {
+                curso.getHorarios().add(horario);
+            }
+        }
+    }
+
     /**
      * Delete the horarioCursada by id.
      *
@@ -67,6 +107,9 @@ public class HorarioCursadaService {
      */
     public void delete(Long id) {
         log.debug("Request to delete HorarioCursada : {}", id);
+        ocupacionSemanalService.invalidarHorarios();
+        horarioCursadaRepository.findCursoIdById(id)
+            .ifPresent(cursoId -> applicationEventPublisher.publishEvent(new CursoModificadoEvent(cursoId)));
         horarioCursadaRepository.deleteById(id);
     }
 }
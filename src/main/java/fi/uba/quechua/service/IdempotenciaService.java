@@ -0,0 +1,94 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.security.SecurityUtils;
+import fi.uba.quechua.service.dto.RespuestaIdempotenteDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.net.URISyntaxException;
+
+/**
+ * Service Implementation for handling the Idempotency-Key header.
+ * <p>
+ * La primera vez que llega una clave se ejecuta la operacion y se guarda su respuesta en un cache acotado
+ * y con vencimiento; los reintentos con la misma clave reciben esa respuesta sin volver a ejecutarla.
+ * Las claves se separan por usuario y por operacion.
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final String RESPUESTAS_CACHE = "respuestasIdempotentes";
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private final CacheManager cacheManager;
+
+    public IdempotenciaService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Operacion cuya respuesta se guarda.
+     */
+    @FunctionalInterface
+    public interface Operacion {
+        ResponseEntity<?> ejecutar() throws URISyntaxException;
+    }
+
+    /**
+     * Ejecuta la operacion una unica vez por clave.
+     *
+     * @param clave el valor del header Idempotency-Key, puede ser null
+     * @param operacion el nombre de la operacion, por ejemplo el path del request
+     * @param accion la operacion a ejecutar
+     * @return la respuesta de la operacion, o la guardada si la clave ya fue usada
+     * @throws URISyntaxException if the operacion throws it
+     */
+    public ResponseEntity<?> ejecutar(String clave, String operacion, Operacion accion) throws URISyntaxException {
+        if (clave == null || clave.isEmpty()) {
+            return accion.ejecutar();
+        }
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+        String id = login + ":" + operacion + ":" + clave;
+        Cache cache = cacheManager.getCache(RESPUESTAS_CACHE);
+        Cache.ValueWrapper previa = cache.putIfAbsent(id, RespuestaIdempotenteDTO.enCurso());
+        if (previa != null) {
+            RespuestaIdempotenteDTO respuesta = (RespuestaIdempotenteDTO) previa.get();
+            if (respuesta.isEnCurso()) {
+                log.debug("Idempotency-Key {} en curso", id);
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            log.debug("Idempotency-Key {} repetida, se devuelve la respuesta original", id);
+            return ResponseEntity.status(respuesta.getStatus())
+                .headers(respuesta.getHeaders())
+                .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(respuesta.getBody());
+        }
+        ResponseEntity<?> respuesta;
+        try {
+            respuesta = accion.ejecutar();
+        } catch (URISyntaxException | RuntimeException e) {
+            cache.evict(id);
+            throw e;
+        }
+        if (respuesta.getStatusCode().is2xxSuccessful() && (respuesta.getBody() == null || respuesta.getBody() instanceof Serializable)) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(respuesta.getHeaders());
+            cache.put(id, new RespuestaIdempotenteDTO(respuesta.getStatusCodeValue(), headers, (Serializable) respuesta.getBody()));
+        } else {
+            cache.evict(id);
+        }
+        return respuesta;
+    }
+}
@@ -78,6 +78,11 @@ public class InscripcionColoquioService {
         return inscripcionColoquioRepository.findByColoquioAndAlumnoAndEstado(coloquio, alumno, estado);
     }
 
+    @Transactional(readOnly = true)
+    public boolean isInscripto(Coloquio coloquio, Alumno alumno) {
+        return inscripcionColoquioRepository.existsByColoquioAndAlumnoAndEstado(coloquio, alumno, InscripcionColoquioEstado.ACTIVA);
+    }
+
     public List<InscripcionColoquio> findAllActivasByAlumno(Alumno alumno) {
         log.debug("Request to get all InscripcionColoquio by Alumno {}", alumno.getId());
         return inscripcionColoquioRepository.findAllByAlumnoAndEstado(alumno, InscripcionColoquioEstado.ACTIVA);
@@ -3,17 +3,26 @@ package fi.uba.quechua.service;
 import fi.uba.quechua.domain.Alumno;
 import fi.uba.quechua.domain.Curso;
 import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
 import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.AlumnoRepository;
+import fi.uba.quechua.repository.ArchivoRepository;
+import fi.uba.quechua.repository.CursoRepository;
 import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
+import fi.uba.quechua.service.dto.InscripcionCursoResumenDTO;
+import fi.uba.quechua.service.dto.ResultadoInscripcionDTO;
+import fi.uba.quechua.service.dto.TicketInscripcionDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 /**
  * Service Implementation for managing InscripcionCurso.
  */
@@ -25,18 +34,58 @@ public class InscripcionCursoService {
 
     private final InscripcionCursoRepository inscripcionCursoRepository;
 
-    public InscripcionCursoService(InscripcionCursoRepository inscripcionCursoRepository) {
+    private final CupoCursoService cupoCursoService;
+
+    private final CursoRepository cursoRepository;
+
+    private final AsignacionVacantesService asignacionVacantesService;
+
+    private final OcupacionSemanalService ocupacionSemanalService;
+
+    private final HorarioCursadaService horarioCursadaService;
+
+    private final ArchivoRepository archivoRepository;
+
+    private final AlumnoRepository alumnoRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public InscripcionCursoService(InscripcionCursoRepository inscripcionCursoRepository, CupoCursoService cupoCursoService,
+                                   CursoRepository cursoRepository, AsignacionVacantesService asignacionVacantesService,
+                                   OcupacionSemanalService ocupacionSemanalService, HorarioCursadaService horarioCursadaService,
+                                   ArchivoRepository archivoRepository, AlumnoRepository alumnoRepository,
+                                   ApplicationEventPublisher applicationEventPublisher) {
         this.inscripcionCursoRepository = inscripcionCursoRepository;
+        this.cupoCursoService = cupoCursoService;
+        this.cursoRepository = cursoRepository;
+        this.asignacionVacantesService = asignacionVacantesService;
+        this.ocupacionSemanalService = ocupacionSemanalService;
+        this.horarioCursadaService = horarioCursadaService;
+        this.archivoRepository = archivoRepository;
+        this.alumnoRepository = alumnoRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
-     * Save a inscripcionCurso.
+     * Save a inscripcionCurso, moviendo los contadores de vacantes si cambia su estado o su curso.
      *
-     * @param inscripcionCurso the entity to save
+     * @param inscripcionCurso the entity to save, not attached to the current session
      * @return the persisted entity
      */
     public InscripcionCurso save(InscripcionCurso inscripcionCurso) {
-        log.debug("Request to save InscripcionCurso : {}", inscripcionCurso);        return inscripcionCursoRepository.save(inscripcionCurso);
+        log.debug("Request to save InscripcionCurso : {}", inscripcionCurso);
+        Optional<InscripcionCurso> anterior = inscripcionCurso.getId() == null
+            ? Optional.empty() : inscripcionCursoRepository.findById(inscripcionCurso.getId());
+        cupoCursoService.ajustar(anterior.map(InscripcionCurso::getCurso).orElse(null),
+            anterior.map(i -> i.getEstado() == InscripcionCursoEstado.REGULAR).orElse(false),
+            inscripcionCurso.getCurso(), inscripcionCurso.getEstado() == InscripcionCursoEstado.REGULAR);
+        anterior.ifPresent(i -> {
+            ocupacionSemanalService.invalidar(i.getAlumno());
+            cursoModificado(i.getCurso());
+        });
+        ocupacionSemanalService.invalidar(inscripcionCurso.getAlumno());
+        cursoModificado(inscripcionCurso.getCurso());
+        return inscripcionCursoRepository.save(inscripcionCurso);
     }
 
     /**
@@ -70,12 +119,267 @@ public class InscripcionCursoService {
      */
     public void delete(Long id) {
         log.debug("Request to delete InscripcionCurso : {}", id);
+        Optional<InscripcionCurso> inscripcion = inscripcionCursoRepository.findById(id);
+        if (inscripcion.isPresent() && inscripcion.get().getCurso() != null
+            && inscripcion.get().getEstado() == InscripcionCursoEstado.REGULAR) {
+            cupoCursoService.liberar(inscripcion.get().getCurso());
+        }
+        inscripcion.ifPresent(i -> {
+            ocupacionSemanalService.invalidar(i.getAlumno());
+            cursoModificado(i.getCurso());
+        });
         inscripcionCursoRepository.deleteById(id);
     }
 
+    /**
+     * Inscribe al alumno en el curso, como REGULAR si se pudo reservar una vacante o CONDICIONAL si no.
+     *
+     * @param curso el curso
+     * @param alumno el alumno
+     * @return the persisted entity
+     */
+    public InscripcionCurso inscribir(Curso curso, Alumno alumno) {
+        log.debug("Request to inscribir al Alumno {} en el Curso {}", alumno.getId(), curso.getId());
+        InscripcionCursoEstado estado = cupoCursoService.reservar(curso) ? InscripcionCursoEstado.REGULAR : InscripcionCursoEstado.CONDICIONAL;
+        InscripcionCurso inscripcion = new InscripcionCurso();
+        inscripcion.setAlumno(alumno);
+        inscripcion.setCurso(curso);
+        inscripcion.estado(estado);
+        ocupacionSemanalService.invalidar(alumno);
+        cursoModificado(curso);
+        return inscripcionCursoRepository.save(inscripcion);
+    }
+
+    /**
+     * Inscribe al alumno en varios cursos en una sola transaccion.
+     * <p>
+     * Los cursos y las inscripciones previas se validan con una consulta cada uno, y las vacantes se reservan
+     * en orden de id de curso, para que dos pedidos concurrentes tomen los contadores siempre en el mismo orden.
+     * Si la asignacion por prioridad esta habilitada, solo se registran las intenciones (estado PENDIENTE).
+     *
+     * @param alumno el alumno
+     * @param cursoIds los ids de los cursos
+     * @param todoONada si es true y algun curso es rechazado, no se inscribe en ninguno
+     * @return el resultado por curso, en orden de id de curso
+     */
+    public List<ResultadoInscripcionDTO> inscribirVarios(Alumno alumno, Collection<Long> cursoIds, boolean todoONada) {
+        log.debug("Request to inscribir al Alumno {} en los Cursos {}", alumno.getId(), cursoIds);
+        SortedSet<Long> ids = new TreeSet<>(cursoIds);
+        Map<Long, Curso> cursos = new HashMap<>();
+        for (Curso curso : cursoRepository.findAllById(ids)) {
+            cursos.put(curso.getId(), curso);
+        }
+        Set<Long> inscriptos = new HashSet<>(
+            inscripcionCursoRepository.findCursoIdsByAlumnoAndCursoIdInAndEstadoNot(alumno, ids, InscripcionCursoEstado.ELIMINADA));
+
+        List<ResultadoInscripcionDTO> resultados = new ArrayList<>(ids.size());
+        boolean rechazadas = false;
+        for (Long cursoId : ids) {
+            if (!cursos.containsKey(cursoId)) {
+                resultados.add(new ResultadoInscripcionDTO(cursoId, TicketInscripcionDTO.Estado.RECHAZADA, "No existe un curso con id provisto"));
+                rechazadas = true;
+            } else if (inscriptos.contains(cursoId)) {
+                resultados.add(new ResultadoInscripcionDTO(cursoId, TicketInscripcionDTO.Estado.RECHAZADA, "El alumno ya se encuentra inscripto al curso"));
+                rechazadas = true;
+            } else {
+                resultados.add(new ResultadoInscripcionDTO(cursoId, TicketInscripcionDTO.Estado.PENDIENTE, null));
+            }
+        }
+        if (todoONada && rechazadas) {
+            return resultados;
+        }
+
+        List<InscripcionCurso> nuevas = new ArrayList<>(ids.size());
+        for (ResultadoInscripcionDTO resultado : resultados) {
+            if (resultado.isRechazada()) {
+                continue;
+            }
+            Curso curso = cursos.get(resultado.getCursoId());
+            if (asignacionVacantesService.isEnabled()) {
+                asignacionVacantesService.registrarIntencion(curso, alumno);
+                continue;
+            }
+            InscripcionCursoEstado estado = cupoCursoService.reservar(curso) ? InscripcionCursoEstado.REGULAR : InscripcionCursoEstado.CONDICIONAL;
+            nuevas.add(new InscripcionCurso().alumno(alumno).curso(curso).estado(estado));
+            cursoModificado(curso);
+            resultado.setEstado(TicketInscripcionDTO.estadoDe(estado));
+        }
+        if (!nuevas.isEmpty()) {
+            ocupacionSemanalService.invalidar(alumno);
+        }
+        Iterator<InscripcionCurso> guardadas = inscripcionCursoRepository.saveAll(nuevas).iterator();
+        for (ResultadoInscripcionDTO resultado : resultados) {
+            if (resultado.getEstado() == TicketInscripcionDTO.Estado.REGULAR || resultado.getEstado() == TicketInscripcionDTO.Estado.CONDICIONAL) {
+                resultado.setInscripcionCursoId(guardadas.next().getId());
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Cambia la inscripcion a otro curso: libera la vacante del curso actual (si era REGULAR) y toma una
+     * del curso destino, en la misma transaccion. Los contadores se actualizan en orden de id de curso.
+     *
+     * @param inscripcion la inscripcion vigente
+     * @param destino el curso al que se cambia
+     * @return la nueva inscripcion REGULAR, o vacio si el curso destino no tiene vacantes (sin cambios)
+     */
+    public Optional<InscripcionCurso> cambiarCurso(InscripcionCurso inscripcion, Curso destino) {
+        Curso origen = inscripcion.getCurso();
+        log.debug("Request to cambiar la InscripcionCurso {} del Curso {} al Curso {}", inscripcion.getId(), origen.getId(), destino.getId());
+        boolean eraRegular = inscripcion.getEstado() == InscripcionCursoEstado.REGULAR;
+        if (eraRegular && origen.getId() < destino.getId()) {
+            cupoCursoService.liberar(origen);
+            if (!cupoCursoService.reservar(destino)) {
+                cupoCursoService.ocupar(origen);
+                return Optional.empty();
+            }
+        } else {
+            if (!cupoCursoService.reservar(destino)) {
+                return Optional.empty();
+            }
+            if (eraRegular) {
+                cupoCursoService.liberar(origen);
+            }
+        }
+        inscripcionCursoRepository.save(inscripcion.estado(InscripcionCursoEstado.ELIMINADA));
+        ocupacionSemanalService.invalidar(inscripcion.getAlumno());
+        cursoModificado(origen);
+        cursoModificado(destino);
+        return Optional.of(inscripcionCursoRepository.save(
+            new InscripcionCurso().alumno(inscripcion.getAlumno()).curso(destino).estado(InscripcionCursoEstado.REGULAR)));
+    }
+
+    /**
+     * Pasa a REGULAR las inscripciones condicionales del curso mientras haya vacantes libres, empezando por
+     * la de mejor prioridad (los alumnos sin prioridad al final) y, a igual prioridad, la mas antigua. Cada
+     * inscripcion se promueve con un UPDATE condicional, por si otra instancia la promovio al mismo tiempo.
+     *
+     * @param cursoId the id of the curso
+     * @return la cantidad de inscripciones promovidas
+     */
+    public int promoverCondicionales(Long cursoId) {
+        int promovidas = 0;
+        while (true) {
+            Optional<InscripcionCurso> candidata = inscripcionCursoRepository.findAllByCursoIdAndEstadoEnOrdenDePromocion(
+                cursoId, InscripcionCursoEstado.CONDICIONAL, PageRequest.of(0, 1)).stream().findFirst();
+            if (!candidata.isPresent() || !cupoCursoService.reservar(candidata.get().getCurso())) {
+                break;
+            }
+            if (inscripcionCursoRepository.cambiarEstado(candidata.get().getId(),
+                InscripcionCursoEstado.CONDICIONAL, InscripcionCursoEstado.REGULAR) == 0) {
+                cupoCursoService.liberar(candidata.get().getCurso());
+                continue;
+            }
+            promovidas++;
+        }
+        if (promovidas > 0) {
+            log.debug("Promovidas {} InscripcionCursos condicionales del Curso {}", promovidas, cursoId);
+            applicationEventPublisher.publishEvent(new CursoModificadoEvent(cursoId));
+        }
+        return promovidas;
+    }
+
+    /**
+     * Inscribe en orden, en una unica transaccion, las solicitudes recibidas. Cada solicitud es una
+     * inscripcion sin persistir con el curso y el alumno asignados.
+     *
+     * @param solicitudes las inscripciones a crear
+     * @return por cada solicitud, la inscripcion persistida o null si el alumno ya estaba inscripto al curso
+     */
+    public List<InscripcionCurso> inscribirLote(List<InscripcionCurso> solicitudes) {
+        log.debug("Request to inscribir un lote de {} InscripcionCursos", solicitudes.size());
+        List<InscripcionCurso> resultado = new ArrayList<>(solicitudes.size());
+        List<InscripcionCurso> nuevas = new ArrayList<>(solicitudes.size());
+        Set<String> inscriptos = new HashSet<>();
+        for (InscripcionCurso solicitud : solicitudes) {
+            Curso curso = solicitud.getCurso();
+            Alumno alumno = solicitud.getAlumno();
+            boolean repetida = !inscriptos.add(curso.getId() + "-" + alumno.getId())
+                || inscripcionCursoRepository.existsByCursoAndAlumnoAndEstadoNot(curso, alumno, InscripcionCursoEstado.ELIMINADA);
+            if (repetida) {
+                resultado.add(null);
+                continue;
+            }
+            solicitud.estado(cupoCursoService.reservar(curso) ? InscripcionCursoEstado.REGULAR : InscripcionCursoEstado.CONDICIONAL);
+            resultado.add(solicitud);
+            nuevas.add(solicitud);
+            ocupacionSemanalService.invalidar(alumno);
+            cursoModificado(curso);
+        }
+        inscripcionCursoRepository.saveAll(nuevas);
+        return resultado;
+    }
+
+    /**
+     * Cambia el estado de la inscripcion, ocupando o liberando la vacante correspondiente.
+     *
+     * @param inscripcion la inscripcion
+     * @param estado el nuevo estado
+     * @return the persisted entity
+     */
+    public InscripcionCurso cambiarEstado(InscripcionCurso inscripcion, InscripcionCursoEstado estado) {
+        log.debug("Request to cambiar el estado de la InscripcionCurso {} a {}", inscripcion.getId(), estado);
+        boolean eraRegular = inscripcion.getEstado() == InscripcionCursoEstado.REGULAR;
+        boolean esRegular = estado == InscripcionCursoEstado.REGULAR;
+        if (inscripcion.getCurso() != null && eraRegular && !esRegular) {
+            cupoCursoService.liberar(inscripcion.getCurso());
+        } else if (inscripcion.getCurso() != null && !eraRegular && esRegular) {
+            cupoCursoService.ocupar(inscripcion.getCurso());
+        }
+        if ((inscripcion.getEstado() == InscripcionCursoEstado.ELIMINADA) != (estado == InscripcionCursoEstado.ELIMINADA)) {
+            ocupacionSemanalService.invalidar(inscripcion.getAlumno());
+            cursoModificado(inscripcion.getCurso());
+        }
+        inscripcion.setEstado(estado);
+        return inscripcionCursoRepository.save(inscripcion);
+    }
+
+    private void cursoModificado(Curso curso) {
+        if (curso != null) {
+            applicationEventPublisher.publishEvent(new CursoModificadoEvent(curso.getId()));
+        }
+    }
+
+    /**
+     * Get the inscripciones no eliminadas del curso, incluidas las archivadas si el curso es de un periodo cerrado.
+     *
+     * @param curso the curso
+     * @return the list of entities, ordenadas por estado y por alumno; las archivadas no estan en la sesion
+     */
+    @Transactional(readOnly = true)
     public List<InscripcionCurso> findByCurso(Curso curso) {
         log.debug("Request to get InscripcionCursos by Curso {}", curso.getId());
-        return inscripcionCursoRepository.findAllNoEliminadasByCursoOrderByAlumnoNombre(curso, InscripcionCursoEstado.ELIMINADA);
+        List<InscripcionCurso> inscripciones =
+            inscripcionCursoRepository.findAllNoEliminadasByCursoOrderByAlumnoNombre(curso, InscripcionCursoEstado.ELIMINADA);
+        List<Object[]> archivadas = archivoRepository.findInscripcionesArchivadasByCurso(curso.getId());
+        if (archivadas.isEmpty()) {
+            return inscripciones;
+        }
+        Set<Long> alumnoIds = new HashSet<>();
+        for (Object[] fila : archivadas) {
+            if (fila[3] != null) {
+                alumnoIds.add(((Number) fila[3]).longValue());
+            }
+        }
+        Map<Long, Alumno> alumnos = new HashMap<>();
+        for (Alumno alumno : alumnoRepository.findAllById(alumnoIds)) {
+            alumnos.put(alumno.getId(), alumno);
+        }
+        List<InscripcionCurso> todas = new ArrayList<>(inscripciones);
+        for (Object[] fila : archivadas) {
+            InscripcionCurso archivada = new InscripcionCurso()
+                .estado(InscripcionCursoEstado.valueOf((String) fila[1]))
+                .cursadaEstado(fila[2] == null ? null : CursadaEstado.valueOf((String) fila[2]))
+                .alumno(fila[3] == null ? null : alumnos.get(((Number) fila[3]).longValue()))
+                .curso(curso);
+            archivada.setId(((Number) fila[0]).longValue());
+            todas.add(archivada);
+        }
+        todas.sort(Comparator.comparing(InscripcionCurso::getEstado, Comparator.reverseOrder())
+            .thenComparing(i -> i.getAlumno() == null ? null : i.getAlumno().getApellido(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(i -> i.getAlumno() == null ? null : i.getAlumno().getNombre(), Comparator.nullsFirst(Comparator.naturalOrder())));
+        return todas;
     }
 
     public Optional<InscripcionCurso> findByCursoAndAlumnoNoEliminada(Curso curso, Alumno alumno) {
@@ -83,18 +387,99 @@ public class InscripcionCursoService {
         return inscripcionCursoRepository.findByCursoAndAlumnoAndEstadoNot(curso, alumno, InscripcionCursoEstado.ELIMINADA);
     }
 
+    @Transactional(readOnly = true)
+    public boolean isInscripto(Curso curso, Alumno alumno) {
+        return inscripcionCursoRepository.existsByCursoAndAlumnoAndEstadoNot(curso, alumno, InscripcionCursoEstado.ELIMINADA);
+    }
+
+    /**
+     * Cuenta las inscripciones no eliminadas de cada curso con una sola consulta.
+     *
+     * @param cursos los cursos
+     * @return la cantidad de inscriptos por id de curso; los cursos sin inscriptos no aparecen
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> contarInscriptos(Collection<Curso> cursos) {
+        List<Long> cursoIds = new ArrayList<>(cursos.size());
+        for (Curso curso : cursos) {
+            cursoIds.add(curso.getId());
+        }
+        return contarInscriptosPorId(cursoIds);
+    }
+
+    /**
+     * Cuenta las inscripciones no eliminadas de cada curso con una sola consulta.
+     *
+     * @param cursoIds the ids of the cursos
+     * @return la cantidad de inscriptos por id de curso; los cursos sin inscriptos no aparecen
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> contarInscriptosPorId(Collection<Long> cursoIds) {
+        log.debug("Request to count InscripcionCursos of {} Cursos", cursoIds.size());
+        Map<Long, Long> inscriptos = new HashMap<>();
+        if (cursoIds.isEmpty()) {
+            return inscriptos;
+        }
+        for (Object[] fila : inscripcionCursoRepository.countByCursoIdInAndEstadoNot(cursoIds, InscripcionCursoEstado.ELIMINADA)) {
+            inscriptos.put((Long) fila[0], (Long) fila[1]);
+        }
+        return inscriptos;
+    }
+
     public List<InscripcionCurso> findAllRegularesByCurso(Curso curso) {
         log.debug("Request to get InscripcionCursos by Curso {}", curso.getId());
         return inscripcionCursoRepository.findAllByCursoAndEstado(curso, InscripcionCursoEstado.REGULAR);
     }
 
     /**
-     * Get all the inscripcionCurso by alumno.
+     * Get all the inscripcionCurso by alumno, resumidas y con los horarios de cada curso.
      *
-     * @param id the id of the entity
+     * @param alumno the alumno
      */
-    public List<InscripcionCurso> findAllActivasByAlumno(Alumno alumno) {
+    @Transactional(readOnly = true)
+    public List<InscripcionCursoResumenDTO> findAllActivasByAlumno(Alumno alumno) {
         log.debug("Request to get InscripcionCursos by Alumno {}", alumno.getId());
-        return inscripcionCursoRepository.findAllByAlumnoAndEstadoNot(alumno, InscripcionCursoEstado.ELIMINADA);
+        List<InscripcionCursoResumenDTO> inscripciones = new ArrayList<>(
+            inscripcionCursoRepository.findResumenesByAlumnoAndEstadoNot(alumno, InscripcionCursoEstado.ELIMINADA));
+        inscripciones.addAll(0, findArchivadasByAlumno(alumno));
+        // Las archivadas de un mismo curso comparten el resumen: se completa una sola vez
+        Set<CursoResumenDTO> cursos = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (InscripcionCursoResumenDTO inscripcion : inscripciones) {
+            if (inscripcion.getCurso() != null) {
+                cursos.add(inscripcion.getCurso());
+            }
+        }
+        horarioCursadaService.completarHorarios(cursos);
+        return inscripciones;
+    }
+
+    /**
+     * Las inscripciones archivadas del alumno, resumidas: son de periodos cerrados, anteriores a las vigentes.
+     */
+    private List<InscripcionCursoResumenDTO> findArchivadasByAlumno(Alumno alumno) {
+        List<Object[]> archivadas = archivoRepository.findInscripcionesArchivadasByAlumno(alumno.getId());
+        if (archivadas.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> cursoIds = new HashSet<>();
+        for (Object[] fila : archivadas) {
+            if (fila[3] != null) {
+                cursoIds.add(((Number) fila[3]).longValue());
+            }
+        }
+        Map<Long, CursoResumenDTO> cursos = new HashMap<>();
+        if (!cursoIds.isEmpty()) {
+            for (CursoResumenDTO curso : cursoRepository.findResumenesByIdIn(cursoIds)) {
+                cursos.put(curso.getId(), curso);
+            }
+        }
+        List<InscripcionCursoResumenDTO> inscripciones = new ArrayList<>(archivadas.size());
+        for (Object[] fila : archivadas) {
+            inscripciones.add(new InscripcionCursoResumenDTO(((Number) fila[0]).longValue(),
+                InscripcionCursoEstado.valueOf((String) fila[1]),
+                fila[2] == null ? null : CursadaEstado.valueOf((String) fila[2]),
+                fila[3] == null ? null : cursos.get(((Number) fila[3]).longValue())));
+        }
+        return inscripciones;
     }
 }
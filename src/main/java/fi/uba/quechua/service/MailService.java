@@ -6,11 +6,13 @@ import io.github.jhipster.config.JHipsterProperties;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
+import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
@@ -21,7 +23,9 @@ import org.thymeleaf.spring5.SpringTemplateEngine;
 /**
  * Service for sending emails.
  * <p>
- * We use the @Async annotation to send emails asynchronously.
+ * We use the @Async annotation to send emails asynchronously. The emails of the accounts go through the outbox
+ * instead (see OutboxRelay), which uses the synchronous enviar* methods to know whether to retry; with the outbox
+ * disabled, UserService sends them with the @Async methods.
  */
 @Service
 public class MailService {
@@ -54,35 +58,61 @@ public class MailService {
         log.debug("Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart, isHtml, to, subject, content);
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
+            enviarEmail(to, subject, content, isMultipart, isHtml);
         } catch (Exception e) {
-            if (log.isDebugEnabled()) {
-                log.warn("Email could not be sent to user '{}'", to, e);
-            } else {
-                log.warn("Email could not be sent to user '{}': {}", to, e.getMessage());
-            }
+            logError(to, e);
         }
     }
 
+    /**
+     * Send an email in the calling thread, without catching the errors.
+     *
+     * @throws MessagingException if the message can not be prepared, e.g. an invalid address
+     * @throws MailException if the message can not be sent
+     */
+    public void enviarEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) throws MessagingException {
+        // Prepare message using a Spring helper
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(subject);
+        message.setText(content, isHtml);
+        javaMailSender.send(mimeMessage);
+        log.debug("Sent email to User '{}'", to);
+    }
+
     @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
+        try {
+            enviarEmailDesdeTemplate(user, templateName, titleKey);
+        } catch (MessagingException | MailException e) {
+            logError(user.getEmail(), e);
+        }
+    }
+
+    /**
+     * Send an email from a template in the calling thread, without catching the errors.
+     *
+     * @see #enviarEmail(String, String, String, boolean, boolean)
+     */
+    public void enviarEmailDesdeTemplate(User user, String templateName, String titleKey) throws MessagingException {
         Locale locale = Locale.forLanguageTag(user.getLangKey());
         Context context = new Context(locale);
         context.setVariable(USER, user);
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
         String content = templateEngine.process(templateName, context);
         String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        enviarEmail(user.getEmail(), subject, content, false, true);
+    }
 
+    private void logError(String to, Exception e) {
+        if (log.isDebugEnabled()) {
+            log.warn("Email could not be sent to user '{}'", to, e);
+        } else {
+            log.warn("Email could not be sent to user '{}': {}", to, e.getMessage());
+        }
     }
 
     @Async
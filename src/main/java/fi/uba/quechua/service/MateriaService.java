@@ -1,19 +1,17 @@
 package fi.uba.quechua.service;
 
 import fi.uba.quechua.domain.*;
-import fi.uba.quechua.repository.AdministradorDepartamentoRepository;
-import fi.uba.quechua.repository.DepartamentoRepository;
 import fi.uba.quechua.repository.MateriaRepository;
 import fi.uba.quechua.security.AuthoritiesConstants;
 import fi.uba.quechua.security.SecurityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 /**
@@ -27,19 +25,15 @@ public class MateriaService {
 
     private final MateriaRepository materiaRepository;
 
-    private final UserService userService;
+    private final ActorService actorService;
 
-    private final AdministradorDepartamentoRepository administradorDepartamentoRepository;
+    private final DatosReferenciaService datosReferenciaService;
 
-    private final DepartamentoRepository departamentoRepository;
-
-    public MateriaService(MateriaRepository materiaRepository, UserService userService,
-                          AdministradorDepartamentoRepository administradorDepartamentoRepository,
-                          DepartamentoRepository departamentoRepository) {
+    public MateriaService(MateriaRepository materiaRepository, ActorService actorService,
+                          DatosReferenciaService datosReferenciaService) {
         this.materiaRepository = materiaRepository;
-        this.userService = userService;
-        this.administradorDepartamentoRepository = administradorDepartamentoRepository;
-        this.departamentoRepository = departamentoRepository;
+        this.actorService = actorService;
+        this.datosReferenciaService = datosReferenciaService;
     }
 
     /**
@@ -53,20 +47,19 @@ public class MateriaService {
     }
 
     /**
-     * Get all the materias.
+     * Get all the materias, ordenadas por codigo, desde los datos de referencia en memoria.
      *
      * @return the list of entities
      */
     @Transactional(readOnly = true)
     public List<Materia> findAll() {
         log.debug("Request to get all Materias");
-        Optional<User> user = userService.getUserWithAuthorities();
-        if (user.isPresent() && SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADM_DPTO)) {
-            Optional<AdministradorDepartamento> administradorDepartamento = administradorDepartamentoRepository.findByUserId(user.get().getId());
-            Optional<Departamento> departamento = departamentoRepository.findById(administradorDepartamento.get().getDepartamentoId());
-            return materiaRepository.findAllByDepartamentoOrderByCodigoAsc(departamento.get());
+        if (SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADM_DPTO)) {
+            return actorService.getDepartamentoIdActual()
+                .map(datosReferenciaService.getDatos()::getMateriasByDepartamento)
+                .orElseGet(ArrayList::new);
         }
-        return materiaRepository.findAll(new Sort(Sort.Direction.ASC, "codigo"));
+        return datosReferenciaService.getDatos().getMaterias();
     }
 
 
@@ -79,7 +72,7 @@ public class MateriaService {
     @Transactional(readOnly = true)
     public Optional<Materia> findOne(Long id) {
         log.debug("Request to get Materia : {}", id);
-        return materiaRepository.findById(id);
+        return datosReferenciaService.getDatos().getMateria(id);
     }
 
     /**
@@ -92,7 +85,15 @@ public class MateriaService {
         materiaRepository.deleteById(id);
     }
 
+    /**
+     * Get the materias de la carrera cuyo nombre empieza con query, sin distinguir mayusculas ni acentos.
+     *
+     * @param carrera the carrera
+     * @param query the comienzo del nombre
+     * @return the list of entities, ordenadas por codigo
+     */
+    @Transactional(readOnly = true)
     public List<Materia> findByFilter(Carrera carrera, String query) {
-        return materiaRepository.findAllByCarreraAndNombreStartingWith(carrera, query);
+        return datosReferenciaService.getDatos().getMateriasByCarreraAndNombre(carrera.getId(), query);
     }
 }
@@ -0,0 +1,19 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.enumeration.MensajeOutboxDestino;
+
+/**
+ * Se publica al guardar un mensaje en el outbox, para que el OutboxRelay lo entregue apenas se confirme la transaccion.
+ */
+public class MensajeOutboxAgregadoEvent {
+
+    private final MensajeOutboxDestino destino;
+
+    public MensajeOutboxAgregadoEvent(MensajeOutboxDestino destino) {
+        this.destino = destino;
+    }
+
+    public MensajeOutboxDestino getDestino() {
+        return destino;
+    }
+}
@@ -0,0 +1,53 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.HorarioCursada;
+import fi.uba.quechua.domain.enumeration.Dia;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Minutos de la semana ocupados por un conjunto de horarios de cursada.
+ * <p>
+ * Cada dia ocupa un bloque de 1440 bits, de modo que detectar una superposicion es una interseccion de
+ * bitsets. Los horarios cuyo inicio o fin no se pudo interpretar no ocupan ningun minuto.
+ */
+public final class OcupacionSemanal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MINUTOS_POR_DIA = 24 * 60;
+
+    public static final OcupacionSemanal VACIA = new OcupacionSemanal(new BitSet());
+
+    private final BitSet minutos;
+
+    private OcupacionSemanal(BitSet minutos) {
+        this.minutos = minutos;
+    }
+
+    public static OcupacionSemanal de(Collection<HorarioCursada> horarios) {
+        BitSet minutos = new BitSet(Dia.values().length * MINUTOS_POR_DIA);
+        for (HorarioCursada horario : horarios) {
+            Integer inicio = horario.getMinutoInicio();
+            Integer fin = horario.getMinutoFin();
+            if (horario.getDia() == null || inicio == null || fin == null || fin <= inicio) {
+                continue;
+            }
+            int base = horario.getDia().ordinal() * MINUTOS_POR_DIA;
+            minutos.set(base + inicio, base + fin);
+        }
+        return new OcupacionSemanal(minutos);
+    }
+
+    public boolean superpone(OcupacionSemanal otra) {
+        return minutos.intersects(otra.minutos);
+    }
+
+    public OcupacionSemanal con(OcupacionSemanal otra) {
+        BitSet union = (BitSet) minutos.clone();
+        union.or(otra.minutos);
+        return new OcupacionSemanal(union);
+    }
+}
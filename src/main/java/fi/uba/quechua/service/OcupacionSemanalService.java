@@ -0,0 +1,157 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.HorarioCursadaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Service Implementation for detecting superposiciones horarias between the cursos of an alumno.
+ * <p>
+ * La ocupacion semanal de cada alumno (los horarios de sus inscripciones no eliminadas) y la de cada
+ * curso se guardan en cache. La del alumno se invalida al confirmarse cualquier cambio en sus
+ * inscripciones, y ambas se descartan completas cuando cambia algun horario.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OcupacionSemanalService {
+
+    public static final String OCUPACION_ALUMNO_CACHE = "ocupacionSemanalAlumno";
+
+    public static final String OCUPACION_CURSO_CACHE = "ocupacionSemanalCurso";
+
+    private final Logger log = LoggerFactory.getLogger(OcupacionSemanalService.class);
+
+    private final ApplicationProperties.Inscripcion.Superposicion config;
+
+    private final HorarioCursadaRepository horarioCursadaRepository;
+
+    private final CacheManager cacheManager;
+
+    public OcupacionSemanalService(ApplicationProperties applicationProperties,
+                                   HorarioCursadaRepository horarioCursadaRepository, CacheManager cacheManager) {
+        this.config = applicationProperties.getInscripcion().getSuperposicion();
+        this.horarioCursadaRepository = horarioCursadaRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public ApplicationProperties.Inscripcion.Superposicion.Politica getPolitica() {
+        return config.getPolitica();
+    }
+
+    public OcupacionSemanal getOcupacionDelAlumno(Long alumnoId) {
+        return getCache(OCUPACION_ALUMNO_CACHE).get(alumnoId, () -> OcupacionSemanal.de(
+            horarioCursadaRepository.findAllByInscripcionDelAlumnoAndEstadoNot(alumnoId, InscripcionCursoEstado.ELIMINADA)));
+    }
+
+    public OcupacionSemanal getOcupacionDelCurso(Long cursoId) {
+        return getCache(OCUPACION_CURSO_CACHE).get(cursoId, () -> OcupacionSemanal.de(
+            horarioCursadaRepository.findAllByCursoId(cursoId)));
+    }
+
+    /**
+     * Indica si los cursos se superponen con los que ya cursa el alumno, o entre si.
+     *
+     * @param alumno el alumno
+     * @param cursoIds los ids de los cursos a los que se quiere inscribir
+     * @return false si la politica es IGNORAR
+     */
+    public boolean seSuperpone(Alumno alumno, Collection<Long> cursoIds) {
+        if (config.getPolitica() == ApplicationProperties.Inscripcion.Superposicion.Politica.IGNORAR) {
+            return false;
+        }
+        OcupacionSemanal ocupacion = getOcupacionDelAlumno(alumno.getId());
+        for (Long cursoId : new TreeSet<>(cursoIds)) {
+            OcupacionSemanal curso = getOcupacionDelCurso(cursoId);
+            if (ocupacion.superpone(curso)) {
+                log.debug("El Curso {} se superpone con los horarios del Alumno {}", cursoId, alumno.getId());
+                return true;
+            }
+            ocupacion = ocupacion.con(curso);
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el curso destino se superpone con los que cursa el alumno, sin contar el curso origen.
+     * <p>
+     * La ocupacion sin el origen se arma con los horarios de los demas cursos, sin cache: restar la del origen
+     * a la del alumno borraria tambien los minutos que el origen comparte con otros cursos.
+     *
+     * @return false si la politica es IGNORAR
+     */
+    public boolean seSuperponeCambio(Alumno alumno, Long origenId, Long destinoId) {
+        if (config.getPolitica() == ApplicationProperties.Inscripcion.Superposicion.Politica.IGNORAR) {
+            return false;
+        }
+        OcupacionSemanal resto = OcupacionSemanal.de(horarioCursadaRepository
+            .findAllByInscripcionDelAlumnoAndEstadoNotAndCursoIdNot(alumno.getId(), InscripcionCursoEstado.ELIMINADA, origenId));
+        return resto.superpone(getOcupacionDelCurso(destinoId));
+    }
+
+    /**
+     * Descarta la ocupacion del alumno. Si hay una transaccion en curso, se descarta recien al confirmarse,
+     * para que una consulta concurrente no vuelva a cargar los horarios anteriores.
+     */
+    public void invalidar(Alumno alumno) {
+        if (alumno == null || alumno.getId() == null) {
+            return;
+        }
+        Long alumnoId = alumno.getId();
+        alConfirmar(() -> getCache(OCUPACION_ALUMNO_CACHE).evict(alumnoId));
+    }
+
+    /**
+     * Descarta la ocupacion de todos los alumnos, por ejemplo luego de una asignacion masiva.
+     */
+    public void invalidarAlumnos() {
+        alConfirmar(() -> getCache(OCUPACION_ALUMNO_CACHE).clear());
+    }
+
+    /**
+     * Descarta la ocupacion de un curso nuevo, por si se consulto antes de crearlo.
+     */
+    public void invalidarCurso(Long cursoId) {
+        alConfirmar(() -> getCache(OCUPACION_CURSO_CACHE).evict(cursoId));
+    }
+
+    /**
+     * Descarta todas las ocupaciones, al cambiar los horarios de algun curso.
+     */
+    public void invalidarHorarios() {
+        alConfirmar(() -> {
+            getCache(OCUPACION_CURSO_CACHE).clear();
+            getCache(OCUPACION_ALUMNO_CACHE).clear();
+        });
+    }
+
+    private void alConfirmar(Runnable invalidacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidacion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                invalidacion.run();
+            }
+        });
+    }
+
+    private Cache getCache(String nombre) {
+        return Objects.requireNonNull(cacheManager.getCache(nombre));
+    }
+}
@@ -0,0 +1,296 @@
+package fi.uba.quechua.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.MensajeOutbox;
+import fi.uba.quechua.domain.User;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxDestino;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxEstado;
+import fi.uba.quechua.firebase.FirebaseDispatcher;
+import fi.uba.quechua.repository.UserRepository;
+import fi.uba.quechua.service.dto.EmailTemplateDTO;
+import fi.uba.quechua.service.dto.NotificacionPushDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega los mensajes del outbox (ver OutboxService) a Firebase y al mail.
+ * <p>
+ * Cada destino se drena por separado, en lotes, y sus mensajes se entregan con a lo sumo tantos envios simultaneos
+ * como su concurrencia configurada; un destino lento o caido no demora al otro. Despues de varias fallas transitorias
+ * seguidas a un destino se abre su circuito, y por un tiempo no se le entrega nada. Se drena apenas se confirma una
+ * transaccion que agrego mensajes y, para los reintentos, cada 10 segundos.
+ */
+@Service
+public class OutboxRelay {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final ApplicationProperties.Outbox config;
+
+    private final OutboxService outboxService;
+
+    private final FirebaseDispatcher firebaseDispatcher;
+
+    private final MailService mailService;
+
+    private final UserRepository userRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<MensajeOutboxDestino, AtomicBoolean> drenajesPendientes = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, ExecutorService> coordinadores = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, ExecutorService> envios = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, AtomicInteger> fallasSeguidas = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, AtomicLong> circuitosAbiertosHasta = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, Meter> enviados = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, Meter> rechazados = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, Meter> reintentos = new EnumMap<>(MensajeOutboxDestino.class);
+
+    private final Map<MensajeOutboxDestino, Meter> descartados = new EnumMap<>(MensajeOutboxDestino.class);
+
+    public OutboxRelay(ApplicationProperties applicationProperties, OutboxService outboxService, FirebaseDispatcher firebaseDispatcher,
+                       MailService mailService, UserRepository userRepository, ObjectMapper objectMapper, MetricRegistry metricRegistry) {
+        this.config = applicationProperties.getOutbox();
+        this.outboxService = outboxService;
+        this.firebaseDispatcher = firebaseDispatcher;
+        this.mailService = mailService;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        for (MensajeOutboxDestino destino : MensajeOutboxDestino.values()) {
+            String nombre = destino.name().toLowerCase();
+            drenajesPendientes.put(destino, new AtomicBoolean());
+            fallasSeguidas.put(destino, new AtomicInteger());
+            circuitosAbiertosHasta.put(destino, new AtomicLong());
+            enviados.put(destino, metricRegistry.meter(MetricRegistry.name(OutboxRelay.class, nombre, "enviados")));
+            rechazados.put(destino, metricRegistry.meter(MetricRegistry.name(OutboxRelay.class, nombre, "rechazados")));
+            reintentos.put(destino, metricRegistry.meter(MetricRegistry.name(OutboxRelay.class, nombre, "reintentos")));
+            descartados.put(destino, metricRegistry.meter(MetricRegistry.name(OutboxRelay.class, nombre, "descartados")));
+            registrar(metricRegistry, MetricRegistry.name(OutboxRelay.class, nombre, "circuitoAbierto"), () -> isCircuitoAbierto(destino));
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        log.info("Iniciando el relay del outbox: {} envios push y {} de mail simultaneos", config.getPushConcurrency(),
+            config.getMailConcurrency());
+        for (MensajeOutboxDestino destino : MensajeOutboxDestino.values()) {
+            coordinadores.put(destino, Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "quechua-Outbox-" + destino)));
+            AtomicInteger numero = new AtomicInteger();
+            envios.put(destino, Executors.newFixedThreadPool(getConcurrencia(destino),
+                runnable -> new Thread(runnable, "quechua-Outbox-" + destino + "-" + numero.incrementAndGet())));
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        coordinadores.values().forEach(ExecutorService::shutdownNow);
+        envios.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMensajeAgregado(MensajeOutboxAgregadoEvent event) {
+        despertar(event.getDestino());
+    }
+
+    /**
+     * Drena todos los destinos, para entregar los mensajes cuyo reintento ya corresponde.
+     * <p>
+     * This is scheduled to get fired every 10 seconds.
+     */
+    @Scheduled(fixedDelay = 10000)
+    public void revisarPendientes() {
+        for (MensajeOutboxDestino destino : MensajeOutboxDestino.values()) {
+            despertar(destino);
+        }
+    }
+
+    /**
+     * Programa un drenaje del destino, salvo que ya haya uno programado que todavia no empezo.
+     */
+    private void despertar(MensajeOutboxDestino destino) {
+        ExecutorService coordinador = coordinadores.get(destino);
+        if (coordinador == null || !drenajesPendientes.get(destino).compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            coordinador.execute(() -> {
+                drenajesPendientes.get(destino).set(false);
+                try {
+                    drenar(destino);
+                } catch (RuntimeException e) {
+                    log.error("Error inesperado drenando el outbox de {}", destino, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            drenajesPendientes.get(destino).set(false);
+        }
+    }
+
+    /**
+     * Entrega lotes del destino mientras vengan completos.
+     */
+    void drenar(MensajeOutboxDestino destino) {
+        int entregados;
+        do {
+            if (isCircuitoAbierto(destino)) {
+                return;
+            }
+            entregados = drenarLote(destino);
+        } while (entregados == config.getBatchSize() && !Thread.currentThread().isInterrupted());
+    }
+
+    private int drenarLote(MensajeOutboxDestino destino) {
+        List<MensajeOutbox> lote = outboxService.reservar(destino, config.getBatchSize());
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<Future<MensajeOutboxEstado>> futuros = new ArrayList<>(lote.size());
+        for (MensajeOutbox mensaje : lote) {
+            futuros.add(envios.get(destino).submit(() -> entregarSinCircuitoAbierto(mensaje)));
+        }
+        Map<MensajeOutbox, MensajeOutboxEstado> resultados = new LinkedHashMap<>();
+        for (int i = 0; i < lote.size(); i++) {
+            resultados.put(lote.get(i), resultado(futuros.get(i)));
+        }
+        int descartadosLote = outboxService.registrarResultados(resultados);
+        for (MensajeOutboxEstado estado : resultados.values()) {
+            if (estado == MensajeOutboxEstado.ENVIADO) {
+                enviados.get(destino).mark();
+            } else if (estado == MensajeOutboxEstado.RECHAZADO) {
+                rechazados.get(destino).mark();
+            } else {
+                reintentos.get(destino).mark();
+            }
+        }
+        descartados.get(destino).mark(descartadosLote);
+        log.debug("Entregado un lote de {} mensajes del outbox de {}", lote.size(), destino);
+        return lote.size();
+    }
+
+    /**
+     * Espera el resultado de un envio; si el relay se detiene, el mensaje queda reservado y se vuelve a entregar al
+     * vencer la reserva.
+     */
+    private MensajeOutboxEstado resultado(Future<MensajeOutboxEstado> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return MensajeOutboxEstado.PENDIENTE;
+        } catch (ExecutionException e) {
+            log.error("Error inesperado entregando un mensaje del outbox", e.getCause());
+            return MensajeOutboxEstado.PENDIENTE;
+        }
+    }
+
+    boolean isCircuitoAbierto(MensajeOutboxDestino destino) {
+        return circuitosAbiertosHasta.get(destino).get() > System.currentTimeMillis();
+    }
+
+    /**
+     * Entrega el mensaje y lleva la cuenta de las fallas seguidas de su destino. Con el circuito abierto ni se intenta:
+     * el mensaje queda pendiente, como si hubiera fallado.
+     */
+    private MensajeOutboxEstado entregarSinCircuitoAbierto(MensajeOutbox mensaje) throws IOException {
+        MensajeOutboxDestino destino = mensaje.getDestino();
+        if (isCircuitoAbierto(destino)) {
+            return MensajeOutboxEstado.PENDIENTE;
+        }
+        MensajeOutboxEstado estado = entregar(mensaje);
+        if (estado != MensajeOutboxEstado.PENDIENTE) {
+            fallasSeguidas.get(destino).set(0);
+        } else if (fallasSeguidas.get(destino).incrementAndGet() >= config.getCircuitBreakerThreshold()) {
+            fallasSeguidas.get(destino).set(0);
+            circuitosAbiertosHasta.get(destino).set(System.currentTimeMillis() + config.getCircuitBreakerOpenMillis());
+            log.warn("Se abre el circuito de {} por {} ms", destino, config.getCircuitBreakerOpenMillis());
+        }
+        return estado;
+    }
+
+    /**
+     * @return ENVIADO, RECHAZADO si no tiene sentido reintentar, o PENDIENTE para reintentarlo mas tarde
+     */
+    MensajeOutboxEstado entregar(MensajeOutbox mensaje) throws IOException {
+        switch (mensaje.getDestino()) {
+            case PUSH:
+                return entregarPush(objectMapper.readValue(mensaje.getContenido(), NotificacionPushDTO.class));
+            case MAIL:
+                return entregarEmail(objectMapper.readValue(mensaje.getContenido(), EmailTemplateDTO.class));
+            default:
+                throw new IllegalArgumentException("Destino desconocido: " + mensaje.getDestino());
+        }
+    }
+
+    private MensajeOutboxEstado entregarPush(NotificacionPushDTO push) {
+        switch (firebaseDispatcher.enviar(push.getTitulo(), push.getCuerpo(), push.getToken())) {
+            case ENVIADO:
+                return MensajeOutboxEstado.ENVIADO;
+            case RECHAZADO:
+                return MensajeOutboxEstado.RECHAZADO;
+            default:
+                return MensajeOutboxEstado.PENDIENTE;
+        }
+    }
+
+    private MensajeOutboxEstado entregarEmail(EmailTemplateDTO email) {
+        Optional<User> user = userRepository.findById(email.getUserId());
+        if (!user.isPresent()) {
+            return MensajeOutboxEstado.RECHAZADO;
+        }
+        try {
+            mailService.enviarEmailDesdeTemplate(user.get(), email.getTemplate(), email.getTitleKey());
+            return MensajeOutboxEstado.ENVIADO;
+        } catch (MessagingException | MailParseException | MailPreparationException e) {
+            log.warn("Email could not be prepared for user '{}': {}", user.get().getEmail(), e.getMessage());
+            return MensajeOutboxEstado.RECHAZADO;
+        } catch (MailException e) {
+            log.warn("Email could not be sent to user '{}': {}", user.get().getEmail(), e.getMessage());
+            return MensajeOutboxEstado.PENDIENTE;
+        }
+    }
+
+    private int getConcurrencia(MensajeOutboxDestino destino) {
+        return destino == MensajeOutboxDestino.PUSH ? config.getPushConcurrency() : config.getMailConcurrency();
+    }
+
+    private static void registrar(MetricRegistry metricRegistry, String nombre, Gauge<?> gauge) {
+        metricRegistry.remove(nombre);
+        metricRegistry.register(nombre, gauge);
+    }
+}
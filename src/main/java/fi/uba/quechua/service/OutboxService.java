@@ -0,0 +1,184 @@
+package fi.uba.quechua.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.MensajeOutbox;
+import fi.uba.quechua.domain.User;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxDestino;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxEstado;
+import fi.uba.quechua.repository.MensajeOutboxRepository;
+import fi.uba.quechua.service.dto.EmailTemplateDTO;
+import fi.uba.quechua.service.dto.NotificacionPushDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service Implementation for managing the outbox de notificaciones.
+ * <p>
+ * Los mensajes se agregan dentro de la transaccion del cambio que los origina: si esa transaccion se deshace, el
+ * mensaje nunca existio. Los entrega el OutboxRelay, al menos una vez: reserva un lote, lo entrega y registra el
+ * resultado. Si el relay se cae con un lote reservado, al vencer la reserva el lote se vuelve a entregar.
+ */
+@Service
+@Transactional
+public class OutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final ApplicationProperties.Outbox config;
+
+    private final MensajeOutboxRepository mensajeOutboxRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public OutboxService(ApplicationProperties applicationProperties, MensajeOutboxRepository mensajeOutboxRepository,
+                         ObjectMapper objectMapper, ApplicationEventPublisher applicationEventPublisher) {
+        this.config = applicationProperties.getOutbox();
+        this.mensajeOutboxRepository = mensajeOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Agrega una notificacion push para el dispositivo con el token dado.
+     *
+     * @param clave identifica la notificacion; si ya se agrego una con la misma clave, no se agrega otra
+     * @param titulo el titulo de la notificacion
+     * @param cuerpo el texto de la notificacion
+     * @param token el token de Firebase del dispositivo
+     * @return false si no se agrego: no hay token o la notificacion ya estaba
+     */
+    public boolean agregarPush(String clave, String titulo, String cuerpo, String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        return agregar(MensajeOutboxDestino.PUSH, clave, new NotificacionPushDTO(titulo, cuerpo, token));
+    }
+
+    /**
+     * Agrega un email para el usuario, que se arma con el template al enviarlo.
+     *
+     * @param clave identifica el email; si ya se agrego uno con la misma clave, no se agrega otro
+     * @param user el destinatario
+     * @param template el template del email
+     * @param titleKey la clave del asunto en los mensajes
+     * @return false si el email ya estaba
+     */
+    public boolean agregarEmail(String clave, User user, String template, String titleKey) {
+        return agregar(MensajeOutboxDestino.MAIL, clave, new EmailTemplateDTO(user.getId(), template, titleKey));
+    }
+
+    private boolean agregar(MensajeOutboxDestino destino, String clave, Object contenido) {
+        log.debug("Request to agregar MensajeOutbox : {}", clave);
+        if (mensajeOutboxRepository.existsByClave(clave)) {
+            log.debug("El MensajeOutbox {} ya estaba", clave);
+            return false;
+        }
+        // Sin fraccion de segundo: una columna datetime la redondearia hacia arriba y el relay no lo veria hasta la
+        // siguiente vuelta
+        Instant ahora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        MensajeOutbox mensaje = new MensajeOutbox()
+            .destino(destino)
+            .clave(clave)
+            .contenido(toJson(contenido))
+            .estado(MensajeOutboxEstado.PENDIENTE)
+            .intentos(0)
+            .creado(ahora)
+            .proximoIntento(ahora);
+        mensajeOutboxRepository.save(mensaje);
+        applicationEventPublisher.publishEvent(new MensajeOutboxAgregadoEvent(destino));
+        return true;
+    }
+
+    /**
+     * Reserva hasta limite mensajes pendientes del destino, contando un intento mas para cada uno.
+     *
+     * @param destino el destino
+     * @param limite la cantidad maxima de mensajes
+     * @return los mensajes reservados, que nadie mas va a entregar hasta que venza la reserva
+     */
+    public List<MensajeOutbox> reservar(MensajeOutboxDestino destino, int limite) {
+        Instant ahora = Instant.now();
+        List<Long> ids = mensajeOutboxRepository.findIdsPendientes(destino, MensajeOutboxEstado.PENDIENTE, ahora,
+            PageRequest.of(0, limite));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String reserva = UUID.randomUUID().toString();
+        mensajeOutboxRepository.reservar(ids, reserva, MensajeOutboxEstado.PENDIENTE, ahora,
+            ahora.plusSeconds(config.getLeaseSeconds()));
+        return mensajeOutboxRepository.findAllByReservaOrderById(reserva);
+    }
+
+    /**
+     * Registra el resultado de la entrega de un lote reservado. Los mensajes que quedan PENDIENTE se reprograman con
+     * backoff exponencial, o se descartan si ya agotaron sus intentos.
+     *
+     * @param resultados el estado en que queda cada mensaje
+     * @return la cantidad de mensajes descartados
+     */
+    public int registrarResultados(Map<MensajeOutbox, MensajeOutboxEstado> resultados) {
+        Instant ahora = Instant.now();
+        Map<MensajeOutboxEstado, List<Long>> finalizados = new EnumMap<>(MensajeOutboxEstado.class);
+        for (Map.Entry<MensajeOutbox, MensajeOutboxEstado> resultado : resultados.entrySet()) {
+            MensajeOutbox mensaje = resultado.getKey();
+            MensajeOutboxEstado estado = resultado.getValue();
+            if (estado == MensajeOutboxEstado.PENDIENTE && mensaje.getIntentos() >= config.getMaxAttempts()) {
+                log.error("Se descarta el MensajeOutbox {} despues de {} intentos", mensaje.getClave(), mensaje.getIntentos());
+                estado = MensajeOutboxEstado.DESCARTADO;
+            }
+            if (estado == MensajeOutboxEstado.PENDIENTE) {
+                mensajeOutboxRepository.reprogramar(mensaje.getId(), ahora.plusMillis(backoff(mensaje.getIntentos())));
+            } else {
+                finalizados.computeIfAbsent(estado, e -> new ArrayList<>()).add(mensaje.getId());
+            }
+        }
+        finalizados.forEach((estado, ids) -> mensajeOutboxRepository.finalizar(ids, estado, ahora));
+        return finalizados.getOrDefault(MensajeOutboxEstado.DESCARTADO, Collections.emptyList()).size();
+    }
+
+    /**
+     * Borra los mensajes procesados hace mas de los dias de retencion; desde entonces se puede volver a agregar un
+     * mensaje con la misma clave.
+     * <p>
+     * This is scheduled to get fired everyday, at 04:45 (am).
+     */
+    @Scheduled(cron = "0 45 4 * * ?")
+    public void purgarProcesados() {
+        int borrados = mensajeOutboxRepository.deleteAllProcesadosAntesDe(
+            Instant.now().minus(config.getRetentionDays(), ChronoUnit.DAYS));
+        log.debug("Borrados {} MensajeOutbox procesados", borrados);
+    }
+
+    private long backoff(int intentos) {
+        long backoff = Math.min(config.getMaxBackoffMillis(), config.getInitialBackoffMillis() << Math.min(Math.max(intentos - 1, 0), 20));
+        return ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+    }
+
+    private String toJson(Object contenido) {
+        try {
+            return objectMapper.writeValueAsString(contenido);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo serializar el MensajeOutbox", e);
+        }
+    }
+}
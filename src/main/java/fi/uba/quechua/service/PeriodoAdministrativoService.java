@@ -6,6 +6,7 @@ import fi.uba.quechua.repository.PeriodoAdministrativoRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,8 +25,15 @@ public class PeriodoAdministrativoService {
 
     private final PeriodoAdministrativoRepository periodoAdministrativoRepository;
 
-    public PeriodoAdministrativoService(PeriodoAdministrativoRepository periodoAdministrativoRepository) {
+    private final CalendarioService calendarioService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public PeriodoAdministrativoService(PeriodoAdministrativoRepository periodoAdministrativoRepository,
+                                        CalendarioService calendarioService, ApplicationEventPublisher applicationEventPublisher) {
         this.periodoAdministrativoRepository = periodoAdministrativoRepository;
+        this.calendarioService = calendarioService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -35,7 +43,10 @@ public class PeriodoAdministrativoService {
      * @return the persisted entity
      */
     public PeriodoAdministrativo save(PeriodoAdministrativo periodoAdministrativo) {
-        log.debug("Request to save PeriodoAdministrativo : {}", periodoAdministrativo);        return periodoAdministrativoRepository.save(periodoAdministrativo);
+        log.debug("Request to save PeriodoAdministrativo : {}", periodoAdministrativo);
+        PeriodoAdministrativo result = periodoAdministrativoRepository.save(periodoAdministrativo);
+        applicationEventPublisher.publishEvent(new CalendarioModificadoEvent());
+        return result;
     }
 
     /**
@@ -70,17 +81,28 @@ public class PeriodoAdministrativoService {
     public void delete(Long id) {
         log.debug("Request to delete PeriodoAdministrativo : {}", id);
         periodoAdministrativoRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new CalendarioModificadoEvent());
     }
 
+    /**
+     * Get the actividades habilitadas en la fecha actual, desde el calendario en memoria.
+     *
+     * @return the list of actividades
+     */
+    @Transactional(readOnly = true)
     public List<PeriodoActividad> getActividadesDisponibles() {
-        LocalDate today = LocalDate.now();
-        log.debug("Request to get Actividades en fecha : {}", today);
-        return periodoAdministrativoRepository.selectActividadesDisponiblesEnFecha(today);
+        log.debug("Request to get Actividades en fecha : {}", LocalDate.now());
+        return calendarioService.getActividadesDisponibles();
     }
 
+    /**
+     * Get the periodoAdministrativos vigentes en la fecha actual, desde el calendario en memoria.
+     *
+     * @return the list of entities
+     */
+    @Transactional(readOnly = true)
     public List<PeriodoAdministrativo> getPeriodosAdministrativosDisponibles() {
-        LocalDate today = LocalDate.now();
-        log.debug("Request to get Actividades en fecha : {}", today);
-        return periodoAdministrativoRepository.selectPeriodosAdministrativosDisponiblesEnFecha(today);
+        log.debug("Request to get PeriodoAdministrativos en fecha : {}", LocalDate.now());
+        return calendarioService.getPeriodosAdministrativosDisponibles();
     }
 }
@@ -5,6 +5,7 @@ import fi.uba.quechua.repository.PeriodoRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,8 +23,18 @@ public class PeriodoService {
 
     private final PeriodoRepository periodoRepository;
 
-    public PeriodoService(PeriodoRepository periodoRepository) {
+    private final CalendarioService calendarioService;
+
+    private final DatosReferenciaService datosReferenciaService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public PeriodoService(PeriodoRepository periodoRepository, CalendarioService calendarioService,
+                          DatosReferenciaService datosReferenciaService, ApplicationEventPublisher applicationEventPublisher) {
         this.periodoRepository = periodoRepository;
+        this.calendarioService = calendarioService;
+        this.datosReferenciaService = datosReferenciaService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -33,7 +44,10 @@ public class PeriodoService {
      * @return the persisted entity
      */
     public Periodo save(Periodo periodo) {
-        log.debug("Request to save Periodo : {}", periodo);        return periodoRepository.save(periodo);
+        log.debug("Request to save Periodo : {}", periodo);
+        Periodo result = periodoRepository.save(periodo);
+        applicationEventPublisher.publishEvent(new CalendarioModificadoEvent());
+        return result;
     }
 
     /**
@@ -44,7 +58,7 @@ public class PeriodoService {
     @Transactional(readOnly = true)
     public List<Periodo> findAll() {
         log.debug("Request to get all Periodos");
-        return periodoRepository.findAll();
+        return datosReferenciaService.getDatos().getPeriodos();
     }
 
 
@@ -57,7 +71,7 @@ public class PeriodoService {
     @Transactional(readOnly = true)
     public Optional<Periodo> findOne(Long id) {
         log.debug("Request to get Periodo : {}", id);
-        return periodoRepository.findById(id);
+        return datosReferenciaService.getDatos().getPeriodo(id);
     }
 
     /**
@@ -68,14 +82,16 @@ public class PeriodoService {
     public void delete(Long id) {
         log.debug("Request to delete Periodo : {}", id);
         periodoRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new CalendarioModificadoEvent());
     }
 
     /**
-     * Find a periodo.
+     * Get the periodo actual, desde el calendario en memoria.
      *
      * @return the entity
      */
-    public  Optional<Periodo> findPeriodoActual() {
-        return periodoRepository.findPeriodoActual();
+    @Transactional(readOnly = true)
+    public Optional<Periodo> findPeriodoActual() {
+        return calendarioService.findPeriodoActual();
     }
 }
@@ -5,10 +5,16 @@ import fi.uba.quechua.repository.PrioridadRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 /**
@@ -22,8 +28,17 @@ public class PrioridadService {
 
     private final PrioridadRepository prioridadRepository;
 
-    public PrioridadService(PrioridadRepository prioridadRepository) {
+    private final CalendarioService calendarioService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private volatile CalendarioPrioridades calendario;
+
+    public PrioridadService(PrioridadRepository prioridadRepository, CalendarioService calendarioService,
+                            ApplicationEventPublisher applicationEventPublisher) {
         this.prioridadRepository = prioridadRepository;
+        this.calendarioService = calendarioService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -33,7 +48,10 @@ public class PrioridadService {
      * @return the persisted entity
      */
     public Prioridad save(Prioridad prioridad) {
-        log.debug("Request to save Prioridad : {}", prioridad);        return prioridadRepository.save(prioridad);
+        log.debug("Request to save Prioridad : {}", prioridad);
+        Prioridad result = prioridadRepository.save(prioridad);
+        applicationEventPublisher.publishEvent(new PrioridadesModificadasEvent());
+        return result;
     }
 
     /**
@@ -68,5 +86,51 @@ public class PrioridadService {
     public void delete(Long id) {
         log.debug("Request to delete Prioridad : {}", id);
         prioridadRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new PrioridadesModificadasEvent());
+    }
+
+    /**
+     * Get the calendario de prioridades en memoria, sin acceder a la base salvo la primera vez.
+     *
+     * @return the calendario
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CalendarioPrioridades getCalendario() {
+        CalendarioPrioridades actual = calendario;
+        if (actual == null) {
+            actual = recargarCalendario();
+        }
+        return actual;
+    }
+
+    /**
+     * Vuelve a leer las prioridades, para tomar los cambios hechos desde otras instancias y el cambio de
+     * periodo actual.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60000)
+    @Transactional(readOnly = true)
+    public void refrescarCalendario() {
+        recargarCalendario();
+    }
+
+    /**
+     * Recarga el calendario cuando se confirma el cambio de una Prioridad: antes la lectura no lo veria y, si se
+     * deshace, el calendario quedaria con prioridades que nunca existieron.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPrioridadesModificadas(PrioridadesModificadasEvent event) {
+        recargarCalendario();
+    }
+
+    private CalendarioPrioridades recargarCalendario() {
+        List<Prioridad> prioridades = calendarioService.findPeriodoActual()
+            .map(periodo -> prioridadRepository.findAllByPeriodoId(periodo.getId()))
+            .orElse(Collections.emptyList());
+        CalendarioPrioridades nuevo = new CalendarioPrioridades(prioridades);
+        calendario = nuevo;
+        return nuevo;
     }
 }
@@ -0,0 +1,8 @@
+package fi.uba.quechua.service;
+
+/**
+ * Se publica al guardar o borrar una Prioridad, para recargar el calendario de prioridades una vez confirmada la
+ * transaccion.
+ */
+public class PrioridadesModificadasEvent {
+}
@@ -0,0 +1,78 @@
+package fi.uba.quechua.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service Implementation for promoting CONDICIONAL inscripciones when vacantes are released.
+ * <p>
+ * Los cursos con vacantes liberadas se acumulan una vez confirmada la transaccion que las libero, y se
+ * procesan periodicamente: varias liberaciones del mismo curso generan una unica pasada. Si la pasada falla (por
+ * ejemplo, por un deadlock o un lock timeout), el curso se vuelve a procesar en la siguiente, hasta
+ * {@link #MAX_INTENTOS} veces seguidas.
+ */
+@Service
+public class PromocionCondicionalesService {
+
+    static final int MAX_INTENTOS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(PromocionCondicionalesService.class);
+
+    private final InscripcionCursoService inscripcionCursoService;
+
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, Integer> intentosFallidos = new ConcurrentHashMap<>();
+
+    public PromocionCondicionalesService(InscripcionCursoService inscripcionCursoService) {
+        this.inscripcionCursoService = inscripcionCursoService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVacanteLiberada(VacanteLiberadaEvent event) {
+        pendientes.add(event.getCursoId());
+    }
+
+    /**
+     * Promueve las inscripciones condicionales de los cursos con vacantes liberadas.
+     * <p>
+     * This is scheduled to get fired every 500 milliseconds.
+     */
+    @Scheduled(fixedDelay = 500)
+    public void promoverPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Long> cursoIds = new ArrayList<>(pendientes);
+        pendientes.removeAll(cursoIds);
+        for (Long cursoId : cursoIds) {
+            try {
+                inscripcionCursoService.promoverCondicionales(cursoId);
+                intentosFallidos.remove(cursoId);
+            } catch (RuntimeException e) {
+                reintentar(cursoId, e);
+            }
+        }
+    }
+
+    private void reintentar(Long cursoId, RuntimeException e) {
+        int intentos = intentosFallidos.merge(cursoId, 1, Integer::sum);
+        if (intentos < MAX_INTENTOS) {
+            log.warn("No se pudieron promover las inscripciones condicionales del Curso {}, se reintenta: {}", cursoId, e.getMessage());
+            pendientes.add(cursoId);
+        } else {
+            log.error("No se pudieron promover las inscripciones condicionales del Curso {} en {} intentos: {}", cursoId,
+                intentos, e.getMessage());
+            intentosFallidos.remove(cursoId);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.AdministradorDepartamento;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Profesor;
+import fi.uba.quechua.repository.RevocacionTokenRepository;
+import io.github.jhipster.config.JHipsterProperties;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service Implementation for the revocacion de JWTs.
+ * <p>
+ * Los tokens llevan los ids del Alumno, el Profesor y el Departamento del usuario (ver CurrentActor). Cuando se
+ * hace un alta, una baja o un cambio de usuario o departamento de un Alumno, Profesor o AdministradorDepartamento,
+ * se revocan los tokens que el usuario recibio antes, para que vuelva a autenticarse y obtenga los claims nuevos.
+ * <p>
+ * Las revocaciones se guardan en la tabla revocacion_token en la misma transaccion que hace el cambio, y al
+ * confirmarse se copian a un mapa en memoria que el filtro JWT consulta sin acceder a la base. Los cambios hechos
+ * en otras instancias se toman al refrescar el mapa, cada minuto. Las filas se borran cuando ya vencieron todos los
+ * tokens emitidos antes de la revocacion.
+ * <p>
+ * Los tokens revocados de a uno (logout) se guardan por digest en la tabla token_revocado. En memoria hay un filtro
+ * de Bloom con todos ellos, para descartar sin costo los tokens que no fueron revocados, y el conjunto exacto de los
+ * revocados en esta instancia; los que el filtro no descarta y no estan en ese conjunto se confirman en la base.
+ */
+@Service
+@Transactional
+public class RevocacionTokenService implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Set<Class<?>> VINCULOS = new HashSet<>(Arrays.asList(
+        Alumno.class, Profesor.class, AdministradorDepartamento.class));
+
+    private static final Set<String> PROPIEDADES_VINCULO = new HashSet<>(Arrays.asList("userId", "departamentoId"));
+
+    private static final int CAPACIDAD_MINIMA_FILTRO = 1024;
+
+    private static final double FALSOS_POSITIVOS_FILTRO = 0.01;
+
+    private final Logger log = LoggerFactory.getLogger(RevocacionTokenService.class);
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient RevocacionTokenRepository revocacionTokenRepository;
+
+    private final Duration validezMaxima;
+
+    private volatile Map<Long, Instant> revocados = Collections.emptyMap();
+
+    private volatile FiltroBloom tokensRevocados = new FiltroBloom(CAPACIDAD_MINIMA_FILTRO, FALSOS_POSITIVOS_FILTRO);
+
+    private final Map<String, Instant> tokensRevocadosLocales = new ConcurrentHashMap<>();
+
+    public RevocacionTokenService(EntityManagerFactory entityManagerFactory, RevocacionTokenRepository revocacionTokenRepository,
+                                  JHipsterProperties jHipsterProperties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.revocacionTokenRepository = revocacionTokenRepository;
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.validezMaxima = Duration.ofSeconds(Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe()));
+    }
+
+    @PostConstruct
+    public void registrarListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Revoca los tokens del usuario emitidos hasta ahora.
+     *
+     * @param userId the id of the user
+     */
+    public void revocar(Long userId) {
+        Instant revocado = instanteDeRevocacion();
+        log.debug("Revocando los tokens del usuario {} emitidos antes de {}", userId, revocado);
+        revocacionTokenRepository.revocar(userId, revocado);
+        alConfirmar(() -> registrar(userId, revocado));
+    }
+
+    /**
+     * Revoca un unico token, hasta que vence.
+     *
+     * @param digest the digest del token
+     * @param expira the vencimiento del token
+     */
+    public void revocarToken(String digest, Instant expira) {
+        log.debug("Revocando el token {} hasta {}", digest, expira);
+        revocacionTokenRepository.revocarToken(digest, expira);
+        registrarToken(digest, expira);
+    }
+
+    /**
+     * Indica si el token fue revocado con revocarToken.
+     *
+     * @param digest the digest del token
+     * @return true si el token fue revocado
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean estaRevocado(String digest) {
+        if (!tokensRevocados.quizasContiene(digest)) {
+            return false;
+        }
+        return tokensRevocadosLocales.containsKey(digest) || revocacionTokenRepository.existeTokenRevocado(digest);
+    }
+
+    /**
+     * Indica si el token fue revocado.
+     *
+     * @param userId the id of the user del token; sin usuario no hay revocacion posible
+     * @param emitido the fecha de emision del token
+     * @return true si el token fue emitido antes de la ultima revocacion de su usuario
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean estaRevocado(Long userId, Date emitido) {
+        if (userId == null) {
+            return false;
+        }
+        Instant revocado = revocados.get(userId);
+        return revocado != null && (emitido == null || emitido.toInstant().isBefore(revocado));
+    }
+
+    /**
+     * Vuelve a leer las revocaciones, para tomar las hechas desde otras instancias, y borra las vencidas.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void refrescarRevocaciones() {
+        Instant ahora = Instant.now();
+        Instant limite = ahora.minus(validezMaxima);
+        revocacionTokenRepository.borrarAnteriores(limite);
+        revocacionTokenRepository.borrarTokensVencidos(ahora);
+        Map<Long, Instant> leidos = revocacionTokenRepository.findRevocadosDesde(limite);
+        List<String> tokensLeidos = revocacionTokenRepository.findTokensRevocadosDesde(ahora);
+        tokensRevocadosLocales.values().removeIf(expira -> expira.isBefore(ahora));
+        actualizar(leidos, limite, tokensLeidos);
+    }
+
+    /**
+     * Reemplaza el estado en memoria por el leido de la base. Se conservan las revocaciones hechas en esta instancia
+     * que se confirmaron despues de la lectura.
+     */
+    private synchronized void actualizar(Map<Long, Instant> leidos, Instant limite, List<String> tokensLeidos) {
+        Map<Long, Instant> nuevos = new HashMap<>(leidos);
+        revocados.forEach((userId, revocado) -> {
+            if (!revocado.isBefore(limite)) {
+                nuevos.merge(userId, revocado, (uno, otro) -> uno.isAfter(otro) ? uno : otro);
+            }
+        });
+        revocados = Collections.unmodifiableMap(nuevos);
+
+        FiltroBloom filtro = new FiltroBloom(Math.max(CAPACIDAD_MINIMA_FILTRO, 2 * (tokensLeidos.size() + tokensRevocadosLocales.size())),
+            FALSOS_POSITIVOS_FILTRO);
+        tokensLeidos.forEach(filtro::agregar);
+        tokensRevocadosLocales.keySet().forEach(filtro::agregar);
+        tokensRevocados = filtro;
+    }
+
+    private synchronized void registrar(Long userId, Instant revocado) {
+        Map<Long, Instant> nuevos = new HashMap<>(revocados);
+        nuevos.merge(userId, revocado, (uno, otro) -> uno.isAfter(otro) ? uno : otro);
+        revocados = Collections.unmodifiableMap(nuevos);
+    }
+
+    private synchronized void registrarToken(String digest, Instant expira) {
+        tokensRevocadosLocales.put(digest, expira);
+        tokensRevocados.agregar(digest);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        vinculoModificado(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!VINCULOS.contains(event.getPersister().getMappedClass())) {
+            return;
+        }
+        String[] propiedades = event.getPersister().getPropertyNames();
+        boolean cambio = event.getOldState() == null;
+        for (int i = 0; !cambio && i < propiedades.length; i++) {
+            cambio = PROPIEDADES_VINCULO.contains(propiedades[i])
+                && !Objects.equals(event.getOldState()[i], event.getState()[i]);
+        }
+        if (cambio) {
+            vinculoModificado(event.getEntity(), event.getSession());
+            int userId = Arrays.asList(propiedades).indexOf("userId");
+            if (event.getOldState() != null && userId >= 0 && event.getOldState()[userId] instanceof Long) {
+                revocarEnLaSesion((Long) event.getOldState()[userId], event.getSession());
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        vinculoModificado(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private void vinculoModificado(Object entidad, SharedSessionContractImplementor session) {
+        if (entidad instanceof Alumno) {
+            revocarEnLaSesion(((Alumno) entidad).getUserId(), session);
+        } else if (entidad instanceof Profesor) {
+            revocarEnLaSesion(((Profesor) entidad).getUserId(), session);
+        } else if (entidad instanceof AdministradorDepartamento) {
+            revocarEnLaSesion(((AdministradorDepartamento) entidad).getUserId(), session);
+        }
+    }
+
+    /**
+     * Corre durante el flush: guarda la revocacion con JDBC sobre la conexion de la sesion, en la transaccion que
+     * hizo el cambio, y la registra en memoria cuando se confirma.
+     */
+    private void revocarEnLaSesion(Long userId, SharedSessionContractImplementor session) {
+        if (userId == null) {
+            return;
+        }
+        Instant revocado = instanteDeRevocacion();
+        try {
+            revocacionTokenRepository.revocar(session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection(),
+                userId, revocado);
+        } catch (SQLException e) {
+            throw new HibernateException("No se pudo revocar los tokens del usuario " + userId, e);
+        }
+        alConfirmar(() -> registrar(userId, revocado));
+    }
+
+    /**
+     * Los JWT guardan la emision en segundos, truncada: se redondea hacia arriba para que un token emitido en el
+     * mismo segundo, antes de la revocacion, tambien quede revocado. Los emitidos en lo que resta de ese segundo
+     * corren la misma suerte y obligan a autenticarse de nuevo.
+     */
+    private static Instant instanteDeRevocacion() {
+        Instant ahora = Instant.now();
+        Instant segundo = ahora.truncatedTo(ChronoUnit.SECONDS);
+        return segundo.equals(ahora) ? segundo : segundo.plusSeconds(1);
+    }
+
+    private void alConfirmar(Runnable registro) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registro.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                registro.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.service.dto.TurnoSalaEsperaDTO;
+import io.github.jhipster.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service Implementation for the sala de espera de inscripciones.
+ * <p>
+ * Cada cliente que llega sin turno recibe un numero correlativo firmado (HMAC con el secreto de JWT), de
+ * modo que el turno no se puede falsificar ni guardar estado por cliente. La firma incluye al cliente (el
+ * usuario del JWT, o la direccion de origen si no hay usuario) sin que viaje en el turno, asi que un turno
+ * presentado por otro cliente no es valido y no se puede pasar ni revender. Los turnos se admiten en orden a
+ * razon de admisionesPorSegundo, y solo mientras la cantidad de requests admitidos en curso este por
+ * debajo de la capacidad configurada. Mientras no hay nadie esperando, los clientes entran directamente.
+ * <p>
+ * El estado es propio de cada instancia: con varias instancias, cada una administra su propia fila.
+ */
+@Service
+public class SalaEsperaService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+    private final Logger log = LoggerFactory.getLogger(SalaEsperaService.class);
+
+    private final ApplicationProperties.SalaEspera config;
+
+    private final SecretKeySpec clave;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    private long emitidos;
+
+    private long admitidos;
+
+    private double permisos;
+
+    private long ultimaReposicion = System.nanoTime();
+
+    public SalaEsperaService(ApplicationProperties applicationProperties, JHipsterProperties jHipsterProperties) {
+        this.config = applicationProperties.getSalaEspera();
+        String secreto = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
+        this.clave = new SecretKeySpec(secreto.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.permisos = config.getAdmisionesPorSegundo();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @return el cliente al que se atan los turnos de un usuario autenticado
+     */
+    public static String clienteUsuario(String login) {
+        return "usuario:" + login;
+    }
+
+    /**
+     * @return el cliente al que se atan los turnos de un pedido sin usuario
+     */
+    public static String clienteAnonimo(String direccion) {
+        return "ip:" + direccion;
+    }
+
+    /**
+     * Presenta un turno en la sala. Si no es valido (ausente, adulterado, vencido o de otro cliente) se emite
+     * uno nuevo al final de la fila.
+     *
+     * @param turno el turno recibido, puede ser null
+     * @param cliente el cliente que presenta el turno, ver clienteUsuario y clienteAnonimo
+     * @return el turno con su estado
+     */
+    public TurnoSalaEsperaDTO ingresar(String turno, String cliente) {
+        long ahora = System.currentTimeMillis();
+        Optional<long[]> datos = verificar(turno, cliente, ahora);
+        synchronized (this) {
+            if (datos.isPresent() && datos.get()[0] <= emitidos) {
+                return estado(datos.get()[0], datos.get()[1], cliente);
+            }
+            long numero = ++emitidos;
+            if (admitidos == numero - 1 && permisos >= 1 && hayCapacidad()) {
+                permisos -= 1;
+                admitidos = numero;
+            }
+            return estado(numero, ahora, cliente);
+        }
+    }
+
+    /**
+     * Consulta la posicion de un turno sin emitir uno nuevo.
+     *
+     * @param turno el turno recibido
+     * @param cliente el cliente que presenta el turno
+     * @return el turno con su estado, o vacio si no es valido
+     */
+    public Optional<TurnoSalaEsperaDTO> consultar(String turno, String cliente) {
+        Optional<long[]> datos = verificar(turno, cliente, System.currentTimeMillis());
+        synchronized (this) {
+            if (!datos.isPresent() || datos.get()[0] > emitidos) {
+                return Optional.empty();
+            }
+            return Optional.of(estado(datos.get()[0], datos.get()[1], cliente));
+        }
+    }
+
+    public void entrar() {
+        enCurso.incrementAndGet();
+    }
+
+    public void salir() {
+        enCurso.decrementAndGet();
+    }
+
+    /**
+     * Admite los siguientes turnos de la fila segun la tasa y la capacidad libre.
+     * <p>
+     * This is scheduled to get fired every 100 milliseconds.
+     */
+    @Scheduled(fixedRate = 100)
+    public void admitir() {
+        long ahora = System.nanoTime();
+        long transcurrido;
+        synchronized (this) {
+            transcurrido = ahora - ultimaReposicion;
+            ultimaReposicion = ahora;
+        }
+        admitir(transcurrido);
+    }
+
+    synchronized void admitir(long transcurridoNanos) {
+        double tasa = config.getAdmisionesPorSegundo();
+        permisos = Math.min(tasa, permisos + tasa * transcurridoNanos / NANOS_POR_SEGUNDO);
+        long cantidad = Math.min((long) permisos, emitidos - admitidos);
+        if (config.getCapacidad() > 0) {
+            cantidad = Math.min(cantidad, Math.max(0, config.getCapacidad() - enCurso.get()));
+        }
+        if (cantidad > 0) {
+            admitidos += cantidad;
+            permisos -= cantidad;
+            log.debug("Sala de espera: admitidos hasta el turno {} de {}", admitidos, emitidos);
+        }
+    }
+
+    private boolean hayCapacidad() {
+        return config.getCapacidad() <= 0 || enCurso.get() < config.getCapacidad();
+    }
+
+    private TurnoSalaEsperaDTO estado(long numero, long emitido, String cliente) {
+        long posicion = Math.max(0, numero - admitidos);
+        long espera = (long) Math.ceil(posicion / config.getAdmisionesPorSegundo());
+        return new TurnoSalaEsperaDTO(numero, firmar(numero, emitido, cliente), posicion == 0, posicion, espera);
+    }
+
+    /**
+     * @return numero y fecha de emision del turno, si la firma es valida para el cliente y no esta vencido. Los
+     * turnos con un numero mayor a los emitidos (por ejemplo, de antes de un reinicio) se descartan al usarlos.
+     */
+    private Optional<long[]> verificar(String turno, String cliente, long ahora) {
+        if (turno == null) {
+            return Optional.empty();
+        }
+        int separador = turno.lastIndexOf('.');
+        if (separador < 0) {
+            return Optional.empty();
+        }
+        try {
+            String contenido = new String(Base64.getUrlDecoder().decode(turno.substring(0, separador)), StandardCharsets.UTF_8);
+            byte[] firma = Base64.getUrlDecoder().decode(turno.substring(separador + 1));
+            if (!MessageDigest.isEqual(firma, hmac(contenido + ":" + cliente))) {
+                return Optional.empty();
+            }
+            String[] partes = contenido.split(":");
+            long numero = Long.parseLong(partes[0]);
+            long emitido = Long.parseLong(partes[1]);
+            if (ahora - emitido > config.getTurnoTimeToLiveSeconds() * 1000) {
+                return Optional.empty();
+            }
+            return Optional.of(new long[]{numero, emitido});
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String firmar(long numero, long emitido, String cliente) {
+        String contenido = numero + ":" + emitido;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(contenido.getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(hmac(contenido + ":" + cliente));
+    }
+
+    private byte[] hmac(String contenido) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac.doFinal(contenido.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package fi.uba.quechua.service;
 
+import fi.uba.quechua.config.ApplicationProperties;
 import fi.uba.quechua.domain.Authority;
 import fi.uba.quechua.domain.User;
 import fi.uba.quechua.repository.AuthorityRepository;
@@ -20,14 +21,21 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import fi.uba.quechua.web.rest.errors.InvalidPasswordException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Service class for managing users.
+ * <p>
+ * The activation, creation and password reset emails are saved in the outbox in the same transaction as the user,
+ * see OutboxService. With the outbox disabled there is no relay to deliver them, so they are sent with the MailService
+ * once the transaction commits.
  */
 @Service
 @Transactional
@@ -43,11 +51,25 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager) {
+    private final RevocacionTokenService revocacionTokenService;
+
+    private final OutboxService outboxService;
+
+    private final MailService mailService;
+
+    private final ApplicationProperties.Outbox outboxConfig;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager,
+                       RevocacionTokenService revocacionTokenService, OutboxService outboxService, MailService mailService,
+                       ApplicationProperties applicationProperties) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.revocacionTokenService = revocacionTokenService;
+        this.outboxService = outboxService;
+        this.mailService = mailService;
+        this.outboxConfig = applicationProperties.getOutbox();
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -73,6 +95,7 @@ public class UserService {
                 user.setResetKey(null);
                 user.setResetDate(null);
                 this.clearUserCaches(user);
+                revocacionTokenService.revocar(user.getId());
                 return user;
            });
     }
@@ -84,6 +107,8 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                enviarEmail("reset-" + user.getResetKey(), user, "mail/passwordResetEmail", "email.reset.title",
+                    mailService::sendPasswordResetMail);
                 return user;
             });
     }
@@ -109,6 +134,8 @@ public class UserService {
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
+        enviarEmail("activacion-" + newUser.getActivationKey(), newUser, "mail/activationEmail", "email.activation.title",
+            mailService::sendActivationEmail);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -165,6 +192,8 @@ public class UserService {
         user.setActivated(true);
         userRepository.save(user);
         this.clearUserCaches(user);
+        enviarEmail("creacion-" + user.getResetKey(), user, "mail/creationEmail", "email.activation.title",
+            mailService::sendCreationEmail);
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -205,6 +234,9 @@ public class UserService {
             .map(Optional::get)
             .map(user -> {
                 this.clearUserCaches(user);
+                Set<String> authoritiesAnteriores = user.getAuthorities().stream()
+                    .map(Authority::getName)
+                    .collect(Collectors.toSet());
                 user.setLogin(userDTO.getLogin());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -220,6 +252,12 @@ public class UserService {
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
                 this.clearUserCaches(user);
+                // Los tokens llevan las authorities: si cambian, o si se desactiva el usuario, dejan de valer
+                if (!user.getActivated() || !authoritiesAnteriores.equals(managedAuthorities.stream()
+                    .map(Authority::getName)
+                    .collect(Collectors.toSet()))) {
+                    revocacionTokenService.revocar(user.getId());
+                }
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -230,6 +268,7 @@ public class UserService {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
             this.clearUserCaches(user);
+            revocacionTokenService.revocar(user.getId());
             log.debug("Deleted User: {}", user);
         });
     }
@@ -245,6 +284,7 @@ public class UserService {
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
                 this.clearUserCaches(user);
+                revocacionTokenService.revocar(user.getId());
                 log.debug("Changed password for User: {}", user);
             });
     }
@@ -295,4 +335,21 @@ public class UserService {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
     }
+
+    private void enviarEmail(String clave, User user, String template, String titleKey, Consumer<User> sinOutbox) {
+        if (outboxConfig.isEnabled()) {
+            outboxService.agregarEmail(clave, user, template, titleKey);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sinOutbox.accept(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                sinOutbox.accept(user);
+            }
+        });
+    }
 }
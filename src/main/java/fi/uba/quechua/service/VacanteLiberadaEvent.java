@@ -0,0 +1,17 @@
+package fi.uba.quechua.service;
+
+/**
+ * Se publica cuando un curso puede tener vacantes libres: al liberar una vacante o al cambiar la cantidad de vacantes.
+ */
+public class VacanteLiberadaEvent {
+
+    private final Long cursoId;
+
+    public VacanteLiberadaEvent(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+}
@@ -0,0 +1,131 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.repository.VersionEntidadRepository;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Service Implementation for the versiones de los datos que se sirven con respuestas condicionales.
+ * <p>
+ * Cada entidad versionada tiene una fila en la tabla version_entidad que se incrementa en la misma transaccion
+ * que hace el alta, la modificacion o la baja a traves de Hibernate: la version queda confirmada junto con el
+ * cambio y todas las instancias leen la misma. Los ETags se arman con las versiones de las entidades que componen
+ * la respuesta, con una sola consulta a esa tabla.
+ * <p>
+ * Las actualizaciones masivas (UPDATE o DELETE por JPQL o SQL) no pasan por estos eventos; ninguna de las
+ * entidades versionadas se modifica de esa forma.
+ */
+@Service
+public class VersionesService implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    static final Set<Class<?>> VERSIONADAS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        Carrera.class, Departamento.class, Materia.class, Periodo.class, PeriodoAdministrativo.class)));
+
+    private final Logger log = LoggerFactory.getLogger(VersionesService.class);
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient VersionEntidadRepository versionEntidadRepository;
+
+    public VersionesService(EntityManagerFactory entityManagerFactory, VersionEntidadRepository versionEntidadRepository) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.versionEntidadRepository = versionEntidadRepository;
+    }
+
+    @PostConstruct
+    public void registrarListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Arma un ETag fuerte para una respuesta que depende de las entidades indicadas, que tienen que estar entre
+     * las versionadas.
+     * <p>
+     * Hay que obtenerlo antes de leer los datos: si se confirma un cambio mientras se arma la respuesta,
+     * el ETag queda desactualizado y el siguiente pedido vuelve a traer el contenido.
+     *
+     * @param recurso identifica la respuesta, por ejemplo "materias"
+     * @param entidades las entidades incluidas en la respuesta
+     * @return the ETag, with quotes
+     */
+    public String getEtag(String recurso, Class<?>... entidades) {
+        List<String> nombres = new ArrayList<>();
+        for (Class<?> entidad : entidades) {
+            if (!VERSIONADAS.contains(entidad)) {
+                throw new IllegalArgumentException(entidad.getSimpleName() + " no esta versionada");
+            }
+            nombres.add(entidad.getSimpleName());
+        }
+        Map<String, Long> versiones = versionEntidadRepository.findVersiones(nombres);
+        StringBuilder etag = new StringBuilder("\"").append(recurso);
+        for (String nombre : nombres) {
+            etag.append('.').append(versiones.getOrDefault(nombre, 0L));
+        }
+        return etag.append('"').toString();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        modificada(event.getPersister(), event.getSession());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        modificada(event.getPersister(), event.getSession());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        modificada(event.getPersister(), event.getSession());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    /**
+     * Corre durante el flush, asi que incrementa la version con JDBC sobre la conexion de la sesion en vez de con
+     * una consulta de Hibernate, que volveria a disparar el flush.
+     */
+    private void modificada(EntityPersister persister, SharedSessionContractImplementor session) {
+        Class<?> entidad = persister.getMappedClass();
+        if (!VERSIONADAS.contains(entidad)) {
+            return;
+        }
+        try (PreparedStatement incrementar = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection()
+            .prepareStatement(VersionEntidadRepository.INCREMENTAR)) {
+            incrementar.setString(1, entidad.getSimpleName());
+            incrementar.executeUpdate();
+        } catch (SQLException e) {
+            throw new HibernateException("No se pudo incrementar la version de " + entidad.getSimpleName(), e);
+        }
+        log.trace("Nueva version de {}", entidad.getSimpleName());
+    }
+}
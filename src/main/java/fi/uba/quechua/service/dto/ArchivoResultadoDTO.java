@@ -0,0 +1,36 @@
+package fi.uba.quechua.service.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una pasada de archivo: los periodos archivados y cuantas filas se movieron de cada tabla.
+ */
+public class ArchivoResultadoDTO {
+
+    private final List<Long> periodos = new ArrayList<>();
+
+    private final Map<String, Integer> filas = new LinkedHashMap<>();
+
+    public List<Long> getPeriodos() {
+        return periodos;
+    }
+
+    public Map<String, Integer> getFilas() {
+        return filas;
+    }
+
+    public void sumar(String tabla, int cantidad) {
+        filas.merge(tabla, cantidad, Integer::sum);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivoResultadoDTO{" +
+            "periodos=" + periodos +
+            ", filas=" + filas +
+            "}";
+    }
+}
@@ -0,0 +1,67 @@
+package fi.uba.quechua.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado (o proyeccion) de la asignacion de vacantes de un curso.
+ */
+public class AsignacionCursoDTO {
+
+    private Long cursoId;
+
+    private Integer vacantesLibres;
+
+    private List<Long> regulares = new ArrayList<>();
+
+    private List<Long> condicionales = new ArrayList<>();
+
+    public AsignacionCursoDTO() {
+    }
+
+    public AsignacionCursoDTO(Long cursoId, Integer vacantesLibres) {
+        this.cursoId = cursoId;
+        this.vacantesLibres = vacantesLibres;
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public void setCursoId(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+
+    /**
+     * @return las vacantes libres del curso antes de la asignacion
+     */
+    public Integer getVacantesLibres() {
+        return vacantesLibres;
+    }
+
+    public void setVacantesLibres(Integer vacantesLibres) {
+        this.vacantesLibres = vacantesLibres;
+    }
+
+    /**
+     * @return los ids de los alumnos que quedan regulares, en orden de asignacion
+     */
+    public List<Long> getRegulares() {
+        return regulares;
+    }
+
+    public void setRegulares(List<Long> regulares) {
+        this.regulares = regulares;
+    }
+
+    /**
+     * @return los ids de los alumnos que quedan condicionales, en orden de asignacion
+     */
+    public List<Long> getCondicionales() {
+        return condicionales;
+    }
+
+    public void setCondicionales(List<Long> condicionales) {
+        this.condicionales = condicionales;
+    }
+}
@@ -0,0 +1,136 @@
+package fi.uba.quechua.service.dto;
+
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
+
+/**
+ * Cursada de la historia academica de un alumno, vigente o archivada; ver ArchivoService.
+ */
+public class CursadaHistoricaDTO {
+
+    private final Long id;
+
+    private final CursadaEstado estado;
+
+    private final Float notaCursada;
+
+    private final Float notaFinal;
+
+    private final String libro;
+
+    private final String folio;
+
+    private final boolean archivada;
+
+    private final Long cursoId;
+
+    private final Integer cursoNumero;
+
+    private final MateriaDTO materia;
+
+    private final CursoResumenDTO.PeriodoDTO periodo;
+
+    public CursadaHistoricaDTO(Long id, CursadaEstado estado, Float notaCursada, Float notaFinal, String libro, String folio,
+                               boolean archivada, Long cursoId, Integer cursoNumero,
+                               Long materiaId, String materiaCodigo, String materiaNombre, Integer materiaCreditos,
+                               Long periodoId, Cuatrimestre cuatrimestre, String anio) {
+        this.id = id;
+        this.estado = estado;
+        this.notaCursada = notaCursada;
+        this.notaFinal = notaFinal;
+        this.libro = libro;
+        this.folio = folio;
+        this.archivada = archivada;
+        this.cursoId = cursoId;
+        this.cursoNumero = cursoNumero;
+        this.materia = materiaId == null ? null : new MateriaDTO(materiaId, materiaCodigo, materiaNombre, materiaCreditos);
+        this.periodo = CursoResumenDTO.PeriodoDTO.of(periodoId, cuatrimestre, anio);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public CursadaEstado getEstado() {
+        return estado;
+    }
+
+    public Float getNotaCursada() {
+        return notaCursada;
+    }
+
+    public Float getNotaFinal() {
+        return notaFinal;
+    }
+
+    public String getLibro() {
+        return libro;
+    }
+
+    public String getFolio() {
+        return folio;
+    }
+
+    public boolean isArchivada() {
+        return archivada;
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public Integer getCursoNumero() {
+        return cursoNumero;
+    }
+
+    public MateriaDTO getMateria() {
+        return materia;
+    }
+
+    public CursoResumenDTO.PeriodoDTO getPeriodo() {
+        return periodo;
+    }
+
+    @Override
+    public String toString() {
+        return "CursadaHistoricaDTO{" +
+            "id=" + id +
+            ", estado=" + estado +
+            ", archivada=" + archivada +
+            "}";
+    }
+
+    public static class MateriaDTO {
+
+        private final Long id;
+
+        private final String codigo;
+
+        private final String nombre;
+
+        private final Integer creditos;
+
+        MateriaDTO(Long id, String codigo, String nombre, Integer creditos) {
+            this.id = id;
+            this.codigo = codigo;
+            this.nombre = nombre;
+            this.creditos = creditos;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public Integer getCreditos() {
+            return creditos;
+        }
+    }
+}
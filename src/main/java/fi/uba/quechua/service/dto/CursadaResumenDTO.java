@@ -0,0 +1,88 @@
+package fi.uba.quechua.service.dto;
+
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
+import fi.uba.quechua.domain.enumeration.CursoEstado;
+
+/**
+ * Cursada de un alumno, tal como la ve el propio alumno: sin los datos del alumno y con el curso resumido.
+ * Se arma con una consulta de constructor; ver {@link CursoResumenDTO}.
+ */
+public class CursadaResumenDTO {
+
+    private final Long id;
+
+    private final Float notaCursada;
+
+    private final String libro;
+
+    private final String folio;
+
+    private final CursadaEstado estado;
+
+    private final Float notaFinal;
+
+    private final CursoResumenDTO.PeriodoDTO periodo;
+
+    private final CursoResumenDTO curso;
+
+    public CursadaResumenDTO(Long id, Float notaCursada, String libro, String folio, CursadaEstado estado, Float notaFinal,
+                             Long cursadaPeriodoId, Cuatrimestre cursadaCuatrimestre, String cursadaAnio,
+                             Long cursoId, CursoEstado cursoEstado, Integer numero, Integer vacantes,
+                             Long materiaId, String materiaCodigo, String materiaNombre, Integer materiaCreditos,
+                             Long departamentoId, String departamentoNombre, Long carreraId, String carreraNombre,
+                             Long profesorId, String profesorNombre, String profesorApellido,
+                             Long periodoId, Cuatrimestre cuatrimestre, String anio) {
+        this.id = id;
+        this.notaCursada = notaCursada;
+        this.libro = libro;
+        this.folio = folio;
+        this.estado = estado;
+        this.notaFinal = notaFinal;
+        this.periodo = CursoResumenDTO.PeriodoDTO.of(cursadaPeriodoId, cursadaCuatrimestre, cursadaAnio);
+        this.curso = cursoId == null ? null : new CursoResumenDTO(cursoId, cursoEstado, numero, vacantes,
+            materiaId, materiaCodigo, materiaNombre, materiaCreditos, departamentoId, departamentoNombre, carreraId, carreraNombre,
+            profesorId, profesorNombre, profesorApellido, periodoId, cuatrimestre, anio);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Float getNotaCursada() {
+        return notaCursada;
+    }
+
+    public String getLibro() {
+        return libro;
+    }
+
+    public String getFolio() {
+        return folio;
+    }
+
+    public CursadaEstado getEstado() {
+        return estado;
+    }
+
+    public Float getNotaFinal() {
+        return notaFinal;
+    }
+
+    public CursoResumenDTO.PeriodoDTO getPeriodo() {
+        return periodo;
+    }
+
+    public CursoResumenDTO getCurso() {
+        return curso;
+    }
+
+    @Override
+    public String toString() {
+        return "CursadaResumenDTO{" +
+            "id=" + id +
+            ", estado=" + estado +
+            ", curso=" + curso +
+            "}";
+    }
+}
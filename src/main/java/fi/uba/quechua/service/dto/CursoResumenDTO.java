@@ -0,0 +1,243 @@
+package fi.uba.quechua.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import fi.uba.quechua.domain.enumeration.CursoEstado;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Curso con los datos que muestran las listas de cursos, armado por una consulta de constructor sin cargar
+ * entidades. Conserva los nombres de las propiedades de Curso (materia.nombre, profesor.apellido, horarios...),
+ * pero de cada relacion trae solo lo que se muestra.
+ * <p>
+ * Las consultas que lo usan seleccionan {@link #COLUMNAS} sobre un Curso con alias "c", unido con {@link #JOINS}.
+ * Los horarios se agregan despues, con una segunda consulta por los ids de los cursos.
+ */
+public class CursoResumenDTO {
+
+    public static final String COLUMNAS = "c.id, c.estado, c.numero, c.vacantes, " +
+        "m.id, m.codigo, m.nombre, m.creditos, d.id, d.nombre, ca.id, ca.nombre, " +
+        "p.id, p.nombre, p.apellido, pe.id, pe.cuatrimestre, pe.anio";
+
+    public static final String JOINS = "LEFT JOIN c.materia m LEFT JOIN m.departamento d LEFT JOIN m.carrera ca " +
+        "LEFT JOIN c.profesor p LEFT JOIN c.periodo pe";
+
+    private final Long id;
+
+    private final CursoEstado estado;
+
+    private final Integer numero;
+
+    private final Integer vacantes;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer vacantesDisponibles;
+
+    private final MateriaDTO materia;
+
+    private final ProfesorDTO profesor;
+
+    private final PeriodoDTO periodo;
+
+    private final List<HorarioResumenDTO> horarios = new ArrayList<>();
+
+    public CursoResumenDTO(Long id, CursoEstado estado, Integer numero, Integer vacantes,
+                           Long materiaId, String materiaCodigo, String materiaNombre, Integer materiaCreditos,
+                           Long departamentoId, String departamentoNombre, Long carreraId, String carreraNombre,
+                           Long profesorId, String profesorNombre, String profesorApellido,
+                           Long periodoId, Cuatrimestre cuatrimestre, String anio) {
+        this.id = id;
+        this.estado = estado;
+        this.numero = numero;
+        this.vacantes = vacantes;
+        this.materia = materiaId == null ? null : new MateriaDTO(materiaId, materiaCodigo, materiaNombre, materiaCreditos,
+            departamentoId == null ? null : new ReferenciaDTO(departamentoId, departamentoNombre),
+            carreraId == null ? null : new ReferenciaDTO(carreraId, carreraNombre));
+        this.profesor = profesorId == null ? null : new ProfesorDTO(profesorId, profesorNombre, profesorApellido);
+        this.periodo = PeriodoDTO.of(periodoId, cuatrimestre, anio);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public CursoEstado getEstado() {
+        return estado;
+    }
+
+    public Integer getNumero() {
+        return numero;
+    }
+
+    public Integer getVacantes() {
+        return vacantes;
+    }
+
+    public Integer getVacantesDisponibles() {
+        return vacantesDisponibles;
+    }
+
+    public void setVacantesDisponibles(Integer vacantesDisponibles) {
+        this.vacantesDisponibles = vacantesDisponibles;
+    }
+
+    public MateriaDTO getMateria() {
+        return materia;
+    }
+
+    public ProfesorDTO getProfesor() {
+        return profesor;
+    }
+
+    public PeriodoDTO getPeriodo() {
+        return periodo;
+    }
+
+    public List<HorarioResumenDTO> getHorarios() {
+        return horarios;
+    }
+
+    @Override
+    public String toString() {
+        return "CursoResumenDTO{" +
+            "id=" + id +
+            ", estado=" + estado +
+            ", numero=" + numero +
+            ", vacantes=" + vacantes +
+            "}";
+    }
+
+    public static class MateriaDTO {
+
+        private final Long id;
+
+        private final String codigo;
+
+        private final String nombre;
+
+        private final Integer creditos;
+
+        private final ReferenciaDTO departamento;
+
+        private final ReferenciaDTO carrera;
+
+        MateriaDTO(Long id, String codigo, String nombre, Integer creditos, ReferenciaDTO departamento, ReferenciaDTO carrera) {
+            this.id = id;
+            this.codigo = codigo;
+            this.nombre = nombre;
+            this.creditos = creditos;
+            this.departamento = departamento;
+            this.carrera = carrera;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public Integer getCreditos() {
+            return creditos;
+        }
+
+        public ReferenciaDTO getDepartamento() {
+            return departamento;
+        }
+
+        public ReferenciaDTO getCarrera() {
+            return carrera;
+        }
+    }
+
+    /**
+     * Id y nombre de un departamento o una carrera.
+     */
+    public static class ReferenciaDTO {
+
+        private final Long id;
+
+        private final String nombre;
+
+        ReferenciaDTO(Long id, String nombre) {
+            this.id = id;
+            this.nombre = nombre;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+    }
+
+    public static class ProfesorDTO {
+
+        private final Long id;
+
+        private final String nombre;
+
+        private final String apellido;
+
+        ProfesorDTO(Long id, String nombre, String apellido) {
+            this.id = id;
+            this.nombre = nombre;
+            this.apellido = apellido;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public String getApellido() {
+            return apellido;
+        }
+    }
+
+    public static class PeriodoDTO {
+
+        private final Long id;
+
+        private final Cuatrimestre cuatrimestre;
+
+        private final String anio;
+
+        PeriodoDTO(Long id, Cuatrimestre cuatrimestre, String anio) {
+            this.id = id;
+            this.cuatrimestre = cuatrimestre;
+            this.anio = anio;
+        }
+
+        /**
+         * @return null si no hay periodo
+         */
+        public static PeriodoDTO of(Long id, Cuatrimestre cuatrimestre, String anio) {
+            return id == null ? null : new PeriodoDTO(id, cuatrimestre, anio);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Cuatrimestre getCuatrimestre() {
+            return cuatrimestre;
+        }
+
+        public String getAnio() {
+            return anio;
+        }
+    }
+}
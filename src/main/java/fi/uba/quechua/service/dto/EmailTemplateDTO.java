@@ -0,0 +1,47 @@
+package fi.uba.quechua.service.dto;
+
+/**
+ * Contenido de un mensaje del outbox para el mail: el email se arma con el template al enviarlo, con los datos que
+ * tenga el usuario en ese momento.
+ */
+public class EmailTemplateDTO {
+
+    private Long userId;
+
+    private String template;
+
+    private String titleKey;
+
+    public EmailTemplateDTO() {
+    }
+
+    public EmailTemplateDTO(Long userId, String template, String titleKey) {
+        this.userId = userId;
+        this.template = template;
+        this.titleKey = titleKey;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+}
@@ -0,0 +1,74 @@
+package fi.uba.quechua.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import fi.uba.quechua.domain.enumeration.Dia;
+import fi.uba.quechua.domain.enumeration.Sede;
+
+/**
+ * Horario de un CursoResumenDTO, armado por una consulta de constructor.
+ */
+public class HorarioResumenDTO {
+
+    private final Long cursoId;
+
+    private final Long id;
+
+    private final Dia dia;
+
+    private final Sede sede;
+
+    private final String aula;
+
+    private final String horaInicio;
+
+    private final String horaFin;
+
+    public HorarioResumenDTO(Long cursoId, Long id, Dia dia, Sede sede, String aula, String horaInicio, String horaFin) {
+        this.cursoId = cursoId;
+        this.id = id;
+        this.dia = dia;
+        this.sede = sede;
+        this.aula = aula;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+    }
+
+    @JsonIgnore
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Dia getDia() {
+        return dia;
+    }
+
+    public Sede getSede() {
+        return sede;
+    }
+
+    public String getAula() {
+        return aula;
+    }
+
+    public String getHoraInicio() {
+        return horaInicio;
+    }
+
+    public String getHoraFin() {
+        return horaFin;
+    }
+
+    @Override
+    public String toString() {
+        return "HorarioResumenDTO{" +
+            "id=" + id +
+            ", dia=" + dia +
+            ", horaInicio='" + horaInicio + "'" +
+            ", horaFin='" + horaFin + "'" +
+            "}";
+    }
+}
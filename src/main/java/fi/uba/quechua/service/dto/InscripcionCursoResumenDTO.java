@@ -0,0 +1,68 @@
+package fi.uba.quechua.service.dto;
+
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
+import fi.uba.quechua.domain.enumeration.CursoEstado;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+
+/**
+ * Inscripcion de un alumno a un curso, tal como la ve el propio alumno: sin los datos del alumno y con el
+ * curso resumido. Se arma con una consulta de constructor; ver {@link CursoResumenDTO}.
+ */
+public class InscripcionCursoResumenDTO {
+
+    private final Long id;
+
+    private final InscripcionCursoEstado estado;
+
+    private final CursadaEstado cursadaEstado;
+
+    private final CursoResumenDTO curso;
+
+    public InscripcionCursoResumenDTO(Long id, InscripcionCursoEstado estado, CursadaEstado cursadaEstado,
+                                      Long cursoId, CursoEstado cursoEstado, Integer numero, Integer vacantes,
+                                      Long materiaId, String materiaCodigo, String materiaNombre, Integer materiaCreditos,
+                                      Long departamentoId, String departamentoNombre, Long carreraId, String carreraNombre,
+                                      Long profesorId, String profesorNombre, String profesorApellido,
+                                      Long periodoId, Cuatrimestre cuatrimestre, String anio) {
+        this.id = id;
+        this.estado = estado;
+        this.cursadaEstado = cursadaEstado;
+        this.curso = cursoId == null ? null : new CursoResumenDTO(cursoId, cursoEstado, numero, vacantes,
+            materiaId, materiaCodigo, materiaNombre, materiaCreditos, departamentoId, departamentoNombre, carreraId, carreraNombre,
+            profesorId, profesorNombre, profesorApellido, periodoId, cuatrimestre, anio);
+    }
+
+    public InscripcionCursoResumenDTO(Long id, InscripcionCursoEstado estado, CursadaEstado cursadaEstado, CursoResumenDTO curso) {
+        this.id = id;
+        this.estado = estado;
+        this.cursadaEstado = cursadaEstado;
+        this.curso = curso;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public InscripcionCursoEstado getEstado() {
+        return estado;
+    }
+
+    public CursadaEstado getCursadaEstado() {
+        return cursadaEstado;
+    }
+
+    public CursoResumenDTO getCurso() {
+        return curso;
+    }
+
+    @Override
+    public String toString() {
+        return "InscripcionCursoResumenDTO{" +
+            "id=" + id +
+            ", estado=" + estado +
+            ", cursadaEstado=" + cursadaEstado +
+            ", curso=" + curso +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package fi.uba.quechua.service.dto;
+
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+
+/**
+ * Inscripcion a un curso, vigente o archivada, con los datos del alumno; ver ArchivoService.
+ */
+public class InscripcionHistoricaDTO {
+
+    private final Long id;
+
+    private final InscripcionCursoEstado estado;
+
+    private final CursadaEstado cursadaEstado;
+
+    private final boolean archivada;
+
+    private final Long alumnoId;
+
+    private final String padron;
+
+    private final String nombre;
+
+    private final String apellido;
+
+    public InscripcionHistoricaDTO(Long id, InscripcionCursoEstado estado, CursadaEstado cursadaEstado, boolean archivada,
+                                   Long alumnoId, String padron, String nombre, String apellido) {
+        this.id = id;
+        this.estado = estado;
+        this.cursadaEstado = cursadaEstado;
+        this.archivada = archivada;
+        this.alumnoId = alumnoId;
+        this.padron = padron;
+        this.nombre = nombre;
+        this.apellido = apellido;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public InscripcionCursoEstado getEstado() {
+        return estado;
+    }
+
+    public CursadaEstado getCursadaEstado() {
+        return cursadaEstado;
+    }
+
+    public boolean isArchivada() {
+        return archivada;
+    }
+
+    public Long getAlumnoId() {
+        return alumnoId;
+    }
+
+    public String getPadron() {
+        return padron;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    @Override
+    public String toString() {
+        return "InscripcionHistoricaDTO{" +
+            "id=" + id +
+            ", estado=" + estado +
+            ", archivada=" + archivada +
+            ", padron='" + padron + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,46 @@
+package fi.uba.quechua.service.dto;
+
+/**
+ * Contenido de un mensaje del outbox para Firebase.
+ */
+public class NotificacionPushDTO {
+
+    private String titulo;
+
+    private String cuerpo;
+
+    private String token;
+
+    public NotificacionPushDTO() {
+    }
+
+    public NotificacionPushDTO(String titulo, String cuerpo, String token) {
+        this.titulo = titulo;
+        this.cuerpo = cuerpo;
+        this.token = token;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getCuerpo() {
+        return cuerpo;
+    }
+
+    public void setCuerpo(String cuerpo) {
+        this.cuerpo = cuerpo;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,45 @@
+package fi.uba.quechua.service.dto;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.Serializable;
+
+/**
+ * Respuesta guardada para una Idempotency-Key. Mientras el request original esta en curso, no tiene status.
+ */
+public class RespuestaIdempotenteDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    private final HttpHeaders headers;
+
+    private final Serializable body;
+
+    public RespuestaIdempotenteDTO(int status, HttpHeaders headers, Serializable body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public static RespuestaIdempotenteDTO enCurso() {
+        return new RespuestaIdempotenteDTO(0, new HttpHeaders(), null);
+    }
+
+    public boolean isEnCurso() {
+        return status == 0;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public Serializable getBody() {
+        return body;
+    }
+}
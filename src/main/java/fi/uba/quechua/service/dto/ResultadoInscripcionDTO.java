@@ -0,0 +1,64 @@
+package fi.uba.quechua.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Resultado de la inscripcion a un curso dentro de una inscripcion a varios cursos.
+ */
+public class ResultadoInscripcionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long cursoId;
+
+    private TicketInscripcionDTO.Estado estado;
+
+    private Long inscripcionCursoId;
+
+    private String mensaje;
+
+    public ResultadoInscripcionDTO() {
+    }
+
+    public ResultadoInscripcionDTO(Long cursoId, TicketInscripcionDTO.Estado estado, String mensaje) {
+        this.cursoId = cursoId;
+        this.estado = estado;
+        this.mensaje = mensaje;
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public void setCursoId(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+
+    public TicketInscripcionDTO.Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(TicketInscripcionDTO.Estado estado) {
+        this.estado = estado;
+    }
+
+    public Long getInscripcionCursoId() {
+        return inscripcionCursoId;
+    }
+
+    public void setInscripcionCursoId(Long inscripcionCursoId) {
+        this.inscripcionCursoId = inscripcionCursoId;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public boolean isRechazada() {
+        return estado == TicketInscripcionDTO.Estado.RECHAZADA;
+    }
+}
@@ -0,0 +1,86 @@
+package fi.uba.quechua.service.dto;
+
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+
+/**
+ * Estado de una solicitud de inscripcion encolada.
+ */
+public class TicketInscripcionDTO {
+
+    public enum Estado {
+        PENDIENTE, REGULAR, CONDICIONAL, RECHAZADA
+    }
+
+    private String id;
+
+    private Long cursoId;
+
+    private Estado estado;
+
+    private Long inscripcionCursoId;
+
+    private String mensaje;
+
+    public TicketInscripcionDTO() {
+    }
+
+    public TicketInscripcionDTO(String id, Long cursoId) {
+        this.id = id;
+        this.cursoId = cursoId;
+        this.estado = Estado.PENDIENTE;
+    }
+
+    public static Estado estadoDe(InscripcionCursoEstado estado) {
+        return estado == InscripcionCursoEstado.REGULAR ? Estado.REGULAR : Estado.CONDICIONAL;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public void setCursoId(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    public Long getInscripcionCursoId() {
+        return inscripcionCursoId;
+    }
+
+    public void setInscripcionCursoId(Long inscripcionCursoId) {
+        this.inscripcionCursoId = inscripcionCursoId;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    @Override
+    public String toString() {
+        return "TicketInscripcionDTO{" +
+            "id='" + id + "'" +
+            ", cursoId=" + cursoId +
+            ", estado=" + estado +
+            ", inscripcionCursoId=" + inscripcionCursoId +
+            "}";
+    }
+}
@@ -0,0 +1,54 @@
+package fi.uba.quechua.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Turno de un cliente en la sala de espera.
+ */
+public class TurnoSalaEsperaDTO {
+
+    @JsonIgnore
+    private final long numero;
+
+    private final String turno;
+
+    private final boolean admitido;
+
+    private final long posicion;
+
+    private final long esperaEstimadaSegundos;
+
+    public TurnoSalaEsperaDTO(long numero, String turno, boolean admitido, long posicion, long esperaEstimadaSegundos) {
+        this.numero = numero;
+        this.turno = turno;
+        this.admitido = admitido;
+        this.posicion = posicion;
+        this.esperaEstimadaSegundos = esperaEstimadaSegundos;
+    }
+
+    public long getNumero() {
+        return numero;
+    }
+
+    /**
+     * @return el turno firmado, a reenviar en el header X-Sala-Espera
+     */
+    public String getTurno() {
+        return turno;
+    }
+
+    public boolean isAdmitido() {
+        return admitido;
+    }
+
+    /**
+     * @return la cantidad de turnos que faltan admitir antes de este; 0 si ya fue admitido
+     */
+    public long getPosicion() {
+        return posicion;
+    }
+
+    public long getEsperaEstimadaSegundos() {
+        return esperaEstimadaSegundos;
+    }
+}
@@ -0,0 +1,79 @@
+package fi.uba.quechua.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.uba.quechua.security.jwt.JWTConfigurer;
+import fi.uba.quechua.security.jwt.TokenProvider;
+import fi.uba.quechua.service.SalaEsperaService;
+import fi.uba.quechua.service.dto.TurnoSalaEsperaDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Filtro de la sala de espera: solo deja pasar a los clientes cuyo turno ya fue admitido.
+ * <p>
+ * El turno viaja en el header X-Sala-Espera. A los que todavia esperan se les responde 503 con
+ * Retry-After, su posicion y la espera estimada, sin llegar a la capa de seguridad ni a la base. El turno
+ * queda atado al usuario del JWT (verificado con la misma cache que JWTFilter), o a la direccion de origen
+ * si el pedido no trae token.
+ */
+public class SalaEsperaFilter extends OncePerRequestFilter {
+
+    public static final String SALA_ESPERA_HEADER = "X-Sala-Espera";
+
+    private final SalaEsperaService salaEsperaService;
+
+    private final ObjectMapper objectMapper;
+
+    private final TokenProvider tokenProvider;
+
+    public SalaEsperaFilter(SalaEsperaService salaEsperaService, ObjectMapper objectMapper, TokenProvider tokenProvider) {
+        this.salaEsperaService = salaEsperaService;
+        this.objectMapper = objectMapper;
+        this.tokenProvider = tokenProvider;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!salaEsperaService.isEnabled() || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        TurnoSalaEsperaDTO turno = salaEsperaService.ingresar(request.getHeader(SALA_ESPERA_HEADER), cliente(request));
+        response.setHeader(SALA_ESPERA_HEADER, turno.getTurno());
+        if (!turno.isAdmitido()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, turno.getEsperaEstimadaSegundos())));
+            response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), turno);
+            return;
+        }
+        salaEsperaService.entrar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            salaEsperaService.salir();
+        }
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String bearerToken = request.getHeader(JWTConfigurer.AUTHORIZATION_HEADER);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            Authentication authentication = tokenProvider.resolveAuthentication(bearerToken.substring(7));
+            if (authentication != null) {
+                return SalaEsperaService.clienteUsuario(authentication.getName());
+            }
+        }
+        return SalaEsperaService.clienteAnonimo(request.getRemoteAddr());
+    }
+}
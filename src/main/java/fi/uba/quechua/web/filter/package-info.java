@@ -0,0 +1,4 @@
+/**
+ * Servlet filters.
+ */
+package fi.uba.quechua.web.filter;
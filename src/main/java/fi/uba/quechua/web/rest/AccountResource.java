@@ -5,7 +5,6 @@ import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.User;
 import fi.uba.quechua.repository.UserRepository;
 import fi.uba.quechua.security.SecurityUtils;
-import fi.uba.quechua.service.MailService;
 import fi.uba.quechua.service.UserService;
 import fi.uba.quechua.service.dto.UserDTO;
 import fi.uba.quechua.web.rest.errors.*;
@@ -36,13 +35,10 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public AccountResource(UserRepository userRepository, UserService userService) {
 
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -62,8 +58,7 @@ public class AccountResource {
         }
         userRepository.findOneByLogin(managedUserVM.getLogin().toLowerCase()).ifPresent(u -> {throw new LoginAlreadyUsedException();});
         userRepository.findOneByEmailIgnoreCase(managedUserVM.getEmail()).ifPresent(u -> {throw new EmailAlreadyUsedException();});
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -155,10 +150,8 @@ public class AccountResource {
     @PostMapping(path = "/account/reset-password/init")
     @Timed
     public void requestPasswordReset(@RequestBody String mail) {
-       mailService.sendPasswordResetMail(
-           userService.requestPasswordReset(mail)
-               .orElseThrow(EmailNotFoundException::new)
-       );
+       userService.requestPasswordReset(mail)
+           .orElseThrow(EmailNotFoundException::new);
     }
 
     /**
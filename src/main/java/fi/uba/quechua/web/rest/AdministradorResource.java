@@ -3,11 +3,12 @@ package fi.uba.quechua.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.*;
 import fi.uba.quechua.repository.AuthorityRepository;
-import fi.uba.quechua.repository.CarreraRepository;
 import fi.uba.quechua.repository.ProfesorRepository;
 import fi.uba.quechua.security.AuthoritiesConstants;
 import fi.uba.quechua.service.AlumnoCarreraService;
 import fi.uba.quechua.service.AlumnoService;
+import fi.uba.quechua.service.DatosReferencia;
+import fi.uba.quechua.service.DatosReferenciaService;
 import fi.uba.quechua.service.UserService;
 import fi.uba.quechua.service.dto.CargaMasivaDTO;
 import fi.uba.quechua.service.dto.UserDTO;
@@ -35,7 +36,7 @@ public class AdministradorResource {
 
     private final AlumnoService alumnoService;
 
-    private CarreraRepository carreraRepository;
+    private final DatosReferenciaService datosReferenciaService;
 
     private AlumnoCarreraService alumnoCarreraService;
 
@@ -43,12 +44,12 @@ public class AdministradorResource {
 
     public AdministradorResource(UserService userService, AlumnoService alumnoService, ProfesorRepository profesorRepository,
                                  AuthorityRepository authorityRepository, AlumnoCarreraService alumnoCarreraService,
-                                 CarreraRepository carreraRepository) {
+                                 DatosReferenciaService datosReferenciaService) {
         this.userService = userService;
         this.authorityRepository = authorityRepository;
         this.alumnoService = alumnoService;
         this.profesorRepository = profesorRepository;
-        this.carreraRepository = carreraRepository;
+        this.datosReferenciaService = datosReferenciaService;
         this.alumnoCarreraService = alumnoCarreraService;
     }
 
@@ -267,9 +268,10 @@ public class AdministradorResource {
         }
         boolean tieneCarreraValida = false;
         log.debug("Cantidad de carreras {}", carreraIds.size());
+        DatosReferencia datos = datosReferenciaService.getDatos();
         for (String carreraId: carreraIds) {
             log.debug("Procesando carrera {}", carreraId);
-            Optional<Carrera> carrera = carreraRepository.findById(Long.valueOf(carreraId));
+            Optional<Carrera> carrera = datos.getCarrera(Long.valueOf(carreraId));
             if (carrera.isPresent()) {
                 log.debug("La carrera existe {}", carreraId);
                 tieneCarreraValida = true;
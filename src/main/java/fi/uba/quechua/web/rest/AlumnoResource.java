@@ -5,6 +5,8 @@ import fi.uba.quechua.domain.*;
 import fi.uba.quechua.repository.PeriodoRepository;
 import fi.uba.quechua.security.SecurityUtils;
 import fi.uba.quechua.service.*;
+import fi.uba.quechua.service.dto.CursadaHistoricaDTO;
+import fi.uba.quechua.service.dto.CursadaResumenDTO;
 import fi.uba.quechua.service.dto.FirebaseTokenDTO;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
@@ -48,12 +50,19 @@ public class AlumnoResource {
 
     private final UserService userService;
 
+    private final ActorService actorService;
+
+    private final ArchivoService archivoService;
+
     public AlumnoResource(AlumnoService alumnoService, AlumnoCarreraService alumnoCarreraService,
-                          UserService userService, CursadaService cursadaService) {
+                          UserService userService, ActorService actorService, CursadaService cursadaService,
+                          ArchivoService archivoService) {
         this.alumnoService = alumnoService;
         this.alumnoCarreraService = alumnoCarreraService;
         this.userService = userService;
+        this.actorService = actorService;
         this.cursadaService = cursadaService;
+        this.archivoService = archivoService;
     }
 
     /**
@@ -155,8 +164,7 @@ public class AlumnoResource {
     @Timed
     public List<Carrera> getCarrerasDelAlumno() {
         log.debug("REST request to get all Carreras del Alumno");
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un Alumno asociado al usuario logueado", "Alumno", "idnoexists");
         }
@@ -170,15 +178,29 @@ public class AlumnoResource {
      */
     @GetMapping("/alumnos/cursadasActivas")
     @Timed
-    public List<Cursada> getCursadasActivasDelAlumno() {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+    public List<CursadaResumenDTO> getCursadasActivasDelAlumno() {
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un Alumno asociado al usuario logueado", "Alumno", "idnoexists");
         }
         return cursadaService.findCursadasActivasByAlumno(alumno.get());
     }
 
+    /**
+     * GET  /alumnos/historiaAcademica : get all the cursadas del alumno, incluidas las de periodos archivados.
+     *
+     * @return the list of cursadas, en orden cronologico
+     */
+    @GetMapping("/alumnos/historiaAcademica")
+    @Timed
+    public List<CursadaHistoricaDTO> getHistoriaAcademicaDelAlumno() {
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
+        if (!alumno.isPresent()) {
+            throw new BadRequestAlertException("No existe un Alumno asociado al usuario logueado", "Alumno", "idnoexists");
+        }
+        return archivoService.findHistoriaAcademica(alumno.get().getId());
+    }
+
     /**
      * GET  /alumno-prioridad : get prioridad del alumno.
      *
@@ -187,15 +209,13 @@ public class AlumnoResource {
     @GetMapping("/alumnos/prioridad")
     @Timed
     public List<Prioridad> getPrioridadDelAlumno() {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un Alumno asociado al usuario logueado", "Alumno", "idnoexists");
         }
         List<Prioridad> listaPrioridad = new ArrayList<Prioridad>();
         if((alumno.get().getPrioridad() != 0) && (alumno.get().getPrioridad() < 96)) {
-            Optional<Prioridad> prioridad = prioridadService.findOne(Long.valueOf(alumno.get().getPrioridad().toString()));
-            listaPrioridad.add(prioridad.get());
+            prioridadService.getCalendario().getPrioridad(alumno.get().getPrioridad()).ifPresent(listaPrioridad::add);
         }
         return listaPrioridad;
     }
@@ -209,16 +229,14 @@ public class AlumnoResource {
     @Timed
     public ResponseEntity<Alumno> getAlumnoByUser() {
         log.debug("REST request to get Alumno by user");
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         return ResponseUtil.wrapOrNotFound(alumno);
     }
 
     @PostMapping("/alumnos/setFirebaseToken")
     @Timed
     public ResponseEntity<Void> setFirebaseToken(@RequestBody FirebaseTokenDTO tokenDTO) {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un Alumno asociado al usuario logueado", "Alumno", "idnoexists");
         } else {
@@ -0,0 +1,107 @@
+package fi.uba.quechua.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.security.AuthoritiesConstants;
+import fi.uba.quechua.service.ArchivoService;
+import fi.uba.quechua.service.dto.ArchivoResultadoDTO;
+import fi.uba.quechua.service.dto.CursadaHistoricaDTO;
+import fi.uba.quechua.service.dto.InscripcionHistoricaDTO;
+import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller for the archivo de periodos cerrados y las consultas historicas.
+ */
+@RestController
+@RequestMapping("/api")
+public class ArchivoResource {
+
+    private final Logger log = LoggerFactory.getLogger(ArchivoResource.class);
+
+    private final ArchivoService archivoService;
+
+    public ArchivoResource(ArchivoService archivoService) {
+        this.archivoService = archivoService;
+    }
+
+    /**
+     * GET  /archivo/periodos : get the periodos cerrados, que se pueden archivar.
+     *
+     * @return the list of periodos
+     */
+    @GetMapping("/archivo/periodos")
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public List<Periodo> getPeriodosCerrados() {
+        log.debug("REST request to get the periodos cerrados");
+        return archivoService.findPeriodosCerrados();
+    }
+
+    /**
+     * POST  /archivo : archiva los periodos cerrados y las filas eliminadas.
+     *
+     * @return the periodos archivados y las filas movidas de cada tabla
+     */
+    @PostMapping("/archivo")
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public ArchivoResultadoDTO archivar() {
+        log.debug("REST request to archivar los periodos cerrados");
+        return archivoService.archivar();
+    }
+
+    /**
+     * POST  /archivo/periodos/:periodoId : archiva un periodo cerrado.
+     *
+     * @param periodoId the id of the periodo
+     * @return the filas movidas de cada tabla
+     */
+    @PostMapping("/archivo/periodos/{periodoId}")
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public ArchivoResultadoDTO archivarPeriodo(@PathVariable Long periodoId) {
+        log.debug("REST request to archivar el periodo {}", periodoId);
+        Optional<Periodo> periodo = archivoService.findPeriodosCerrados().stream()
+            .filter(p -> p.getId().equals(periodoId))
+            .findFirst();
+        if (!periodo.isPresent()) {
+            throw new BadRequestAlertException("El periodo no existe o no esta cerrado", "Periodo", "periodoabierto");
+        }
+        return archivoService.archivar(periodo.get());
+    }
+
+    /**
+     * GET  /archivo/alumnos/:alumnoId/cursadas : get the historia academica de un alumno.
+     *
+     * @param alumnoId the id of the alumno
+     * @return the list of cursadas, vigentes y archivadas
+     */
+    @GetMapping("/archivo/alumnos/{alumnoId}/cursadas")
+    @Timed
+    @Secured({AuthoritiesConstants.ADMIN, AuthoritiesConstants.ADM_DPTO})
+    public List<CursadaHistoricaDTO> getHistoriaAcademica(@PathVariable Long alumnoId) {
+        log.debug("REST request to get historia academica del Alumno : {}", alumnoId);
+        return archivoService.findHistoriaAcademica(alumnoId);
+    }
+
+    /**
+     * GET  /archivo/cursos/:cursoId/inscripciones : get all the inscripciones de un curso.
+     *
+     * @param cursoId the id of the curso
+     * @return the list of inscripciones, vigentes y archivadas
+     */
+    @GetMapping("/archivo/cursos/{cursoId}/inscripciones")
+    @Timed
+    @Secured({AuthoritiesConstants.ADMIN, AuthoritiesConstants.ADM_DPTO, AuthoritiesConstants.PROFESOR})
+    public List<InscripcionHistoricaDTO> getInscripcionesHistoricas(@PathVariable Long cursoId) {
+        log.debug("REST request to get inscripciones historicas del Curso : {}", cursoId);
+        return archivoService.findInscripcionesHistoricas(cursoId);
+    }
+}
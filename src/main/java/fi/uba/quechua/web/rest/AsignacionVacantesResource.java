@@ -0,0 +1,71 @@
+package fi.uba.quechua.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.security.AuthoritiesConstants;
+import fi.uba.quechua.service.AsignacionVacantesService;
+import fi.uba.quechua.service.PeriodoService;
+import fi.uba.quechua.service.dto.AsignacionCursoDTO;
+import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * REST controller for the asignacion de vacantes por prioridad.
+ */
+@RestController
+@RequestMapping("/api")
+public class AsignacionVacantesResource {
+
+    private final Logger log = LoggerFactory.getLogger(AsignacionVacantesResource.class);
+
+    private final AsignacionVacantesService asignacionVacantesService;
+
+    private final PeriodoService periodoService;
+
+    public AsignacionVacantesResource(AsignacionVacantesService asignacionVacantesService, PeriodoService periodoService) {
+        this.asignacionVacantesService = asignacionVacantesService;
+        this.periodoService = periodoService;
+    }
+
+    /**
+     * GET  /asignacion-vacantes/:periodoId/simulacion : get the asignacion proyectada del periodo.
+     *
+     * @param periodoId the id of the periodo
+     * @return the list of asignaciones por curso
+     */
+    @GetMapping("/asignacion-vacantes/{periodoId}/simulacion")
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public Collection<AsignacionCursoDTO> simular(@PathVariable Long periodoId) {
+        log.debug("REST request to simular la asignacion de vacantes del periodo {}", periodoId);
+        return asignacionVacantesService.simular(getPeriodo(periodoId));
+    }
+
+    /**
+     * POST  /asignacion-vacantes/:periodoId : asigna las vacantes del periodo a partir de las intenciones registradas.
+     *
+     * @param periodoId the id of the periodo
+     * @return the list of asignaciones por curso
+     */
+    @PostMapping("/asignacion-vacantes/{periodoId}")
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public Collection<AsignacionCursoDTO> asignar(@PathVariable Long periodoId) {
+        log.debug("REST request to asignar las vacantes del periodo {}", periodoId);
+        return asignacionVacantesService.asignar(getPeriodo(periodoId));
+    }
+
+    private Periodo getPeriodo(Long periodoId) {
+        Optional<Periodo> periodo = periodoService.findOne(periodoId);
+        if (!periodo.isPresent()) {
+            throw new BadRequestAlertException("No existe un periodo con id provisto", "Periodo", "idnoexists");
+        }
+        return periodo.get();
+    }
+}
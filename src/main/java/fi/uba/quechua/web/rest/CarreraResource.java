@@ -3,6 +3,7 @@ package fi.uba.quechua.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.Carrera;
 import fi.uba.quechua.repository.CarreraRepository;
+import fi.uba.quechua.service.DatosReferenciaService;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -31,8 +32,11 @@ public class CarreraResource {
 
     private final CarreraRepository carreraRepository;
 
-    public CarreraResource(CarreraRepository carreraRepository) {
+    private final DatosReferenciaService datosReferenciaService;
+
+    public CarreraResource(CarreraRepository carreraRepository, DatosReferenciaService datosReferenciaService) {
         this.carreraRepository = carreraRepository;
+        this.datosReferenciaService = datosReferenciaService;
     }
 
     /**
@@ -86,7 +90,7 @@ public class CarreraResource {
     @Timed
     public List<Carrera> getAllCarreras() {
         log.debug("REST request to get all Carreras");
-        return carreraRepository.findAll();
+        return datosReferenciaService.getDatos().getCarreras();
     }
 
     /**
@@ -99,7 +103,7 @@ public class CarreraResource {
     @Timed
     public ResponseEntity<Carrera> getCarrera(@PathVariable Long id) {
         log.debug("REST request to get Carrera : {}", id);
-        Optional<Carrera> carrera = carreraRepository.findById(id);
+        Optional<Carrera> carrera = datosReferenciaService.getDatos().getCarrera(id);
         return ResponseUtil.wrapOrNotFound(carrera);
     }
 
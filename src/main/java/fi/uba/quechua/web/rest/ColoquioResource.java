@@ -3,9 +3,8 @@ package fi.uba.quechua.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.Coloquio;
 import fi.uba.quechua.domain.Profesor;
-import fi.uba.quechua.repository.ProfesorRepository;
 import fi.uba.quechua.service.ColoquioService;
-import fi.uba.quechua.service.UserService;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -34,15 +33,11 @@ public class ColoquioResource {
 
     private final ColoquioService coloquioService;
 
-    private final ProfesorRepository profesorRepository;
+    private final ActorService actorService;
 
-    private final UserService userService;
-
-    public ColoquioResource(ColoquioService coloquioService, ProfesorRepository profesorRepository,
-                            UserService userService) {
+    public ColoquioResource(ColoquioService coloquioService, ActorService actorService) {
         this.coloquioService = coloquioService;
-        this.profesorRepository = profesorRepository;
-        this.userService = userService;
+        this.actorService = actorService;
     }
 
     /**
@@ -141,8 +136,7 @@ public class ColoquioResource {
         if (!coloquio.isPresent()) {
             throw new BadRequestAlertException("No existe un Coloquio con el Id", ENTITY_NAME, "idnoexists");
         }
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Profesor> profesor = profesorRepository.findByUserId(userId);
+        Optional<Profesor> profesor = actorService.getProfesorActual();
         if (!profesor.isPresent()) {
             throw new BadRequestAlertException("No existe un Profesor asociado al usuario logueado", ENTITY_NAME, "idnoexists");
         }
@@ -1,14 +1,12 @@
 package fi.uba.quechua.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
-import fi.uba.quechua.domain.AdministradorDepartamento;
 import fi.uba.quechua.domain.Departamento;
-import fi.uba.quechua.domain.User;
-import fi.uba.quechua.repository.AdministradorDepartamentoRepository;
 import fi.uba.quechua.repository.DepartamentoRepository;
+import fi.uba.quechua.service.DatosReferenciaService;
 import fi.uba.quechua.security.AuthoritiesConstants;
 import fi.uba.quechua.security.SecurityUtils;
-import fi.uba.quechua.service.UserService;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -36,15 +34,15 @@ public class DepartamentoResource {
 
     private final DepartamentoRepository departamentoRepository;
 
-    private final UserService userService;
+    private final ActorService actorService;
 
-    private final AdministradorDepartamentoRepository administradorDepartamentoRepository;
+    private final DatosReferenciaService datosReferenciaService;
 
-    public DepartamentoResource(DepartamentoRepository departamentoRepository, UserService userService,
-                                AdministradorDepartamentoRepository administradorDepartamentoRepository) {
+    public DepartamentoResource(DepartamentoRepository departamentoRepository, ActorService actorService,
+                                DatosReferenciaService datosReferenciaService) {
         this.departamentoRepository = departamentoRepository;
-        this.userService = userService;
-        this.administradorDepartamentoRepository = administradorDepartamentoRepository;
+        this.actorService = actorService;
+        this.datosReferenciaService = datosReferenciaService;
     }
 
     /**
@@ -98,15 +96,14 @@ public class DepartamentoResource {
     @Timed
     public List<Departamento> getAllDepartamentos() {
         log.debug("REST request to get all Departamentos");
-        Optional<User> user = userService.getUserWithAuthorities();
-        if (user.isPresent() && SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADM_DPTO)) {
-            Optional<AdministradorDepartamento> administradorDepartamento = administradorDepartamentoRepository.findByUserId(user.get().getId());
-            Optional<Departamento> departamento = departamentoRepository.findById(administradorDepartamento.get().getDepartamentoId());
+        if (SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADM_DPTO)) {
+            Optional<Departamento> departamento = actorService.getDepartamentoIdActual()
+                .flatMap(datosReferenciaService.getDatos()::getDepartamento);
             List<Departamento> departamentos = new LinkedList<>();
             departamento.ifPresent(departamentos::add);
             return departamentos;
         }
-        return departamentoRepository.findAll();
+        return datosReferenciaService.getDatos().getDepartamentos();
     }
 
     /**
@@ -119,7 +116,7 @@ public class DepartamentoResource {
     @Timed
     public ResponseEntity<Departamento> getDepartamento(@PathVariable Long id) {
         log.debug("REST request to get Departamento : {}", id);
-        Optional<Departamento> departamento = departamentoRepository.findById(id);
+        Optional<Departamento> departamento = datosReferenciaService.getDatos().getDepartamento(id);
         return ResponseUtil.wrapOrNotFound(departamento);
     }
 
@@ -3,12 +3,14 @@ package fi.uba.quechua.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.*;
 import fi.uba.quechua.domain.enumeration.InscripcionColoquioEstado;
+import fi.uba.quechua.security.SecurityUtils;
 import fi.uba.quechua.service.*;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,7 +33,7 @@ public class InscripcionColoquioResource {
 
     private final InscripcionColoquioService inscripcionColoquioService;
 
-    private final UserService userService;
+    private final ActorService actorService;
 
     private final AlumnoService alumnoService;
 
@@ -39,13 +41,17 @@ public class InscripcionColoquioResource {
 
     private CursadaService cursadaService;
 
-    public InscripcionColoquioResource(InscripcionColoquioService inscripcionColoquioService, UserService userService,
-                                       ColoquioService coloquioService, AlumnoService alumnoService, CursadaService cursadaService) {
+    private final IdempotenciaService idempotenciaService;
+
+    public InscripcionColoquioResource(InscripcionColoquioService inscripcionColoquioService, ActorService actorService,
+                                       ColoquioService coloquioService, AlumnoService alumnoService, CursadaService cursadaService,
+                                       IdempotenciaService idempotenciaService) {
         this.inscripcionColoquioService = inscripcionColoquioService;
-        this.userService = userService;
+        this.actorService = actorService;
         this.coloquioService = coloquioService;
         this.alumnoService = alumnoService;
         this.cursadaService = cursadaService;
+        this.idempotenciaService = idempotenciaService;
     }
 
     /**
@@ -130,12 +136,26 @@ public class InscripcionColoquioResource {
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString())).build();
     }
 
+    /**
+     * POST  /inscripcion-coloquios/:coloquioId/inscribir : inscribe al alumno logueado en el coloquio.
+     * Si se envia el header Idempotency-Key, los reintentos con la misma clave reciben la respuesta original.
+     *
+     * @param coloquioId the id of the coloquio
+     * @param idempotencyKey the Idempotency-Key header, optional
+     * @return the ResponseEntity with status 201 (Created) and with body the new inscripcionColoquio
+     * @throws URISyntaxException if the Location URI syntax is incorrect
+     */
     @PostMapping("/inscripcion-coloquios/{coloquioId}/inscribir")
     @Timed
-    public ResponseEntity<InscripcionColoquio> inscribir(@PathVariable Long coloquioId) throws URISyntaxException {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        log.debug("REST request to inscribir al alumno {} en el coloquio {}", userId, coloquioId);
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+    public ResponseEntity<?> inscribir(@PathVariable Long coloquioId,
+                                       @RequestHeader(value = IdempotenciaService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+        throws URISyntaxException {
+        return idempotenciaService.ejecutar(idempotencyKey, "inscripcion-coloquios/" + coloquioId, () -> inscribirAlumno(coloquioId));
+    }
+
+    private ResponseEntity<InscripcionColoquio> inscribirAlumno(Long coloquioId) throws URISyntaxException {
+        log.debug("REST request to inscribir al alumno {} en el coloquio {}", SecurityUtils.getCurrentUserLogin().orElse(null), coloquioId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un alumno con id provisto", "Alumno", "idnoexists");
         }
@@ -149,8 +169,7 @@ public class InscripcionColoquioResource {
             throw new BadRequestAlertException("No puede inscribirse al coloquio", "Coloquio", "idnoexists");
         }
 
-        Optional<InscripcionColoquio> inscripcionColoquio = inscripcionColoquioService.findByColoquioAndAlumnoAndEstado(coloquio.get(), alumno.get(), InscripcionColoquioEstado.ACTIVA);
-        if (inscripcionColoquio.isPresent()) {
+        if (inscripcionColoquioService.isInscripto(coloquio.get(), alumno.get())) {
             throw new BadRequestAlertException("El alumno ya se encuentra inscripto al coloquio", "Coloquio", "idexists");
         }
         InscripcionColoquio inscripcion = new InscripcionColoquio();
@@ -158,7 +177,12 @@ public class InscripcionColoquioResource {
         inscripcion.setColoquio(coloquio.get());
         inscripcion.estado(InscripcionColoquioEstado.ACTIVA);
         inscripcion.setCursada(cursada.get());
-        InscripcionColoquio result = inscripcionColoquioService.save(inscripcion);
+        InscripcionColoquio result;
+        try {
+            result = inscripcionColoquioService.save(inscripcion);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestAlertException("El alumno ya se encuentra inscripto al coloquio", "Coloquio", "idexists");
+        }
         return ResponseEntity.created(new URI("/api/inscripcion-coloquios/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("inscripcionColoquio", result.getId().toString()))
             .body(result);
@@ -167,9 +191,8 @@ public class InscripcionColoquioResource {
     @PostMapping("/inscripcion-coloquios/{coloquioId}/desinscribir")
     @Timed
     public ResponseEntity<InscripcionColoquio> desinscribir(@PathVariable Long coloquioId) throws URISyntaxException {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        log.debug("REST request to desinscribir al alumno {} en el coloquio {}", userId, coloquioId);
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+        log.debug("REST request to desinscribir al alumno {} en el coloquio {}", SecurityUtils.getCurrentUserLogin().orElse(null), coloquioId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un alumno con id provisto", "Alumno", "idnoexists");
         }
@@ -241,9 +264,8 @@ public class InscripcionColoquioResource {
     @GetMapping("/inscripcion-coloquios/byAlumno")
     @Timed
     public List<InscripcionColoquio> getAllInscripcionColoquiosByAlumno() {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        log.debug("REST request to get all InscripcionColoquios by Almuno {}", userId);
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+        log.debug("REST request to get all InscripcionColoquios by Almuno {}", SecurityUtils.getCurrentUserLogin().orElse(null));
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un alumno con id provisto", "Alumno", "idnoexists");
         }
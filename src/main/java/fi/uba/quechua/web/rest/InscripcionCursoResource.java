@@ -1,27 +1,43 @@
 package fi.uba.quechua.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import fi.uba.quechua.config.ApplicationProperties;
 import fi.uba.quechua.domain.Alumno;
 import fi.uba.quechua.domain.Curso;
 import fi.uba.quechua.domain.InscripcionCurso;
 import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.security.SecurityUtils;
 import fi.uba.quechua.service.AlumnoService;
+import fi.uba.quechua.service.AsignacionVacantesService;
+import fi.uba.quechua.service.ColaInscripcionService;
+import fi.uba.quechua.service.IdempotenciaService;
 import fi.uba.quechua.service.CursoService;
 import fi.uba.quechua.service.InscripcionCursoService;
-import fi.uba.quechua.service.UserService;
+import fi.uba.quechua.service.OcupacionSemanalService;
+import fi.uba.quechua.service.PrioridadService;
+import fi.uba.quechua.service.ActorService;
+import fi.uba.quechua.service.dto.InscripcionCursoResumenDTO;
+import fi.uba.quechua.service.dto.ResultadoInscripcionDTO;
+import fi.uba.quechua.service.dto.TicketInscripcionDTO;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
 
 /**
  * REST controller for managing InscripcionCurso.
@@ -34,20 +50,45 @@ public class InscripcionCursoResource {
 
     private static final String ENTITY_NAME = "inscripcionCurso";
 
+    /**
+     * Header que se agrega cuando los horarios del curso se superponen con los de otro curso del alumno
+     * y la politica de superposicion es ADVERTIR.
+     */
+    public static final String SUPERPOSICION_HEADER = "X-quechuaApp-superposicion";
+
     private final InscripcionCursoService inscripcionCursoService;
 
     private final AlumnoService alumnoService;
 
-    private final UserService userService;
+    private final ActorService actorService;
 
     private final CursoService cursoService;
 
+    private final ColaInscripcionService colaInscripcionService;
+
+    private final AsignacionVacantesService asignacionVacantesService;
+
+    private final PrioridadService prioridadService;
+
+    private final IdempotenciaService idempotenciaService;
+
+    private final OcupacionSemanalService ocupacionSemanalService;
+
     public InscripcionCursoResource(InscripcionCursoService inscripcionCursoService, AlumnoService alumnoService,
-                                    CursoService cursoService, UserService userService) {
+                                    CursoService cursoService, ActorService actorService,
+                                    ColaInscripcionService colaInscripcionService,
+                                    AsignacionVacantesService asignacionVacantesService,
+                                    PrioridadService prioridadService, IdempotenciaService idempotenciaService,
+                                    OcupacionSemanalService ocupacionSemanalService) {
         this.inscripcionCursoService = inscripcionCursoService;
         this.alumnoService = alumnoService;
-        this.userService = userService;
+        this.actorService = actorService;
         this.cursoService = cursoService;
+        this.colaInscripcionService = colaInscripcionService;
+        this.asignacionVacantesService = asignacionVacantesService;
+        this.prioridadService = prioridadService;
+        this.idempotenciaService = idempotenciaService;
+        this.ocupacionSemanalService = ocupacionSemanalService;
     }
 
     /**
@@ -132,40 +173,157 @@ public class InscripcionCursoResource {
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString())).build();
     }
 
+    /**
+     * POST  /inscripcion-cursos/:cursoId : inscribe al alumno logueado en el curso.
+     * <p>
+     * Si la prioridad del alumno todavia no esta habilitada, responde 403 (Forbidden) con un header
+     * Retry-After con los segundos que faltan para su turno.
+     * Si la asignacion por prioridad esta habilitada, solo registra la intencion de inscripcion y responde
+     * 202 (Accepted); la vacante se asigna al cerrar la ventana de inscripcion.
+     * Si la cola de inscripciones esta habilitada, responde 202 (Accepted) con un ticket a consultar en
+     * GET /inscripcion-cursos/tickets/:ticketId, o 503 (Service Unavailable) si la cola esta llena.
+     * Si se envia el header Idempotency-Key, los reintentos con la misma clave reciben la respuesta original.
+     *
+     * @param cursoId the id of the curso
+     * @param idempotencyKey the Idempotency-Key header, optional
+     * @return the ResponseEntity with status 201 (Created) and with body the new inscripcionCurso
+     * @throws URISyntaxException if the Location URI syntax is incorrect
+     */
     @PostMapping("/inscripcion-cursos/{cursoId}")
     @Timed
-    public ResponseEntity<InscripcionCurso> inscribir(@PathVariable Long cursoId) throws URISyntaxException {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        log.debug("REST request to inscribir al alumno {} en el curso {}", userId, cursoId);
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
-        InscripcionCursoEstado estado = InscripcionCursoEstado.REGULAR;
+    public ResponseEntity<?> inscribir(@PathVariable Long cursoId,
+                                       @RequestHeader(value = IdempotenciaService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+        throws URISyntaxException {
+        return idempotenciaService.ejecutar(idempotencyKey, "inscripcion-cursos/" + cursoId, () -> inscribirAlumno(cursoId));
+    }
+
+    /**
+     * POST  /inscripcion-cursos/lote : inscribe al alumno logueado en varios cursos en una sola transaccion.
+     * <p>
+     * Con todoONada (por defecto) si algun curso no existe o el alumno ya esta inscripto, responde 400 (Bad Request)
+     * con el resultado por curso y no inscribe en ninguno; si no, inscribe en los cursos validos.
+     * Si se envia el header Idempotency-Key, los reintentos con la misma clave reciben la respuesta original.
+     *
+     * @param cursoIds the ids of the cursos
+     * @param todoONada whether to reject all the cursos if any of them is rejected
+     * @param idempotencyKey the Idempotency-Key header, optional
+     * @return the ResponseEntity with status 200 (OK) and with body the resultado por curso
+     * @throws URISyntaxException never, required by the Idempotency-Key handling
+     */
+    @PostMapping("/inscripcion-cursos/lote")
+    @Timed
+    public ResponseEntity<?> inscribirVarios(@RequestBody List<Long> cursoIds,
+                                             @RequestParam(defaultValue = "true") boolean todoONada,
+                                             @RequestHeader(value = IdempotenciaService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+        throws URISyntaxException {
+        if (cursoIds.isEmpty()) {
+            throw new BadRequestAlertException("No se indico ningun curso", ENTITY_NAME, "cursosvacios");
+        }
+        return idempotenciaService.ejecutar(idempotencyKey, "inscripcion-cursos/lote/" + new TreeSet<>(cursoIds) + "/" + todoONada,
+            () -> inscribirAlumnoEnVarios(cursoIds, todoONada));
+    }
+
+    private ResponseEntity<?> inscribirAlumnoEnVarios(List<Long> cursoIds, boolean todoONada) {
+        Instant ahora = Instant.now();
+        long espera = prioridadService.getCalendario().segundosHastaApertura(ahora);
+        if (espera > 0) {
+            return fueraDeTurno(espera);
+        }
+        log.debug("REST request to inscribir al alumno {} en los cursos {}", SecurityUtils.getCurrentUserLogin().orElse(null), cursoIds);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un alumno con id provisto", "Alumno", "idnoexists");
         }
+        espera = prioridadService.getCalendario().segundosHastaHabilitacion(alumno.get().getPrioridad(), ahora);
+        if (espera > 0) {
+            return fueraDeTurno(espera);
+        }
+        boolean advertir = controlarSuperposicion(ocupacionSemanalService.seSuperpone(alumno.get(), cursoIds));
+        List<ResultadoInscripcionDTO> resultados;
+        try {
+            resultados = inscripcionCursoService.inscribirVarios(alumno.get(), cursoIds, todoONada);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestAlertException("El alumno ya se encuentra inscripto a alguno de los cursos", "Curso", "idexists");
+        }
+        if (todoONada && resultados.stream().anyMatch(ResultadoInscripcionDTO::isRechazada)) {
+            return ResponseEntity.badRequest()
+                .headers(HeaderUtil.createFailureAlert(ENTITY_NAME, "cursosrechazados", "Alguno de los cursos fue rechazado"))
+                .body(resultados);
+        }
+        return advertirSuperposicion(ResponseEntity.ok(resultados), advertir);
+    }
+
+    private ResponseEntity<?> inscribirAlumno(Long cursoId) throws URISyntaxException {
+        Instant ahora = Instant.now();
+        long espera = prioridadService.getCalendario().segundosHastaApertura(ahora);
+        if (espera > 0) {
+            return fueraDeTurno(espera);
+        }
+        log.debug("REST request to inscribir al alumno {} en el curso {}", SecurityUtils.getCurrentUserLogin().orElse(null), cursoId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
+        if (!alumno.isPresent()) {
+            throw new BadRequestAlertException("No existe un alumno con id provisto", "Alumno", "idnoexists");
+        }
+        espera = prioridadService.getCalendario().segundosHastaHabilitacion(alumno.get().getPrioridad(), ahora);
+        if (espera > 0) {
+            return fueraDeTurno(espera);
+        }
         Optional<Curso> curso = cursoService.findOne(cursoId);
         if (!curso.isPresent()) {
             throw new BadRequestAlertException("No existe un curso con id provisto", "Curso", "idnoexists");
         }
 
-        List<InscripcionCurso> inscripciones = inscripcionCursoService.findAllRegularesByCurso(curso.get());
-        if (curso.get().getVacantes() <= inscripciones.size()) {
-            estado = InscripcionCursoEstado.CONDICIONAL;
+        if (inscripcionCursoService.isInscripto(curso.get(), alumno.get())) {
+            throw new BadRequestAlertException("El alumno ya se encuentra inscripto al curso", "Curso", "idexists");
         }
+        boolean advertir = controlarSuperposicion(
+            ocupacionSemanalService.seSuperpone(alumno.get(), Collections.singleton(cursoId)));
+        return advertirSuperposicion(inscribir(curso.get(), alumno.get()), advertir);
+    }
 
-        Optional<InscripcionCurso> inscripcionCurso = inscripcionCursoService.findByCursoAndAlumnoNoEliminada(curso.get(), alumno.get());
-        if (inscripcionCurso.isPresent()) {
+    private ResponseEntity<?> inscribir(Curso curso, Alumno alumno) throws URISyntaxException {
+        if (asignacionVacantesService.isEnabled()) {
+            asignacionVacantesService.registrarIntencion(curso, alumno);
+            return ResponseEntity.accepted()
+                .body(new ResultadoInscripcionDTO(curso.getId(), TicketInscripcionDTO.Estado.PENDIENTE, null));
+        }
+        if (colaInscripcionService.isEnabled()) {
+            String login = SecurityUtils.getCurrentUserLogin().get();
+            Optional<TicketInscripcionDTO> ticket = colaInscripcionService.encolar(curso, alumno, login);
+            if (!ticket.isPresent()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+            return ResponseEntity.accepted()
+                .location(new URI("/api/inscripcion-cursos/tickets/" + ticket.get().getId()))
+                .body(ticket.get());
+        }
+        InscripcionCurso result;
+        try {
+            result = inscripcionCursoService.inscribir(curso, alumno);
+        } catch (DataIntegrityViolationException e) {
             throw new BadRequestAlertException("El alumno ya se encuentra inscripto al curso", "Curso", "idexists");
         }
-        InscripcionCurso inscripcion = new InscripcionCurso();
-        inscripcion.setAlumno(alumno.get());
-        inscripcion.setCurso(curso.get());
-        inscripcion.estado(estado);
-        InscripcionCurso result = inscripcionCursoService.save(inscripcion);
         return ResponseEntity.created(new URI("/api/inscripcion-cursos/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("inscripcionCurso", result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * GET  /inscripcion-cursos/tickets/:ticketId : get the estado of an encolada inscripcion.
+     *
+     * @param ticketId the id of the ticket
+     * @param esperar milisegundos a esperar el resultado si todavia esta pendiente
+     * @return the ResponseEntity with status 200 (OK) and with body the ticket, or with status 404 (Not Found)
+     */
+    @GetMapping("/inscripcion-cursos/tickets/{ticketId}")
+    @Timed
+    public ResponseEntity<TicketInscripcionDTO> getTicket(@PathVariable String ticketId,
+                                                          @RequestParam(defaultValue = "0") long esperar) {
+        log.debug("REST request to get ticket de inscripcion : {}", ticketId);
+        String login = SecurityUtils.getCurrentUserLogin().get();
+        return ResponseUtil.wrapOrNotFound(colaInscripcionService.consultar(ticketId, login, esperar));
+    }
+
     @PostMapping("/inscripcion-cursos/{inscripcionCursoId}/accion/{accion:desinscribir|regularizar|rechazar}")
     public ResponseEntity<InscripcionCurso> cambiarEstadoInscripcion(
             @PathVariable Long inscripcionCursoId,
@@ -187,13 +345,68 @@ public class InscripcionCursoResource {
                 estado = InscripcionCursoEstado.ELIMINADA;
                 break;
         }
-        inscripcion.get().setEstado(estado);
-        InscripcionCurso result = inscripcionCursoService.save(inscripcion.get());
+        InscripcionCurso result = inscripcionCursoService.cambiarEstado(inscripcion.get(), estado);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert("inscripcionCurso", result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * POST  /inscripcion-cursos/:inscripcionCursoId/cambio/:cursoId : cambia la inscripcion del alumno logueado a otro
+     * curso de la misma materia, sin perder la vacante actual si el curso destino no tiene lugar.
+     *
+     * @param inscripcionCursoId the id of the inscripcionCurso vigente
+     * @param cursoId the id of the curso destino
+     * @return the ResponseEntity with status 200 (OK) and with body the new inscripcionCurso,
+     * or with status 400 (Bad Request) if the cambio is not valid or the curso destino has no vacantes
+     */
+    @PostMapping("/inscripcion-cursos/{inscripcionCursoId}/cambio/{cursoId}")
+    @Timed
+    public ResponseEntity<?> cambiarCurso(@PathVariable Long inscripcionCursoId, @PathVariable Long cursoId) {
+        log.debug("REST request to cambiar la inscripcion {} del alumno {} al curso {}", inscripcionCursoId, SecurityUtils.getCurrentUserLogin().orElse(null), cursoId);
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
+        if (!alumno.isPresent()) {
+            throw new BadRequestAlertException("No existe un alumno con id provisto", "Alumno", "idnoexists");
+        }
+        long espera = prioridadService.getCalendario().segundosHastaHabilitacion(alumno.get().getPrioridad(), Instant.now());
+        if (espera > 0) {
+            return fueraDeTurno(espera);
+        }
+        Optional<InscripcionCurso> inscripcion = inscripcionCursoService.findOne(inscripcionCursoId);
+        //Las relaciones pueden ser proxies (por ejemplo, si la inscripcion viene del cache): se comparan los ids
+        if (!inscripcion.isPresent() || inscripcion.get().getCurso() == null || inscripcion.get().getAlumno() == null
+            || !alumno.get().getId().equals(inscripcion.get().getAlumno().getId())
+            || inscripcion.get().getEstado() == InscripcionCursoEstado.ELIMINADA) {
+            throw new BadRequestAlertException("No existe la inscripcion con id provisto", ENTITY_NAME, "idnoexists");
+        }
+        Optional<Curso> curso = cursoService.findOne(cursoId);
+        if (!curso.isPresent()) {
+            throw new BadRequestAlertException("No existe un curso con id provisto", "Curso", "idnoexists");
+        }
+        Curso origen = inscripcion.get().getCurso();
+        if (origen.getId().equals(cursoId) || origen.getMateria() == null || curso.get().getMateria() == null
+            || !origen.getMateria().getId().equals(curso.get().getMateria().getId())) {
+            throw new BadRequestAlertException("Solo se puede cambiar a otro curso de la misma materia", "Curso", "materiadistinta");
+        }
+        if (inscripcionCursoService.isInscripto(curso.get(), alumno.get())) {
+            throw new BadRequestAlertException("El alumno ya se encuentra inscripto al curso", "Curso", "idexists");
+        }
+        boolean advertir = controlarSuperposicion(
+            ocupacionSemanalService.seSuperponeCambio(alumno.get(), origen.getId(), cursoId));
+        Optional<InscripcionCurso> result;
+        try {
+            result = inscripcionCursoService.cambiarCurso(inscripcion.get(), curso.get());
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestAlertException("El alumno ya se encuentra inscripto al curso", "Curso", "idexists");
+        }
+        if (!result.isPresent()) {
+            throw new BadRequestAlertException("El curso no tiene vacantes", "Curso", "sinvacantes");
+        }
+        return advertirSuperposicion(ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, result.get().getId().toString()))
+            .body(result.get()), advertir);
+    }
+
     /**
      * GET  /inscripcion-cursos/byAlumno : get all the inscripcionCursos by Alumno.
      *
@@ -201,23 +414,48 @@ public class InscripcionCursoResource {
      */
     @GetMapping("/inscripcion-cursos/byAlumno")
     @Timed
-    public List<InscripcionCurso> getAllInscripcionCursosByAlumno() {
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        log.debug("REST request to get all InscripcionCursos by Almuno {}", userId);
-        Optional<Alumno> alumno = alumnoService.findOneByUserId(userId);
+    public List<InscripcionCursoResumenDTO> getAllInscripcionCursosByAlumno() {
+        log.debug("REST request to get all InscripcionCursos by Almuno {}", SecurityUtils.getCurrentUserLogin().orElse(null));
+        Optional<Alumno> alumno = actorService.getAlumnoActual();
         if (!alumno.isPresent()) {
             throw new BadRequestAlertException("No existe un alumno con id provisto", "Alumno", "idnoexists");
         }
 
-        List<InscripcionCurso> inscripciones = inscripcionCursoService.findAllActivasByAlumno(alumno.get());
-        for (InscripcionCurso inscripcion: inscripciones ) {
-            Optional<Curso> curso = cursoService.findOneWithHorarios(inscripcion.getCurso().getId());
-            if (curso.isPresent()) {
-                inscripcion.setCurso(curso.get());
-            }
+        return inscripcionCursoService.findAllActivasByAlumno(alumno.get());
+    }
+
+    /**
+     * Aplica la politica de superposicion horaria.
+     *
+     * @return true si hay que advertir la superposicion en la respuesta
+     * @throws BadRequestAlertException si hay superposicion y la politica es RECHAZAR
+     */
+    private boolean controlarSuperposicion(boolean superpuesto) {
+        if (!superpuesto) {
+            return false;
         }
+        if (ocupacionSemanalService.getPolitica() == ApplicationProperties.Inscripcion.Superposicion.Politica.RECHAZAR) {
+            throw new BadRequestAlertException("Los horarios del curso se superponen con los de otro curso del alumno",
+                "Curso", "horariosuperpuesto");
+        }
+        return true;
+    }
 
-        return inscripciones;
+    private static ResponseEntity<?> advertirSuperposicion(ResponseEntity<?> respuesta, boolean advertir) {
+        if (!advertir) {
+            return respuesta;
+        }
+        return ResponseEntity.status(respuesta.getStatusCode())
+            .headers(respuesta.getHeaders())
+            .header(SUPERPOSICION_HEADER, "true")
+            .body(respuesta.getBody());
     }
 
+    private ResponseEntity<?> fueraDeTurno(long segundos) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(segundos))
+            .headers(HeaderUtil.createFailureAlert(ENTITY_NAME, "prioridadnohabilitada",
+                "La prioridad del alumno todavia no esta habilitada"))
+            .build();
+    }
 }
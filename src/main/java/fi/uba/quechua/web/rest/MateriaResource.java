@@ -3,7 +3,7 @@ package fi.uba.quechua.web.rest;
 import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.Carrera;
 import fi.uba.quechua.domain.Materia;
-import fi.uba.quechua.repository.CarreraRepository;
+import fi.uba.quechua.service.DatosReferenciaService;
 import fi.uba.quechua.service.MateriaService;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
@@ -33,11 +33,11 @@ public class MateriaResource {
 
     private final MateriaService materiaService;
 
-    private CarreraRepository carreraRepository;
+    private final DatosReferenciaService datosReferenciaService;
 
-    public MateriaResource(MateriaService materiaService, CarreraRepository carreraRepository) {
+    public MateriaResource(MateriaService materiaService, DatosReferenciaService datosReferenciaService) {
         this.materiaService = materiaService;
-        this.carreraRepository = carreraRepository;
+        this.datosReferenciaService = datosReferenciaService;
     }
 
     /**
@@ -132,7 +132,7 @@ public class MateriaResource {
     public List<Materia> getMateriasByFilter(@RequestParam(name="carrera") Long carreraId,
                                              @RequestParam(name="query", defaultValue = "") String query) {
         log.debug("REST request to get all Materias");
-        Optional<Carrera> carrera = carreraRepository.findById(carreraId);
+        Optional<Carrera> carrera = datosReferenciaService.getDatos().getCarrera(carreraId);
         return materiaService.findByFilter(carrera.get(), query);
     }
 }
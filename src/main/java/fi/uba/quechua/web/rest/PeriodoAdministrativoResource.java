@@ -4,11 +4,15 @@ import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.PeriodoAdministrativo;
 import fi.uba.quechua.domain.enumeration.PeriodoActividad;
 import fi.uba.quechua.service.PeriodoAdministrativoService;
+import fi.uba.quechua.service.VersionesService;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
+import fi.uba.quechua.web.rest.util.ETagUtil;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +20,7 @@ import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,8 +37,11 @@ public class PeriodoAdministrativoResource {
 
     private final PeriodoAdministrativoService periodoAdministrativoService;
 
-    public PeriodoAdministrativoResource(PeriodoAdministrativoService periodoAdministrativoService) {
+    private final VersionesService versionesService;
+
+    public PeriodoAdministrativoResource(PeriodoAdministrativoService periodoAdministrativoService, VersionesService versionesService) {
         this.periodoAdministrativoService = periodoAdministrativoService;
+        this.versionesService = versionesService;
     }
 
     /**
@@ -121,24 +129,45 @@ public class PeriodoAdministrativoResource {
     /**
      * GET  /periodo-administrativos : get all the Actividades disponibles en la fecha actual.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of PeriodoActividad in body
+     * @param ifNoneMatch the If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and the list of PeriodoActividad in body,
+     * or with status 304 (Not Modified) if the actividades did not change
      */
     @GetMapping("/periodo-administrativos/acciones")
     @Timed
-    public List<PeriodoActividad> getAccionesDisponibles() {
+    public ResponseEntity<List<PeriodoActividad>> getAccionesDisponibles(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Acciones disponibles en la fecha actual");
-        return periodoAdministrativoService.getActividadesDisponibles();
+        String etag = getEtagDisponibles("acciones");
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return ETagUtil.notModified(etag, CacheControl.noCache().cachePrivate());
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+            .body(periodoAdministrativoService.getActividadesDisponibles());
     }
 
     /**
      * GET  /periodo-administrativos/periodos : get all the Periodos Administrativos disponibles en la fecha actual.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of PeriodoAdministrativo in body
+     * @param ifNoneMatch the If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and the list of PeriodoAdministrativo in body,
+     * or with status 304 (Not Modified) if the periodos did not change
      */
     @GetMapping("/periodo-administrativos/periodos")
     @Timed
-    public List<PeriodoAdministrativo> getPeriodosAdministrativosDisponibles() {
+    public ResponseEntity<List<PeriodoAdministrativo>> getPeriodosAdministrativosDisponibles(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Acciones disponibles en la fecha actual");
-        return periodoAdministrativoService.getPeriodosAdministrativosDisponibles();
-    }    
+        String etag = getEtagDisponibles("periodos");
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return ETagUtil.notModified(etag, CacheControl.noCache().cachePrivate());
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+            .body(periodoAdministrativoService.getPeriodosAdministrativosDisponibles());
+    }
+
+    /**
+     * Lo disponible depende de la fecha, asi que el ETag cambia tambien al cambiar el dia.
+     */
+    private String getEtagDisponibles(String recurso) {
+        return versionesService.getEtag(recurso + "-" + LocalDate.now(), PeriodoAdministrativo.class);
+    }
 }
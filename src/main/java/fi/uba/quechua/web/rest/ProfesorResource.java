@@ -1,10 +1,10 @@
 package fi.uba.quechua.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
-import fi.uba.quechua.domain.Curso;
 import fi.uba.quechua.domain.Profesor;
 import fi.uba.quechua.repository.ProfesorRepository;
 import fi.uba.quechua.service.*;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -34,14 +34,14 @@ public class ProfesorResource {
 
     private final ProfesorRepository profesorRepository;
 
-    private final UserService userService;
+    private final ActorService actorService;
 
     private final CursoService cursoService;
 
-    public ProfesorResource(ProfesorRepository profesorRepository, UserService userService,
+    public ProfesorResource(ProfesorRepository profesorRepository, ActorService actorService,
                             CursoService cursoService) {
         this.profesorRepository = profesorRepository;
-        this.userService = userService;
+        this.actorService = actorService;
         this.cursoService = cursoService;
     }
 
@@ -134,10 +134,9 @@ public class ProfesorResource {
      */
     @GetMapping("/profesors/cursos")
     @Timed
-    public List<Curso> getAllCursadasByProfesor() {
+    public List<CursoResumenDTO> getAllCursadasByProfesor() {
         log.debug("REST request to get all Cursadas");
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Profesor> profesor = profesorRepository.findByUserId(userId);
+        Optional<Profesor> profesor = actorService.getProfesorActual();
         if (!profesor.isPresent()) {
             throw new BadRequestAlertException("No existe un Profesor asociado al usuario logueado", ENTITY_NAME, "idnoexists");
         }
@@ -153,8 +152,7 @@ public class ProfesorResource {
     @Timed
     public ResponseEntity<Profesor> getAlumnoByUser() {
         log.debug("REST request to get Alumno by user");
-        Long userId = userService.getUserWithAuthorities().get().getId();
-        Optional<Profesor> profesor = profesorRepository.findByUserId(userId);
+        Optional<Profesor> profesor = actorService.getProfesorActual();
         return ResponseUtil.wrapOrNotFound(profesor);
     }
 }
@@ -6,18 +6,26 @@ import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
 import fi.uba.quechua.service.*;
 import fi.uba.quechua.service.dto.CursoDTO;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
+import fi.uba.quechua.web.rest.util.ETagUtil;
 import fi.uba.quechua.web.rest.util.HeaderUtil;
+import fi.uba.quechua.web.websocket.VacantesService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.LinkedList;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/public")
@@ -33,72 +41,102 @@ public class PublicResource {
 
     private final InscripcionCursoService inscripcionCursoService;
 
-    private final PeriodoService periodoService;
+    private final CatalogoPublicoService catalogoPublicoService;
+
+    private final VersionesService versionesService;
+
+    private final VacantesService vacantesService;
 
     public PublicResource(CursoService cursoService, MateriaService materiaService, AlumnoService alumnoService,
-                          InscripcionCursoService inscripcionCursoService, PeriodoService periodoService) {
+                          InscripcionCursoService inscripcionCursoService, CatalogoPublicoService catalogoPublicoService,
+                          VersionesService versionesService, VacantesService vacantesService) {
         this.cursoService = cursoService;
         this.materiaService = materiaService;
         this.alumnoService = alumnoService;
         this.inscripcionCursoService = inscripcionCursoService;
-        this.periodoService = periodoService;
+        this.catalogoPublicoService = catalogoPublicoService;
+        this.versionesService = versionesService;
+        this.vacantesService = vacantesService;
     }
 
     /**
      * GET  /cursos : get all the cursos.
+     * <p>
+     * Se sirve desde el catalogo precalculado, comprimido con gzip si el cliente lo acepta.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of cursos in body
+     * @param acceptEncoding the Accept-Encoding header
+     * @param ifNoneMatch the If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and the list of cursos in body,
+     * or with status 304 (Not Modified) if the catalogo did not change
      */
     @GetMapping("/cursos")
     @Timed
-    public List<CursoDTO> getAllCursos() {
+    public ResponseEntity<byte[]> getAllCursos(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Cursos");
-        List<Curso> cursos = cursoService.findAllWithHorarios();
-        List<CursoDTO> cursoDTOS = new LinkedList<>();
-        for (Curso curso: cursos) {
-            List<InscripcionCurso> inscripciones = inscripcionCursoService.findByCurso(curso);
-            cursoDTOS.add(new CursoDTO(curso, inscripciones));
-        }
-        return cursoDTOS;
+        return responder(catalogoPublicoService.getCursos(), acceptEncoding, ifNoneMatch);
     }
 
     /**
-     * GET  /cursos : get all the cursos.
+     * GET  /materias/:materiaId/cursos : get all the cursos de la materia en el periodo actual.
+     * <p>
+     * Se sirve desde el catalogo precalculado, comprimido con gzip si el cliente lo acepta.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of cursos in body
+     * @param materiaId the id of the materia
+     * @param acceptEncoding the Accept-Encoding header
+     * @param ifNoneMatch the If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and the list of cursos in body,
+     * or with status 304 (Not Modified) if the cursos did not change
      */
     @GetMapping("/materias/{materiaId}/cursos")
     @Timed
-    public List<CursoDTO> getCursosByMateria(@PathVariable Long materiaId) {
+    public ResponseEntity<byte[]> getCursosByMateria(@PathVariable Long materiaId,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Cursos de la materia {}", materiaId);
+        Optional<CatalogoPublicoService.Json> cursos = catalogoPublicoService.getCursosDeMateria(materiaId);
+        if (cursos.isPresent()) {
+            return responder(cursos.get(), acceptEncoding, ifNoneMatch);
+        }
         Optional<Materia> materia = materiaService.findOne(materiaId);
         if (!materia.isPresent()) {
             throw new BadRequestAlertException("No existe una Materia con id provisto", "Materia", "idnoexists");
         }
-        //Si no existe un periodo actual, por lo tanto no existen cursos
-        Optional<Periodo> periodo = periodoService.findPeriodoActual();
-        if (!periodo.isPresent()) {
-            return new LinkedList<>();
-        }
-        List<Curso> cursos = cursoService.findByMateriaWithHorariosEnPeriodo(materia.get(), periodo.get());
-        List<CursoDTO> cursoDTOS = new LinkedList<>();
-        for (Curso curso: cursos) {
-            List<InscripcionCurso> inscripciones = inscripcionCursoService.findByCurso(curso);
-            cursoDTOS.add(new CursoDTO(curso, inscripciones));
-        }
-        return cursoDTOS;
+        //La materia no tiene cursos en el periodo actual, o no existe un periodo actual
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body("[]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * GET  /materias/:materiaId/vacantes : recibe los cambios de vacantes de los cursos de la materia.
+     * <p>
+     * Alternativa por SSE a suscribirse a /topic/vacantes/:materiaId, para los clientes sin WebSocket.
+     *
+     * @param materiaId the id of the materia
+     * @return the emitter, que envia eventos "vacantes" con la lista de cursos cuyas vacantes cambiaron
+     */
+    @GetMapping(value = "/materias/{materiaId}/vacantes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getVacantesByMateria(@PathVariable Long materiaId) {
+        log.debug("REST request to subscribe to Vacantes de la materia {}", materiaId);
+        return vacantesService.suscribir(materiaId);
     }
 
     /**
      * GET  /materias : get all the materias.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of materias in body
+     * @param ifNoneMatch the If-None-Match header
+     * @return the ResponseEntity with status 200 (OK) and the list of materias in body,
+     * or with status 304 (Not Modified) if the materias did not change
      */
     @GetMapping("/materias")
     @Timed
-    public List<Materia> getAllMaterias() {
+    public ResponseEntity<List<Materia>> getAllMaterias(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Materias");
-        return materiaService.findAll();
+        String etag = versionesService.getEtag("materias", Materia.class, Departamento.class, Carrera.class);
+        CacheControl cacheControl = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return ETagUtil.notModified(etag, cacheControl);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(materiaService.findAll());
     }
 
     /**
@@ -118,14 +156,33 @@ public class PublicResource {
         return new CursoDTO(curso.get(), inscripciones);
     }
 
+    private static ResponseEntity<byte[]> responder(CatalogoPublicoService.Json json, String acceptEncoding, String ifNoneMatch) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? json.getEtagGzip() : json.getEtag();
+        //El catalogo cambia con cada inscripcion: el cliente puede guardarlo pero debe revalidarlo siempre
+        CacheControl cacheControl = CacheControl.noCache().cachePublic();
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON_UTF8)
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.getGzip());
+        }
+        return respuesta.body(json.getContenido());
+    }
+
     @PostMapping("/inscripcion-cursos/{inscripcionCursoId}/regularizar")
     public ResponseEntity<InscripcionCurso> regularizarInscripcion(@PathVariable Long inscripcionCursoId) {
         Optional<InscripcionCurso> inscripcion = inscripcionCursoService.findOne(inscripcionCursoId);
         if (!inscripcion.isPresent()) {
             throw new BadRequestAlertException("No existe la inscripcion con id provisto", "InscripcionCurso", "idnoexists");
         }
-        inscripcion.get().setEstado(InscripcionCursoEstado.REGULAR);
-        InscripcionCurso result = inscripcionCursoService.save(inscripcion.get());
+        InscripcionCurso result = inscripcionCursoService.cambiarEstado(inscripcion.get(), InscripcionCursoEstado.REGULAR);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert("inscripcionCurso", result.getId().toString()))
             .body(result);
@@ -0,0 +1,51 @@
+package fi.uba.quechua.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import fi.uba.quechua.security.SecurityUtils;
+import fi.uba.quechua.service.SalaEsperaService;
+import fi.uba.quechua.service.dto.TurnoSalaEsperaDTO;
+import fi.uba.quechua.web.filter.SalaEsperaFilter;
+import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
+
+/**
+ * REST controller for consulting the turno en la sala de espera.
+ */
+@RestController
+@RequestMapping("/public")
+public class SalaEsperaResource {
+
+    private final Logger log = LoggerFactory.getLogger(SalaEsperaResource.class);
+
+    private final SalaEsperaService salaEsperaService;
+
+    public SalaEsperaResource(SalaEsperaService salaEsperaService) {
+        this.salaEsperaService = salaEsperaService;
+    }
+
+    /**
+     * GET  /sala-espera : get the posicion y espera estimada del turno enviado en el header X-Sala-Espera.
+     *
+     * @param turno the turno firmado
+     * @param request the request, para identificar al cliente sin usuario
+     * @return the turno con su posicion
+     */
+    @GetMapping("/sala-espera")
+    @Timed
+    public TurnoSalaEsperaDTO getTurno(@RequestHeader(SalaEsperaFilter.SALA_ESPERA_HEADER) String turno, HttpServletRequest request) {
+        log.debug("REST request to get turno en la sala de espera");
+        String cliente = SecurityUtils.isAuthenticated()
+            ? SalaEsperaService.clienteUsuario(SecurityUtils.getCurrentUserLogin().orElse(null))
+            : SalaEsperaService.clienteAnonimo(request.getRemoteAddr());
+        Optional<TurnoSalaEsperaDTO> result = salaEsperaService.consultar(turno, cliente);
+        if (!result.isPresent()) {
+            throw new BadRequestAlertException("El turno no es valido o esta vencido", "SalaEspera", "turnoinvalido");
+        }
+        return result.get();
+    }
+}
@@ -1,7 +1,9 @@
 package fi.uba.quechua.web.rest;
 
+import fi.uba.quechua.security.SecurityUtils;
 import fi.uba.quechua.security.jwt.JWTConfigurer;
 import fi.uba.quechua.security.jwt.TokenProvider;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.web.rest.vm.LoginVM;
 
 import com.codahale.metrics.annotation.Timed;
@@ -29,9 +31,13 @@ public class UserJWTController {
 
     private final AuthenticationManager authenticationManager;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManager authenticationManager) {
+    private final ActorService actorService;
+
+    public UserJWTController(TokenProvider tokenProvider, AuthenticationManager authenticationManager,
+                             ActorService actorService) {
         this.tokenProvider = tokenProvider;
         this.authenticationManager = authenticationManager;
+        this.actorService = actorService;
     }
 
     @PostMapping("/authenticate")
@@ -44,12 +50,24 @@ public class UserJWTController {
         Authentication authentication = this.authenticationManager.authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         boolean rememberMe = (loginVM.isRememberMe() == null) ? false : loginVM.isRememberMe();
-        String jwt = tokenProvider.createToken(authentication, rememberMe);
+        String jwt = tokenProvider.createToken(authentication, rememberMe, actorService.resolver(authentication.getName()));
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTConfigurer.AUTHORIZATION_HEADER, "Bearer " + jwt);
         return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
     }
 
+    /**
+     * POST  /logout : revoke the JWT used in this request, so it can not be used again until it expires.
+     *
+     * @return the ResponseEntity with status 200 (OK)
+     */
+    @PostMapping("/logout")
+    @Timed
+    public ResponseEntity<Void> logout() {
+        SecurityUtils.getCurrentUserJWT().ifPresent(tokenProvider::revoke);
+        return ResponseEntity.ok().build();
+    }
+
     /**
      * Object to return as body in JWT Authentication.
      */
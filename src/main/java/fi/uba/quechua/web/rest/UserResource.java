@@ -5,7 +5,6 @@ import com.codahale.metrics.annotation.Timed;
 import fi.uba.quechua.domain.User;
 import fi.uba.quechua.repository.UserRepository;
 import fi.uba.quechua.security.AuthoritiesConstants;
-import fi.uba.quechua.service.MailService;
 import fi.uba.quechua.service.UserService;
 import fi.uba.quechua.service.dto.UserDTO;
 import fi.uba.quechua.web.rest.errors.BadRequestAlertException;
@@ -64,13 +63,10 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
 
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -100,7 +96,6 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity.created(new URI("/api/users/" + newUser.getLogin()))
                 .headers(HeaderUtil.createAlert( "A user is created with identifier " + newUser.getLogin(), newUser.getLogin()))
                 .body(newUser);
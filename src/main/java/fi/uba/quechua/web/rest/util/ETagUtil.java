@@ -0,0 +1,47 @@
+package fi.uba.quechua.web.rest.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Utility class for conditional responses (ETag / If-None-Match).
+ */
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Indica si alguno de los ETags de un If-None-Match corresponde al ETag actual.
+     * <p>
+     * La comparacion es debil, como pide la RFC 7232 para If-None-Match: se ignora el prefijo W/.
+     *
+     * @param ifNoneMatch the If-None-Match header, may be null
+     * @param etag the current ETag, with quotes
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String actual = sinPrefijoDebil(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            candidato = candidato.trim();
+            if ("*".equals(candidato) || sinPrefijoDebil(candidato).equals(actual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Respuesta 304 (Not Modified), con los mismos ETag y Cache-Control que tendria la respuesta completa.
+     */
+    public static <X> ResponseEntity<X> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    private static String sinPrefijoDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
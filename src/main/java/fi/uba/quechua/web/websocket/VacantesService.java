@@ -0,0 +1,172 @@
+package fi.uba.quechua.web.websocket;
+
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.enumeration.CursoEstado;
+import fi.uba.quechua.repository.CursoRepository;
+import fi.uba.quechua.service.CursoModificadoEvent;
+import fi.uba.quechua.service.InscripcionCursoService;
+import fi.uba.quechua.web.websocket.dto.VacanteDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Supplier;
+
+/**
+ * Envia las vacantes disponibles de los cursos cuando cambian, para que los alumnos no tengan que consultar
+ * el catalogo repetidamente durante la inscripcion.
+ * <p>
+ * Los cambios confirmados se acumulan y se envian cada 250 ms, agrupados por materia, a /topic/vacantes/:materiaId
+ * y a los clientes suscriptos por SSE. Solo se envian los cursos cuyas vacantes disponibles cambiaron desde el
+ * ultimo envio. Un curso eliminado se envia una ultima vez, con 0 vacantes disponibles.
+ * <p>
+ * Los clientes SSE reciben un comentario cada 15 segundos, para que los proxies no cierren la conexion y para
+ * descartar los que se desconectaron sin que haya cambios que enviarles.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VacantesService {
+
+    public static final String TOPIC = "/topic/vacantes/";
+
+    static final long SSE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    static final long LATIDO_MILLIS = 15 * 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(VacantesService.class);
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final CursoRepository cursoRepository;
+
+    private final InscripcionCursoService inscripcionCursoService;
+
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, Long> eliminados = new ConcurrentHashMap<>();
+
+    private volatile boolean todos;
+
+    private final Map<Long, Integer> enviadas = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<SseEmitter>> emisores = new ConcurrentHashMap<>();
+
+    public VacantesService(SimpMessageSendingOperations messagingTemplate, CursoRepository cursoRepository,
+                           InscripcionCursoService inscripcionCursoService) {
+        this.messagingTemplate = messagingTemplate;
+        this.cursoRepository = cursoRepository;
+        this.inscripcionCursoService = inscripcionCursoService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCursoModificado(CursoModificadoEvent event) {
+        if (event.getCursoId() == null) {
+            todos = true;
+        } else if (event.getMateriaEliminadoId() != null) {
+            eliminados.put(event.getCursoId(), event.getMateriaEliminadoId());
+        } else {
+            pendientes.add(event.getCursoId());
+        }
+    }
+
+    /**
+     * Suscribe un cliente SSE a los cambios de vacantes de los cursos de la materia.
+     *
+     * @param materiaId the id of the materia
+     * @return the emitter, que envia eventos "vacantes" con la lista de cambios
+     */
+    public SseEmitter suscribir(Long materiaId) {
+        SseEmitter emisor = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        Set<SseEmitter> deLaMateria = emisores.computeIfAbsent(materiaId, id -> new CopyOnWriteArraySet<>());
+        deLaMateria.add(emisor);
+        Runnable quitar = () -> deLaMateria.remove(emisor);
+        emisor.onCompletion(quitar);
+        emisor.onTimeout(quitar);
+        emisor.onError(error -> quitar.run());
+        return emisor;
+    }
+
+    /**
+     * Envia un comentario a los clientes SSE y descarta los que ya no estan conectados.
+     * <p>
+     * This is scheduled to get fired every 15 seconds.
+     */
+    @Scheduled(fixedDelay = LATIDO_MILLIS)
+    public void latir() {
+        emisores.values().forEach(deLaMateria -> enviar(deLaMateria, () -> SseEmitter.event().comment("latido")));
+    }
+
+    /**
+     * Envia las vacantes de los cursos modificados desde el ultimo envio.
+     * <p>
+     * This is scheduled to get fired every 250 ms.
+     */
+    @Scheduled(fixedDelay = 250)
+    public void enviar() {
+        Map<Long, List<VacanteDTO>> porMateria = new HashMap<>();
+        for (Long cursoId : new ArrayList<>(eliminados.keySet())) {
+            Long materiaId = eliminados.remove(cursoId);
+            pendientes.remove(cursoId);
+            enviadas.remove(cursoId);
+            porMateria.computeIfAbsent(materiaId, id -> new ArrayList<>()).add(new VacanteDTO(cursoId, 0));
+        }
+        List<Curso> cursos;
+        if (todos) {
+            todos = false;
+            pendientes.clear();
+            cursos = cursoRepository.findAllByEstado(CursoEstado.ACTIVO);
+        } else if (!pendientes.isEmpty()) {
+            List<Long> cursoIds = new ArrayList<>(pendientes);
+            pendientes.removeAll(cursoIds);
+            cursos = cursoRepository.findAllById(cursoIds);
+        } else {
+            cursos = Collections.emptyList();
+        }
+        Map<Long, Long> inscriptos = cursos.isEmpty() ? Collections.emptyMap() : inscripcionCursoService.contarInscriptos(cursos);
+        for (Curso curso : cursos) {
+            if (curso.getMateria() == null) {
+                continue;
+            }
+            int disponibles = curso.getEstado() == CursoEstado.ACTIVO
+                ? (int) Math.max(0, curso.getVacantes() - inscriptos.getOrDefault(curso.getId(), 0L)) : 0;
+            Integer anterior = enviadas.put(curso.getId(), disponibles);
+            if (anterior == null || anterior != disponibles) {
+                porMateria.computeIfAbsent(curso.getMateria().getId(), id -> new ArrayList<>())
+                    .add(new VacanteDTO(curso.getId(), disponibles));
+            }
+        }
+        porMateria.forEach(this::enviar);
+    }
+
+    private void enviar(Long materiaId, List<VacanteDTO> vacantes) {
+        log.debug("Enviando vacantes de la materia {}: {}", materiaId, vacantes);
+        messagingTemplate.convertAndSend(TOPIC + materiaId, vacantes);
+        Set<SseEmitter> deLaMateria = emisores.get(materiaId);
+        if (deLaMateria != null) {
+            enviar(deLaMateria, () -> SseEmitter.event().name("vacantes").data(vacantes));
+        }
+    }
+
+    /**
+     * El builder de cada evento acumula el texto al enviarse, asi que se arma uno por cliente.
+     */
+    private void enviar(Set<SseEmitter> deLaMateria, Supplier<SseEmitter.SseEventBuilder> evento) {
+        for (SseEmitter emisor : deLaMateria) {
+            try {
+                emisor.send(evento.get());
+            } catch (IOException | IllegalStateException e) {
+                //El cliente se desconecto
+                deLaMateria.remove(emisor);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package fi.uba.quechua.web.websocket.dto;
+
+/**
+ * DTO for the vacantes disponibles de un curso, enviado cuando cambian.
+ */
+public class VacanteDTO {
+
+    private Long cursoId;
+
+    private Integer vacantesDisponibles;
+
+    public VacanteDTO() {
+    }
+
+    public VacanteDTO(Long cursoId, Integer vacantesDisponibles) {
+        this.cursoId = cursoId;
+        this.vacantesDisponibles = vacantesDisponibles;
+    }
+
+    public Long getCursoId() {
+        return cursoId;
+    }
+
+    public void setCursoId(Long cursoId) {
+        this.cursoId = cursoId;
+    }
+
+    public Integer getVacantesDisponibles() {
+        return vacantesDisponibles;
+    }
+
+    public void setVacantesDisponibles(Integer vacantesDisponibles) {
+        this.vacantesDisponibles = vacantesDisponibles;
+    }
+
+    @Override
+    public String toString() {
+        return "VacanteDTO{" +
+            "cursoId=" + cursoId +
+            ", vacantesDisponibles=" + vacantesDisponibles +
+            '}';
+    }
+}
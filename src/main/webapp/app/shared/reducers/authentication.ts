@@ -125,7 +125,13 @@ export const clearAuthToken = () => {
   }
 };
 
-export const logout = () => dispatch => {
+export const logout = () => async dispatch => {
+  try {
+    // The server revokes the token sent with this request, so it has to be removed afterwards
+    await axios.post('api/logout');
+  } catch (e) {
+    // An expired or already revoked token can not be used anyway
+  }
   clearAuthToken();
   dispatch({
     type: ACTION_TYPES.LOGOUT
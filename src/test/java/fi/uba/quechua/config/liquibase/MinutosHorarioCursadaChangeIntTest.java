@@ -0,0 +1,58 @@
+package fi.uba.quechua.config.liquibase;
+
+import fi.uba.quechua.QuechuaApp;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the MinutosHorarioCursadaChange.
+ *
+ * @see MinutosHorarioCursadaChange
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class MinutosHorarioCursadaChangeIntTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void assertThatLosFormatosQueNoEntiendeElSqlSeCompletan() throws Exception {
+        insertar(-1L, "19.15", "22hs");
+        insertar(-2L, "AAAAAAAAAA", "BBBBBBBBBB");
+
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(
+            new JdbcConnection(DataSourceUtils.getConnection(dataSource)));
+        new MinutosHorarioCursadaChange().execute(database);
+
+        Map<String, Object> completado = jdbcTemplate.queryForMap("SELECT minuto_inicio, minuto_fin FROM horario_cursada WHERE id = -1");
+        assertThat(completado.get("minuto_inicio")).isEqualTo(1155);
+        assertThat(completado.get("minuto_fin")).isEqualTo(1320);
+        Map<String, Object> invalido = jdbcTemplate.queryForMap("SELECT minuto_inicio, minuto_fin FROM horario_cursada WHERE id = -2");
+        assertThat(invalido.get("minuto_inicio")).isNull();
+        assertThat(invalido.get("minuto_fin")).isNull();
+    }
+
+    private void insertar(Long id, String inicio, String fin) {
+        jdbcTemplate.update("INSERT INTO horario_cursada (id, dia, sede, aula, hora_inicio, hora_fin) VALUES (?, 'LUNES', 'PC', '100', ?, ?)",
+            id, inicio, fin);
+    }
+}
@@ -0,0 +1,137 @@
+package fi.uba.quechua.firebase;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.auth.oauth2.AccessToken;
+import com.sun.net.httpserver.HttpServer;
+import fi.uba.quechua.config.ApplicationProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the FirebaseDispatcher, against a local stand-in for the FCM HTTP API.
+ *
+ * @see FirebaseDispatcher
+ */
+public class FirebaseDispatcherUnitTest {
+
+    private HttpServer servidor;
+
+    private final Queue<Integer> respuestas = new ConcurrentLinkedQueue<>();
+
+    private final List<String> recibidos = new CopyOnWriteArrayList<>();
+
+    private final List<String> autorizaciones = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger renovaciones = new AtomicInteger();
+
+    private MetricRegistry metricRegistry;
+
+    private ApplicationProperties.Firebase config;
+
+    private FirebaseDispatcher dispatcher;
+
+    @Before
+    public void init() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/v1/projects/test/messages:send", exchange -> {
+            recibidos.add(leer(exchange.getRequestBody()));
+            autorizaciones.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            Integer status = respuestas.poll();
+            byte[] cuerpo = "{\"name\":\"projects/test/messages/1\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status == null ? 200 : status, cuerpo.length);
+            try (OutputStream salida = exchange.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+
+        config = new ApplicationProperties.Firebase();
+        config.setEnabled(true);
+        config.setProjectId("test");
+        config.setUrl("http://localhost:" + servidor.getAddress().getPort());
+        metricRegistry = new MetricRegistry();
+        dispatcher = new FirebaseDispatcher(config, metricRegistry,
+            () -> new AccessToken("token-" + renovaciones.incrementAndGet(), new Date(System.currentTimeMillis() + 3600000)));
+        dispatcher.iniciar();
+    }
+
+    @After
+    public void destroy() {
+        dispatcher.detener();
+        servidor.stop(0);
+    }
+
+    @Test
+    public void testEnviaConElAccessTokenGuardado() {
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isEqualTo(FirebaseDispatcher.Resultado.ENVIADO);
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "dispositivo-2")).isEqualTo(FirebaseDispatcher.Resultado.ENVIADO);
+
+        assertThat(recibidos.get(0)).contains("\"token\":\"dispositivo-1\"").contains("\"title\":\"Final Eliminado\"");
+        assertThat(autorizaciones).containsOnly("Bearer token-1");
+        assertThat(renovaciones.get()).isEqualTo(1);
+        assertThat(metricRegistry.getTimers().get(MetricRegistry.name(FirebaseDispatcher.class, "latencia")).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRenuevaElAccessTokenDespuesDeUn401() {
+        respuestas.add(401);
+
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isEqualTo(FirebaseDispatcher.Resultado.FALLIDO);
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isEqualTo(FirebaseDispatcher.Resultado.ENVIADO);
+
+        assertThat(autorizaciones).containsExactly("Bearer token-1", "Bearer token-2");
+    }
+
+    @Test
+    public void testRechazaLosMensajesQueFcmNoAcepta() {
+        respuestas.add(404);
+
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "no-registrado")).isEqualTo(FirebaseDispatcher.Resultado.RECHAZADO);
+    }
+
+    @Test
+    public void testNoReintentaLasFallasTransitorias() {
+        respuestas.add(500);
+        respuestas.add(429);
+
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isEqualTo(FirebaseDispatcher.Resultado.FALLIDO);
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isEqualTo(FirebaseDispatcher.Resultado.FALLIDO);
+
+        // Reintentar es cosa del OutboxRelay
+        assertThat(recibidos).hasSize(2);
+    }
+
+    @Test
+    public void testRechazaSinTokenODeshabilitado() {
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", null)).isEqualTo(FirebaseDispatcher.Resultado.RECHAZADO);
+        config.setEnabled(false);
+        assertThat(dispatcher.enviar("Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isEqualTo(FirebaseDispatcher.Resultado.RECHAZADO);
+        assertThat(recibidos).isEmpty();
+    }
+
+    private static String leer(InputStream entrada) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int leidos;
+        while ((leidos = entrada.read(buffer)) != -1) {
+            bytes.write(buffer, 0, leidos);
+        }
+        return bytes.toString(StandardCharsets.UTF_8.name());
+    }
+}
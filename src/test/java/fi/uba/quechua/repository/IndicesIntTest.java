@@ -0,0 +1,166 @@
+package fi.uba.quechua.repository;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.domain.enumeration.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks, with EXPLAIN on the embedded database, that the SQL of the main repository finders is resolved
+ * with the composite indexes of 20261016180000_added_indexes.xml.
+ * <p>
+ * The finders run on a session that records the SQL it sends, so the EXPLAIN covers exactly what Spring Data
+ * and Hibernate generate, entity graph joins included.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+public class IndicesIntTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<String> sentencias = new ArrayList<>();
+
+    private Session session;
+
+    private JpaRepositoryFactory repositorios;
+
+    @Before
+    public void init() {
+        session = entityManagerFactory.unwrap(SessionFactory.class).withOptions()
+            .statementInspector(sql -> {
+                sentencias.add(sql);
+                return sql;
+            })
+            .openSession();
+        repositorios = new JpaRepositoryFactory(session);
+    }
+
+    @After
+    public void destroy() {
+        session.close();
+    }
+
+    /**
+     * Runs the finder and returns the EXPLAIN of the only statement it sent, with a placeholder value of the
+     * right type in each parameter.
+     */
+    private String explain(Runnable finder) {
+        sentencias.clear();
+        finder.run();
+        assertThat(sentencias).hasSize(1);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sentencias.get(0))) {
+                ParameterMetaData parametros = explain.getParameterMetaData();
+                for (int i = 1; i <= parametros.getParameterCount(); i++) {
+                    switch (parametros.getParameterType(i)) {
+                        case Types.DATE:
+                            explain.setDate(i, Date.valueOf(LocalDate.now()));
+                            break;
+                        case Types.VARCHAR:
+                            explain.setString(i, "1");
+                            break;
+                        default:
+                            explain.setLong(i, 1L);
+                    }
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1).toUpperCase();
+                }
+            }
+        });
+    }
+
+    private <T> T referencia(Class<T> entidad) {
+        return session.load(entidad, 1L);
+    }
+
+    @Test
+    public void assertThatInscripcionesDelCursoUseTheCursoEstadoIndex() {
+        InscripcionCursoRepository repository = repositorios.getRepository(InscripcionCursoRepository.class);
+        assertThat(explain(() -> repository.findAllByCursoAndEstado(referencia(Curso.class), InscripcionCursoEstado.CONDICIONAL)))
+            .contains("IDX_INSCRIPCION_CURSO_CURSO_ESTADO");
+    }
+
+    @Test
+    public void assertThatInscripcionesDelAlumnoUseTheAlumnoEstadoIndex() {
+        InscripcionCursoRepository repository = repositorios.getRepository(InscripcionCursoRepository.class);
+        assertThat(explain(() -> repository.findCursoIdsByAlumnoAndCursoIdInAndEstadoNot(referencia(Alumno.class),
+            Collections.singletonList(1L), InscripcionCursoEstado.ELIMINADA)))
+            .contains("IDX_INSCRIPCION_CURSO_ALUMNO_ESTADO");
+    }
+
+    @Test
+    public void assertThatInscripcionesDelColoquioUseTheColoquioEstadoIndex() {
+        InscripcionColoquioRepository repository = repositorios.getRepository(InscripcionColoquioRepository.class);
+        assertThat(explain(() -> repository.findAllByColoquioAndEstado(referencia(Coloquio.class), InscripcionColoquioEstado.ACTIVA)))
+            .contains("IDX_INSCRIPCION_COLOQUIO_COLOQUIO_ESTADO");
+    }
+
+    @Test
+    public void assertThatInscripcionesDeLaCursadaUseTheCursadaEstadoIndex() {
+        InscripcionColoquioRepository repository = repositorios.getRepository(InscripcionColoquioRepository.class);
+        assertThat(explain(() -> repository.countByCursadaAndEstado(referencia(Cursada.class), InscripcionColoquioEstado.DESAPROBADA)))
+            .contains("IDX_INSCRIPCION_COLOQUIO_CURSADA_ESTADO");
+    }
+
+    @Test
+    public void assertThatColoquiosDelCursoUseTheCursoEstadoFechaIndex() {
+        ColoquioRepository repository = repositorios.getRepository(ColoquioRepository.class);
+        assertThat(explain(() -> repository.findAllByCursoAndEstadoOrderByFechaDesc(referencia(Curso.class), ColoquioEstado.ACTIVO)))
+            .contains("IDX_COLOQUIO_CURSO_ESTADO_FECHA");
+    }
+
+    @Test
+    public void assertThatProximosColoquiosUseTheEstadoFechaIndex() {
+        ColoquioRepository repository = repositorios.getRepository(ColoquioRepository.class);
+        assertThat(explain(() -> repository.findAllByEstadoAndFechaGreaterThanEqual(ColoquioEstado.ACTIVO, LocalDate.now())))
+            .contains("IDX_COLOQUIO_ESTADO_FECHA");
+    }
+
+    @Test
+    public void assertThatCursosDeLaMateriaUseTheMateriaPeriodoEstadoIndex() {
+        CursoRepository repository = repositorios.getRepository(CursoRepository.class);
+        assertThat(explain(() -> repository.findDistinctWithHorariosByMateriaAndPeriodoAndEstado(referencia(Materia.class),
+            referencia(Periodo.class), CursoEstado.ACTIVO)))
+            .contains("IDX_CURSO_MATERIA_PERIODO_ESTADO");
+    }
+
+    @Test
+    public void assertThatCursadaDelAlumnoUsesTheAlumnoEstadoCursoIndex() {
+        CursadaRepository repository = repositorios.getRepository(CursadaRepository.class);
+        assertThat(explain(() -> repository.findCursadaByAlumnoAndCursoAndEstado(referencia(Alumno.class), referencia(Curso.class),
+            CursadaEstado.FINAL_PENDIENTE)))
+            .contains("IDX_CURSADA_ALUMNO_ESTADO_CURSO");
+    }
+
+    @Test
+    public void assertThatAlumnoByPadronUsesTheUniquePadronIndex() {
+        AlumnoRepository repository = repositorios.getRepository(AlumnoRepository.class);
+        assertThat(explain(() -> repository.findByPadron("12345")))
+            .contains("UX_ALUMNO_PADRON");
+    }
+}
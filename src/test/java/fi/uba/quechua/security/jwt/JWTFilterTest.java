@@ -1,9 +1,14 @@
 package fi.uba.quechua.security.jwt;
 
 import fi.uba.quechua.security.AuthoritiesConstants;
+import fi.uba.quechua.security.CurrentActor;
+import fi.uba.quechua.security.SecurityUtils;
+import fi.uba.quechua.service.RevocacionTokenService;
 import io.github.jhipster.config.JHipsterProperties;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -26,7 +31,8 @@ public class JWTFilterTest {
     @Before
     public void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider = new TokenProvider(jHipsterProperties, Mockito.mock(RevocacionTokenService.class),
+            new ConcurrentMapCacheManager());
         ReflectionTestUtils.setField(tokenProvider, "secretKey", "test secret");
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
         jwtFilter = new JWTFilter(tokenProvider);
@@ -52,6 +58,28 @@ public class JWTFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString()).isEqualTo(jwt);
     }
 
+    @Test
+    public void testJWTFilterInstallsCurrentActor() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false, new CurrentActor("test-user", 1L, null, 2L, null));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JWTConfigurer.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        request.setRequestURI("/api/test");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        jwtFilter.doFilter(request, response, filterChain);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(SecurityUtils.getCurrentActor()).hasValueSatisfying(actor -> {
+            assertThat(actor.getUserId()).isEqualTo(1L);
+            assertThat(actor.getProfesorId()).isEqualTo(2L);
+            assertThat(actor.getAlumnoId()).isNull();
+        });
+    }
+
     @Test
     public void testJWTFilterInvalidToken() throws Exception {
         String jwt = "wrong_jwt";
@@ -1,12 +1,18 @@
 package fi.uba.quechua.security.jwt;
 
 import fi.uba.quechua.security.AuthoritiesConstants;
+import fi.uba.quechua.security.CurrentActor;
+import fi.uba.quechua.service.RevocacionTokenService;
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -15,21 +21,33 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public class TokenProviderTest {
 
+    private static final int ITERACIONES = 2000;
+
+    private final Logger log = LoggerFactory.getLogger(TokenProviderTest.class);
     private final Base64.Encoder encoder = Base64.getEncoder();
     private final long ONE_MINUTE = 60000;
     private String secretKey;
     private JHipsterProperties jHipsterProperties;
+    private RevocacionTokenService revocacionTokenService;
     private TokenProvider tokenProvider;
 
     @Before
     public void setup() {
         jHipsterProperties = Mockito.mock(JHipsterProperties.class);
-        tokenProvider = new TokenProvider(jHipsterProperties);
+        revocacionTokenService = Mockito.mock(RevocacionTokenService.class);
+        tokenProvider = new TokenProvider(jHipsterProperties, revocacionTokenService, new ConcurrentMapCacheManager());
         secretKey = encoder.encodeToString("e5c9ee274ae87bc031adda32e27fa98b9290da83".getBytes(StandardCharsets.UTF_8));
         ReflectionTestUtils.setField(tokenProvider, "secretKey", secretKey);
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
@@ -80,6 +98,105 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testGetAuthenticationReadsTheActorClaims() {
+        String token = tokenProvider.createToken(createAuthentication(), false, new CurrentActor("anonymous", 5L, 7L, null, 3L));
+
+        assertThat(tokenProvider.validateToken(token)).isEqualTo(true);
+        Object details = tokenProvider.getAuthentication(token).getDetails();
+        assertThat(details).isInstanceOf(CurrentActor.class);
+        CurrentActor actor = (CurrentActor) details;
+        assertThat(actor.getLogin()).isEqualTo("anonymous");
+        assertThat(actor.getUserId()).isEqualTo(5L);
+        assertThat(actor.getAlumnoId()).isEqualTo(7L);
+        assertThat(actor.getProfesorId()).isNull();
+        assertThat(actor.getDepartamentoId()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testGetAuthenticationWithoutActorClaims() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.getAuthentication(token).getDetails()).isNull();
+    }
+
+    @Test
+    public void testReturnFalseWhenJWTisRevoked() {
+        when(revocacionTokenService.estaRevocado(eq(5L), any(Date.class))).thenReturn(true);
+        String token = tokenProvider.createToken(createAuthentication(), false, new CurrentActor("anonymous", 5L, 7L, null, null));
+
+        boolean isTokenValid = tokenProvider.validateToken(token);
+
+        assertThat(isTokenValid).isEqualTo(false);
+    }
+
+    @Test
+    public void testResolveAuthenticationReusesTheVerifiedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false, new CurrentActor("anonymous", 5L, null, null, null));
+
+        Authentication primera = tokenProvider.resolveAuthentication(token);
+        Authentication segunda = tokenProvider.resolveAuthentication(token);
+
+        assertThat(primera).isNotNull();
+        assertThat(primera.getName()).isEqualTo("anonymous");
+        assertThat(segunda).isSameAs(primera);
+    }
+
+    @Test
+    public void testResolveAuthenticationChecksRevocationOnEveryRequest() {
+        String token = tokenProvider.createToken(createAuthentication(), false, new CurrentActor("anonymous", 5L, null, null, null));
+        assertThat(tokenProvider.resolveAuthentication(token)).isNotNull();
+
+        tokenProvider.revoke(token);
+        verify(revocacionTokenService).revocarToken(anyString(), any());
+        when(revocacionTokenService.estaRevocado(anyString())).thenReturn(true);
+
+        assertThat(tokenProvider.resolveAuthentication(token)).isNull();
+        assertThat(tokenProvider.validateToken(token)).isEqualTo(false);
+    }
+
+    @Test
+    public void testResolveAuthenticationRejectsInvalidTokens() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(token.substring(1))).isNull();
+        assertThat(tokenProvider.resolveAuthentication(createTokenWithDifferentSignature())).isNull();
+    }
+
+    /**
+     * Compara el costo por pedido de autenticar con el camino anterior del JWTFilter (validateToken y despues
+     * getAuthentication, que verifican el token dos veces) contra resolveAuthentication, que lo verifica una sola vez
+     * y despues lo toma del cache. Es una medicion simple con calentamiento, no un benchmark JMH: solo registra los
+     * tiempos y se corre a mano, porque depende de la maquina. El uso del cache lo verifica
+     * testResolveAuthenticationReusesTheVerifiedToken.
+     */
+    @Test
+    @Ignore("Medicion de tiempos, se corre a mano")
+    public void testCompareResolveAuthenticationWithVerifyingTwice() {
+        // Sin registrar las invocaciones, que con tantas iteraciones pesan mas que lo medido
+        tokenProvider = new TokenProvider(jHipsterProperties, Mockito.mock(RevocacionTokenService.class, withSettings().stubOnly()),
+            new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", secretKey);
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false, new CurrentActor("anonymous", 5L, 7L, null, 3L));
+        medir(() -> tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null);
+        medir(() -> tokenProvider.resolveAuthentication(token));
+
+        long antes = medir(() -> tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null);
+        long despues = medir(() -> tokenProvider.resolveAuthentication(token));
+
+        log.info("Autenticacion por pedido: {} ns verificando dos veces, {} ns con el cache", antes / ITERACIONES,
+            despues / ITERACIONES);
+    }
+
+    private long medir(Supplier<Authentication> autenticar) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            assertThat(autenticar.get()).isNotNull();
+        }
+        return System.nanoTime() - inicio;
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
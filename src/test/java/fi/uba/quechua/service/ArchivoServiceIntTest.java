@@ -0,0 +1,187 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
+import fi.uba.quechua.domain.enumeration.InscripcionColoquioEstado;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.service.dto.ArchivoResultadoDTO;
+import fi.uba.quechua.service.dto.CursadaHistoricaDTO;
+import fi.uba.quechua.service.dto.InscripcionCursoResumenDTO;
+import fi.uba.quechua.service.dto.InscripcionHistoricaDTO;
+import fi.uba.quechua.web.rest.AlumnoResourceIntTest;
+import fi.uba.quechua.web.rest.ColoquioResourceIntTest;
+import fi.uba.quechua.web.rest.PeriodoResourceIntTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ArchivoService.
+ * <p>
+ * Dentro de la transaccion del test los lotes se unen a ella, de modo que todo se deshace al terminar.
+ *
+ * @see ArchivoService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class ArchivoServiceIntTest {
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @Autowired
+    private CursadaService cursadaService;
+
+    @Autowired
+    private InscripcionCursoService inscripcionCursoService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Curso curso;
+
+    private Periodo periodo;
+
+    private Alumno alumno;
+
+    @Before
+    public void init() {
+        curso = CursoServiceIntTest.createCursoCompleto(em, null);
+        periodo = curso.getPeriodo();
+        alumno = AlumnoResourceIntTest.createEntity(em).userId(1L);
+        em.persist(alumno);
+    }
+
+    private Cursada createCursada(CursadaEstado estado) {
+        Cursada cursada = new Cursada().curso(curso).alumno(alumno).periodo(periodo).estado(estado);
+        em.persist(cursada);
+        return cursada;
+    }
+
+    private InscripcionColoquio createInscripcionColoquio(Cursada cursada, Periodo periodoColoquio) {
+        Coloquio coloquio = ColoquioResourceIntTest.createEntity(em).curso(curso).periodo(periodoColoquio);
+        em.persist(coloquio);
+        InscripcionColoquio inscripcion = new InscripcionColoquio().coloquio(coloquio).alumno(alumno).cursada(cursada)
+            .estado(InscripcionColoquioEstado.APROBADA);
+        em.persist(inscripcion);
+        return inscripcion;
+    }
+
+    @Test
+    public void assertThatPeriodoIsMovedToTheArchivo() {
+        InscripcionCurso inscripcion = new InscripcionCurso().curso(curso).alumno(alumno).estado(InscripcionCursoEstado.REGULAR);
+        em.persist(inscripcion);
+        Cursada aprobada = createCursada(CursadaEstado.FINAL_APROBADO);
+        Cursada pendiente = createCursada(CursadaEstado.FINAL_PENDIENTE);
+        InscripcionColoquio inscripcionColoquio = createInscripcionColoquio(aprobada, periodo);
+        em.flush();
+        em.clear();
+
+        ArchivoResultadoDTO resultado = archivoService.archivar(periodo);
+        em.clear();
+
+        assertThat(resultado.getPeriodos()).containsExactly(periodo.getId());
+        assertThat(resultado.getFilas())
+            .containsEntry("inscripcion_coloquio", 1)
+            .containsEntry("coloquio", 1)
+            .containsEntry("cursada", 1)
+            .containsEntry("inscripcion_curso", 1);
+        assertThat(em.find(InscripcionCurso.class, inscripcion.getId())).isNull();
+        assertThat(em.find(Cursada.class, aprobada.getId())).isNull();
+        assertThat(em.find(InscripcionColoquio.class, inscripcionColoquio.getId())).isNull();
+        assertThat(em.find(Cursada.class, pendiente.getId())).isNotNull();
+    }
+
+    @Test
+    public void assertThatCursadaWithAColoquioInAnotherPeriodoIsKept() {
+        Cursada aprobada = createCursada(CursadaEstado.FINAL_APROBADO);
+        Periodo siguiente = PeriodoResourceIntTest.createEntity(em);
+        em.persist(siguiente);
+        InscripcionColoquio inscripcionColoquio = createInscripcionColoquio(aprobada, siguiente);
+        em.flush();
+        em.clear();
+
+        archivoService.archivar(periodo);
+        em.clear();
+
+        assertThat(em.find(Cursada.class, aprobada.getId())).isNotNull();
+        assertThat(em.find(InscripcionColoquio.class, inscripcionColoquio.getId())).isNotNull();
+    }
+
+    @Test
+    public void assertThatDesaprobadasOfAnOpenCursadaKeepCounting() {
+        Cursada pendiente = createCursada(CursadaEstado.FINAL_PENDIENTE);
+        for (int i = 0; i < 3; i++) {
+            createInscripcionColoquio(pendiente, periodo).estado(InscripcionColoquioEstado.DESAPROBADA);
+        }
+        em.flush();
+        em.clear();
+
+        ArchivoResultadoDTO resultado = archivoService.archivar(periodo);
+        em.clear();
+
+        assertThat(resultado.getFilas()).containsEntry("inscripcion_coloquio", 0).containsEntry("cursada", 0);
+        assertThat(cursadaService.findCursadaByAlumnoAndCursoColoquioPendiente(alumno, curso)).isEmpty();
+    }
+
+    @Test
+    public void assertThatInscripcionesOfAlumnoAndCursoIncludeTheArchivadas() {
+        InscripcionCurso inscripcion = new InscripcionCurso().curso(curso).alumno(alumno).estado(InscripcionCursoEstado.REGULAR);
+        em.persist(inscripcion);
+        em.persist(new InscripcionCurso().curso(curso).alumno(alumno).estado(InscripcionCursoEstado.ELIMINADA));
+        em.flush();
+        em.clear();
+        archivoService.archivar(periodo);
+        em.clear();
+
+        List<InscripcionCursoResumenDTO> delAlumno = inscripcionCursoService.findAllActivasByAlumno(alumno);
+
+        assertThat(delAlumno).extracting(InscripcionCursoResumenDTO::getId).containsExactly(inscripcion.getId());
+        assertThat(delAlumno.get(0).getCurso().getId()).isEqualTo(curso.getId());
+        assertThat(delAlumno.get(0).getCurso().getMateria().getId()).isEqualTo(curso.getMateria().getId());
+
+        List<InscripcionCurso> delCurso = inscripcionCursoService.findByCurso(em.find(Curso.class, curso.getId()));
+
+        assertThat(delCurso).extracting(InscripcionCurso::getId).containsExactly(inscripcion.getId());
+        assertThat(delCurso.get(0).getEstado()).isEqualTo(InscripcionCursoEstado.REGULAR);
+        assertThat(delCurso.get(0).getAlumno().getPadron()).isEqualTo(alumno.getPadron());
+    }
+
+    @Test
+    public void assertThatHistoriaAcademicaJoinsVigentesAndArchivadas() {
+        InscripcionCurso inscripcion = new InscripcionCurso().curso(curso).alumno(alumno).estado(InscripcionCursoEstado.REGULAR);
+        em.persist(inscripcion);
+        Cursada aprobada = createCursada(CursadaEstado.APROBADO);
+        Cursada pendiente = createCursada(CursadaEstado.FINAL_PENDIENTE);
+        em.flush();
+        em.clear();
+        archivoService.archivar(periodo);
+        em.clear();
+
+        List<CursadaHistoricaDTO> cursadas = archivoService.findHistoriaAcademica(alumno.getId());
+
+        assertThat(cursadas).extracting(CursadaHistoricaDTO::getId).containsExactly(aprobada.getId(), pendiente.getId());
+        assertThat(cursadas).extracting(CursadaHistoricaDTO::isArchivada).containsExactly(true, false);
+        assertThat(cursadas.get(0).getEstado()).isEqualTo(CursadaEstado.APROBADO);
+        assertThat(cursadas.get(0).getMateria().getId()).isEqualTo(curso.getMateria().getId());
+        assertThat(cursadas.get(0).getPeriodo().getId()).isEqualTo(periodo.getId());
+
+        List<InscripcionHistoricaDTO> inscripciones = archivoService.findInscripcionesHistoricas(curso.getId());
+
+        assertThat(inscripciones).hasSize(1);
+        assertThat(inscripciones.get(0).getId()).isEqualTo(inscripcion.getId());
+        assertThat(inscripciones.get(0).isArchivada()).isTrue();
+        assertThat(inscripciones.get(0).getPadron()).isEqualTo(alumno.getPadron());
+    }
+}
@@ -0,0 +1,86 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.CupoCursoRepository;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.service.dto.AsignacionCursoDTO;
+import fi.uba.quechua.web.rest.AlumnoResourceIntTest;
+import fi.uba.quechua.web.rest.CursoResourceIntTest;
+import fi.uba.quechua.web.rest.PeriodoResourceIntTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the AsignacionVacantesService.
+ *
+ * @see AsignacionVacantesService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class AsignacionVacantesServiceIntTest {
+
+    @Autowired
+    private AsignacionVacantesService asignacionVacantesService;
+
+    @Autowired
+    private InscripcionCursoRepository inscripcionCursoRepository;
+
+    @Autowired
+    private CupoCursoRepository cupoCursoRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Alumno alumno(long userId, int prioridad) {
+        Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(userId).padron("asignacion" + userId).prioridad(prioridad);
+        em.persist(alumno);
+        return alumno;
+    }
+
+    @Test
+    public void assertThatAsignarRespetaLasInscripcionesRegularesPrevias() {
+        Periodo periodo = PeriodoResourceIntTest.createEntity(em);
+        em.persist(periodo);
+        // Un curso sin contador que ya tiene un alumno regular
+        Curso curso = CursoResourceIntTest.createEntity(em).vacantes(2).periodo(periodo);
+        em.persist(curso);
+        em.persist(new InscripcionCurso().curso(curso).alumno(alumno(1L, 1)).estado(InscripcionCursoEstado.REGULAR));
+        Alumno conPrioridad = alumno(2L, 3);
+        Alumno sinPrioridad = alumno(3L, 0);
+        em.persist(new IntencionInscripcion().curso(curso).alumno(sinPrioridad).fecha(Instant.now()));
+        em.persist(new IntencionInscripcion().curso(curso).alumno(conPrioridad).fecha(Instant.now()));
+        em.flush();
+
+        AsignacionCursoDTO asignacion = asignacionVacantesService.asignar(periodo).iterator().next();
+
+        assertThat(asignacion.getRegulares()).containsExactly(conPrioridad.getId());
+        assertThat(asignacion.getCondicionales()).containsExactly(sinPrioridad.getId());
+        em.clear();
+        List<InscripcionCurso> inscripciones = inscripcionCursoRepository.findAll();
+        assertThat(inscripciones).filteredOn(i -> i.getAlumno().getId().equals(conPrioridad.getId()))
+            .extracting(InscripcionCurso::getEstado).containsExactly(InscripcionCursoEstado.REGULAR);
+        assertThat(inscripciones).filteredOn(i -> i.getAlumno().getId().equals(sinPrioridad.getId()))
+            .extracting(InscripcionCurso::getEstado).containsExactly(InscripcionCursoEstado.CONDICIONAL);
+        assertThat(cupoCursoRepository.findById(curso.getId()).get().getOcupadas()).isEqualTo(2);
+
+        // Los ids reservados no chocan con los que asigna Hibernate despues
+        InscripcionCurso siguiente = new InscripcionCurso().curso(em.find(Curso.class, curso.getId()))
+            .alumno(alumno(4L, 1)).estado(InscripcionCursoEstado.CONDICIONAL);
+        em.persist(siguiente);
+        em.flush();
+        assertThat(inscripcionCursoRepository.countByCursoAndEstado(curso, InscripcionCursoEstado.CONDICIONAL)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,126 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.CupoCursoRepository;
+import fi.uba.quechua.repository.InscripcionCursoLoteRepository;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.repository.IntencionInscripcionRepository;
+import fi.uba.quechua.service.dto.AsignacionCursoDTO;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the AsignacionVacantesService.
+ *
+ * @see AsignacionVacantesService
+ */
+public class AsignacionVacantesServiceUnitTest {
+
+    private AsignacionVacantesService asignacionVacantesService;
+
+    private IntencionInscripcionRepository intencionInscripcionRepository;
+
+    private InscripcionCursoRepository inscripcionCursoRepository;
+
+    private InscripcionCursoLoteRepository inscripcionCursoLoteRepository;
+
+    private CupoCursoRepository cupoCursoRepository;
+
+    private Periodo periodo;
+
+    private Curso curso;
+
+    @Before
+    public void setup() {
+        intencionInscripcionRepository = mock(IntencionInscripcionRepository.class);
+        inscripcionCursoRepository = mock(InscripcionCursoRepository.class);
+        inscripcionCursoLoteRepository = mock(InscripcionCursoLoteRepository.class);
+        cupoCursoRepository = mock(CupoCursoRepository.class);
+        asignacionVacantesService = new AsignacionVacantesService(new ApplicationProperties(),
+            intencionInscripcionRepository, inscripcionCursoRepository, inscripcionCursoLoteRepository, cupoCursoRepository,
+            mock(PeriodoService.class), mock(PeriodoAdministrativoService.class), mock(OcupacionSemanalService.class), mock(ApplicationEventPublisher.class));
+        periodo = new Periodo();
+        periodo.setId(1L);
+        curso = new Curso().vacantes(2);
+        curso.setId(10L);
+        when(cupoCursoRepository.findAllById(any()))
+            .thenReturn(Collections.singletonList(new CupoCurso().cursoId(10L).vacantes(2).ocupadas(0)));
+        when(inscripcionCursoRepository.findAlumnoAndCursoIdsByPeriodoAndEstadoNot(periodo, InscripcionCursoEstado.ELIMINADA))
+            .thenReturn(new ArrayList<>());
+    }
+
+    private IntencionInscripcion intencion(Long alumnoId, Integer prioridad) {
+        Alumno alumno = new Alumno().prioridad(prioridad);
+        alumno.setId(alumnoId);
+        return new IntencionInscripcion().alumno(alumno).curso(curso);
+    }
+
+    @Test
+    public void testAsignaPorPrioridad() {
+        when(intencionInscripcionRepository.findAllByPeriodo(periodo)).thenReturn(new ArrayList<>(Arrays.asList(
+            intencion(1L, 3), intencion(2L, 1), intencion(3L, 2), intencion(4L, 2))));
+
+        AsignacionCursoDTO asignacion = asignacionVacantesService.simular(periodo).iterator().next();
+
+        assertThat(asignacion.getVacantesLibres()).isEqualTo(2);
+        assertThat(asignacion.getRegulares()).hasSize(2).startsWith(2L);
+        assertThat(asignacion.getRegulares().get(1)).isIn(3L, 4L);
+        assertThat(asignacion.getCondicionales()).hasSize(2).endsWith(1L);
+        verify(inscripcionCursoLoteRepository, never()).insertar(anyList(), anyLong());
+    }
+
+    @Test
+    public void testSinPrioridadVaAlFinal() {
+        when(intencionInscripcionRepository.findAllByPeriodo(periodo)).thenReturn(new ArrayList<>(Arrays.asList(
+            intencion(1L, 0), intencion(2L, 5), intencion(3L, 0), intencion(4L, 1))));
+
+        AsignacionCursoDTO asignacion = asignacionVacantesService.simular(periodo).iterator().next();
+
+        assertThat(asignacion.getRegulares()).containsExactly(4L, 2L);
+        assertThat(asignacion.getCondicionales()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    public void testSimulacionCoincideConAsignacion() {
+        List<IntencionInscripcion> intenciones = new ArrayList<>();
+        for (long alumnoId = 1; alumnoId <= 6; alumnoId++) {
+            intenciones.add(intencion(alumnoId, 1));
+        }
+        when(intencionInscripcionRepository.findAllByPeriodo(periodo)).thenReturn(new ArrayList<>(intenciones));
+        List<Long> simulados = asignacionVacantesService.simular(periodo).iterator().next().getRegulares();
+
+        Collections.reverse(intenciones);
+        when(intencionInscripcionRepository.findAllByPeriodo(periodo)).thenReturn(new ArrayList<>(intenciones));
+        AsignacionCursoDTO asignacion = asignacionVacantesService.asignar(periodo).iterator().next();
+
+        assertThat(asignacion.getRegulares()).isEqualTo(simulados);
+        verify(inscripcionCursoLoteRepository).insertar(argThat(inscripciones -> inscripciones.size() == 6), anyLong());
+        verify(cupoCursoRepository).sumarOcupadas(10L, 2);
+        verify(intencionInscripcionRepository).deleteAllByPeriodo(periodo);
+    }
+
+    @Test
+    public void testIgnoraAlumnosYaInscriptos() {
+        when(inscripcionCursoRepository.findAlumnoAndCursoIdsByPeriodoAndEstadoNot(periodo, InscripcionCursoEstado.ELIMINADA))
+            .thenReturn(Collections.singletonList(new Object[]{1L, 10L}));
+        when(intencionInscripcionRepository.findAllByPeriodo(periodo)).thenReturn(new ArrayList<>(Arrays.asList(
+            intencion(1L, 1), intencion(2L, 2))));
+
+        AsignacionCursoDTO asignacion = asignacionVacantesService.simular(periodo).iterator().next();
+
+        assertThat(asignacion.getRegulares()).containsExactly(2L);
+        assertThat(asignacion.getCondicionales()).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.PeriodoAdministrativo;
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import fi.uba.quechua.domain.enumeration.PeriodoActividad;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CalendarioAcademico.
+ *
+ * @see CalendarioAcademico
+ */
+public class CalendarioAcademicoUnitTest {
+
+    private static Periodo periodo(Long id, String anio, Cuatrimestre cuatrimestre) {
+        Periodo periodo = new Periodo().anio(anio).cuatrimestre(cuatrimestre);
+        periodo.setId(id);
+        return periodo;
+    }
+
+    private static PeriodoAdministrativo periodoAdministrativo(Long id, PeriodoActividad actividad, String inicio, String fin) {
+        PeriodoAdministrativo periodo = new PeriodoAdministrativo().actividad(actividad)
+            .fechaInicio(LocalDate.parse(inicio)).fechaFin(LocalDate.parse(fin));
+        periodo.setId(id);
+        return periodo;
+    }
+
+    @Test
+    public void testPeriodoActualSegunElCuatrimestre() {
+        CalendarioAcademico calendario = new CalendarioAcademico(Arrays.asList(
+            periodo(1L, "2026", Cuatrimestre.PRIMERO),
+            periodo(2L, "2026", Cuatrimestre.SEGUNDO),
+            periodo(3L, "2026", Cuatrimestre.VERANO)), Collections.emptyList());
+
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-06-01")).getPeriodoActual().get().getId()).isEqualTo(1L);
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-08-31")).getPeriodoActual().get().getId()).isEqualTo(1L);
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-09-01")).getPeriodoActual().get().getId()).isEqualTo(2L);
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-03-15")).getPeriodoActual().get().getId()).isEqualTo(2L);
+        assertThat(calendario.getVigencia(LocalDate.parse("2027-07-01")).getPeriodoActual()).isEmpty();
+    }
+
+    @Test
+    public void testActividadesVigentesConFechasInclusivas() {
+        CalendarioAcademico calendario = new CalendarioAcademico(Collections.emptyList(), Arrays.asList(
+            periodoAdministrativo(1L, PeriodoActividad.INSCRIPCION_CURSADA, "2026-02-01", "2026-02-10"),
+            periodoAdministrativo(2L, PeriodoActividad.CONSULTAR_PRIORIDAD, "2026-01-20", "2026-02-05"),
+            periodoAdministrativo(3L, PeriodoActividad.INSCRIPCION_COLOQUIO, "2026-03-01", "2026-03-01")));
+
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-01-19")).getActividades()).isEmpty();
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-02-05")).getActividades())
+            .containsExactly(PeriodoActividad.INSCRIPCION_CURSADA, PeriodoActividad.CONSULTAR_PRIORIDAD);
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-02-06")).getActividades())
+            .containsExactly(PeriodoActividad.INSCRIPCION_CURSADA);
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-02-11")).getActividades()).isEmpty();
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-03-01")).getPeriodosAdministrativos())
+            .extracting(PeriodoAdministrativo::getId).containsExactly(3L);
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-03-02")).getActividades()).isEmpty();
+    }
+
+    @Test
+    public void testLaVigenciaTerminaEnElProximoCambio() {
+        CalendarioAcademico calendario = new CalendarioAcademico(Collections.emptyList(), Collections.singletonList(
+            periodoAdministrativo(1L, PeriodoActividad.INSCRIPCION_CURSADA, "2026-02-01", "2026-02-10")));
+
+        CalendarioAcademico.Vigencia vigencia = calendario.getVigencia(LocalDate.parse("2026-02-03"));
+        assertThat(vigencia.getHasta()).isEqualTo(LocalDate.parse("2026-02-11"));
+        assertThat(vigencia.incluye(LocalDate.parse("2026-02-01"))).isTrue();
+        assertThat(vigencia.incluye(LocalDate.parse("2026-01-31"))).isFalse();
+        assertThat(vigencia.incluye(LocalDate.parse("2026-02-11"))).isFalse();
+
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-04-01")).getHasta()).isEqualTo(LocalDate.parse("2026-06-01"));
+        assertThat(calendario.getVigencia(LocalDate.parse("2026-10-01")).getHasta()).isEqualTo(LocalDate.parse("2027-01-01"));
+    }
+}
@@ -0,0 +1,67 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Prioridad;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CalendarioPrioridades.
+ *
+ * @see CalendarioPrioridades
+ */
+public class CalendarioPrioridadesUnitTest {
+
+    private static final Instant AHORA = Instant.parse("2026-03-01T10:00:00Z");
+
+    private static Prioridad prioridad(Long id, Instant habilitacion) {
+        Prioridad prioridad = new Prioridad().fecha_habilitacion(ZonedDateTime.ofInstant(habilitacion, ZoneOffset.UTC));
+        prioridad.setId(id);
+        return prioridad;
+    }
+
+    @Test
+    public void testEsperaHastaLaHabilitacion() {
+        CalendarioPrioridades calendario = new CalendarioPrioridades(Arrays.asList(
+            prioridad(1L, AHORA.minusSeconds(60)),
+            prioridad(2L, AHORA.plusMillis(90500))));
+
+        assertThat(calendario.segundosHastaApertura(AHORA)).isZero();
+        assertThat(calendario.segundosHastaHabilitacion(1, AHORA)).isZero();
+        assertThat(calendario.segundosHastaHabilitacion(2, AHORA)).isEqualTo(91);
+        assertThat(calendario.getPrioridad(2).get().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testEsperaHastaLaApertura() {
+        CalendarioPrioridades calendario = new CalendarioPrioridades(Arrays.asList(
+            prioridad(1L, AHORA.plusSeconds(30)),
+            prioridad(2L, AHORA.plusSeconds(120))));
+
+        assertThat(calendario.segundosHastaApertura(AHORA)).isEqualTo(30);
+    }
+
+    @Test
+    public void testSinPrioridadDelPeriodoEsperaLaUltima() {
+        CalendarioPrioridades calendario = new CalendarioPrioridades(Arrays.asList(
+            prioridad(1L, AHORA.minusSeconds(60)),
+            prioridad(2L, AHORA.plusSeconds(120))));
+
+        assertThat(calendario.segundosHastaHabilitacion(0, AHORA)).isEqualTo(120);
+        assertThat(calendario.segundosHastaHabilitacion(7, AHORA)).isEqualTo(120);
+        assertThat(calendario.segundosHastaHabilitacion(null, AHORA)).isEqualTo(120);
+    }
+
+    @Test
+    public void testSinPrioridadNoHayEspera() {
+        assertThat(CalendarioPrioridades.VACIO.segundosHastaApertura(AHORA)).isZero();
+        assertThat(CalendarioPrioridades.VACIO.segundosHastaHabilitacion(5, AHORA)).isZero();
+        assertThat(CalendarioPrioridades.VACIO.segundosHastaHabilitacion(null, AHORA)).isZero();
+        assertThat(CalendarioPrioridades.VACIO.getPrioridad(5)).isEmpty();
+    }
+}
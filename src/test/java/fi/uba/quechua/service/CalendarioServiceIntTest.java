@@ -0,0 +1,95 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.PeriodoAdministrativo;
+import fi.uba.quechua.web.rest.PeriodoAdministrativoResourceIntTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CalendarioService.
+ * <p>
+ * Cada cambio confirma su propia transaccion, como en produccion, porque el calendario se recarga al confirmarla.
+ *
+ * @see CalendarioService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+public class CalendarioServiceIntTest {
+
+    @Autowired
+    private CalendarioService calendarioService;
+
+    @Autowired
+    private PeriodoAdministrativoService periodoAdministrativoService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    private PeriodoAdministrativo vigente;
+
+    @Before
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+        calendarioService.recargarCalendario();
+        vigente = PeriodoAdministrativoResourceIntTest.createEntity(em)
+            .fechaInicio(LocalDate.now().minusDays(1))
+            .fechaFin(LocalDate.now().plusDays(1));
+    }
+
+    @After
+    public void destroy() {
+        if (vigente.getId() != null) {
+            periodoAdministrativoService.delete(vigente.getId());
+        }
+    }
+
+    @Test
+    public void assertThatCalendarioIsReloadedAfterCommit() {
+        transaccion.execute(status -> {
+            periodoAdministrativoService.save(vigente);
+            assertThat(calendarioService.getPeriodosAdministrativosDisponibles()).doesNotContain(vigente);
+            return null;
+        });
+
+        assertThat(calendarioService.getPeriodosAdministrativosDisponibles()).contains(vigente);
+
+        Long id = vigente.getId();
+        periodoAdministrativoService.delete(id);
+        vigente.setId(null);
+
+        assertThat(calendarioService.getPeriodosAdministrativosDisponibles()).extracting(PeriodoAdministrativo::getId)
+            .doesNotContain(id);
+    }
+
+    @Test
+    public void assertThatCalendarioIsNotReloadedOnRollback() {
+        transaccion.execute(status -> {
+            periodoAdministrativoService.save(vigente);
+            status.setRollbackOnly();
+            return null;
+        });
+        Long id = vigente.getId();
+        vigente.setId(null);
+
+        assertThat(calendarioService.getPeriodosAdministrativosDisponibles()).extracting(PeriodoAdministrativo::getId)
+            .doesNotContain(id);
+    }
+}
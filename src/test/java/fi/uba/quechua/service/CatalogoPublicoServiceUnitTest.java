@@ -0,0 +1,129 @@
+package fi.uba.quechua.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.enumeration.CursoEstado;
+import fi.uba.quechua.repository.CursoRepository;
+import fi.uba.quechua.service.dto.CursoResumenDTO;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the CatalogoPublicoService.
+ *
+ * @see CatalogoPublicoService
+ */
+public class CatalogoPublicoServiceUnitTest {
+
+    private CatalogoPublicoService catalogoPublicoService;
+
+    private CursoRepository cursoRepository;
+
+    private InscripcionCursoService inscripcionCursoService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, Long> inscriptos = new HashMap<>();
+
+    @Before
+    public void setup() {
+        cursoRepository = mock(CursoRepository.class);
+        inscripcionCursoService = mock(InscripcionCursoService.class);
+        PeriodoService periodoService = mock(PeriodoService.class);
+        catalogoPublicoService = new CatalogoPublicoService(cursoRepository, inscripcionCursoService,
+            mock(HorarioCursadaService.class), periodoService, objectMapper);
+
+        Periodo actual = new Periodo();
+        actual.setId(1L);
+        inscriptos.put(1L, 3L);
+
+        when(periodoService.findPeriodoActual()).thenReturn(Optional.of(actual));
+        when(cursoRepository.findResumenesByEstado(CursoEstado.ACTIVO)).thenAnswer(invocation -> Arrays.asList(
+            curso(3L, CursoEstado.ACTIVO, 20L, 1L), curso(1L, CursoEstado.ACTIVO, 10L, 1L), curso(2L, CursoEstado.ACTIVO, 10L, 2L)));
+        when(inscripcionCursoService.contarInscriptosPorId(anyCollection())).thenAnswer(invocation -> new HashMap<>(inscriptos));
+    }
+
+    private static CursoResumenDTO curso(Long id, CursoEstado estado, Long materiaId, Long periodoId) {
+        return new CursoResumenDTO(id, estado, 1, 5, materiaId, "6201", "Analisis", 6, null, null, null, null,
+            null, null, null, periodoId, null, null);
+    }
+
+    private JsonNode leer(byte[] json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+
+    @Test
+    public void testCatalogoCompletoYPorMateria() throws IOException {
+        JsonNode cursos = leer(catalogoPublicoService.getCursos().getContenido());
+
+        assertThat(cursos).hasSize(3);
+        assertThat(cursos.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(cursos.get(0).get("vacantesDisponibles").asInt()).isEqualTo(2);
+        assertThat(cursos.get(1).get("vacantesDisponibles").asInt()).isEqualTo(5);
+
+        JsonNode deAnalisis = leer(catalogoPublicoService.getCursosDeMateria(10L).get().getContenido());
+        assertThat(deAnalisis).hasSize(1);
+        assertThat(deAnalisis.get(0).get("id").asLong()).isEqualTo(1L);
+        assertThat(catalogoPublicoService.getCursosDeMateria(30L)).isEmpty();
+    }
+
+    @Test
+    public void testGzip() throws IOException {
+        CatalogoPublicoService.Json json = catalogoPublicoService.getCursos();
+
+        byte[] descomprimido = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(json.getGzip())));
+
+        assertThat(descomprimido).isEqualTo(json.getContenido());
+    }
+
+    @Test
+    public void testSoloReserializaLosCursosModificados() throws IOException {
+        CatalogoPublicoService.Json algebraAntes = catalogoPublicoService.getCursosDeMateria(20L).get();
+        inscriptos.put(1L, 5L);
+        when(cursoRepository.findResumenesByIdIn(any())).thenReturn(Collections.singletonList(curso(1L, CursoEstado.ACTIVO, 10L, 1L)));
+
+        catalogoPublicoService.onCursoModificado(new CursoModificadoEvent(1L));
+        catalogoPublicoService.actualizar();
+
+        verify(cursoRepository, times(1)).findResumenesByEstado(CursoEstado.ACTIVO);
+        verify(cursoRepository).findResumenesByIdIn(Collections.singletonList(1L));
+        assertThat(leer(catalogoPublicoService.getCursosDeMateria(10L).get().getContenido()).get(0).get("vacantesDisponibles").asInt())
+            .isEqualTo(0);
+        assertThat(catalogoPublicoService.getCursosDeMateria(20L).get()).isSameAs(algebraAntes);
+    }
+
+    @Test
+    public void testCursoDesactivadoSaleDelCatalogo() throws IOException {
+        catalogoPublicoService.getCursos();
+        when(cursoRepository.findResumenesByIdIn(any())).thenReturn(Collections.singletonList(curso(3L, CursoEstado.INACTIVO, 20L, 1L)));
+
+        catalogoPublicoService.onCursoModificado(new CursoModificadoEvent(3L));
+        catalogoPublicoService.actualizar();
+
+        assertThat(leer(catalogoPublicoService.getCursos().getContenido())).hasSize(2);
+        assertThat(catalogoPublicoService.getCursosDeMateria(20L)).isEmpty();
+    }
+
+    @Test
+    public void testReconstruyeCompletoSinCursoIdentificado() {
+        catalogoPublicoService.getCursos();
+
+        catalogoPublicoService.onCursoModificado(new CursoModificadoEvent(null));
+        catalogoPublicoService.actualizar();
+
+        verify(cursoRepository, times(2)).findResumenesByEstado(CursoEstado.ACTIVO);
+        verify(cursoRepository, never()).findResumenesByIdIn(any());
+    }
+}
@@ -0,0 +1,177 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.CupoCursoRepository;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.service.dto.TicketInscripcionDTO;
+import fi.uba.quechua.web.rest.AlumnoResourceIntTest;
+import fi.uba.quechua.web.rest.CursoResourceIntTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ColaInscripcionService, contra la base y con clientes concurrentes.
+ * <p>
+ * Inscribe a los mismos alumnos en los mismos cursos por la via sincronica y por la cola, verifica que
+ * ninguna sobrevenda vacantes.
+ *
+ * @see ColaInscripcionService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+public class ColaInscripcionServiceIntTest {
+
+    private static final int CURSOS = 4;
+
+    private static final int ALUMNOS = 50;
+
+    private static final int VACANTES = 20;
+
+    private static final int CLIENTES = 8;
+
+    @Autowired
+    private InscripcionCursoService inscripcionCursoService;
+
+    @Autowired
+    private CupoCursoService cupoCursoService;
+
+    @Autowired
+    private InscripcionCursoRepository inscripcionCursoRepository;
+
+    @Autowired
+    private CupoCursoRepository cupoCursoRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    private ColaInscripcionService colaInscripcionService;
+
+    private List<Curso> cursos;
+
+    private List<Alumno> alumnos;
+
+    @Before
+    public void init() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getInscripcion().getCola().setEnabled(true);
+        applicationProperties.getInscripcion().getCola().setWorkers(CURSOS);
+        colaInscripcionService = new ColaInscripcionService(applicationProperties, inscripcionCursoService);
+        colaInscripcionService.iniciar();
+
+        transaccion = new TransactionTemplate(transactionManager);
+        cursos = new ArrayList<>();
+        alumnos = new ArrayList<>();
+        transaccion.execute(status -> {
+            for (int i = 0; i < 2 * CURSOS; i++) {
+                Curso curso = CursoResourceIntTest.createEntity(em).vacantes(VACANTES);
+                em.persist(curso);
+                cursos.add(curso);
+            }
+            for (int i = 0; i < ALUMNOS; i++) {
+                Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(200L + i).padron("cola" + i);
+                em.persist(alumno);
+                alumnos.add(alumno);
+            }
+            return null;
+        });
+    }
+
+    @After
+    public void destroy() {
+        colaInscripcionService.detener();
+        transaccion.execute(status -> {
+            for (Curso curso : cursos) {
+                em.createQuery("DELETE FROM InscripcionCurso i WHERE i.curso.id = :cursoId").setParameter("cursoId", curso.getId()).executeUpdate();
+                em.createQuery("DELETE FROM CupoCurso c WHERE c.cursoId = :cursoId").setParameter("cursoId", curso.getId()).executeUpdate();
+                em.createQuery("DELETE FROM Curso c WHERE c.id = :cursoId").setParameter("cursoId", curso.getId()).executeUpdate();
+            }
+            em.createQuery("DELETE FROM Alumno a WHERE a.padron LIKE 'cola%'").executeUpdate();
+            return null;
+        });
+        for (Curso curso : cursos) {
+            cupoCursoService.eliminar(curso.getId());
+        }
+    }
+
+    @Test
+    public void assertThatColaYViaSincronicaRespetanLasVacantes() throws Exception {
+        List<Curso> sincronicos = cursos.subList(0, CURSOS);
+        List<Curso> encolados = cursos.subList(CURSOS, 2 * CURSOS);
+
+        inscribirTodos(sincronicos, (curso, alumno) -> () -> {
+            inscripcionCursoService.inscribir(curso, alumno);
+            return null;
+        });
+        inscribirTodos(encolados, (curso, alumno) -> () -> {
+            String ticket = colaInscripcionService.encolar(curso, alumno, "cola").get().getId();
+            TicketInscripcionDTO resultado;
+            do {
+                resultado = colaInscripcionService.consultar(ticket, "cola", 1000).get();
+            } while (resultado.getEstado() == TicketInscripcionDTO.Estado.PENDIENTE);
+            return null;
+        });
+
+        for (Curso curso : cursos) {
+            assertThat(inscripcionCursoRepository.countByCursoAndEstado(curso, InscripcionCursoEstado.REGULAR)).isEqualTo(VACANTES);
+            assertThat(inscripcionCursoRepository.countByCursoAndEstado(curso, InscripcionCursoEstado.CONDICIONAL))
+                .isEqualTo(ALUMNOS - VACANTES);
+            assertThat(cupoCursoRepository.findById(curso.getId()).get().getOcupadas()).isEqualTo(VACANTES);
+        }
+    }
+
+    /**
+     * Inscribe a todos los alumnos en todos los cursos desde CLIENTES hilos, que arrancan a la vez.
+     */
+    private void inscribirTodos(List<Curso> destino, Solicitud solicitud) throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Void>> resultados = new ArrayList<>();
+        for (Alumno alumno : alumnos) {
+            for (Curso curso : destino) {
+                Callable<Void> pedido = solicitud.crear(curso, alumno);
+                resultados.add(clientes.submit(() -> {
+                    largada.await();
+                    return pedido.call();
+                }));
+            }
+        }
+        largada.countDown();
+        for (Future<Void> resultado : resultados) {
+            resultado.get(60, TimeUnit.SECONDS);
+        }
+        clientes.shutdown();
+    }
+
+    private interface Solicitud {
+
+        Callable<Void> crear(Curso curso, Alumno alumno);
+    }
+}
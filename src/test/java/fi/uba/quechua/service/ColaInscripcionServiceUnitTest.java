@@ -0,0 +1,96 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.service.dto.TicketInscripcionDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the ColaInscripcionService.
+ *
+ * @see ColaInscripcionService
+ */
+public class ColaInscripcionServiceUnitTest {
+
+    private ColaInscripcionService colaInscripcionService;
+
+    private InscripcionCursoService inscripcionCursoService;
+
+    private Curso curso;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getInscripcion().getCola().setEnabled(true);
+        applicationProperties.getInscripcion().getCola().setWorkers(2);
+        inscripcionCursoService = mock(InscripcionCursoService.class);
+        colaInscripcionService = new ColaInscripcionService(applicationProperties, inscripcionCursoService);
+        colaInscripcionService.iniciar();
+        curso = new Curso().vacantes(1);
+        curso.setId(7L);
+    }
+
+    @After
+    public void tearDown() {
+        colaInscripcionService.detener();
+    }
+
+    @Test
+    public void testInscripcionEncolada() {
+        when(inscripcionCursoService.inscribirLote(anyList())).thenAnswer(invocation -> {
+            List<InscripcionCurso> solicitudes = invocation.getArgument(0);
+            List<InscripcionCurso> resultado = new ArrayList<>();
+            for (InscripcionCurso solicitud : solicitudes) {
+                solicitud.setId(solicitud.getAlumno().getId());
+                resultado.add(solicitud.estado(InscripcionCursoEstado.REGULAR));
+            }
+            return resultado;
+        });
+
+        Optional<TicketInscripcionDTO> ticket = colaInscripcionService.encolar(curso, alumno(1L), "alumno");
+        assertThat(ticket).isPresent();
+
+        Optional<TicketInscripcionDTO> resultado = colaInscripcionService.consultar(ticket.get().getId(), "alumno", 5000);
+        assertThat(resultado).isPresent();
+        assertThat(resultado.get().getEstado()).isEqualTo(TicketInscripcionDTO.Estado.REGULAR);
+        assertThat(resultado.get().getInscripcionCursoId()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testTicketDeOtroUsuario() {
+        Optional<TicketInscripcionDTO> ticket = colaInscripcionService.encolar(curso, alumno(1L), "alumno");
+        assertThat(ticket).isPresent();
+        assertThat(colaInscripcionService.consultar(ticket.get().getId(), "otro", 0)).isEmpty();
+    }
+
+    @Test
+    public void testInscripcionRepetidaRechazada() {
+        List<InscripcionCurso> repetida = new ArrayList<>();
+        repetida.add(null);
+        when(inscripcionCursoService.inscribirLote(anyList())).thenReturn(repetida);
+
+        Optional<TicketInscripcionDTO> ticket = colaInscripcionService.encolar(curso, alumno(1L), "alumno");
+        Optional<TicketInscripcionDTO> resultado = colaInscripcionService.consultar(ticket.get().getId(), "alumno", 5000);
+        assertThat(resultado.get().getEstado()).isEqualTo(TicketInscripcionDTO.Estado.RECHAZADA);
+    }
+
+    private Alumno alumno(Long id) {
+        Alumno alumno = new Alumno();
+        alumno.setId(id);
+        return alumno;
+    }
+}
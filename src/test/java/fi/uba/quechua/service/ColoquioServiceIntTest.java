@@ -0,0 +1,120 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.domain.enumeration.InscripcionColoquioEstado;
+import fi.uba.quechua.repository.MensajeOutboxRepository;
+import fi.uba.quechua.service.dto.ColoquioDTO;
+import fi.uba.quechua.web.rest.AlumnoResourceIntTest;
+import fi.uba.quechua.web.rest.ColoquioResourceIntTest;
+import fi.uba.quechua.web.rest.CursadaResourceIntTest;
+import fi.uba.quechua.web.rest.CursoResourceIntTest;
+import fi.uba.quechua.web.rest.MateriaResourceIntTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ColoquioService.
+ *
+ * @see ColoquioService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class ColoquioServiceIntTest {
+
+    @Autowired
+    private ColoquioService coloquioService;
+
+    @Autowired
+    private MensajeOutboxRepository mensajeOutboxRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    private Curso curso;
+
+    private Cursada cursada;
+
+    @Before
+    public void init() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        curso = CursoResourceIntTest.createEntity(em);
+        em.persist(curso);
+        cursada = CursadaResourceIntTest.createEntity(em);
+        em.persist(cursada);
+    }
+
+    private Coloquio crearColoquio(int activas, int eliminadas) {
+        Coloquio coloquio = ColoquioResourceIntTest.createEntity(em).curso(curso).fecha(LocalDate.now().plusDays(7));
+        em.persist(coloquio);
+        for (int i = 0; i < activas + eliminadas; i++) {
+            em.persist(new InscripcionColoquio().coloquio(coloquio).cursada(cursada)
+                .estado(i < activas ? InscripcionColoquioEstado.ACTIVA : InscripcionColoquioEstado.ELIMINADA));
+        }
+        return coloquio;
+    }
+
+    @Test
+    public void assertThatInscripcionesAreCountedInOneStatement() {
+        Coloquio conDos = crearColoquio(2, 1);
+        Coloquio sinInscripciones = crearColoquio(0, 0);
+        Coloquio conUna = crearColoquio(1, 2);
+        em.flush();
+        statistics.clear();
+
+        List<ColoquioDTO> coloquios = coloquioService.findAllColoquiosDTOByCurso(curso);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(coloquios).hasSize(3);
+        for (ColoquioDTO coloquio : coloquios) {
+            if (coloquio.getId().equals(conDos.getId())) {
+                assertThat(coloquio.getInscripcionesCantidad()).isEqualTo(2);
+            } else if (coloquio.getId().equals(sinInscripciones.getId())) {
+                assertThat(coloquio.getInscripcionesCantidad()).isEqualTo(0);
+            } else {
+                assertThat(coloquio.getId()).isEqualTo(conUna.getId());
+                assertThat(coloquio.getInscripcionesCantidad()).isEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    public void assertThatEliminarGuardaLasNotificacionesEnElOutbox() {
+        Materia materia = MateriaResourceIntTest.createEntity(em);
+        em.persist(materia);
+        curso.setMateria(materia);
+        Alumno conToken = AlumnoResourceIntTest.createEntity(em).userId(1L);
+        em.persist(conToken);
+        Alumno sinToken = AlumnoResourceIntTest.createEntity(em).userId(2L).padron("99999").firebaseToken(null);
+        em.persist(sinToken);
+        Coloquio coloquio = crearColoquio(0, 0);
+        InscripcionColoquio notificada = new InscripcionColoquio().coloquio(coloquio).cursada(cursada).alumno(conToken)
+            .estado(InscripcionColoquioEstado.ACTIVA);
+        em.persist(notificada);
+        em.persist(new InscripcionColoquio().coloquio(coloquio).cursada(cursada).alumno(sinToken)
+            .estado(InscripcionColoquioEstado.ACTIVA));
+        em.flush();
+
+        coloquioService.eliminar(coloquio);
+
+        assertThat(mensajeOutboxRepository.findAll()).extracting(MensajeOutbox::getClave)
+            .containsExactly("coloquio-eliminado-" + notificada.getId());
+    }
+}
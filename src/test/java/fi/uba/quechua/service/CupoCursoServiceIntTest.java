@@ -0,0 +1,171 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.CupoCurso;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.CupoCursoRepository;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.web.rest.AlumnoResourceIntTest;
+import fi.uba.quechua.web.rest.CursoResourceIntTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CupoCursoService.
+ * <p>
+ * Cada operacion confirma su propia transaccion, como en produccion, asi que los datos se borran al final.
+ *
+ * @see CupoCursoService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+public class CupoCursoServiceIntTest {
+
+    private static final int ALUMNOS = 6;
+
+    private static final int VACANTES = 2;
+
+    @Autowired
+    private CupoCursoService cupoCursoService;
+
+    @Autowired
+    private InscripcionCursoService inscripcionCursoService;
+
+    @Autowired
+    private CupoCursoRepository cupoCursoRepository;
+
+    @Autowired
+    private InscripcionCursoRepository inscripcionCursoRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    private Curso curso;
+
+    private List<Alumno> alumnos;
+
+    @Before
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+        alumnos = new ArrayList<>();
+        // Sin pasar por CursoService, como un curso anterior a los contadores
+        curso = transaccion.execute(status -> {
+            Curso nuevo = CursoResourceIntTest.createEntity(em).vacantes(VACANTES);
+            em.persist(nuevo);
+            for (int i = 0; i < ALUMNOS; i++) {
+                Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(100L + i).padron("cupo" + i);
+                em.persist(alumno);
+                alumnos.add(alumno);
+            }
+            return nuevo;
+        });
+    }
+
+    @After
+    public void destroy() {
+        transaccion.execute(status -> {
+            em.createQuery("DELETE FROM InscripcionCurso i WHERE i.curso.id = :cursoId").setParameter("cursoId", curso.getId()).executeUpdate();
+            em.createQuery("DELETE FROM CupoCurso c WHERE c.cursoId = :cursoId").setParameter("cursoId", curso.getId()).executeUpdate();
+            em.createQuery("DELETE FROM Alumno a WHERE a.padron LIKE 'cupo%'").executeUpdate();
+            em.createQuery("DELETE FROM Curso c WHERE c.id = :cursoId").setParameter("cursoId", curso.getId()).executeUpdate();
+            return null;
+        });
+        cupoCursoService.eliminar(curso.getId());
+    }
+
+    @Test
+    public void assertThatConcurrentInscripcionesNeverExceedVacantes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ALUMNOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<InscripcionCurso>> inscripciones = new ArrayList<>();
+        for (Alumno alumno : alumnos) {
+            inscripciones.add(executor.submit(() -> {
+                largada.await();
+                return inscripcionCursoService.inscribir(curso, alumno);
+            }));
+        }
+        largada.countDown();
+        int regulares = 0;
+        for (Future<InscripcionCurso> inscripcion : inscripciones) {
+            if (inscripcion.get(30, TimeUnit.SECONDS).getEstado() == InscripcionCursoEstado.REGULAR) {
+                regulares++;
+            }
+        }
+        executor.shutdown();
+
+        // Todas las inscripciones crearon el contador a la vez: una lo inserto y el resto lo reutilizo
+        assertThat(regulares).isEqualTo(VACANTES);
+        assertThat(inscripcionCursoRepository.countByCursoAndEstado(curso, InscripcionCursoEstado.CONDICIONAL))
+            .isEqualTo(ALUMNOS - VACANTES);
+        assertThat(cupoCursoRepository.findById(curso.getId()).get().getOcupadas()).isEqualTo(VACANTES);
+    }
+
+    @Test
+    public void assertThatLiberarYEditarMuevenElContador() {
+        InscripcionCurso primera = inscripcionCursoService.inscribir(curso, alumnos.get(0));
+        InscripcionCurso segunda = inscripcionCursoService.inscribir(curso, alumnos.get(1));
+        assertThat(ocupadas()).isEqualTo(2);
+
+        transaccion.execute(status -> inscripcionCursoService.cambiarEstado(
+            inscripcionCursoRepository.findById(primera.getId()).get(), InscripcionCursoEstado.ELIMINADA));
+        assertThat(ocupadas()).isEqualTo(1);
+
+        // Editar la inscripcion desde el ABM tambien mueve el contador
+        segunda.setEstado(InscripcionCursoEstado.ELIMINADA);
+        inscripcionCursoService.save(segunda);
+        assertThat(ocupadas()).isZero();
+        segunda.setEstado(InscripcionCursoEstado.REGULAR);
+        inscripcionCursoService.save(segunda);
+        assertThat(ocupadas()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatReconciliarCreaYCorrigeLosContadores() {
+        transaccion.execute(status -> {
+            em.persist(new InscripcionCurso().curso(curso).alumno(alumnos.get(0)).estado(InscripcionCursoEstado.REGULAR));
+            em.persist(new InscripcionCurso().curso(curso).alumno(alumnos.get(1)).estado(InscripcionCursoEstado.CONDICIONAL));
+            return null;
+        });
+
+        // Un curso sin contador arranca con sus inscripciones regulares ya contadas
+        cupoCursoService.reconciliar();
+        assertThat(ocupadas()).isEqualTo(1);
+
+        transaccion.execute(status -> cupoCursoRepository.save(
+            cupoCursoRepository.findById(curso.getId()).get().ocupadas(VACANTES).vacantes(VACANTES + 5)));
+        cupoCursoService.reconciliar();
+        CupoCurso cupo = cupoCursoRepository.findById(curso.getId()).get();
+        assertThat(cupo.getOcupadas()).isEqualTo(1);
+        assertThat(cupo.getVacantes()).isEqualTo(VACANTES);
+    }
+
+    private int ocupadas() {
+        return cupoCursoRepository.findById(curso.getId()).get().getOcupadas();
+    }
+}
@@ -0,0 +1,126 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.service.dto.CursoDTO;
+import fi.uba.quechua.web.rest.*;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CursoService.
+ * <p>
+ * Las consultas de los endpoints que leen cursos se cuentan en ConsultasPorEndpointIntTest.
+ *
+ * @see CursoService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class CursoServiceIntTest {
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @Before
+    public void init() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    /**
+     * Crea un curso con dos horarios y todas sus relaciones, cada una distinta de las de otros cursos.
+     *
+     * @param profesor el profesor del curso, o null para crear uno
+     */
+    public static Curso createCursoCompleto(EntityManager em, Profesor profesor) {
+        Departamento departamento = DepartamentoResourceIntTest.createEntity(em);
+        em.persist(departamento);
+        Carrera carrera = CarreraResourceIntTest.createEntity(em);
+        em.persist(carrera);
+        Materia materia = MateriaResourceIntTest.createEntity(em).departamento(departamento).carrera(carrera);
+        em.persist(materia);
+        if (profesor == null) {
+            profesor = ProfesorResourceIntTest.createEntity(em).userId(1L);
+            em.persist(profesor);
+        }
+        Periodo periodo = PeriodoResourceIntTest.createEntity(em);
+        em.persist(periodo);
+        Curso curso = CursoResourceIntTest.createEntity(em).materia(materia).profesor(profesor).periodo(periodo);
+        em.persist(curso);
+        em.persist(HorarioCursadaResourceIntTest.createEntity(em).curso(curso));
+        em.persist(HorarioCursadaResourceIntTest.createEntity(em).curso(curso));
+        return curso;
+    }
+
+    /**
+     * Deja la base lista para contar consultas: nada queda en el contexto de persistencia.
+     */
+    private void limpiar() {
+        em.flush();
+        em.clear();
+        statistics.clear();
+    }
+
+    @Test
+    public void assertThatRelacionesAreLazy() {
+        Long id = createCursoCompleto(em, null).getId();
+        limpiar();
+
+        Curso curso = em.find(Curso.class, id);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(curso.getMateria())).isFalse();
+        assertThat(Hibernate.isInitialized(curso.getProfesor())).isFalse();
+        assertThat(Hibernate.isInitialized(curso.getPeriodo())).isFalse();
+    }
+
+    @Test
+    public void assertThatHorariosNuevosTakeTheirIdsFromOneBlock() {
+        Curso existente = createCursoCompleto(em, null);
+        limpiar();
+
+        CursoDTO cursoDTO = new CursoDTO();
+        cursoDTO.setEstado(existente.getEstado());
+        cursoDTO.setNumero(existente.getNumero());
+        cursoDTO.setVacantes(existente.getVacantes());
+        cursoDTO.setMateria(existente.getMateria());
+        cursoDTO.setProfesor(existente.getProfesor());
+        cursoDTO.setPeriodo(existente.getPeriodo());
+        Set<HorarioCursada> horarios = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            horarios.add(HorarioCursadaResourceIntTest.createEntity(em));
+        }
+        cursoDTO.setHorarios(horarios);
+
+        cursoService.guardar(cursoDTO);
+        em.flush();
+
+        List<Long> ids = horarios.stream().map(HorarioCursada::getId).sorted().collect(Collectors.toList());
+        assertThat(ids.get(2) - ids.get(0)).isEqualTo(2);
+        Number proximoId = (Number) em.createNativeQuery("SELECT proximo_id FROM id_generador WHERE segmento = 'horario_cursada'")
+            .getSingleResult();
+        assertThat(proximoId.longValue()).isGreaterThan(ids.get(2)).isLessThanOrEqualTo(ids.get(2) + 50);
+    }
+}
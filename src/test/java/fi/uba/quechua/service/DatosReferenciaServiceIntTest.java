@@ -0,0 +1,90 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.repository.MateriaRepository;
+import fi.uba.quechua.web.rest.MateriaResourceIntTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the DatosReferenciaService.
+ * <p>
+ * Cada cambio confirma su propia transaccion, como en produccion, asi que la materia se borra al final.
+ *
+ * @see DatosReferenciaService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+public class DatosReferenciaServiceIntTest {
+
+    @Autowired
+    private DatosReferenciaService datosReferenciaService;
+
+    @Autowired
+    private MateriaRepository materiaRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    private Materia materia;
+
+    @Before
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+        materia = materiaRepository.save(MateriaResourceIntTest.createEntity(em).nombre("Referencia"));
+    }
+
+    @After
+    public void destroy() {
+        materiaRepository.deleteById(materia.getId());
+    }
+
+    private String nombreEnLaFoto() {
+        return datosReferenciaService.getDatos().getMateria(materia.getId()).map(Materia::getNombre).orElse(null);
+    }
+
+    @Test
+    public void assertThatChangesThroughHibernateReplaceTheFoto() {
+        assertThat(nombreEnLaFoto()).isEqualTo("Referencia");
+
+        materiaRepository.save(materia.nombre("Cambiada"));
+
+        assertThat(nombreEnLaFoto()).isEqualTo("Cambiada");
+    }
+
+    @Test
+    public void assertThatChangesFromAnotherInstanceAreSeenOnTheNextVersionCheck() {
+        datosReferenciaService.refrescarVersion();
+        assertThat(nombreEnLaFoto()).isEqualTo("Referencia");
+
+        // Otra instancia escribe la materia e incrementa su version, sin pasar por los listeners de esta
+        transaccion.execute(status -> {
+            em.createNativeQuery("UPDATE materia SET nombre = 'Remota' WHERE id = :id")
+                .setParameter("id", materia.getId()).executeUpdate();
+            em.createNativeQuery("UPDATE version_entidad SET version = version + 1 WHERE entidad = 'Materia'").executeUpdate();
+            return null;
+        });
+        assertThat(nombreEnLaFoto()).isEqualTo("Referencia");
+
+        datosReferenciaService.refrescarVersion();
+
+        assertThat(nombreEnLaFoto()).isEqualTo("Remota");
+    }
+}
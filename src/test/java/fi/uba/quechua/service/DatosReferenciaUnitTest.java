@@ -0,0 +1,90 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Carrera;
+import fi.uba.quechua.domain.Departamento;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the DatosReferencia.
+ *
+ * @see DatosReferencia
+ */
+public class DatosReferenciaUnitTest {
+
+    private Carrera informatica;
+
+    private Departamento computacion;
+
+    private Materia algoritmos;
+
+    private Materia taller;
+
+    private DatosReferencia datos;
+
+    @Before
+    public void init() {
+        informatica = new Carrera().nombre("Informatica");
+        informatica.setId(1L);
+        computacion = new Departamento().nombre("Computacion").codigo(75);
+        computacion.setId(2L);
+        taller = new Materia().nombre("Álgebra II").codigo("75.42").creditos(6).departamento(computacion).carrera(informatica);
+        taller.setId(10L);
+        algoritmos = new Materia().nombre("Algoritmos").codigo("75.40").creditos(6).departamento(computacion).carrera(informatica);
+        algoritmos.setId(11L);
+        Periodo periodo = new Periodo().anio("2026").cuatrimestre(Cuatrimestre.SEGUNDO);
+        periodo.setId(3L);
+        datos = new DatosReferencia(7, Collections.singletonList(informatica), Collections.singletonList(computacion),
+            Arrays.asList(taller, algoritmos), Collections.singletonList(periodo));
+    }
+
+    @Test
+    public void testBuscaPorIdYCodigo() {
+        assertThat(datos.getVersion()).isEqualTo(7);
+        assertThat(datos.getCarrera(1L).get().getNombre()).isEqualTo("Informatica");
+        assertThat(datos.getDepartamentoByCodigo(75).get().getId()).isEqualTo(2L);
+        assertThat(datos.getMateriaByCodigo("75.42").get().getId()).isEqualTo(10L);
+        assertThat(datos.getMateria(11L).get().getCodigo()).isEqualTo("75.40");
+        assertThat(datos.getPeriodo(3L).get().getCuatrimestre()).isEqualTo(Cuatrimestre.SEGUNDO);
+        assertThat(datos.getCarrera(99L)).isEmpty();
+        assertThat(datos.getMateria(null)).isEmpty();
+    }
+
+    @Test
+    public void testIndexaMateriasOrdenadasPorCodigo() {
+        assertThat(datos.getMaterias()).extracting(Materia::getId).containsExactly(11L, 10L);
+        assertThat(datos.getMateriasByDepartamento(2L)).extracting(Materia::getId).containsExactly(11L, 10L);
+        assertThat(datos.getMateriasByCarrera(1L)).extracting(Materia::getId).containsExactly(11L, 10L);
+        assertThat(datos.getMateriasByCarrera(99L)).isEmpty();
+    }
+
+    @Test
+    public void testGuardaCopiasQueCompartenSusRelaciones() {
+        Materia copia = datos.getMateria(10L).get();
+
+        assertThat(copia).isNotSameAs(taller);
+        assertThat(copia.getCarrera()).isSameAs(datos.getCarrera(1L).get());
+        assertThat(copia.getDepartamento()).isSameAs(datos.getDepartamento(2L).get());
+
+        taller.setNombre("Otro nombre");
+        assertThat(copia.getNombre()).isEqualTo("Álgebra II");
+    }
+
+    @Test
+    public void testBuscaPorComienzoDelNombreSinAcentosNiMayusculas() {
+        assertThat(datos.getMateriasByCarreraAndNombre(1L, "alge")).extracting(Materia::getId).containsExactly(10L);
+        assertThat(datos.getMateriasByCarreraAndNombre(1L, "ÁLGEBRA")).extracting(Materia::getId).containsExactly(10L);
+        assertThat(datos.getMateriasByCarreraAndNombre(1L, "algó")).extracting(Materia::getId).containsExactly(11L);
+        assertThat(datos.getMateriasByCarreraAndNombre(1L, "")).extracting(Materia::getId).containsExactly(11L, 10L);
+        assertThat(datos.getMateriasByCarreraAndNombre(1L, "gebra")).isEmpty();
+        assertThat(datos.getMateriasByCarreraAndNombre(99L, "alge")).isEmpty();
+    }
+}
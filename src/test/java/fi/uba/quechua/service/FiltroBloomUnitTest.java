@@ -0,0 +1,49 @@
+package fi.uba.quechua.service;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the FiltroBloom.
+ *
+ * @see FiltroBloom
+ */
+public class FiltroBloomUnitTest {
+
+    @Test
+    public void testNoTieneFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filtro.agregar("token-" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filtro.quizasContiene("token-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    public void testRespetaLaProbabilidadDeFalsosPositivos() {
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filtro.agregar("token-" + i);
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filtro.quizasContiene("otro-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertThat(falsosPositivos).isLessThan(300);
+    }
+
+    @Test
+    public void testVacioNoContieneNada() {
+        FiltroBloom filtro = new FiltroBloom(0, 0.01);
+
+        assertThat(filtro.quizasContiene("token")).isFalse();
+        assertThat(filtro.quizasContiene("")).isFalse();
+    }
+}
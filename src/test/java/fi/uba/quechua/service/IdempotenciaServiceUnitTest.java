@@ -0,0 +1,91 @@
+package fi.uba.quechua.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the IdempotenciaService.
+ *
+ * @see IdempotenciaService
+ */
+public class IdempotenciaServiceUnitTest {
+
+    private IdempotenciaService idempotenciaService;
+
+    private AtomicInteger ejecuciones;
+
+    @Before
+    public void setup() {
+        idempotenciaService = new IdempotenciaService(new ConcurrentMapCacheManager());
+        ejecuciones = new AtomicInteger();
+        autenticar("alumno");
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void autenticar(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, "clave"));
+    }
+
+    private ResponseEntity<?> crear() {
+        int numero = ejecuciones.incrementAndGet();
+        return ResponseEntity.created(URI.create("/api/inscripcion-cursos/" + numero)).body(numero);
+    }
+
+    @Test
+    public void testReintentoDevuelveLaRespuestaOriginal() throws Exception {
+        ResponseEntity<?> original = idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1", this::crear);
+        ResponseEntity<?> reintento = idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1", this::crear);
+
+        assertThat(ejecuciones.get()).isEqualTo(1);
+        assertThat(reintento.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(reintento.getBody()).isEqualTo(original.getBody());
+        assertThat(reintento.getHeaders().getLocation()).isEqualTo(original.getHeaders().getLocation());
+        assertThat(reintento.getHeaders().getFirst(IdempotenciaService.IDEMPOTENT_REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    public void testClavesSeparadasPorUsuarioYOperacion() throws Exception {
+        idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1", this::crear);
+        idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/2", this::crear);
+        autenticar("otro");
+        idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1", this::crear);
+        idempotenciaService.ejecutar(null, "inscripcion-cursos/1", this::crear);
+
+        assertThat(ejecuciones.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void testErrorNoSeGuarda() throws Exception {
+        assertThatThrownBy(() -> idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1", () -> {
+            throw new IllegalStateException("error");
+        })).isInstanceOf(IllegalStateException.class);
+
+        idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1", this::crear);
+        assertThat(ejecuciones.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRequestEnCursoDevuelveConflicto() throws Exception {
+        ResponseEntity<?> concurrente = idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1",
+            () -> idempotenciaService.ejecutar("clave-1", "inscripcion-cursos/1", this::crear));
+
+        assertThat(concurrente.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(ejecuciones.get()).isZero();
+    }
+}
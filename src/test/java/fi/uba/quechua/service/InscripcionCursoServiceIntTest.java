@@ -0,0 +1,115 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.CupoCurso;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.web.rest.AlumnoResourceIntTest;
+import fi.uba.quechua.web.rest.CursoResourceIntTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the InscripcionCursoService.
+ *
+ * @see InscripcionCursoService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class InscripcionCursoServiceIntTest {
+
+    @Autowired
+    private InscripcionCursoService inscripcionCursoService;
+
+    @Autowired
+    private InscripcionCursoRepository inscripcionCursoRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @Before
+    public void init() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private Curso crearCurso(InscripcionCursoEstado... estados) {
+        Curso curso = CursoResourceIntTest.createEntity(em);
+        em.persist(curso);
+        for (InscripcionCursoEstado estado : estados) {
+            em.persist(new InscripcionCurso().curso(curso).estado(estado));
+        }
+        return curso;
+    }
+
+    @Test
+    public void assertThatInscriptosAreCountedInOneStatement() {
+        Curso conTres = crearCurso(InscripcionCursoEstado.REGULAR, InscripcionCursoEstado.REGULAR,
+            InscripcionCursoEstado.CONDICIONAL, InscripcionCursoEstado.ELIMINADA);
+        Curso sinInscriptos = crearCurso(InscripcionCursoEstado.ELIMINADA);
+        Curso conUno = crearCurso(InscripcionCursoEstado.REGULAR);
+        em.flush();
+        statistics.clear();
+
+        Map<Long, Long> inscriptos = inscripcionCursoService.contarInscriptos(Arrays.asList(conTres, sinInscriptos, conUno));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(inscriptos).containsEntry(conTres.getId(), 3L).containsEntry(conUno.getId(), 1L)
+            .doesNotContainKey(sinInscriptos.getId());
+    }
+
+    @Test
+    public void assertThatIsInscriptoDoesNotLoadTheInscripcion() {
+        Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(1L);
+        em.persist(alumno);
+        Curso curso = crearCurso();
+        Curso otro = crearCurso();
+        em.persist(new InscripcionCurso().curso(curso).alumno(alumno).estado(InscripcionCursoEstado.CONDICIONAL));
+        em.persist(new InscripcionCurso().curso(otro).alumno(alumno).estado(InscripcionCursoEstado.ELIMINADA));
+        em.flush();
+        statistics.clear();
+
+        assertThat(inscripcionCursoService.isInscripto(curso, alumno)).isTrue();
+        assertThat(inscripcionCursoService.isInscripto(otro, alumno)).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void assertThatPromoverCondicionalesDejaAlFinalALosAlumnosSinPrioridad() {
+        Curso curso = crearCurso();
+        em.persist(new CupoCurso().cursoId(curso.getId()).vacantes(1).ocupadas(0));
+        Alumno sinPrioridad = AlumnoResourceIntTest.createEntity(em).userId(1L).padron("promocion1").prioridad(0);
+        Alumno conPrioridad = AlumnoResourceIntTest.createEntity(em).userId(2L).padron("promocion2").prioridad(5);
+        em.persist(sinPrioridad);
+        em.persist(conPrioridad);
+        // La del alumno sin prioridad es la mas antigua
+        em.persist(new InscripcionCurso().curso(curso).alumno(sinPrioridad).estado(InscripcionCursoEstado.CONDICIONAL));
+        InscripcionCurso promovida = new InscripcionCurso().curso(curso).alumno(conPrioridad).estado(InscripcionCursoEstado.CONDICIONAL);
+        em.persist(promovida);
+        em.flush();
+
+        assertThat(inscripcionCursoService.promoverCondicionales(curso.getId())).isEqualTo(1);
+        em.clear();
+        assertThat(inscripcionCursoRepository.findById(promovida.getId()).get().getEstado()).isEqualTo(InscripcionCursoEstado.REGULAR);
+    }
+}
@@ -0,0 +1,176 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.AlumnoRepository;
+import fi.uba.quechua.repository.ArchivoRepository;
+import fi.uba.quechua.repository.CursoRepository;
+import fi.uba.quechua.repository.InscripcionCursoRepository;
+import fi.uba.quechua.service.dto.ResultadoInscripcionDTO;
+import fi.uba.quechua.service.dto.TicketInscripcionDTO;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the InscripcionCursoService.
+ *
+ * @see InscripcionCursoService
+ */
+public class InscripcionCursoServiceUnitTest {
+
+    private InscripcionCursoService inscripcionCursoService;
+
+    private InscripcionCursoRepository inscripcionCursoRepository;
+
+    private CupoCursoService cupoCursoService;
+
+    private CursoRepository cursoRepository;
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private Alumno alumno;
+
+    private Curso curso1;
+
+    private Curso curso2;
+
+    @Before
+    public void setup() {
+        inscripcionCursoRepository = mock(InscripcionCursoRepository.class);
+        cupoCursoService = mock(CupoCursoService.class);
+        cursoRepository = mock(CursoRepository.class);
+        applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        inscripcionCursoService = new InscripcionCursoService(inscripcionCursoRepository, cupoCursoService,
+            cursoRepository, mock(AsignacionVacantesService.class), mock(OcupacionSemanalService.class),
+            mock(HorarioCursadaService.class), mock(ArchivoRepository.class), mock(AlumnoRepository.class), applicationEventPublisher);
+        alumno = new Alumno();
+        alumno.setId(1L);
+        curso1 = new Curso();
+        curso1.setId(1L);
+        curso2 = new Curso();
+        curso2.setId(2L);
+        when(cursoRepository.findAllById(any())).thenReturn(Arrays.asList(curso2, curso1));
+        when(inscripcionCursoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<InscripcionCurso> inscripciones = invocation.getArgument(0);
+            long id = 100;
+            for (InscripcionCurso inscripcion : inscripciones) {
+                inscripcion.setId(id++);
+            }
+            return inscripciones;
+        });
+    }
+
+    @Test
+    public void testInscribirVariosReservaEnOrden() {
+        when(inscripcionCursoRepository.findCursoIdsByAlumnoAndCursoIdInAndEstadoNot(any(), any(), any()))
+            .thenReturn(Collections.emptyList());
+        when(cupoCursoService.reservar(curso1)).thenReturn(true);
+        when(cupoCursoService.reservar(curso2)).thenReturn(false);
+
+        List<ResultadoInscripcionDTO> resultados = inscripcionCursoService.inscribirVarios(alumno, Arrays.asList(2L, 1L), true);
+
+        assertThat(resultados).extracting(ResultadoInscripcionDTO::getCursoId).containsExactly(1L, 2L);
+        assertThat(resultados).extracting(ResultadoInscripcionDTO::getEstado)
+            .containsExactly(TicketInscripcionDTO.Estado.REGULAR, TicketInscripcionDTO.Estado.CONDICIONAL);
+        assertThat(resultados).extracting(ResultadoInscripcionDTO::getInscripcionCursoId).containsExactly(100L, 101L);
+        InOrder orden = inOrder(cupoCursoService);
+        orden.verify(cupoCursoService).reservar(curso1);
+        orden.verify(cupoCursoService).reservar(curso2);
+    }
+
+    @Test
+    public void testInscribirVariosTodoONada() {
+        when(inscripcionCursoRepository.findCursoIdsByAlumnoAndCursoIdInAndEstadoNot(any(), any(), eq(InscripcionCursoEstado.ELIMINADA)))
+            .thenReturn(Collections.singletonList(2L));
+
+        List<ResultadoInscripcionDTO> resultados = inscripcionCursoService.inscribirVarios(alumno, Arrays.asList(1L, 2L, 3L), true);
+
+        assertThat(resultados).extracting(ResultadoInscripcionDTO::getEstado).containsExactly(
+            TicketInscripcionDTO.Estado.PENDIENTE, TicketInscripcionDTO.Estado.RECHAZADA, TicketInscripcionDTO.Estado.RECHAZADA);
+        verify(cupoCursoService, never()).reservar(any());
+        verify(inscripcionCursoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testInscribirVariosParcial() {
+        when(inscripcionCursoRepository.findCursoIdsByAlumnoAndCursoIdInAndEstadoNot(any(), any(), eq(InscripcionCursoEstado.ELIMINADA)))
+            .thenReturn(Collections.singletonList(2L));
+        when(cupoCursoService.reservar(curso1)).thenReturn(true);
+
+        List<ResultadoInscripcionDTO> resultados = inscripcionCursoService.inscribirVarios(alumno, Arrays.asList(1L, 2L, 3L), false);
+
+        assertThat(resultados).extracting(ResultadoInscripcionDTO::getEstado).containsExactly(
+            TicketInscripcionDTO.Estado.REGULAR, TicketInscripcionDTO.Estado.RECHAZADA, TicketInscripcionDTO.Estado.RECHAZADA);
+        assertThat(resultados.get(0).getInscripcionCursoId()).isEqualTo(100L);
+        verify(cupoCursoService, never()).reservar(curso2);
+    }
+
+    @Test
+    public void testCambiarCursoEnOrdenDeId() {
+        InscripcionCurso inscripcion = new InscripcionCurso().alumno(alumno).curso(curso1).estado(InscripcionCursoEstado.REGULAR);
+        when(cupoCursoService.reservar(curso2)).thenReturn(true);
+        when(inscripcionCursoRepository.save(any(InscripcionCurso.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<InscripcionCurso> nueva = inscripcionCursoService.cambiarCurso(inscripcion, curso2);
+
+        assertThat(nueva).isPresent();
+        assertThat(nueva.get().getCurso()).isEqualTo(curso2);
+        assertThat(nueva.get().getEstado()).isEqualTo(InscripcionCursoEstado.REGULAR);
+        assertThat(inscripcion.getEstado()).isEqualTo(InscripcionCursoEstado.ELIMINADA);
+        InOrder orden = inOrder(cupoCursoService);
+        orden.verify(cupoCursoService).liberar(curso1);
+        orden.verify(cupoCursoService).reservar(curso2);
+    }
+
+    @Test
+    public void testCambiarCursoSinVacantesNoPierdeLaVacante() {
+        InscripcionCurso inscripcion = new InscripcionCurso().alumno(alumno).curso(curso1).estado(InscripcionCursoEstado.REGULAR);
+        when(cupoCursoService.reservar(curso2)).thenReturn(false);
+
+        Optional<InscripcionCurso> nueva = inscripcionCursoService.cambiarCurso(inscripcion, curso2);
+
+        assertThat(nueva).isEmpty();
+        assertThat(inscripcion.getEstado()).isEqualTo(InscripcionCursoEstado.REGULAR);
+        verify(cupoCursoService).ocupar(curso1);
+        verify(inscripcionCursoRepository, never()).save(any(InscripcionCurso.class));
+    }
+
+    @Test
+    public void testCambiarCursoReservaPrimeroElDeMenorId() {
+        InscripcionCurso inscripcion = new InscripcionCurso().alumno(alumno).curso(curso2).estado(InscripcionCursoEstado.REGULAR);
+        when(cupoCursoService.reservar(curso1)).thenReturn(false);
+
+        assertThat(inscripcionCursoService.cambiarCurso(inscripcion, curso1)).isEmpty();
+        verify(cupoCursoService, never()).liberar(any());
+    }
+
+    @Test
+    public void testPromoverCondicionalesMientrasHayaVacantes() {
+        InscripcionCurso primera = new InscripcionCurso().alumno(alumno).curso(curso1).estado(InscripcionCursoEstado.CONDICIONAL);
+        primera.setId(10L);
+        InscripcionCurso segunda = new InscripcionCurso().alumno(alumno).curso(curso1).estado(InscripcionCursoEstado.CONDICIONAL);
+        segunda.setId(11L);
+        when(inscripcionCursoRepository.findAllByCursoIdAndEstadoEnOrdenDePromocion(eq(1L), eq(InscripcionCursoEstado.CONDICIONAL), any()))
+            .thenReturn(Collections.singletonList(primera), Collections.singletonList(segunda));
+        when(cupoCursoService.reservar(curso1)).thenReturn(true, false);
+        when(inscripcionCursoRepository.cambiarEstado(10L, InscripcionCursoEstado.CONDICIONAL, InscripcionCursoEstado.REGULAR)).thenReturn(1);
+
+        assertThat(inscripcionCursoService.promoverCondicionales(1L)).isEqualTo(1);
+        verify(inscripcionCursoRepository, never()).cambiarEstado(eq(11L), any(), any());
+        verify(applicationEventPublisher).publishEvent(any(CursoModificadoEvent.class));
+    }
+}
@@ -0,0 +1,135 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.HorarioCursada;
+import fi.uba.quechua.domain.enumeration.Dia;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.repository.HorarioCursadaRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the OcupacionSemanalService.
+ *
+ * @see OcupacionSemanalService
+ */
+public class OcupacionSemanalServiceUnitTest {
+
+    private OcupacionSemanalService ocupacionSemanalService;
+
+    private ApplicationProperties applicationProperties;
+
+    private HorarioCursadaRepository horarioCursadaRepository;
+
+    private Alumno alumno;
+
+    @Before
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        horarioCursadaRepository = mock(HorarioCursadaRepository.class);
+        ocupacionSemanalService = new OcupacionSemanalService(applicationProperties, horarioCursadaRepository,
+            new ConcurrentMapCacheManager(OcupacionSemanalService.OCUPACION_ALUMNO_CACHE, OcupacionSemanalService.OCUPACION_CURSO_CACHE));
+        alumno = new Alumno();
+        alumno.setId(1L);
+        when(horarioCursadaRepository.findAllByInscripcionDelAlumnoAndEstadoNot(1L, InscripcionCursoEstado.ELIMINADA))
+            .thenReturn(Collections.singletonList(horario(Dia.LUNES, "18:00", "21:00")));
+        when(horarioCursadaRepository.findAllByInscripcionDelAlumnoAndEstadoNotAndCursoIdNot(1L, InscripcionCursoEstado.ELIMINADA, 10L))
+            .thenReturn(Collections.singletonList(horario(Dia.LUNES, "18:00", "21:00")));
+        when(horarioCursadaRepository.findAllByCursoId(10L))
+            .thenReturn(Collections.singletonList(horario(Dia.LUNES, "19:30", "22:30")));
+        when(horarioCursadaRepository.findAllByCursoId(20L))
+            .thenReturn(Collections.singletonList(horario(Dia.LUNES, "21:00", "23:00")));
+        when(horarioCursadaRepository.findAllByCursoId(30L))
+            .thenReturn(Collections.singletonList(horario(Dia.MARTES, "19:00", "22:00")));
+    }
+
+    private static HorarioCursada horario(Dia dia, String inicio, String fin) {
+        HorarioCursada horario = new HorarioCursada().dia(dia).horaInicio(inicio).horaFin(fin);
+        ReflectionTestUtils.invokeMethod(horario, "calcularMinutos");
+        return horario;
+    }
+
+    @Test
+    public void testMinutoDelDia() {
+        assertThat(HorarioCursada.minutoDelDia("09:30")).isEqualTo(570);
+        assertThat(HorarioCursada.minutoDelDia("9:30")).isEqualTo(570);
+        assertThat(HorarioCursada.minutoDelDia(" 19.15 ")).isEqualTo(1155);
+        assertThat(HorarioCursada.minutoDelDia("18hs")).isEqualTo(1080);
+        assertThat(HorarioCursada.minutoDelDia("24:00")).isEqualTo(1440);
+        assertThat(HorarioCursada.minutoDelDia("25:00")).isNull();
+        assertThat(HorarioCursada.minutoDelDia("10:75")).isNull();
+        assertThat(HorarioCursada.minutoDelDia("AAAAAAAAAA")).isNull();
+        assertThat(HorarioCursada.minutoDelDia(null)).isNull();
+    }
+
+    @Test
+    public void testOcupacionSemanal() {
+        OcupacionSemanal lunesNoche = OcupacionSemanal.de(Collections.singletonList(horario(Dia.LUNES, "18:00", "21:00")));
+
+        assertThat(lunesNoche.superpone(OcupacionSemanal.de(Collections.singletonList(horario(Dia.LUNES, "20:59", "22:00"))))).isTrue();
+        assertThat(lunesNoche.superpone(OcupacionSemanal.de(Collections.singletonList(horario(Dia.LUNES, "21:00", "22:00"))))).isFalse();
+        assertThat(lunesNoche.superpone(OcupacionSemanal.de(Collections.singletonList(horario(Dia.MARTES, "18:00", "21:00"))))).isFalse();
+        assertThat(lunesNoche.superpone(OcupacionSemanal.de(Collections.singletonList(horario(Dia.LUNES, "AAAAAAAAAA", "BBBBBBBBBB"))))).isFalse();
+    }
+
+    @Test
+    public void testSeSuperpone() {
+        assertThat(ocupacionSemanalService.seSuperpone(alumno, Collections.singleton(10L))).isTrue();
+        assertThat(ocupacionSemanalService.seSuperpone(alumno, Collections.singleton(20L))).isFalse();
+        assertThat(ocupacionSemanalService.seSuperpone(alumno, Arrays.asList(20L, 30L))).isFalse();
+        assertThat(ocupacionSemanalService.seSuperponeCambio(alumno, 10L, 20L)).isFalse();
+    }
+
+    @Test
+    public void testCambioNoBorraLosMinutosCompartidosConElOrigen() {
+        // El origen (40) ocupa lo mismo que otro curso del alumno, que sigue ocupando esos minutos
+        when(horarioCursadaRepository.findAllByInscripcionDelAlumnoAndEstadoNotAndCursoIdNot(1L, InscripcionCursoEstado.ELIMINADA, 40L))
+            .thenReturn(Collections.singletonList(horario(Dia.LUNES, "18:00", "21:00")));
+        when(horarioCursadaRepository.findAllByCursoId(40L))
+            .thenReturn(Collections.singletonList(horario(Dia.LUNES, "18:00", "21:00")));
+
+        assertThat(ocupacionSemanalService.seSuperponeCambio(alumno, 40L, 10L)).isTrue();
+        assertThat(ocupacionSemanalService.seSuperponeCambio(alumno, 40L, 30L)).isFalse();
+    }
+
+    @Test
+    public void testSeSuperponenEntreSi() {
+        when(horarioCursadaRepository.findAllByInscripcionDelAlumnoAndEstadoNot(1L, InscripcionCursoEstado.ELIMINADA))
+            .thenReturn(Collections.emptyList());
+
+        assertThat(ocupacionSemanalService.seSuperpone(alumno, Arrays.asList(20L, 10L))).isTrue();
+    }
+
+    @Test
+    public void testUsaCacheHastaInvalidar() {
+        ocupacionSemanalService.seSuperpone(alumno, Collections.singleton(10L));
+        ocupacionSemanalService.seSuperpone(alumno, Collections.singleton(30L));
+        verify(horarioCursadaRepository, times(1)).findAllByInscripcionDelAlumnoAndEstadoNot(1L, InscripcionCursoEstado.ELIMINADA);
+
+        ocupacionSemanalService.invalidar(alumno);
+        ocupacionSemanalService.seSuperpone(alumno, Collections.singleton(10L));
+        verify(horarioCursadaRepository, times(2)).findAllByInscripcionDelAlumnoAndEstadoNot(1L, InscripcionCursoEstado.ELIMINADA);
+        verify(horarioCursadaRepository, times(1)).findAllByCursoId(10L);
+
+        ocupacionSemanalService.invalidarHorarios();
+        ocupacionSemanalService.seSuperpone(alumno, Collections.singleton(10L));
+        verify(horarioCursadaRepository, times(2)).findAllByCursoId(10L);
+    }
+
+    @Test
+    public void testIgnorar() {
+        applicationProperties.getInscripcion().getSuperposicion().setPolitica(ApplicationProperties.Inscripcion.Superposicion.Politica.IGNORAR);
+
+        assertThat(ocupacionSemanalService.seSuperpone(alumno, Collections.singleton(10L))).isFalse();
+        verifyZeroInteractions(horarioCursadaRepository);
+    }
+}
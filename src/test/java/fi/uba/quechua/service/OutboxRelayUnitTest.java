@@ -0,0 +1,161 @@
+package fi.uba.quechua.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.MensajeOutbox;
+import fi.uba.quechua.domain.User;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxDestino;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxEstado;
+import fi.uba.quechua.firebase.FirebaseDispatcher;
+import fi.uba.quechua.repository.UserRepository;
+import fi.uba.quechua.service.dto.EmailTemplateDTO;
+import fi.uba.quechua.service.dto.NotificacionPushDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+
+import javax.mail.internet.AddressException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the OutboxRelay.
+ *
+ * @see OutboxRelay
+ */
+public class OutboxRelayUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxService outboxService;
+
+    private FirebaseDispatcher firebaseDispatcher;
+
+    private MailService mailService;
+
+    private UserRepository userRepository;
+
+    private OutboxRelay outboxRelay;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getOutbox().setEnabled(true);
+        applicationProperties.getOutbox().setBatchSize(10);
+        applicationProperties.getOutbox().setPushConcurrency(2);
+        applicationProperties.getOutbox().setCircuitBreakerThreshold(3);
+        applicationProperties.getOutbox().setCircuitBreakerOpenMillis(60000);
+        outboxService = mock(OutboxService.class);
+        firebaseDispatcher = mock(FirebaseDispatcher.class);
+        mailService = mock(MailService.class);
+        userRepository = mock(UserRepository.class);
+        outboxRelay = new OutboxRelay(applicationProperties, outboxService, firebaseDispatcher, mailService, userRepository,
+            objectMapper, new MetricRegistry());
+        outboxRelay.iniciar();
+    }
+
+    @After
+    public void destroy() {
+        outboxRelay.detener();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEnviaLosLotesConLaConcurrenciaDelDestino() throws Exception {
+        List<MensajeOutbox> lote = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            lote.add(mensaje(i, MensajeOutboxDestino.PUSH, new NotificacionPushDTO("Final Eliminado", "Se elimino la fecha", "dispositivo-" + i)));
+        }
+        when(outboxService.reservar(MensajeOutboxDestino.PUSH, 10)).thenReturn(lote, Collections.emptyList());
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        when(firebaseDispatcher.enviar(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            enCurso.decrementAndGet();
+            return "dispositivo-3".equals(invocation.getArgument(2)) ? FirebaseDispatcher.Resultado.FALLIDO : FirebaseDispatcher.Resultado.ENVIADO;
+        });
+
+        outboxRelay.drenar(MensajeOutboxDestino.PUSH);
+
+        assertThat(maximo.get()).isEqualTo(2);
+        ArgumentCaptor<Map<MensajeOutbox, MensajeOutboxEstado>> resultados = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).registrarResultados(resultados.capture());
+        assertThat(resultados.getValue()).hasSize(10);
+        assertThat(resultados.getValue().get(lote.get(2))).isEqualTo(MensajeOutboxEstado.PENDIENTE);
+        assertThat(resultados.getValue().values()).filteredOn(estado -> estado == MensajeOutboxEstado.ENVIADO).hasSize(9);
+        // El lote vino completo, se pidio otro
+        verify(outboxService, times(2)).reservar(MensajeOutboxDestino.PUSH, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAbreElCircuitoDespuesDeVariasFallas() throws Exception {
+        List<MensajeOutbox> lote = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            lote.add(mensaje(i, MensajeOutboxDestino.PUSH, new NotificacionPushDTO("Final Eliminado", "Se elimino la fecha", "dispositivo-" + i)));
+        }
+        when(outboxService.reservar(MensajeOutboxDestino.PUSH, 10)).thenReturn(lote);
+        when(firebaseDispatcher.enviar(anyString(), anyString(), anyString())).thenReturn(FirebaseDispatcher.Resultado.FALLIDO);
+
+        outboxRelay.drenar(MensajeOutboxDestino.PUSH);
+
+        assertThat(outboxRelay.isCircuitoAbierto(MensajeOutboxDestino.PUSH)).isTrue();
+        assertThat(outboxRelay.isCircuitoAbierto(MensajeOutboxDestino.MAIL)).isFalse();
+        // Con el circuito abierto ni se intenta: a lo sumo el envio que estaba en curso cuando se abrio
+        verify(firebaseDispatcher, atLeast(3)).enviar(anyString(), anyString(), anyString());
+        verify(firebaseDispatcher, atMost(4)).enviar(anyString(), anyString(), anyString());
+        ArgumentCaptor<Map<MensajeOutbox, MensajeOutboxEstado>> resultados = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).registrarResultados(resultados.capture());
+        assertThat(resultados.getValue().values()).containsOnly(MensajeOutboxEstado.PENDIENTE);
+
+        // Ni se reservan mas lotes hasta que se cierre
+        outboxRelay.drenar(MensajeOutboxDestino.PUSH);
+        verify(outboxService, times(1)).reservar(any(), anyInt());
+    }
+
+    @Test
+    public void testClasificaLosErroresDelMail() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("john.doe@example.com");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        MensajeOutbox email = mensaje(1L, MensajeOutboxDestino.MAIL, new EmailTemplateDTO(1L, "mail/activationEmail", "email.activation.title"));
+
+        assertThat(outboxRelay.entregar(email)).isEqualTo(MensajeOutboxEstado.ENVIADO);
+        verify(mailService).enviarEmailDesdeTemplate(user, "mail/activationEmail", "email.activation.title");
+
+        doThrow(new MailSendException("sin conexion")).when(mailService).enviarEmailDesdeTemplate(any(), anyString(), anyString());
+        assertThat(outboxRelay.entregar(email)).isEqualTo(MensajeOutboxEstado.PENDIENTE);
+
+        doThrow(new AddressException("direccion invalida")).when(mailService).enviarEmailDesdeTemplate(any(), anyString(), anyString());
+        assertThat(outboxRelay.entregar(email)).isEqualTo(MensajeOutboxEstado.RECHAZADO);
+
+        // Un usuario que ya no existe
+        MensajeOutbox sinUsuario = mensaje(2L, MensajeOutboxDestino.MAIL, new EmailTemplateDTO(2L, "mail/activationEmail", "email.activation.title"));
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        assertThat(outboxRelay.entregar(sinUsuario)).isEqualTo(MensajeOutboxEstado.RECHAZADO);
+    }
+
+    private MensajeOutbox mensaje(Long id, MensajeOutboxDestino destino, Object contenido) throws Exception {
+        MensajeOutbox mensaje = new MensajeOutbox()
+            .destino(destino)
+            .clave("mensaje-" + id)
+            .contenido(objectMapper.writeValueAsString(contenido))
+            .estado(MensajeOutboxEstado.PENDIENTE)
+            .intentos(1);
+        mensaje.setId(id);
+        return mensaje;
+    }
+}
@@ -0,0 +1,100 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.MensajeOutbox;
+import fi.uba.quechua.domain.User;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxDestino;
+import fi.uba.quechua.domain.enumeration.MensajeOutboxEstado;
+import fi.uba.quechua.repository.MensajeOutboxRepository;
+import fi.uba.quechua.repository.UserRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the OutboxService.
+ *
+ * @see OutboxService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class OutboxServiceIntTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MensajeOutboxRepository mensajeOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void assertThatClavesRepetidasNoSeAgregan() {
+        assertThat(outboxService.agregarPush("coloquio-eliminado-1", "Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isTrue();
+        assertThat(outboxService.agregarPush("coloquio-eliminado-1", "Final Eliminado", "Se elimino la fecha", "dispositivo-1")).isFalse();
+        assertThat(outboxService.agregarPush("coloquio-eliminado-2", "Final Eliminado", "Se elimino la fecha", null)).isFalse();
+
+        assertThat(mensajeOutboxRepository.findAll()).hasSize(1);
+        assertThat(mensajeOutboxRepository.existsByClave("coloquio-eliminado-1")).isTrue();
+    }
+
+    @Test
+    public void assertThatUnMensajeSeReservaUnaSolaVez() {
+        User user = userRepository.findOneByLogin("user").get();
+        outboxService.agregarPush("push-1", "Titulo", "Cuerpo", "dispositivo-1");
+        outboxService.agregarPush("push-2", "Titulo", "Cuerpo", "dispositivo-2");
+        outboxService.agregarPush("push-3", "Titulo", "Cuerpo", "dispositivo-3");
+        outboxService.agregarEmail("mail-1", user, "mail/activationEmail", "email.activation.title");
+
+        List<MensajeOutbox> primerLote = outboxService.reservar(MensajeOutboxDestino.PUSH, 2);
+        List<MensajeOutbox> segundoLote = outboxService.reservar(MensajeOutboxDestino.PUSH, 2);
+
+        assertThat(primerLote).extracting(MensajeOutbox::getClave).containsExactly("push-1", "push-2");
+        assertThat(primerLote).extracting(MensajeOutbox::getIntentos).containsOnly(1);
+        assertThat(segundoLote).extracting(MensajeOutbox::getClave).containsExactly("push-3");
+        assertThat(outboxService.reservar(MensajeOutboxDestino.PUSH, 2)).isEmpty();
+        assertThat(outboxService.reservar(MensajeOutboxDestino.MAIL, 2)).extracting(MensajeOutbox::getContenido)
+            .containsExactly("{\"userId\":" + user.getId() + ",\"template\":\"mail/activationEmail\",\"titleKey\":\"email.activation.title\"}");
+    }
+
+    @Test
+    public void assertThatLosResultadosSeRegistran() {
+        for (int i = 1; i <= 4; i++) {
+            outboxService.agregarPush("push-" + i, "Titulo", "Cuerpo", "dispositivo-" + i);
+        }
+        List<MensajeOutbox> lote = outboxService.reservar(MensajeOutboxDestino.PUSH, 10);
+        // El ultimo ya agoto sus intentos
+        lote.get(3).setIntentos(10);
+        Map<MensajeOutbox, MensajeOutboxEstado> resultados = new LinkedHashMap<>();
+        resultados.put(lote.get(0), MensajeOutboxEstado.ENVIADO);
+        resultados.put(lote.get(1), MensajeOutboxEstado.RECHAZADO);
+        resultados.put(lote.get(2), MensajeOutboxEstado.PENDIENTE);
+        resultados.put(lote.get(3), MensajeOutboxEstado.PENDIENTE);
+
+        assertThat(outboxService.registrarResultados(resultados)).isEqualTo(1);
+
+        MensajeOutbox enviado = mensajeOutboxRepository.findById(lote.get(0).getId()).get();
+        assertThat(enviado.getEstado()).isEqualTo(MensajeOutboxEstado.ENVIADO);
+        assertThat(enviado.getProcesado()).isNotNull();
+        assertThat(enviado.getReserva()).isNull();
+        assertThat(mensajeOutboxRepository.findById(lote.get(1).getId()).get().getEstado()).isEqualTo(MensajeOutboxEstado.RECHAZADO);
+        MensajeOutbox reprogramado = mensajeOutboxRepository.findById(lote.get(2).getId()).get();
+        assertThat(reprogramado.getEstado()).isEqualTo(MensajeOutboxEstado.PENDIENTE);
+        // Ya no espera a que venza la reserva, sino su backoff
+        assertThat(reprogramado.getProximoIntento()).isBefore(Instant.now().plusSeconds(60));
+        assertThat(reprogramado.getReserva()).isNull();
+        assertThat(mensajeOutboxRepository.findById(lote.get(3).getId()).get().getEstado()).isEqualTo(MensajeOutboxEstado.DESCARTADO);
+    }
+}
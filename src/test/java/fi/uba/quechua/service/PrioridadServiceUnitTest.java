@@ -0,0 +1,69 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.Prioridad;
+import fi.uba.quechua.repository.PrioridadRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the PrioridadService.
+ *
+ * @see PrioridadService
+ */
+public class PrioridadServiceUnitTest {
+
+    private PrioridadRepository prioridadRepository;
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private PrioridadService prioridadService;
+
+    private Prioridad prioridad;
+
+    @Before
+    public void setup() {
+        prioridadRepository = mock(PrioridadRepository.class);
+        CalendarioService calendarioService = mock(CalendarioService.class);
+        applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        prioridadService = new PrioridadService(prioridadRepository, calendarioService, applicationEventPublisher);
+        Periodo periodo = new Periodo();
+        periodo.setId(1L);
+        when(calendarioService.findPeriodoActual()).thenReturn(Optional.of(periodo));
+        prioridad = new Prioridad().periodo(periodo).fecha_habilitacion(ZonedDateTime.now());
+        prioridad.setId(3L);
+        when(prioridadRepository.save(prioridad)).thenReturn(prioridad);
+        when(prioridadRepository.findAllByPeriodoId(1L)).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void testGuardarYBorrarNoRecarganEnLaTransaccion() {
+        prioridadService.save(prioridad);
+        prioridadService.delete(prioridad.getId());
+
+        verify(applicationEventPublisher, times(2)).publishEvent(any(PrioridadesModificadasEvent.class));
+        verify(prioridadRepository, never()).findAllByPeriodoId(anyLong());
+    }
+
+    @Test
+    public void testSeRecargaAlConfirmar() {
+        assertThat(prioridadService.getCalendario().getPrioridad(3)).isEmpty();
+        when(prioridadRepository.findAllByPeriodoId(1L)).thenReturn(Collections.singletonList(prioridad));
+
+        prioridadService.save(prioridad);
+        assertThat(prioridadService.getCalendario().getPrioridad(3)).isEmpty();
+
+        prioridadService.onPrioridadesModificadas(new PrioridadesModificadasEvent());
+        assertThat(prioridadService.getCalendario().getPrioridad(3)).contains(prioridad);
+    }
+}
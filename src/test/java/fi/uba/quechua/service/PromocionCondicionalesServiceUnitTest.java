@@ -0,0 +1,73 @@
+package fi.uba.quechua.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the PromocionCondicionalesService.
+ *
+ * @see PromocionCondicionalesService
+ */
+public class PromocionCondicionalesServiceUnitTest {
+
+    private PromocionCondicionalesService promocionCondicionalesService;
+
+    private InscripcionCursoService inscripcionCursoService;
+
+    @Before
+    public void setup() {
+        inscripcionCursoService = mock(InscripcionCursoService.class);
+        promocionCondicionalesService = new PromocionCondicionalesService(inscripcionCursoService);
+    }
+
+    @Test
+    public void testLiberacionesDelMismoCursoSeAgrupan() {
+        promocionCondicionalesService.onVacanteLiberada(new VacanteLiberadaEvent(1L));
+        promocionCondicionalesService.onVacanteLiberada(new VacanteLiberadaEvent(1L));
+        promocionCondicionalesService.onVacanteLiberada(new VacanteLiberadaEvent(2L));
+
+        promocionCondicionalesService.promoverPendientes();
+        promocionCondicionalesService.promoverPendientes();
+
+        verify(inscripcionCursoService, times(1)).promoverCondicionales(1L);
+        verify(inscripcionCursoService, times(1)).promoverCondicionales(2L);
+    }
+
+    @Test
+    public void testUnErrorNoFrenaAlResto() {
+        when(inscripcionCursoService.promoverCondicionales(1L)).thenThrow(new IllegalStateException("error"));
+        promocionCondicionalesService.onVacanteLiberada(new VacanteLiberadaEvent(1L));
+        promocionCondicionalesService.onVacanteLiberada(new VacanteLiberadaEvent(2L));
+
+        promocionCondicionalesService.promoverPendientes();
+
+        verify(inscripcionCursoService, times(2)).promoverCondicionales(anyLong());
+    }
+
+    @Test
+    public void testUnErrorSeReintentaEnLaSiguientePasada() {
+        when(inscripcionCursoService.promoverCondicionales(1L)).thenThrow(new IllegalStateException("deadlock")).thenReturn(1);
+        promocionCondicionalesService.onVacanteLiberada(new VacanteLiberadaEvent(1L));
+
+        promocionCondicionalesService.promoverPendientes();
+        promocionCondicionalesService.promoverPendientes();
+        promocionCondicionalesService.promoverPendientes();
+
+        verify(inscripcionCursoService, times(2)).promoverCondicionales(1L);
+    }
+
+    @Test
+    public void testLosReintentosSonLimitados() {
+        when(inscripcionCursoService.promoverCondicionales(1L)).thenThrow(new IllegalStateException("lock timeout"));
+        promocionCondicionalesService.onVacanteLiberada(new VacanteLiberadaEvent(1L));
+
+        for (int i = 0; i < 2 * PromocionCondicionalesService.MAX_INTENTOS; i++) {
+            promocionCondicionalesService.promoverPendientes();
+        }
+
+        verify(inscripcionCursoService, times(PromocionCondicionalesService.MAX_INTENTOS)).promoverCondicionales(1L);
+    }
+}
@@ -0,0 +1,132 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.repository.AlumnoRepository;
+import fi.uba.quechua.repository.RevocacionTokenRepository;
+import fi.uba.quechua.web.rest.AlumnoResourceIntTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the RevocacionTokenService.
+ * <p>
+ * Cada cambio confirma su propia transaccion, como en produccion, asi que las filas se borran al final.
+ *
+ * @see RevocacionTokenService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+public class RevocacionTokenServiceIntTest {
+
+    private static final Long USER_ID = 9001L;
+
+    private static final Long OTRO_USER_ID = 9002L;
+
+    @Autowired
+    private RevocacionTokenService revocacionTokenService;
+
+    @Autowired
+    private RevocacionTokenRepository revocacionTokenRepository;
+
+    @Autowired
+    private AlumnoRepository alumnoRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    private Alumno alumno;
+
+    @Before
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+        alumno = AlumnoResourceIntTest.createEntity(em).userId(USER_ID).padron("revocacion");
+    }
+
+    @After
+    public void destroy() {
+        if (alumno.getId() != null) {
+            alumnoRepository.deleteById(alumno.getId());
+        }
+        transaccion.execute(status -> {
+            em.createNativeQuery("DELETE FROM revocacion_token WHERE user_id IN (:usuarios)")
+                .setParameter("usuarios", Arrays.asList(USER_ID, OTRO_USER_ID)).executeUpdate();
+            em.createNativeQuery("DELETE FROM token_revocado WHERE digest = 'revocacion'").executeUpdate();
+            return null;
+        });
+    }
+
+    private Instant revocadoEnLaBase(Long userId) {
+        return revocacionTokenRepository.findRevocadosDesde(Instant.EPOCH).get(userId);
+    }
+
+    @Test
+    public void assertThatRevocarKeepsTheLatestInstant() {
+        Instant antes = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant despues = antes.plusSeconds(60);
+
+        revocacionTokenRepository.revocar(OTRO_USER_ID, despues);
+        revocacionTokenRepository.revocar(OTRO_USER_ID, antes);
+
+        assertThat(revocadoEnLaBase(OTRO_USER_ID)).isEqualTo(despues);
+
+        revocacionTokenRepository.revocarToken("revocacion", antes);
+        revocacionTokenRepository.revocarToken("revocacion", despues);
+
+        assertThat(revocacionTokenRepository.existeTokenRevocado("revocacion")).isTrue();
+    }
+
+    @Test
+    public void assertThatTokensIssuedInTheSameSecondAreRevoked() {
+        Date emitido = Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        revocacionTokenService.revocar(OTRO_USER_ID);
+
+        assertThat(revocacionTokenService.estaRevocado(OTRO_USER_ID, emitido)).isTrue();
+        assertThat(revocadoEnLaBase(OTRO_USER_ID)).isAfter(emitido.toInstant());
+    }
+
+    @Test
+    public void assertThatTheRevocationIsWrittenInTheSameTransaction() {
+        Date emitido = Date.from(Instant.now().minusSeconds(1));
+
+        transaccion.execute(status -> {
+            alumnoRepository.saveAndFlush(alumno);
+            status.setRollbackOnly();
+            return null;
+        });
+        alumno.setId(null);
+
+        assertThat(revocadoEnLaBase(USER_ID)).isNull();
+        assertThat(revocacionTokenService.estaRevocado(USER_ID, emitido)).isFalse();
+
+        transaccion.execute(status -> {
+            alumnoRepository.save(alumno);
+            assertThat(revocacionTokenService.estaRevocado(USER_ID, emitido)).isFalse();
+            return null;
+        });
+
+        assertThat(revocadoEnLaBase(USER_ID)).isNotNull();
+        assertThat(revocacionTokenService.estaRevocado(USER_ID, emitido)).isTrue();
+    }
+}
@@ -0,0 +1,106 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.service.dto.TurnoSalaEsperaDTO;
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SalaEsperaService.
+ *
+ * @see SalaEsperaService
+ */
+public class SalaEsperaServiceUnitTest {
+
+    private static final long UN_SEGUNDO = 1_000_000_000L;
+
+    private static final String CLIENTE = SalaEsperaService.clienteUsuario("alumno");
+
+    private SalaEsperaService salaEsperaService;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSalaEspera().setEnabled(true);
+        applicationProperties.getSalaEspera().setAdmisionesPorSegundo(10);
+        applicationProperties.getSalaEspera().setCapacidad(0);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret("secreto-de-prueba");
+        salaEsperaService = new SalaEsperaService(applicationProperties, jHipsterProperties);
+    }
+
+    @Test
+    public void testAdmiteEnOrdenSegunLaTasa() {
+        TurnoSalaEsperaDTO[] turnos = new TurnoSalaEsperaDTO[25];
+        for (int i = 0; i < turnos.length; i++) {
+            turnos[i] = salaEsperaService.ingresar(null, CLIENTE);
+        }
+        assertThat(turnos[9].isAdmitido()).isTrue();
+        assertThat(turnos[10].isAdmitido()).isFalse();
+        assertThat(turnos[24].getPosicion()).isEqualTo(15);
+        assertThat(turnos[24].getEsperaEstimadaSegundos()).isEqualTo(2);
+
+        salaEsperaService.admitir(UN_SEGUNDO);
+
+        assertThat(salaEsperaService.ingresar(turnos[19].getTurno(), CLIENTE).isAdmitido()).isTrue();
+        TurnoSalaEsperaDTO ultimo = salaEsperaService.ingresar(turnos[24].getTurno(), CLIENTE);
+        assertThat(ultimo.isAdmitido()).isFalse();
+        assertThat(ultimo.getNumero()).isEqualTo(25);
+        assertThat(ultimo.getPosicion()).isEqualTo(5);
+    }
+
+    @Test
+    public void testRespetaLaCapacidad() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSalaEspera().setAdmisionesPorSegundo(100);
+        applicationProperties.getSalaEspera().setCapacidad(2);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret("secreto-de-prueba");
+        salaEsperaService = new SalaEsperaService(applicationProperties, jHipsterProperties);
+
+        salaEsperaService.ingresar(null, CLIENTE);
+        salaEsperaService.entrar();
+        salaEsperaService.ingresar(null, CLIENTE);
+        salaEsperaService.entrar();
+        TurnoSalaEsperaDTO tercero = salaEsperaService.ingresar(null, CLIENTE);
+        assertThat(tercero.isAdmitido()).isFalse();
+
+        salaEsperaService.admitir(UN_SEGUNDO);
+        assertThat(salaEsperaService.consultar(tercero.getTurno(), CLIENTE).get().isAdmitido()).isFalse();
+
+        salaEsperaService.salir();
+        salaEsperaService.admitir(UN_SEGUNDO);
+        assertThat(salaEsperaService.consultar(tercero.getTurno(), CLIENTE).get().isAdmitido()).isTrue();
+    }
+
+    @Test
+    public void testTurnoAdulteradoVuelveAlFinal() {
+        for (int i = 0; i < 15; i++) {
+            salaEsperaService.ingresar(null, CLIENTE);
+        }
+        String turno = salaEsperaService.ingresar(null, CLIENTE).getTurno();
+        String adulterado = "MTo" + turno.substring(3);
+
+        assertThat(salaEsperaService.consultar(adulterado, CLIENTE)).isEmpty();
+        assertThat(salaEsperaService.consultar("basura", CLIENTE)).isEmpty();
+        assertThat(salaEsperaService.ingresar(adulterado, CLIENTE).getNumero()).isEqualTo(17);
+    }
+
+    @Test
+    public void testTurnoDeOtroClienteVuelveAlFinal() {
+        String turno = salaEsperaService.ingresar(null, CLIENTE).getTurno();
+        for (int i = 0; i < 15; i++) {
+            salaEsperaService.ingresar(null, SalaEsperaService.clienteAnonimo("10.0.0." + i));
+        }
+        String otro = SalaEsperaService.clienteUsuario("otro");
+
+        assertThat(salaEsperaService.consultar(turno, CLIENTE).get().isAdmitido()).isTrue();
+        assertThat(salaEsperaService.consultar(turno, otro)).isEmpty();
+        TurnoSalaEsperaDTO reemitido = salaEsperaService.ingresar(turno, otro);
+        assertThat(reemitido.getNumero()).isEqualTo(17);
+        assertThat(reemitido.isAdmitido()).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.domain.User;
+import fi.uba.quechua.repository.AuthorityRepository;
+import fi.uba.quechua.repository.UserRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the emails sent by the UserService, with the outbox enabled and disabled.
+ *
+ * @see UserService
+ */
+public class UserServiceUnitTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private UserRepository userRepository;
+
+    private OutboxService outboxService;
+
+    private MailService mailService;
+
+    private UserService userService;
+
+    private User user;
+
+    @Before
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        userRepository = mock(UserRepository.class);
+        outboxService = mock(OutboxService.class);
+        mailService = mock(MailService.class);
+        userService = new UserService(userRepository, mock(PasswordEncoder.class), mock(AuthorityRepository.class),
+            new ConcurrentMapCacheManager(), mock(RevocacionTokenService.class), outboxService, mailService, applicationProperties);
+        user = new User();
+        user.setId(1L);
+        user.setLogin("johndoe");
+        user.setEmail("johndoe@localhost");
+        user.setActivated(true);
+        when(userRepository.findOneByEmailIgnoreCase("johndoe@localhost")).thenReturn(Optional.of(user));
+    }
+
+    @After
+    public void destroy() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testConElOutboxElEmailSeGuardaEnElOutbox() {
+        applicationProperties.getOutbox().setEnabled(true);
+
+        userService.requestPasswordReset("johndoe@localhost");
+
+        verify(outboxService).agregarEmail(eq("reset-" + user.getResetKey()), eq(user), eq("mail/passwordResetEmail"), eq("email.reset.title"));
+        verifyZeroInteractions(mailService);
+    }
+
+    @Test
+    public void testSinOutboxElEmailSeEnviaAlConfirmar() {
+        applicationProperties.getOutbox().setEnabled(false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        userService.requestPasswordReset("johndoe@localhost");
+
+        verifyZeroInteractions(outboxService);
+        verify(mailService, never()).sendPasswordResetMail(any());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(mailService).sendPasswordResetMail(user);
+        assertThat(user.getResetKey()).isNotNull();
+    }
+
+    @Test
+    public void testSinOutboxNiTransaccionElEmailSeEnviaEnseguida() {
+        applicationProperties.getOutbox().setEnabled(false);
+
+        userService.requestPasswordReset("johndoe@localhost");
+
+        verifyZeroInteractions(outboxService);
+        verify(mailService).sendPasswordResetMail(user);
+    }
+}
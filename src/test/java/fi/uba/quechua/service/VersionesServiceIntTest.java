@@ -0,0 +1,92 @@
+package fi.uba.quechua.service;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.web.rest.CursoResourceIntTest;
+import fi.uba.quechua.web.rest.MateriaResourceIntTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the VersionesService.
+ *
+ * @see VersionesService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+public class VersionesServiceIntTest {
+
+    @Autowired
+    private VersionesService versionesService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional
+    public void assertThatEtagCambiaSoloConLasEntidadesIncluidas() {
+        String materias = versionesService.getEtag("materias", Materia.class);
+        String periodos = versionesService.getEtag("periodos", Periodo.class);
+        assertThat(materias).startsWith("\"materias.").endsWith("\"");
+        assertThat(versionesService.getEtag("materias", Materia.class)).isEqualTo(materias);
+
+        // Una entidad que no esta versionada no cambia nada
+        em.persist(CursoResourceIntTest.createEntity(em));
+        em.flush();
+        assertThat(versionesService.getEtag("materias", Materia.class)).isEqualTo(materias);
+
+        // La version se incrementa en la transaccion que escribe, al hacer el flush
+        Materia materia = MateriaResourceIntTest.createEntity(em);
+        em.persist(materia);
+        em.flush();
+        String insertada = versionesService.getEtag("materias", Materia.class);
+        assertThat(insertada).isNotEqualTo(materias);
+        assertThat(versionesService.getEtag("periodos", Periodo.class)).isEqualTo(periodos);
+
+        materia.setNombre("Otro nombre");
+        em.flush();
+        String modificada = versionesService.getEtag("materias", Materia.class);
+        assertThat(modificada).isNotEqualTo(insertada);
+
+        em.remove(materia);
+        em.flush();
+        assertThat(versionesService.getEtag("materias", Materia.class)).isNotEqualTo(modificada);
+    }
+
+    @Test
+    public void assertThatUnaTransaccionDeshechaNoCambiaLaVersion() {
+        String materias = versionesService.getEtag("materias", Materia.class);
+
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.execute(status -> {
+            em.persist(MateriaResourceIntTest.createEntity(em));
+            em.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(versionesService.getEtag("materias", Materia.class)).isEqualTo(materias);
+    }
+
+    @Test
+    public void assertThatSoloAceptaEntidadesVersionadas() {
+        assertThatThrownBy(() -> versionesService.getEtag("curso-1", Curso.class))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
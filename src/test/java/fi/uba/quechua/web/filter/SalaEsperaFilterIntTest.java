@@ -0,0 +1,124 @@
+package fi.uba.quechua.web.filter;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.security.AuthoritiesConstants;
+import fi.uba.quechua.security.jwt.TokenProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SalaEsperaFilter, against the embedded server and with concurrent HTTP clients.
+ *
+ * @see SalaEsperaFilter
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "application.sala-espera.enabled=true",
+    "application.sala-espera.admisiones-por-segundo=50",
+    "application.sala-espera.capacidad=2"})
+public class SalaEsperaFilterIntTest {
+
+    private static final int CLIENTES = 32;
+
+    private static final int PEDIDOS_POR_CLIENTE = 10;
+
+    private final Logger log = LoggerFactory.getLogger(SalaEsperaFilterIntTest.class);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Test
+    public void assertThatClientesConcurrentesSonAtendidosEnTandas() throws Exception {
+        AtomicInteger atendidos = new AtomicInteger();
+        AtomicInteger esperas = new AtomicInteger();
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        for (int i = 0; i < CLIENTES * PEDIDOS_POR_CLIENTE; i++) {
+            resultados.add(clientes.submit(() -> {
+                largada.await();
+                String turno = null;
+                while (true) {
+                    ResponseEntity<String> response = pedir(turno, null);
+                    if (response.getStatusCode() != HttpStatus.SERVICE_UNAVAILABLE) {
+                        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                        atendidos.incrementAndGet();
+                        return null;
+                    }
+                    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotEmpty();
+                    esperas.incrementAndGet();
+                    turno = response.getHeaders().getFirst(SalaEsperaFilter.SALA_ESPERA_HEADER);
+                    Thread.sleep(20);
+                }
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        try {
+            for (Future<?> resultado : resultados) {
+                resultado.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            clientes.shutdownNow();
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        log.info("{} pedidos desde {} clientes en {} ms, con {} respuestas de espera", atendidos.get(), CLIENTES, millis, esperas.get());
+        assertThat(atendidos.get()).isEqualTo(CLIENTES * PEDIDOS_POR_CLIENTE);
+        assertThat(esperas.get()).isGreaterThan(0);
+    }
+
+    @Test
+    public void assertThatElTurnoDeOtroClienteNoSeRespeta() {
+        String turno = pedir(null, null).getHeaders().getFirst(SalaEsperaFilter.SALA_ESPERA_HEADER);
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "user",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+
+        String mismoCliente = pedir(turno, null).getHeaders().getFirst(SalaEsperaFilter.SALA_ESPERA_HEADER);
+        String otroCliente = pedir(turno, token).getHeaders().getFirst(SalaEsperaFilter.SALA_ESPERA_HEADER);
+
+        assertThat(numero(mismoCliente)).isEqualTo(numero(turno));
+        assertThat(numero(otroCliente)).isGreaterThan(numero(turno));
+    }
+
+    private ResponseEntity<String> pedir(String turno, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (turno != null) {
+            headers.set(SalaEsperaFilter.SALA_ESPERA_HEADER, turno);
+        }
+        if (token != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return restTemplate.exchange("/public/cursos", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private static long numero(String turno) {
+        String contenido = new String(Base64.getUrlDecoder().decode(turno.substring(0, turno.lastIndexOf('.'))), StandardCharsets.UTF_8);
+        return Long.parseLong(contenido.split(":")[0]);
+    }
+}
@@ -0,0 +1,154 @@
+package fi.uba.quechua.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fi.uba.quechua.config.ApplicationProperties;
+import fi.uba.quechua.security.jwt.TokenProvider;
+import fi.uba.quechua.service.SalaEsperaService;
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the SalaEsperaFilter, simulating a surge of concurrent clients.
+ *
+ * @see SalaEsperaFilter
+ */
+public class SalaEsperaFilterTest {
+
+    private static final int CLIENTES = 3000;
+
+    private SalaEsperaService salaEsperaService;
+
+    private SalaEsperaFilter salaEsperaFilter;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSalaEspera().setEnabled(true);
+        applicationProperties.getSalaEspera().setAdmisionesPorSegundo(2000);
+        applicationProperties.getSalaEspera().setCapacidad(20);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret("secreto-de-prueba");
+        salaEsperaService = new SalaEsperaService(applicationProperties, jHipsterProperties);
+        salaEsperaFilter = new SalaEsperaFilter(salaEsperaService, new ObjectMapper(), mock(TokenProvider.class));
+    }
+
+    @Test
+    public void testSinTurnoEsperaConPosicion() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSalaEspera().setEnabled(true);
+        applicationProperties.getSalaEspera().setAdmisionesPorSegundo(1);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret("secreto-de-prueba");
+        salaEsperaFilter = new SalaEsperaFilter(new SalaEsperaService(applicationProperties, jHipsterProperties), new ObjectMapper(), mock(TokenProvider.class));
+
+        MockHttpServletResponse primero = pedir(null);
+        MockHttpServletResponse segundo = pedir(null);
+
+        assertThat(primero.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(segundo.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(segundo.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(segundo.getHeader(SalaEsperaFilter.SALA_ESPERA_HEADER)).isNotEmpty();
+        assertThat(segundo.getContentAsString()).contains("\"posicion\":1");
+    }
+
+    @Test
+    public void testTurnoPresentadoPorOtroUsuarioNoSeRespeta() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSalaEspera().setEnabled(true);
+        applicationProperties.getSalaEspera().setAdmisionesPorSegundo(1);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret("secreto-de-prueba");
+        TokenProvider tokenProvider = mock(TokenProvider.class);
+        when(tokenProvider.resolveAuthentication("token-alumno"))
+            .thenReturn(new UsernamePasswordAuthenticationToken("alumno", "token-alumno"));
+        when(tokenProvider.resolveAuthentication("token-otro"))
+            .thenReturn(new UsernamePasswordAuthenticationToken("otro", "token-otro"));
+        salaEsperaFilter = new SalaEsperaFilter(new SalaEsperaService(applicationProperties, jHipsterProperties), new ObjectMapper(), tokenProvider);
+
+        assertThat(pedir(null, "token-alumno").getStatus()).isEqualTo(HttpStatus.OK.value());
+        String turno = pedir(null, "token-alumno").getHeader(SalaEsperaFilter.SALA_ESPERA_HEADER);
+
+        MockHttpServletResponse propio = pedir(turno, "token-alumno");
+        assertThat(propio.getHeader(SalaEsperaFilter.SALA_ESPERA_HEADER)).isEqualTo(turno);
+        assertThat(propio.getContentAsString()).contains("\"posicion\":1");
+
+        MockHttpServletResponse ajeno = pedir(turno, "token-otro");
+        assertThat(ajeno.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(ajeno.getHeader(SalaEsperaFilter.SALA_ESPERA_HEADER)).isNotEqualTo(turno);
+        assertThat(ajeno.getContentAsString()).contains("\"posicion\":2");
+    }
+
+    @Test
+    public void testClientesConcurrentesSonAtendidosEnTandas() throws Exception {
+        AtomicInteger atendidos = new AtomicInteger();
+        AtomicInteger esperas = new AtomicInteger();
+        ScheduledExecutorService reloj = Executors.newSingleThreadScheduledExecutor();
+        reloj.scheduleAtFixedRate(salaEsperaService::admitir, 10, 10, TimeUnit.MILLISECONDS);
+        ExecutorService clientes = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int i = 0; i < CLIENTES; i++) {
+                resultados.add(clientes.submit(() -> {
+                    String turno = null;
+                    while (true) {
+                        MockHttpServletResponse response = new MockHttpServletResponse();
+                        salaEsperaFilter.doFilter(request(turno), response, (req, res) -> Thread.yield());
+                        if (response.getStatus() == HttpStatus.OK.value()) {
+                            atendidos.incrementAndGet();
+                            return null;
+                        }
+                        esperas.incrementAndGet();
+                        turno = response.getHeader(SalaEsperaFilter.SALA_ESPERA_HEADER);
+                        Thread.sleep(5);
+                    }
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            clientes.shutdownNow();
+            reloj.shutdownNow();
+        }
+        assertThat(atendidos.get()).isEqualTo(CLIENTES);
+        assertThat(esperas.get()).isGreaterThan(0);
+    }
+
+    private MockHttpServletResponse pedir(String turno) throws Exception {
+        return pedir(turno, null);
+    }
+
+    private MockHttpServletResponse pedir(String turno, String token) throws Exception {
+        MockHttpServletRequest request = request(turno);
+        if (token != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        salaEsperaFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String turno) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/inscripcion-cursos/1");
+        if (turno != null) {
+            request.addHeader(SalaEsperaFilter.SALA_ESPERA_HEADER, turno);
+        }
+        return request;
+    }
+}
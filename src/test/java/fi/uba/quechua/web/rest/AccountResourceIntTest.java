@@ -7,7 +7,6 @@ import fi.uba.quechua.domain.User;
 import fi.uba.quechua.repository.AuthorityRepository;
 import fi.uba.quechua.repository.UserRepository;
 import fi.uba.quechua.security.AuthoritiesConstants;
-import fi.uba.quechua.service.MailService;
 import fi.uba.quechua.service.dto.UserDTO;
 import fi.uba.quechua.service.dto.PasswordChangeDTO;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
@@ -36,8 +35,6 @@ import java.time.Instant;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -72,9 +69,6 @@ public class AccountResourceIntTest {
     @Mock
     private UserService mockUserService;
 
-    @Mock
-    private MailService mockMailService;
-
     private MockMvc restMvc;
 
     private MockMvc restUserMockMvc;
@@ -82,12 +76,11 @@ public class AccountResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        doNothing().when(mockMailService).sendActivationEmail(any());
         AccountResource accountResource =
-            new AccountResource(userRepository, userService, mockMailService);
+            new AccountResource(userRepository, userService);
 
         AccountResource accountUserMockResource =
-            new AccountResource(userRepository, mockUserService, mockMailService);
+            new AccountResource(userRepository, mockUserService);
         this.restMvc = MockMvcBuilders.standaloneSetup(accountResource)
             .setMessageConverters(httpMessageConverters)
             .setControllerAdvice(exceptionTranslator)
@@ -5,8 +5,10 @@ import fi.uba.quechua.QuechuaApp;
 
 import fi.uba.quechua.domain.Alumno;
 import fi.uba.quechua.repository.AlumnoRepository;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.service.AlumnoCarreraService;
 import fi.uba.quechua.service.AlumnoService;
+import fi.uba.quechua.service.ArchivoService;
 import fi.uba.quechua.service.CursadaService;
 import fi.uba.quechua.service.UserService;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
@@ -73,9 +75,15 @@ public class AlumnoResourceIntTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ActorService actorService;
+
     @Autowired
     private CursadaService cursadaService;
 
+    @Autowired
+    private ArchivoService archivoService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -95,7 +103,7 @@ public class AlumnoResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final AlumnoResource alumnoResource = new AlumnoResource(alumnoService, alumnoCarreraService, userService, cursadaService);
+        final AlumnoResource alumnoResource = new AlumnoResource(alumnoService, alumnoCarreraService, userService, actorService, cursadaService, archivoService);
         this.restAlumnoMockMvc = MockMvcBuilders.standaloneSetup(alumnoResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
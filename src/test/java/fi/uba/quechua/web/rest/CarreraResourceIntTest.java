@@ -4,6 +4,7 @@ import fi.uba.quechua.QuechuaApp;
 
 import fi.uba.quechua.domain.Carrera;
 import fi.uba.quechua.repository.CarreraRepository;
+import fi.uba.quechua.service.DatosReferenciaService;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 
 import org.junit.Before;
@@ -45,6 +46,9 @@ public class CarreraResourceIntTest {
     @Autowired
     private CarreraRepository carreraRepository;
 
+    @Autowired
+    private DatosReferenciaService datosReferenciaService;
+
 
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
@@ -65,7 +69,7 @@ public class CarreraResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final CarreraResource carreraResource = new CarreraResource(carreraRepository);
+        final CarreraResource carreraResource = new CarreraResource(carreraRepository, datosReferenciaService);
         this.restCarreraMockMvc = MockMvcBuilders.standaloneSetup(carreraResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -5,9 +5,8 @@ import fi.uba.quechua.QuechuaApp;
 import fi.uba.quechua.domain.Coloquio;
 import fi.uba.quechua.domain.Periodo;
 import fi.uba.quechua.repository.ColoquioRepository;
-import fi.uba.quechua.repository.ProfesorRepository;
 import fi.uba.quechua.service.ColoquioService;
-import fi.uba.quechua.service.UserService;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 
 import org.junit.Before;
@@ -80,10 +79,7 @@ public class ColoquioResourceIntTest {
     private ColoquioService coloquioService;
 
     @Autowired
-    private ProfesorRepository profesorRepository;
-
-    @Autowired
-    private UserService userService;
+    private ActorService actorService;
 
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
@@ -104,7 +100,7 @@ public class ColoquioResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final ColoquioResource coloquioResource = new ColoquioResource(coloquioService, profesorRepository, userService);
+        final ColoquioResource coloquioResource = new ColoquioResource(coloquioService, actorService);
         this.restColoquioMockMvc = MockMvcBuilders.standaloneSetup(coloquioResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
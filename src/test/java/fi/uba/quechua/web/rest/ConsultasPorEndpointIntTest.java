@@ -0,0 +1,173 @@
+package fi.uba.quechua.web.rest;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.*;
+import fi.uba.quechua.domain.enumeration.CursadaEstado;
+import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
+import fi.uba.quechua.security.CurrentActor;
+import fi.uba.quechua.service.CursoServiceIntTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cantidad de consultas de los endpoints que leen cursos con sus relaciones y horarios.
+ * <p>
+ * Cada pedido pasa por el controller y la serializacion a JSON, asi que cuenta tambien las relaciones que se
+ * cargarian al escribir la respuesta. La cantidad no depende de cuantos cursos, horarios o inscripciones haya.
+ * Los listados del alumno y del profesor son proyecciones: la unica entidad que cargan es la del usuario.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class)
+@Transactional
+public class ConsultasPorEndpointIntTest {
+
+    private static final int CURSOS = 3;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    private MockMvc mockMvc;
+
+    private ResultActions respuesta;
+
+    @Before
+    public void setup() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @After
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void autenticar(Long alumnoId, Long profesorId) {
+        UsernamePasswordAuthenticationToken autenticacion = new UsernamePasswordAuthenticationToken("usuario", "clave");
+        autenticacion.setDetails(new CurrentActor("usuario", null, alumnoId, profesorId, null));
+        SecurityContextHolder.getContext().setAuthentication(autenticacion);
+    }
+
+    /**
+     * Hace el pedido con el contexto de persistencia vacio y devuelve la cantidad de consultas que hizo.
+     */
+    private long consultas(String url, Object... variables) throws Exception {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        respuesta = mockMvc.perform(get(url, variables)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void assertThatCursoIsReadInOneStatement() throws Exception {
+        Curso curso = CursoServiceIntTest.createCursoCompleto(em, null);
+        assertThat(consultas("/api/cursos/{id}", curso.getId())).isEqualTo(1);
+        respuesta.andExpect(jsonPath("$.horarios", hasSize(2)))
+            .andExpect(jsonPath("$.materia.departamento.id").value(curso.getMateria().getDepartamento().getId().intValue()))
+            .andExpect(jsonPath("$.profesor.id").value(curso.getProfesor().getId().intValue()));
+    }
+
+    @Test
+    public void assertThatCursosAreReadInOneStatement() throws Exception {
+        for (int i = 0; i < CURSOS; i++) {
+            CursoServiceIntTest.createCursoCompleto(em, null);
+        }
+        assertThat(consultas("/api/cursos")).isEqualTo(1);
+        respuesta.andExpect(jsonPath("$[*].materia.departamento.nombre", hasSize(CURSOS)));
+    }
+
+    @Test
+    public void assertThatInscriptosDelCursoAreReadInThreeStatements() throws Exception {
+        Curso curso = CursoServiceIntTest.createCursoCompleto(em, null);
+        for (long i = 1; i <= CURSOS; i++) {
+            Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(i).padron("endpoint" + i);
+            em.persist(alumno);
+            em.persist(new InscripcionCurso().curso(curso).alumno(alumno).estado(InscripcionCursoEstado.REGULAR));
+        }
+
+        // El curso con sus horarios, los inscriptos con sus alumnos y los archivados
+        assertThat(consultas("/public/cursos/{cursoId}/inscripciones", curso.getId())).isEqualTo(3);
+        respuesta.andExpect(jsonPath("$.inscripciones[*].alumno.padron", hasSize(CURSOS)));
+    }
+
+    @Test
+    public void assertThatCursosDelProfesorAreReadInThreeStatements() throws Exception {
+        Profesor profesor = CursoServiceIntTest.createCursoCompleto(em, null).getProfesor();
+        for (int i = 1; i < CURSOS; i++) {
+            CursoServiceIntTest.createCursoCompleto(em, profesor);
+        }
+        autenticar(null, profesor.getId());
+
+        // El profesor, los cursos y los horarios de todos los cursos
+        assertThat(consultas("/api/profesors/cursos")).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        respuesta.andExpect(jsonPath("$", hasSize(CURSOS)))
+            .andExpect(jsonPath("$[*].horarios[*]", hasSize(2 * CURSOS)));
+    }
+
+    @Test
+    public void assertThatInscripcionesDelAlumnoAreReadInFourStatements() throws Exception {
+        Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(1L);
+        em.persist(alumno);
+        for (int i = 0; i < CURSOS; i++) {
+            em.persist(new InscripcionCurso().curso(CursoServiceIntTest.createCursoCompleto(em, null)).alumno(alumno)
+                .estado(InscripcionCursoEstado.REGULAR));
+        }
+        em.persist(new InscripcionCurso().curso(CursoServiceIntTest.createCursoCompleto(em, null)).alumno(alumno)
+            .estado(InscripcionCursoEstado.ELIMINADA));
+        autenticar(alumno.getId(), null);
+
+        // El alumno, las inscripciones con sus cursos, las archivadas y los horarios de todos los cursos
+        assertThat(consultas("/api/inscripcion-cursos/byAlumno")).isEqualTo(4);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        respuesta.andExpect(jsonPath("$", hasSize(CURSOS)))
+            .andExpect(jsonPath("$[*].curso.horarios[*]", hasSize(2 * CURSOS)));
+    }
+
+    @Test
+    public void assertThatCursadasActivasAreReadInThreeStatements() throws Exception {
+        Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(1L);
+        em.persist(alumno);
+        CursadaEstado[] estados = {CursadaEstado.ACTIVA, CursadaEstado.FINAL_PENDIENTE, CursadaEstado.ACTIVA, CursadaEstado.APROBADO};
+        for (CursadaEstado estado : estados) {
+            em.persist(CursadaResourceIntTest.createEntity(em).alumno(alumno).estado(estado)
+                .curso(CursoServiceIntTest.createCursoCompleto(em, null)));
+        }
+        autenticar(alumno.getId(), null);
+
+        // El alumno, las cursadas con sus cursos y los horarios de todos los cursos
+        assertThat(consultas("/api/alumnos/cursadasActivas")).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        respuesta.andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[*].curso.materia.nombre", hasSize(3)))
+            .andExpect(jsonPath("$[*].curso.horarios[*]", hasSize(6)));
+    }
+}
@@ -3,9 +3,9 @@ package fi.uba.quechua.web.rest;
 import fi.uba.quechua.QuechuaApp;
 
 import fi.uba.quechua.domain.Departamento;
-import fi.uba.quechua.repository.AdministradorDepartamentoRepository;
 import fi.uba.quechua.repository.DepartamentoRepository;
-import fi.uba.quechua.service.UserService;
+import fi.uba.quechua.service.DatosReferenciaService;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 
 import org.junit.Before;
@@ -51,10 +51,10 @@ public class DepartamentoResourceIntTest {
     private DepartamentoRepository departamentoRepository;
 
     @Autowired
-    private UserService userService;
+    private ActorService actorService;
 
     @Autowired
-    private AdministradorDepartamentoRepository administradorDepartamentoRepository;
+    private DatosReferenciaService datosReferenciaService;
 
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
@@ -75,7 +75,7 @@ public class DepartamentoResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final DepartamentoResource departamentoResource = new DepartamentoResource(departamentoRepository, userService, administradorDepartamentoRepository);
+        final DepartamentoResource departamentoResource = new DepartamentoResource(departamentoRepository, actorService, datosReferenciaService);
         this.restDepartamentoMockMvc = MockMvcBuilders.standaloneSetup(departamentoResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
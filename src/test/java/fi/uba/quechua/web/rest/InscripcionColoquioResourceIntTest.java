@@ -52,7 +52,7 @@ public class InscripcionColoquioResourceIntTest {
     private InscripcionColoquioService inscripcionColoquioService;
 
     @Autowired
-    private UserService userService;
+    private ActorService actorService;
 
     @Autowired
     private ColoquioService coloquioService;
@@ -79,11 +79,14 @@ public class InscripcionColoquioResourceIntTest {
 
     private InscripcionColoquio inscripcionColoquio;
 
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
         final InscripcionColoquioResource inscripcionColoquioResource = new InscripcionColoquioResource(inscripcionColoquioService,
-            userService, coloquioService, alumnoService, cursadaService);
+            actorService, coloquioService, alumnoService, cursadaService, idempotenciaService);
         this.restInscripcionColoquioMockMvc = MockMvcBuilders.standaloneSetup(inscripcionColoquioResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -2,14 +2,27 @@ package fi.uba.quechua.web.rest;
 
 import fi.uba.quechua.QuechuaApp;
 
+import fi.uba.quechua.domain.Alumno;
+import fi.uba.quechua.domain.Curso;
 import fi.uba.quechua.domain.InscripcionCurso;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.domain.Periodo;
+import fi.uba.quechua.domain.Prioridad;
 import fi.uba.quechua.repository.InscripcionCursoRepository;
 import fi.uba.quechua.service.AlumnoService;
+import fi.uba.quechua.service.AsignacionVacantesService;
+import fi.uba.quechua.service.CalendarioService;
+import fi.uba.quechua.service.ColaInscripcionService;
 import fi.uba.quechua.service.CursoService;
+import fi.uba.quechua.service.IdempotenciaService;
 import fi.uba.quechua.service.InscripcionCursoService;
-import fi.uba.quechua.service.UserService;
+import fi.uba.quechua.service.OcupacionSemanalService;
+import fi.uba.quechua.service.PrioridadService;
+import fi.uba.quechua.service.ActorService;
+import fi.uba.quechua.security.CurrentActor;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -17,14 +30,20 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.transaction.AfterTransaction;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 
@@ -34,6 +53,7 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import fi.uba.quechua.domain.enumeration.Cuatrimestre;
 import fi.uba.quechua.domain.enumeration.InscripcionCursoEstado;
 import fi.uba.quechua.domain.enumeration.CursadaEstado;
 /**
@@ -66,7 +86,25 @@ public class InscripcionCursoResourceIntTest {
     private CursoService cursoService;
 
     @Autowired
-    private UserService userService;
+    private ActorService actorService;
+
+    @Autowired
+    private ColaInscripcionService colaInscripcionService;
+
+    @Autowired
+    private AsignacionVacantesService asignacionVacantesService;
+
+    @Autowired
+    private PrioridadService prioridadService;
+
+    @Autowired
+    private CalendarioService calendarioService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private OcupacionSemanalService ocupacionSemanalService;
 
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
@@ -87,7 +125,7 @@ public class InscripcionCursoResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final InscripcionCursoResource inscripcionCursoResource = new InscripcionCursoResource(inscripcionCursoService, alumnoService, cursoService, userService);
+        final InscripcionCursoResource inscripcionCursoResource = new InscripcionCursoResource(inscripcionCursoService, alumnoService, cursoService, actorService, colaInscripcionService, asignacionVacantesService, prioridadService, idempotenciaService, ocupacionSemanalService);
         this.restInscripcionCursoMockMvc = MockMvcBuilders.standaloneSetup(inscripcionCursoResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -113,6 +151,136 @@ public class InscripcionCursoResourceIntTest {
         inscripcionCurso = createEntity(em);
     }
 
+    @After
+    public void destroy() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterTransaction
+    public void recargarCalendarios() {
+        // Descarta los periodos y prioridades de la transaccion que se deshizo
+        calendarioService.recargarCalendario();
+        prioridadService.refrescarCalendario();
+    }
+
+    /**
+     * Crea el periodo actual con una prioridad ya habilitada y otra que se habilita en una hora, y autentica a
+     * un alumno con una prioridad nueva del periodo dado (el actual si es null).
+     */
+    private Alumno alumnoConPrioridadDelPeriodo(Periodo periodoDeLaPrioridad, ZonedDateTime habilitacion) {
+        LocalDate hoy = LocalDate.now();
+        int mes = hoy.getMonthValue();
+        Periodo actual = new Periodo().anio(String.valueOf(hoy.getYear()))
+            .cuatrimestre(mes >= 6 && mes <= 8 ? Cuatrimestre.PRIMERO : Cuatrimestre.SEGUNDO);
+        em.persist(actual);
+        em.persist(new Prioridad().periodo(actual).fecha_habilitacion(ZonedDateTime.now().minusHours(1)));
+        em.persist(new Prioridad().periodo(actual).fecha_habilitacion(ZonedDateTime.now().plusHours(1)));
+        if (periodoDeLaPrioridad == null) {
+            periodoDeLaPrioridad = actual;
+        } else {
+            em.persist(periodoDeLaPrioridad);
+        }
+        Prioridad prioridad = new Prioridad().periodo(periodoDeLaPrioridad).fecha_habilitacion(habilitacion);
+        em.persist(prioridad);
+        Alumno alumno = AlumnoResourceIntTest.createEntity(em).userId(300L).prioridad(prioridad.getId().intValue());
+        em.persist(alumno);
+        em.flush();
+        calendarioService.recargarCalendario();
+        prioridadService.refrescarCalendario();
+
+        UsernamePasswordAuthenticationToken autenticacion = new UsernamePasswordAuthenticationToken("alumno", "clave");
+        autenticacion.setDetails(new CurrentActor("alumno", null, alumno.getId(), null, null));
+        SecurityContextHolder.getContext().setAuthentication(autenticacion);
+        return alumno;
+    }
+
+    @Test
+    @Transactional
+    public void inscribirAntesDeLaHabilitacionDevuelveForbidden() throws Exception {
+        alumnoConPrioridadDelPeriodo(null, ZonedDateTime.now().plusMinutes(10));
+
+        restInscripcionCursoMockMvc.perform(post("/api/inscripcion-cursos/{cursoId}", Long.MAX_VALUE))
+            .andExpect(status().isForbidden())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        restInscripcionCursoMockMvc.perform(post("/api/inscripcion-cursos/lote")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content("[" + Long.MAX_VALUE + "]"))
+            .andExpect(status().isForbidden())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @Transactional
+    public void inscribirConPrioridadDeOtroPeriodoEsperaLaUltimaHabilitacion() throws Exception {
+        Periodo anterior = new Periodo().anio(String.valueOf(LocalDate.now().getYear() - 1)).cuatrimestre(Cuatrimestre.PRIMERO);
+        alumnoConPrioridadDelPeriodo(anterior, ZonedDateTime.now().minusDays(200));
+
+        restInscripcionCursoMockMvc.perform(post("/api/inscripcion-cursos/{cursoId}", Long.MAX_VALUE))
+            .andExpect(status().isForbidden())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @Transactional
+    public void inscribirConLaPrioridadHabilitadaPasaElControl() throws Exception {
+        alumnoConPrioridadDelPeriodo(null, ZonedDateTime.now().minusMinutes(10));
+
+        // El control deja pasar el pedido, que falla recien al buscar el curso
+        restInscripcionCursoMockMvc.perform(post("/api/inscripcion-cursos/{cursoId}", Long.MAX_VALUE))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+
+    /**
+     * Inscribe al alumno en un curso de la materia y deja el contexto de persistencia vacio, para que las
+     * relaciones que se lean durante el pedido sean proxies nuevos.
+     */
+    private InscripcionCurso inscripcionEnCursoDe(Alumno alumno, Materia materia) {
+        Curso origen = CursoResourceIntTest.createEntity(em).vacantes(2).materia(materia);
+        em.persist(origen);
+        InscripcionCurso inscripcion = new InscripcionCurso().curso(origen).alumno(alumno).estado(InscripcionCursoEstado.REGULAR);
+        em.persist(inscripcion);
+        return inscripcion;
+    }
+
+    @Test
+    @Transactional
+    public void cambiarCursoDeLaMismaMateria() throws Exception {
+        Alumno alumno = alumnoConPrioridadDelPeriodo(null, ZonedDateTime.now().minusMinutes(10));
+        Materia materia = MateriaResourceIntTest.createEntity(em);
+        em.persist(materia);
+        InscripcionCurso inscripcion = inscripcionEnCursoDe(alumno, materia);
+        Curso destino = CursoResourceIntTest.createEntity(em).vacantes(2).materia(materia);
+        em.persist(destino);
+        em.flush();
+        em.clear();
+
+        restInscripcionCursoMockMvc.perform(post("/api/inscripcion-cursos/{inscripcionCursoId}/cambio/{cursoId}",
+            inscripcion.getId(), destino.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.curso.id").value(destino.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void cambiarCursoDeOtraMateriaFalla() throws Exception {
+        Alumno alumno = alumnoConPrioridadDelPeriodo(null, ZonedDateTime.now().minusMinutes(10));
+        Materia materia = MateriaResourceIntTest.createEntity(em);
+        em.persist(materia);
+        Materia otraMateria = MateriaResourceIntTest.createEntity(em);
+        em.persist(otraMateria);
+        InscripcionCurso inscripcion = inscripcionEnCursoDe(alumno, materia);
+        Curso destino = CursoResourceIntTest.createEntity(em).vacantes(2).materia(otraMateria);
+        em.persist(destino);
+        em.flush();
+        em.clear();
+
+        restInscripcionCursoMockMvc.perform(post("/api/inscripcion-cursos/{inscripcionCursoId}/cambio/{cursoId}",
+            inscripcion.getId(), destino.getId()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.materiadistinta"));
+    }
+
     @Test
     @Transactional
     public void createInscripcionCurso() throws Exception {
@@ -3,8 +3,8 @@ package fi.uba.quechua.web.rest;
 import fi.uba.quechua.QuechuaApp;
 
 import fi.uba.quechua.domain.Materia;
-import fi.uba.quechua.repository.CarreraRepository;
 import fi.uba.quechua.repository.MateriaRepository;
+import fi.uba.quechua.service.DatosReferenciaService;
 import fi.uba.quechua.service.MateriaService;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 
@@ -59,7 +59,7 @@ public class MateriaResourceIntTest {
     private MateriaService materiaService;
 
     @Autowired
-    private CarreraRepository carreraRepository;
+    private DatosReferenciaService datosReferenciaService;
 
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
@@ -80,7 +80,7 @@ public class MateriaResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final MateriaResource materiaResource = new MateriaResource(materiaService, carreraRepository);
+        final MateriaResource materiaResource = new MateriaResource(materiaService, datosReferenciaService);
         this.restMateriaMockMvc = MockMvcBuilders.standaloneSetup(materiaResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
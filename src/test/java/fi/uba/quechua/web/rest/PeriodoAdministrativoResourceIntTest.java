@@ -5,6 +5,7 @@ import fi.uba.quechua.QuechuaApp;
 import fi.uba.quechua.domain.PeriodoAdministrativo;
 import fi.uba.quechua.repository.PeriodoAdministrativoRepository;
 import fi.uba.quechua.service.PeriodoAdministrativoService;
+import fi.uba.quechua.service.VersionesService;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 
 import org.junit.Before;
@@ -63,6 +64,9 @@ public class PeriodoAdministrativoResourceIntTest {
     @Autowired
     private PeriodoAdministrativoService periodoAdministrativoService;
 
+    @Autowired
+    private VersionesService versionesService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -82,7 +86,7 @@ public class PeriodoAdministrativoResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final PeriodoAdministrativoResource periodoAdministrativoResource = new PeriodoAdministrativoResource(periodoAdministrativoService);
+        final PeriodoAdministrativoResource periodoAdministrativoResource = new PeriodoAdministrativoResource(periodoAdministrativoService, versionesService);
         this.restPeriodoAdministrativoMockMvc = MockMvcBuilders.standaloneSetup(periodoAdministrativoResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -5,7 +5,7 @@ import fi.uba.quechua.QuechuaApp;
 import fi.uba.quechua.domain.Profesor;
 import fi.uba.quechua.repository.ProfesorRepository;
 import fi.uba.quechua.service.CursoService;
-import fi.uba.quechua.service.UserService;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 
 import org.junit.Before;
@@ -51,7 +51,7 @@ public class ProfesorResourceIntTest {
     private ProfesorRepository profesorRepository;
 
     @Autowired
-    UserService userService;
+    private ActorService actorService;
 
     @Autowired
     CursoService cursoService;
@@ -75,7 +75,7 @@ public class ProfesorResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final ProfesorResource profesorResource = new ProfesorResource(profesorRepository, userService, cursoService);
+        final ProfesorResource profesorResource = new ProfesorResource(profesorRepository, actorService, cursoService);
         this.restProfesorMockMvc = MockMvcBuilders.standaloneSetup(profesorResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -3,7 +3,9 @@ package fi.uba.quechua.web.rest;
 import fi.uba.quechua.QuechuaApp;
 import fi.uba.quechua.domain.User;
 import fi.uba.quechua.repository.UserRepository;
+import fi.uba.quechua.security.AuthoritiesConstants;
 import fi.uba.quechua.security.jwt.TokenProvider;
+import fi.uba.quechua.service.ActorService;
 import fi.uba.quechua.web.rest.vm.LoginVM;
 import fi.uba.quechua.web.rest.errors.ExceptionTranslator;
 import org.junit.Before;
@@ -12,12 +14,19 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -44,6 +53,9 @@ public class UserJWTControllerIntTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ActorService actorService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -54,7 +66,7 @@ public class UserJWTControllerIntTest {
 
     @Before
     public void setup() {
-        UserJWTController userJWTController = new UserJWTController(tokenProvider, authenticationManager);
+        UserJWTController userJWTController = new UserJWTController(tokenProvider, authenticationManager, actorService);
         this.mockMvc = MockMvcBuilders.standaloneSetup(userJWTController)
             .setControllerAdvice(exceptionTranslator)
             .build();
@@ -122,4 +134,22 @@ public class UserJWTControllerIntTest {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    @Transactional
+    public void testLogoutRevokesTheToken() throws Exception {
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user-jwt-controller-logout", "test",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+        assertThat(tokenProvider.resolveAuthentication(token)).isNotNull();
+        SecurityContextHolder.getContext().setAuthentication(tokenProvider.getAuthentication(token));
+        try {
+            mockMvc.perform(post("/api/logout"))
+                .andExpect(status().isOk());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThat(tokenProvider.resolveAuthentication(token)).isNull();
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
 }
@@ -5,7 +5,6 @@ import fi.uba.quechua.domain.Authority;
 import fi.uba.quechua.domain.User;
 import fi.uba.quechua.repository.UserRepository;
 import fi.uba.quechua.security.AuthoritiesConstants;
-import fi.uba.quechua.service.MailService;
 import fi.uba.quechua.service.UserService;
 import fi.uba.quechua.service.dto.UserDTO;
 import fi.uba.quechua.service.mapper.UserMapper;
@@ -72,9 +71,6 @@ public class UserResourceIntTest {
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private MailService mailService;
-
     @Autowired
     private UserService userService;
 
@@ -105,7 +101,7 @@ public class UserResourceIntTest {
         MockitoAnnotations.initMocks(this);
         cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
         cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
-        UserResource userResource = new UserResource(userService, userRepository, mailService);
+        UserResource userResource = new UserResource(userService, userRepository);
         this.restUserMockMvc = MockMvcBuilders.standaloneSetup(userResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -0,0 +1,37 @@
+package fi.uba.quechua.web.rest.util;
+
+import org.junit.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ETagUtil.
+ *
+ * @see ETagUtil
+ */
+public class ETagUtilUnitTest {
+
+    @Test
+    public void testMatches() {
+        assertThat(ETagUtil.matches("\"a\"", "\"a\"")).isTrue();
+        assertThat(ETagUtil.matches("\"b\", W/\"a\"", "\"a\"")).isTrue();
+        assertThat(ETagUtil.matches("*", "\"a\"")).isTrue();
+        assertThat(ETagUtil.matches("\"b\"", "\"a\"")).isFalse();
+        assertThat(ETagUtil.matches("a", "\"a\"")).isFalse();
+        assertThat(ETagUtil.matches(null, "\"a\"")).isFalse();
+    }
+
+    @Test
+    public void testNotModified() {
+        ResponseEntity<String> respuesta = ETagUtil.notModified("\"a\"", CacheControl.noCache().cachePrivate());
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(respuesta.getBody()).isNull();
+        assertThat(respuesta.getHeaders().getETag()).isEqualTo("\"a\"");
+        assertThat(respuesta.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, private");
+    }
+}
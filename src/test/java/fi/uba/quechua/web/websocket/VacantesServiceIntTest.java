@@ -0,0 +1,124 @@
+package fi.uba.quechua.web.websocket;
+
+import fi.uba.quechua.QuechuaApp;
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.service.CursoService;
+import fi.uba.quechua.web.rest.CursoResourceIntTest;
+import fi.uba.quechua.web.rest.MateriaResourceIntTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the VacantesService, leyendo los eventos SSE del servidor embebido.
+ *
+ * @see VacantesService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuechuaApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class VacantesServiceIntTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private VacantesService vacantesService;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    private Materia materia;
+
+    private Curso curso;
+
+    private Curso eliminado;
+
+    @Before
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+        transaccion.execute(status -> {
+            materia = MateriaResourceIntTest.createEntity(em);
+            em.persist(materia);
+            curso = CursoResourceIntTest.createEntity(em).vacantes(3).materia(materia);
+            em.persist(curso);
+            eliminado = CursoResourceIntTest.createEntity(em).vacantes(2).materia(materia);
+            em.persist(eliminado);
+            return null;
+        });
+    }
+
+    @After
+    public void destroy() {
+        cursoService.delete(curso.getId());
+        if (cursoService.findOne(eliminado.getId()).isPresent()) {
+            cursoService.delete(eliminado.getId());
+        }
+        transaccion.execute(status -> {
+            em.createQuery("DELETE FROM Materia m WHERE m.id = :materiaId").setParameter("materiaId", materia.getId()).executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    public void assertThatLosClientesSseRecibenCambiosBajasYLatidos() throws Exception {
+        HttpURLConnection conexion = (HttpURLConnection) new URL("http://localhost:" + port
+            + "/public/materias/" + materia.getId() + "/vacantes").openConnection();
+        conexion.setRequestProperty(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        conexion.setReadTimeout(10000);
+        try {
+            // Los encabezados llegan cuando el emisor ya esta registrado
+            assertThat(conexion.getResponseCode()).isEqualTo(200);
+            BufferedReader eventos = new BufferedReader(new InputStreamReader(conexion.getInputStream(), StandardCharsets.UTF_8));
+
+            cursoService.save(cursoService.findOne(curso.getId()).get().vacantes(5));
+            assertThat(siguiente(eventos, "data:")).contains("\"cursoId\":" + curso.getId())
+                .contains("\"vacantesDisponibles\":5");
+
+            cursoService.delete(eliminado.getId());
+            assertThat(siguiente(eventos, "data:")).contains("\"cursoId\":" + eliminado.getId())
+                .contains("\"vacantesDisponibles\":0");
+
+            vacantesService.latir();
+            assertThat(siguiente(eventos, ":")).isEqualTo(":latido");
+        } finally {
+            conexion.disconnect();
+        }
+    }
+
+    private static String siguiente(BufferedReader eventos, String prefijo) throws IOException {
+        String linea;
+        do {
+            linea = eventos.readLine();
+            assertThat(linea).as("fin del stream").isNotNull();
+        } while (!linea.startsWith(prefijo));
+        return linea;
+    }
+}
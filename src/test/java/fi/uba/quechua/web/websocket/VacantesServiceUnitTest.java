@@ -0,0 +1,151 @@
+package fi.uba.quechua.web.websocket;
+
+import fi.uba.quechua.domain.Curso;
+import fi.uba.quechua.domain.Materia;
+import fi.uba.quechua.domain.enumeration.CursoEstado;
+import fi.uba.quechua.repository.CursoRepository;
+import fi.uba.quechua.service.CursoModificadoEvent;
+import fi.uba.quechua.service.InscripcionCursoService;
+import fi.uba.quechua.web.websocket.dto.VacanteDTO;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the VacantesService.
+ *
+ * @see VacantesService
+ */
+public class VacantesServiceUnitTest {
+
+    private VacantesService vacantesService;
+
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private CursoRepository cursoRepository;
+
+    private Curso curso1;
+
+    private Curso curso2;
+
+    private Curso curso3;
+
+    private final Map<Long, Long> inscriptos = new HashMap<>();
+
+    @Before
+    public void setup() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        cursoRepository = mock(CursoRepository.class);
+        InscripcionCursoService inscripcionCursoService = mock(InscripcionCursoService.class);
+        vacantesService = new VacantesService(messagingTemplate, cursoRepository, inscripcionCursoService);
+
+        Materia analisis = new Materia();
+        analisis.setId(10L);
+        Materia algebra = new Materia();
+        algebra.setId(20L);
+        curso1 = curso(1L, analisis);
+        curso2 = curso(2L, analisis);
+        curso3 = curso(3L, algebra);
+        inscriptos.put(1L, 2L);
+
+        when(inscripcionCursoService.contarInscriptos(anyCollection())).thenAnswer(invocation -> new HashMap<>(inscriptos));
+        when(cursoRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Curso> cursos = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                cursos.add(Arrays.asList(curso1, curso2, curso3).get(((Long) id).intValue() - 1));
+            }
+            return cursos;
+        });
+    }
+
+    private static Curso curso(Long id, Materia materia) {
+        Curso curso = new Curso().estado(CursoEstado.ACTIVO).vacantes(5).materia(materia);
+        curso.setId(id);
+        return curso;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<VacanteDTO> enviadas(String destino) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(destino), payload.capture());
+        return (List<VacanteDTO>) payload.getValue();
+    }
+
+    @Test
+    public void testAgrupaLosCambiosPorMateria() {
+        vacantesService.onCursoModificado(new CursoModificadoEvent(1L));
+        vacantesService.onCursoModificado(new CursoModificadoEvent(1L));
+        vacantesService.onCursoModificado(new CursoModificadoEvent(2L));
+        vacantesService.onCursoModificado(new CursoModificadoEvent(3L));
+
+        vacantesService.enviar();
+
+        verify(cursoRepository, times(1)).findAllById(any());
+        List<VacanteDTO> analisis = enviadas(VacantesService.TOPIC + "10");
+        assertThat(analisis).extracting(VacanteDTO::getCursoId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(analisis).filteredOn(vacante -> vacante.getCursoId() == 1L)
+            .extracting(VacanteDTO::getVacantesDisponibles).containsExactly(3);
+        assertThat(enviadas(VacantesService.TOPIC + "20")).extracting(VacanteDTO::getCursoId).containsExactly(3L);
+    }
+
+    @Test
+    public void testSoloEnviaLasVacantesQueCambiaron() {
+        vacantesService.onCursoModificado(new CursoModificadoEvent(1L));
+        vacantesService.onCursoModificado(new CursoModificadoEvent(2L));
+        vacantesService.enviar();
+        reset(messagingTemplate);
+
+        inscriptos.put(1L, 3L);
+        vacantesService.onCursoModificado(new CursoModificadoEvent(1L));
+        vacantesService.onCursoModificado(new CursoModificadoEvent(2L));
+        vacantesService.enviar();
+
+        assertThat(enviadas(VacantesService.TOPIC + "10")).extracting(VacanteDTO::getCursoId).containsExactly(1L);
+    }
+
+    @Test
+    public void testSinCambiosNoConsulta() {
+        vacantesService.enviar();
+
+        verifyZeroInteractions(cursoRepository, messagingTemplate);
+    }
+
+    @Test
+    public void testCambioSinCursoIdentificadoRecalculaTodos() {
+        when(cursoRepository.findAllByEstado(CursoEstado.ACTIVO)).thenReturn(Arrays.asList(curso1, curso2, curso3));
+
+        vacantesService.onCursoModificado(new CursoModificadoEvent(null));
+        vacantesService.onCursoModificado(new CursoModificadoEvent(1L));
+        vacantesService.enviar();
+
+        verify(cursoRepository).findAllByEstado(CursoEstado.ACTIVO);
+        verify(cursoRepository, never()).findAllById(any());
+        verify(messagingTemplate, times(2)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    public void testCursoEliminadoSeEnviaUnaUltimaVez() {
+        vacantesService.onCursoModificado(new CursoModificadoEvent(3L));
+        vacantesService.enviar();
+        reset(messagingTemplate);
+
+        vacantesService.onCursoModificado(CursoModificadoEvent.eliminado(3L, 20L));
+        vacantesService.enviar();
+
+        List<VacanteDTO> algebra = enviadas(VacantesService.TOPIC + "20");
+        assertThat(algebra).extracting(VacanteDTO::getCursoId).containsExactly(3L);
+        assertThat(algebra).extracting(VacanteDTO::getVacantesDisponibles).containsExactly(0);
+        verify(cursoRepository, times(1)).findAllById(any());
+
+        reset(messagingTemplate);
+        vacantesService.enviar();
+        verifyZeroInteractions(messagingTemplate);
+    }
+}
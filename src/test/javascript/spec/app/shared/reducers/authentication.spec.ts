@@ -5,7 +5,7 @@ import sinon from 'sinon';
 import configureStore from 'redux-mock-store';
 import promiseMiddleware from 'redux-promise-middleware';
 
-import authentication, { ACTION_TYPES, getSession, login } from 'app/shared/reducers/authentication';
+import authentication, { ACTION_TYPES, getSession, login, logout } from 'app/shared/reducers/authentication';
 
 describe('Authentication reducer tests', () => {
   function isAccountEmpty(state): boolean {
@@ -161,5 +161,18 @@ describe('Authentication reducer tests', () => {
       ];
       await store.dispatch(getSession()).then(() => expect(store.getActions()).toEqual(expectedActions));
     });
+
+    it('revokes the token on the server before dispatching LOGOUT', async () => {
+      axios.post = sinon.stub().returns(Promise.resolve(resolvedObject));
+      await store.dispatch(logout());
+      expect((axios.post as any).calledWith('api/logout')).toBe(true);
+      expect(store.getActions()).toEqual([{ type: ACTION_TYPES.LOGOUT }]);
+    });
+
+    it('dispatches LOGOUT even if the server rejects the token', async () => {
+      axios.post = sinon.stub().returns(Promise.reject(new Error('401')));
+      await store.dispatch(logout());
+      expect(store.getActions()).toEqual([{ type: ACTION_TYPES.LOGOUT }]);
+    });
   });
 });